@@ -43,6 +43,11 @@ public class DataLoader {
             bookService.registerDigitalBook("O Poder do Hábito", "Charles Duhigg", "978-2-09");
             bookService.registerDigitalBook("Rápido e Devagar", "Daniel Kahneman", "978-2-10");
 
+            bookService.allocateToBranch("978-1-01", "central", 3);
+            bookService.allocateToBranch("978-1-01", "norte", 2);
+            bookService.allocateToBranch("978-1-04", "central", 2);
+            bookService.allocateToBranch("978-1-04", "parnamirim", 2);
+
             loanService.createLoan("l-001", "u-001", "978-1-01"); 
             loanService.createLoan("l-002", "u-001", "978-2-01"); 
             loanService.createLoan("l-003", "u-001", "978-1-04");
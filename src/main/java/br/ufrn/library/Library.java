@@ -1,19 +1,52 @@
 package br.ufrn.library;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.Scanner;
 
+import br.ufrn.library.availability.AvailabilityIndex;
+import br.ufrn.library.branch.Branch;
+import br.ufrn.library.branch.BranchInventory;
+import br.ufrn.library.circulation.CirculationStats;
+import br.ufrn.library.cli.BatchCommandRunner;
 import br.ufrn.library.cli.BookConsoleHandler;
+import br.ufrn.library.cli.ExportConsoleHandler;
 import br.ufrn.library.cli.LoanConsoleHandler;
 import br.ufrn.library.cli.UserConsoleHandler;
+import br.ufrn.library.export.ReportExporter;
+import br.ufrn.library.feed.ChangeFeed;
+import br.ufrn.library.fine.FineEngine;
+import br.ufrn.library.fine.FinePolicy;
+import br.ufrn.library.license.LicensePoolManager;
+import br.ufrn.library.license.LicenseTerms;
+import br.ufrn.library.policy.BorrowingLimitEnforcer;
+import br.ufrn.library.policy.BorrowingPolicy;
+import br.ufrn.library.query.QueryEngine;
+import br.ufrn.library.recommendation.RecommendationEngine;
 import br.ufrn.library.repository.BookRepository;
 import br.ufrn.library.repository.LoanRepository;
 import br.ufrn.library.repository.UserRepository;
 import br.ufrn.library.repository.impl.InMemoryBookRepository;
 import br.ufrn.library.repository.impl.InMemoryLoanRepository;
 import br.ufrn.library.repository.impl.InMemoryUserRepository;
+import br.ufrn.library.repository.impl.IndexedLoanRepository;
+import br.ufrn.library.repository.impl.ObservableBookRepository;
+import br.ufrn.library.repository.impl.ObservableLoanRepository;
+import br.ufrn.library.repository.impl.ObservableUserRepository;
+import br.ufrn.library.scheduler.LoggingOverdueListener;
+import br.ufrn.library.scheduler.OverdueScheduler;
 import br.ufrn.library.service.BookService;
 import br.ufrn.library.service.LoanService;
 import br.ufrn.library.service.UserService;
+import br.ufrn.library.snapshot.SnapshotManager;
 
 
 public class Library {
@@ -23,34 +56,120 @@ public class Library {
     private static BookService bookService;
     private static UserService userService;
     private static LoanService loanService;
+    private static OverdueScheduler overdueScheduler;
+    private static FineEngine fineEngine;
+    private static RecommendationEngine recommendationEngine;
+    private static AvailabilityIndex availabilityIndex;
+    private static LicensePoolManager licensePoolManager;
+    private static BranchInventory branchInventory;
+    private static CirculationStats circulationStats;
+    private static ReportExporter reportExporter;
 
     private static BookConsoleHandler bookHandler;
     private static UserConsoleHandler userHandler;
     private static LoanConsoleHandler loanHandler;
+    private static ExportConsoleHandler exportHandler;
 
     public static void main(String[] args) {
         setupServices();
-        setupHandlers();
-        runMenuLoop();
+
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args.length > 1 ? args[1] : null);
+        } else {
+            setupHandlers();
+            runMenuLoop();
+            scanner.close();
+        }
         
-        scanner.close();
+        overdueScheduler.stop();
+        fineEngine.stop();
+        licensePoolManager.stop();
         System.out.println("Sistema finalizado.");
     }
 
     private static void setupServices() {
-        UserRepository userRepo = new InMemoryUserRepository();
-        BookRepository bookRepo = new InMemoryBookRepository();
-        LoanRepository loanRepo = new InMemoryLoanRepository();
+        ChangeFeed changeFeed = new ChangeFeed();
+        SnapshotManager snapshots = new SnapshotManager();
+        UserRepository userRepo = snapshots.wrap(new ObservableUserRepository(new InMemoryUserRepository(), changeFeed));
+        BookRepository bookRepo = snapshots.wrap(new ObservableBookRepository(new InMemoryBookRepository(), changeFeed));
+        IndexedLoanRepository indexedLoans = new IndexedLoanRepository(new InMemoryLoanRepository());
+        LoanRepository loanRepo = snapshots.wrap(new ObservableLoanRepository(indexedLoans, changeFeed));
 
         userService = new UserService(userRepo);
+        userService.followChanges(changeFeed);
         bookService = new BookService(bookRepo);
+        bookService.setSnapshotManager(snapshots);
         loanService = new LoanService(loanRepo, bookRepo, userRepo);
+        loanService.setSnapshotManager(snapshots);
+        loanService.setQueryEngine(new QueryEngine(indexedLoans, bookRepo));
+
+        BorrowingLimitEnforcer borrowingLimits = new BorrowingLimitEnforcer(new BorrowingPolicy(5, 3, 5, true));
+        borrowingLimits.rebuild(loanRepo.findAllActive(), LocalDate.now());
+        loanService.addLoanEventListener(borrowingLimits);
+
+        overdueScheduler = new OverdueScheduler();
+        overdueScheduler.setLoanLookup(loanRepo::findById);
+        overdueScheduler.addListener(new LoggingOverdueListener());
+        overdueScheduler.addListener(borrowingLimits);
+        loanService.addLoanEventListener(overdueScheduler);
+        overdueScheduler.start();
+
+        fineEngine = new FineEngine(new FinePolicy(100, 3000, 1), new FinePolicy(50, 1000, 0));
+        overdueScheduler.addListener(fineEngine);
+        loanService.addLoanEventListener(fineEngine);
+        fineEngine.start();
+
+        recommendationEngine = new RecommendationEngine();
+        recommendationEngine.rebuild(loanRepo.findAll());
+        loanService.addLoanEventListener(recommendationEngine);
+
+        availabilityIndex = new AvailabilityIndex();
+        loanService.addLoanEventListener(availabilityIndex);
+
+        circulationStats = new CirculationStats();
+        loanService.addLoanEventListener(circulationStats);
+
+        licensePoolManager = new LicensePoolManager();
+        licensePoolManager.registerLicense("978-2-01", LicenseTerms.concurrent(3));
+        licensePoolManager.registerLicense("978-2-05", new LicenseTerms(2, 26, null));
+        licensePoolManager.addListener((loan, expiredOn) -> loanService.tryReturnLoan(loan.getId(), expiredOn));
+        loanService.addLoanEventListener(licensePoolManager);
+        bookService.setLicensePoolManager(licensePoolManager);
+        licensePoolManager.start();
+
+        branchInventory = new BranchInventory();
+        branchInventory.registerBranch(new Branch("central", "Central", -5.8402, -35.1996));
+        branchInventory.registerBranch(new Branch("norte", "Zona Norte", -5.7467, -35.2507));
+        branchInventory.registerBranch(new Branch("parnamirim", "Parnamirim", -5.9156, -35.2628));
+        loanService.addLoanEventListener(branchInventory);
+        bookService.setBranchInventory(branchInventory);
+
+        reportExporter = new ReportExporter(loanRepo, bookRepo, userRepo);
+        reportExporter.setBranchInventory(branchInventory);
+        reportExporter.setLicensePoolManager(licensePoolManager);
     }
 
     private static void setupHandlers() {
         bookHandler = new BookConsoleHandler(bookService, scanner);
         userHandler = new UserConsoleHandler(userService, scanner);
         loanHandler = new LoanConsoleHandler(loanService, scanner);
+        exportHandler = new ExportConsoleHandler(reportExporter, scanner);
+    }
+
+    private static void runBatch(String commandFile) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        PrintWriter err = new PrintWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8), true);
+        BatchCommandRunner runner = new BatchCommandRunner(bookService, userService, loanService, out, err);
+        runner.setReportExporter(reportExporter);
+
+        try (BufferedReader input = commandFile == null
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(commandFile), StandardCharsets.UTF_8)) {
+            runner.run(input);
+        } catch (IOException e) {
+            System.err.println("Erro ao ler comandos do lote: " + e.getMessage());
+        }
     }
 
     private static void runMenuLoop() {
@@ -82,6 +201,8 @@ public class Library {
         System.out.println("7. Listar Empréstimos Ativos");
         System.out.println("8. Gerar Relatório de Empréstimos");
         System.out.println("9. Carregar Dados");
+        System.out.println("10. Exportar Relatório");
+        System.out.println("11. Buscar Usuário por Nome");
         System.out.println("0. Sair");
         System.out.print("Escolha uma opção: ");
     }
@@ -116,6 +237,12 @@ public class Library {
                 case 9:
                     DataLoader.seed(userService, bookService, loanService);
                     break;
+                case 10:
+                    exportHandler.handleExportReport();
+                    break;
+                case 11:
+                    userHandler.handleSearchUsers();
+                    break;
                 case 0:
                     return false;
                 default:
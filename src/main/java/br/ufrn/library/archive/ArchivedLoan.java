@@ -0,0 +1,47 @@
+package br.ufrn.library.archive;
+
+import java.time.LocalDate;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+
+/**
+ * A returned loan as stored in a segment, with the user and book referenced by
+ * key. The user's name and the book's title, author and kind are kept as of
+ * archiving, so the loan can still be shown after either is deleted.
+ */
+public record ArchivedLoan(String id, String userId, String userName, String isbn, String title, String author,
+        boolean digital, LocalDate loanDate, LocalDate dueDate, LocalDate returnDate, String copyBarcode,
+        long version) {
+
+    static ArchivedLoan of(Loan loan) {
+        User user = loan.getUser();
+        Book book = loan.getBook();
+        return new ArchivedLoan(loan.getId(), user.getId(), user.getName(), book.getIsbn(), book.getTitle(),
+                book.getAuthor(), book instanceof DigitalBook, loan.getLoanDate(), loan.getDueDate(),
+                loan.getReturnDate(), loan.getCopyBarcode(), loan.getVersion());
+    }
+
+    /** The user as archived; only meant for loans whose user no longer exists. */
+    public User archivedUser() {
+        return new User(userId, userName);
+    }
+
+    /** The book as archived, without copies; only meant for loans whose book no longer exists. */
+    public Book archivedBook() {
+        return digital ? new DigitalBook(title, author, isbn) : new PhysicalBook(title, author, isbn, 0);
+    }
+
+    public Loan toLoan(User user, Book book) {
+        Loan loan = new Loan(id, user, book, loanDate, dueDate);
+        if (copyBarcode != null) {
+            loan.assignCopy(copyBarcode);
+        }
+        loan.markAsReturned(returnDate);
+        loan.setVersion(version);
+        return loan;
+    }
+}
@@ -0,0 +1,202 @@
+package br.ufrn.library.archive;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import br.ufrn.library.exception.DataAccessException;
+
+/**
+ * Cold tier of returned loans: a directory of immutable {@link LoanSegment}
+ * files. Each {@link #append} writes one new segment and {@link #compact}
+ * merges all of them into one; both write their file before taking the lock
+ * that readers share, which is held only to swap the segment list. Lookups consult the per-segment Bloom filters
+ * and user/ISBN dictionaries first, so only segments that can match are
+ * decoded.
+ */
+public class LoanArchive {
+
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<LoanSegment> segments = new ArrayList<>();
+    private long nextSegmentNumber;
+
+    public LoanArchive(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Archive directory cannot be null.");
+        }
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "loans-*" + SUFFIX)) {
+                for (Path file : files) {
+                    segments.add(LoanSegment.open(file));
+                    nextSegmentNumber = Math.max(nextSegmentNumber, segmentNumber(file) + 1);
+                }
+            }
+        } catch (IOException e) {
+            throw new DataAccessException("Could not open loan archive " + directory, e);
+        }
+    }
+
+    public synchronized void append(List<ArchivedLoan> loans) {
+        if (loans.isEmpty()) {
+            return;
+        }
+        LoanSegment segment;
+        try {
+            segment = LoanSegment.write(nextFile(), loans);
+        } catch (IOException e) {
+            throw new DataAccessException("Could not archive " + loans.size() + " loans", e);
+        }
+        lock.writeLock().lock();
+        try {
+            segments.add(segment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public synchronized void compact() {
+        List<LoanSegment> replaced;
+        lock.readLock().lock();
+        try {
+            replaced = new ArrayList<>(segments);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (replaced.size() < 2) {
+            return;
+        }
+        try {
+            List<ArchivedLoan> all = new ArrayList<>();
+            for (LoanSegment segment : replaced) {
+                all.addAll(segment.read());
+            }
+            LoanSegment merged = LoanSegment.write(nextFile(), all);
+            lock.writeLock().lock();
+            try {
+                segments.removeAll(replaced);
+                segments.add(0, merged);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (LoanSegment segment : replaced) {
+                Files.deleteIfExists(segment.getFile());
+            }
+        } catch (IOException e) {
+            throw new DataAccessException("Could not compact loan archive " + directory, e);
+        }
+    }
+
+    public ArchivedLoan findById(String id) {
+        lock.readLock().lock();
+        try {
+            for (LoanSegment segment : segments) {
+                ArchivedLoan loan = segment.find(id);
+                if (loan != null) {
+                    return loan;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new DataAccessException("Could not read loan " + id + " from archive", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean existsById(String id) {
+        return findById(id) != null;
+    }
+
+    public List<ArchivedLoan> findByUserId(String userId) {
+        return scan(segment -> segment.containsUser(userId), loan -> loan.userId().equals(userId));
+    }
+
+    public List<ArchivedLoan> findByBookIsbn(String isbn) {
+        return scan(segment -> segment.containsBook(isbn), loan -> loan.isbn().equals(isbn));
+    }
+
+    public List<ArchivedLoan> findAll() {
+        return scan(segment -> true, loan -> true);
+    }
+
+    public int getSegmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getLoanCount() {
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            for (LoanSegment segment : segments) {
+                count += segment.size();
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getSizeOnDisk() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (LoanSegment segment : segments) {
+                bytes += Files.size(segment.getFile());
+            }
+            return bytes;
+        } catch (IOException e) {
+            throw new DataAccessException("Could not measure loan archive " + directory, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<ArchivedLoan> scan(Predicate<LoanSegment> segmentFilter, Predicate<ArchivedLoan> loanFilter) {
+        lock.readLock().lock();
+        try {
+            List<ArchivedLoan> result = new ArrayList<>();
+            for (LoanSegment segment : segments) {
+                if (segmentFilter.test(segment)) {
+                    for (ArchivedLoan loan : segment.read()) {
+                        if (loanFilter.test(loan)) {
+                            result.add(loan);
+                        }
+                    }
+                }
+            }
+            return result;
+        } catch (IOException e) {
+            throw new DataAccessException("Could not read loan archive " + directory, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Path nextFile() {
+        return directory.resolve(String.format("loans-%010d%s", nextSegmentNumber++, SUFFIX));
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring("loans-".length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package br.ufrn.library.archive;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically moves loans returned more than {@code hotRetention} ago into the
+ * archive, and compacts the archive once it has accumulated
+ * {@code maxSegments} segments.
+ */
+public class LoanArchiver {
+
+    private static final Duration DEFAULT_INTERVAL = Duration.ofHours(1);
+
+    private final TieredLoanRepository repository;
+    private final Period hotRetention;
+    private final int maxSegments;
+    private final Clock clock;
+    private ScheduledExecutorService executor;
+
+    public LoanArchiver(TieredLoanRepository repository, Period hotRetention, int maxSegments) {
+        this(repository, hotRetention, maxSegments, Clock.systemDefaultZone());
+    }
+
+    public LoanArchiver(TieredLoanRepository repository, Period hotRetention, int maxSegments, Clock clock) {
+        if (repository == null) {
+            throw new IllegalArgumentException("Repository cannot be null.");
+        }
+        if (hotRetention == null || hotRetention.isNegative()) {
+            throw new IllegalArgumentException("Hot retention cannot be negative.");
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("Max segments must be positive.");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null.");
+        }
+        this.repository = repository;
+        this.hotRetention = hotRetention;
+        this.maxSegments = maxSegments;
+        this.clock = clock;
+    }
+
+    public int runOnce() {
+        int archived = repository.archiveReturnedBefore(LocalDate.now(clock).minus(hotRetention));
+        if (repository.getArchive().getSegmentCount() > maxSegments) {
+            repository.getArchive().compact();
+        }
+        return archived;
+    }
+
+    public synchronized void start() {
+        start(DEFAULT_INTERVAL);
+    }
+
+    public synchronized void start(Duration interval) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Archival interval must be positive.");
+        }
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loan-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = interval.toMillis();
+        executor.scheduleAtFixedRate(this::safeRun, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void safeRun() {
+        try {
+            runOnce();
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao arquivar empréstimos devolvidos: " + e.getMessage());
+        }
+    }
+}
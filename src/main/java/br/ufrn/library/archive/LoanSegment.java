@@ -0,0 +1,348 @@
+package br.ufrn.library.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Immutable file of returned loans sorted by ID.
+ *
+ * <pre>
+ * header (plain):    magic, format, count, min id, max id, Bloom filter of ids
+ * body (deflated):   user, isbn and barcode dictionaries; user names, book
+ *                    titles, authors and kinds aligned with those dictionaries
+ *                    (format 2 and later); then one record per loan: id
+ *                    front-coded against the previous id, dictionary indexes,
+ *                    loan date as a zigzag delta from the previous record, due
+ *                    and return dates as deltas from the loan date, version
+ * </pre>
+ *
+ * Format 1 segments have no names; their user names, titles and authors read
+ * back as the user ID and ISBN.
+ *
+ * Opening a segment reads the header and the dictionaries only; the records
+ * are decoded on demand and kept behind a soft reference.
+ */
+class LoanSegment {
+
+    private static final int MAGIC = 0x4C534547;
+    private static final int FORMAT = 2;
+    private static final int FORMAT_WITHOUT_NAMES = 1;
+
+    private final Path file;
+    private final int count;
+    private final String minId;
+    private final String maxId;
+    private final BloomFilter ids;
+    private final Set<String> userIds;
+    private final Set<String> isbns;
+    private volatile SoftReference<List<ArchivedLoan>> decoded = new SoftReference<>(null);
+
+    private LoanSegment(Path file, int count, String minId, String maxId, BloomFilter ids,
+                        Set<String> userIds, Set<String> isbns) {
+        this.file = file;
+        this.count = count;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.ids = ids;
+        this.userIds = userIds;
+        this.isbns = isbns;
+    }
+
+    static LoanSegment write(Path file, List<ArchivedLoan> loans) throws IOException {
+        if (loans.isEmpty()) {
+            throw new IllegalArgumentException("A segment cannot be empty.");
+        }
+        List<ArchivedLoan> sorted = new ArrayList<>(loans);
+        sorted.sort(Comparator.comparing(ArchivedLoan::id));
+
+        Map<String, Integer> users = new LinkedHashMap<>();
+        Map<String, Integer> books = new LinkedHashMap<>();
+        Map<String, Integer> barcodes = new LinkedHashMap<>();
+        Map<String, ArchivedLoan> userNames = new LinkedHashMap<>();
+        Map<String, ArchivedLoan> bookDetails = new LinkedHashMap<>();
+        BloomFilter bloom = new BloomFilter(sorted.size());
+        for (ArchivedLoan loan : sorted) {
+            if (loan.returnDate() == null) {
+                throw new IllegalArgumentException("Only returned loans can be archived: " + loan.id());
+            }
+            users.putIfAbsent(loan.userId(), users.size());
+            books.putIfAbsent(loan.isbn(), books.size());
+            userNames.putIfAbsent(loan.userId(), loan);
+            bookDetails.putIfAbsent(loan.isbn(), loan);
+            if (loan.copyBarcode() != null) {
+                barcodes.putIfAbsent(loan.copyBarcode(), barcodes.size());
+            }
+            bloom.add(loan.id());
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream header = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            header.writeInt(MAGIC);
+            header.writeByte(FORMAT);
+            header.writeInt(sorted.size());
+            header.writeUTF(sorted.get(0).id());
+            header.writeUTF(sorted.get(sorted.size() - 1).id());
+            bloom.writeTo(header);
+            header.flush();
+
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                DataOutputStream body = new DataOutputStream(new BufferedOutputStream(
+                        new DeflaterOutputStream(header, deflater)));
+                writeDictionary(body, users.keySet());
+                writeDictionary(body, books.keySet());
+                writeDictionary(body, barcodes.keySet());
+                writeDictionary(body, column(userNames.values(), ArchivedLoan::userName));
+                writeDictionary(body, column(bookDetails.values(), ArchivedLoan::title));
+                writeDictionary(body, column(bookDetails.values(), ArchivedLoan::author));
+                for (ArchivedLoan details : bookDetails.values()) {
+                    body.writeBoolean(details.digital());
+                }
+
+                byte[] previousId = new byte[0];
+                long previousLoanDay = 0;
+                for (ArchivedLoan loan : sorted) {
+                    byte[] id = loan.id().getBytes(StandardCharsets.UTF_8);
+                    int shared = sharedPrefix(previousId, id);
+                    writeVarLong(body, shared);
+                    writeVarLong(body, id.length - shared);
+                    body.write(id, shared, id.length - shared);
+                    previousId = id;
+
+                    writeVarLong(body, users.get(loan.userId()));
+                    writeVarLong(body, books.get(loan.isbn()));
+                    writeVarLong(body, loan.copyBarcode() == null ? 0 : barcodes.get(loan.copyBarcode()) + 1);
+
+                    long loanDay = loan.loanDate().toEpochDay();
+                    writeVarLong(body, zigzag(loanDay - previousLoanDay));
+                    previousLoanDay = loanDay;
+                    writeVarLong(body, loan.dueDate().toEpochDay() - loanDay);
+                    writeVarLong(body, loan.returnDate().toEpochDay() - loanDay);
+                    writeVarLong(body, loan.version());
+                }
+                body.close();
+            } finally {
+                deflater.end();
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        return new LoanSegment(file, sorted.size(), sorted.get(0).id(), sorted.get(sorted.size() - 1).id(),
+                bloom, Set.copyOf(users.keySet()), Set.copyOf(books.keySet()));
+    }
+
+    static LoanSegment open(Path file) throws IOException {
+        try (DataInputStream header = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            Header parsed = readHeader(header, file);
+            DataInputStream body = new DataInputStream(new InflaterInputStream(header));
+            Set<String> users = new HashSet<>(readDictionary(body));
+            Set<String> books = new HashSet<>(readDictionary(body));
+            return new LoanSegment(file, parsed.count, parsed.minId, parsed.maxId, parsed.ids,
+                    Collections.unmodifiableSet(users), Collections.unmodifiableSet(books));
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int size() {
+        return count;
+    }
+
+    boolean mightContain(String id) {
+        return id.compareTo(minId) >= 0 && id.compareTo(maxId) <= 0 && ids.mightContain(id);
+    }
+
+    boolean containsUser(String userId) {
+        return userIds.contains(userId);
+    }
+
+    boolean containsBook(String isbn) {
+        return isbns.contains(isbn);
+    }
+
+    ArchivedLoan find(String id) throws IOException {
+        if (!mightContain(id)) {
+            return null;
+        }
+        List<ArchivedLoan> loans = read();
+        int low = 0;
+        int high = loans.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = loans.get(middle).id().compareTo(id);
+            if (comparison == 0) {
+                return loans.get(middle);
+            }
+            if (comparison < 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return null;
+    }
+
+    List<ArchivedLoan> read() throws IOException {
+        List<ArchivedLoan> loans = decoded.get();
+        if (loans != null) {
+            return loans;
+        }
+        try (DataInputStream header = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int format = readHeader(header, file).format;
+            DataInputStream body = new DataInputStream(new BufferedInputStream(new InflaterInputStream(header)));
+            List<String> users = readDictionary(body);
+            List<String> books = readDictionary(body);
+            List<String> barcodes = readDictionary(body);
+            List<String> userNames = users;
+            List<String> titles = books;
+            List<String> authors = books;
+            boolean[] digital = new boolean[books.size()];
+            if (format != FORMAT_WITHOUT_NAMES) {
+                userNames = readDictionary(body);
+                titles = readDictionary(body);
+                authors = readDictionary(body);
+                for (int i = 0; i < digital.length; i++) {
+                    digital[i] = body.readBoolean();
+                }
+            }
+
+            List<ArchivedLoan> result = new ArrayList<>(count);
+            byte[] id = new byte[64];
+            int idLength = 0;
+            long loanDay = 0;
+            for (int i = 0; i < count; i++) {
+                int shared = (int) readVarLong(body);
+                int suffix = (int) readVarLong(body);
+                idLength = shared + suffix;
+                if (idLength > id.length) {
+                    id = Arrays.copyOf(id, Math.max(idLength, id.length * 2));
+                }
+                body.readFully(id, shared, suffix);
+
+                int user = (int) readVarLong(body);
+                int book = (int) readVarLong(body);
+                int barcode = (int) readVarLong(body);
+
+                loanDay += unzigzag(readVarLong(body));
+                LocalDate loanDate = LocalDate.ofEpochDay(loanDay);
+                LocalDate dueDate = LocalDate.ofEpochDay(loanDay + readVarLong(body));
+                LocalDate returnDate = LocalDate.ofEpochDay(loanDay + readVarLong(body));
+                long version = readVarLong(body);
+
+                result.add(new ArchivedLoan(new String(id, 0, idLength, StandardCharsets.UTF_8),
+                        users.get(user), userNames.get(user), books.get(book), titles.get(book), authors.get(book),
+                        digital[book], loanDate, dueDate, returnDate,
+                        barcode == 0 ? null : barcodes.get(barcode - 1), version));
+            }
+            loans = Collections.unmodifiableList(result);
+        }
+        decoded = new SoftReference<>(loans);
+        return loans;
+    }
+
+    private static Header readHeader(DataInputStream in, Path file) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a loan segment: " + file);
+        }
+        int format = in.readUnsignedByte();
+        if (format != FORMAT && format != FORMAT_WITHOUT_NAMES) {
+            throw new IOException("Unsupported loan segment format " + format + ": " + file);
+        }
+        int count = in.readInt();
+        String minId = in.readUTF();
+        String maxId = in.readUTF();
+        BloomFilter ids = BloomFilter.readFrom(in);
+        return new Header(format, count, minId, maxId, ids);
+    }
+
+    private static void writeDictionary(DataOutputStream out, Collection<String> values) throws IOException {
+        writeVarLong(out, values.size());
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static List<String> column(Collection<ArchivedLoan> rows, Function<ArchivedLoan, String> field) {
+        List<String> values = new ArrayList<>(rows.size());
+        for (ArchivedLoan row : rows) {
+            values.add(field.apply(row));
+        }
+        return values;
+    }
+
+    private static List<String> readDictionary(DataInputStream in) throws IOException {
+        int size = (int) readVarLong(in);
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            byte[] bytes = new byte[(int) readVarLong(in)];
+            in.readFully(bytes);
+            values.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static int sharedPrefix(byte[] a, byte[] b) {
+        int limit = Math.min(a.length, b.length);
+        int i = 0;
+        while (i < limit && a[i] == b[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer.");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private record Header(int format, int count, String minId, String maxId, BloomFilter ids) {}
+}
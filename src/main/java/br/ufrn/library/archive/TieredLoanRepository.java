@@ -0,0 +1,160 @@
+package br.ufrn.library.archive;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import br.ufrn.library.exception.OptimisticLockException;
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+
+/**
+ * Loan repository split into a hot tier (any {@link LoanRepository}) holding
+ * active and recently returned loans, and a cold {@link LoanArchive} holding
+ * older returned ones. Active-loan queries only touch the hot tier; lookups by
+ * ID, user or book merge both. The hot tier is read before the archive, so a
+ * loan being moved is seen in at least one of them. Archived loans whose user
+ * or book has since been deleted come back with the name and title recorded at
+ * archiving.
+ */
+public class TieredLoanRepository implements LoanRepository {
+
+    private final LoanRepository hot;
+    private final LoanArchive archive;
+    private final UserRepository userRepository;
+    private final BookRepository bookRepository;
+
+    public TieredLoanRepository(LoanRepository hot, LoanArchive archive,
+                                UserRepository userRepository, BookRepository bookRepository) {
+        if (hot == null || archive == null || userRepository == null || bookRepository == null) {
+            throw new IllegalArgumentException("Repositories and archive cannot be null.");
+        }
+        this.hot = hot;
+        this.archive = archive;
+        this.userRepository = userRepository;
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Moves loans returned before {@code cutoff} from the hot tier into a new
+     * archive segment.
+     *
+     * @return the number of loans archived
+     */
+    public int archiveReturnedBefore(LocalDate cutoff) {
+        if (cutoff == null) {
+            throw new IllegalArgumentException("Cutoff date cannot be null.");
+        }
+        List<ArchivedLoan> moving = new ArrayList<>();
+        for (Loan loan : hot.findAll()) {
+            if (loan.isReturned() && loan.getReturnDate().isBefore(cutoff)) {
+                moving.add(ArchivedLoan.of(loan));
+            }
+        }
+        archive.append(moving);
+        for (ArchivedLoan loan : moving) {
+            hot.deleteById(loan.id());
+        }
+        return moving.size();
+    }
+
+    public LoanArchive getArchive() {
+        return archive;
+    }
+
+    @Override
+    public Loan save(Loan loan) {
+        if (loan != null && loan.getVersion() == 0 && archive.existsById(loan.getId())) {
+            throw new OptimisticLockException("Loan", loan.getId(), 0);
+        }
+        return hot.save(loan);
+    }
+
+    @Override
+    public Optional<Loan> findById(String id) {
+        Optional<Loan> loan = hot.findById(id);
+        if (loan.isPresent() || id == null) {
+            return loan;
+        }
+        ArchivedLoan archived = archive.findById(id);
+        return archived == null ? Optional.empty() : Optional.of(resolve(List.of(archived)).get(0));
+    }
+
+    @Override
+    public List<Loan> findAll() {
+        return merge(hot.findAll(), archive.findAll());
+    }
+
+    @Override
+    public List<Loan> findByUserId(String userId) {
+        return merge(hot.findByUserId(userId), archive.findByUserId(userId));
+    }
+
+    @Override
+    public List<Loan> findByBookIsbn(String isbn) {
+        return merge(hot.findByBookIsbn(isbn), archive.findByBookIsbn(isbn));
+    }
+
+    @Override
+    public List<Loan> findActiveByUserId(String userId) {
+        return hot.findActiveByUserId(userId);
+    }
+
+    @Override
+    public List<Loan> findAllActive() {
+        return hot.findAllActive();
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return hot.deleteById(id);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return hot.existsById(id) || (id != null && archive.existsById(id));
+    }
+
+    private List<Loan> merge(List<Loan> hotLoans, List<ArchivedLoan> coldLoans) {
+        if (coldLoans.isEmpty()) {
+            return hotLoans;
+        }
+        Set<String> seen = new HashSet<>();
+        for (Loan loan : hotLoans) {
+            seen.add(loan.getId());
+        }
+        List<ArchivedLoan> missing = new ArrayList<>(coldLoans.size());
+        for (ArchivedLoan loan : coldLoans) {
+            if (!seen.contains(loan.id())) {
+                missing.add(loan);
+            }
+        }
+        List<Loan> merged = new ArrayList<>(hotLoans.size() + missing.size());
+        merged.addAll(hotLoans);
+        merged.addAll(resolve(missing));
+        return merged;
+    }
+
+    private List<Loan> resolve(List<ArchivedLoan> archived) {
+        Map<String, User> users = new HashMap<>();
+        Map<String, Book> books = new HashMap<>();
+        List<Loan> loans = new ArrayList<>(archived.size());
+        for (ArchivedLoan row : archived) {
+            User user = users.computeIfAbsent(row.userId(), id -> userRepository.findById(id)
+                    .orElseGet(row::archivedUser));
+            Book book = books.computeIfAbsent(row.isbn(), isbn -> bookRepository.findByIsbn(isbn)
+                    .orElseGet(row::archivedBook));
+            loans.add(row.toLoan(user, book));
+        }
+        return loans;
+    }
+}
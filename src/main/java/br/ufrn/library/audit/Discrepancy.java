@@ -0,0 +1,20 @@
+package br.ufrn.library.audit;
+
+/**
+ * A mismatch between a stored counter or reference and what the loan records
+ * imply. {@code key} is the ISBN, user ID or loan ID the mismatch belongs to.
+ */
+public record Discrepancy(Kind kind, String key, String detail, boolean repaired) {
+
+    public enum Kind {
+        AVAILABLE_COPIES,
+        COPY_ASSIGNMENT,
+        LOAN_HISTORY,
+        UNKNOWN_BOOK,
+        UNKNOWN_USER
+    }
+
+    Discrepancy markRepaired() {
+        return new Discrepancy(kind, key, detail, true);
+    }
+}
@@ -0,0 +1,354 @@
+package br.ufrn.library.audit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import br.ufrn.library.exception.OptimisticLockException;
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.snapshot.Snapshot;
+import br.ufrn.library.snapshot.SnapshotManager;
+import br.ufrn.library.util.IntIntHashMap;
+
+/**
+ * Audits the counters the services keep in sync by hand: the copies each
+ * physical book has on loan against its active loans, and each user's loan
+ * history against the loans stored for that user. Loans are tallied in
+ * parallel partitions into per-book and per-user {@link IntIntHashMap}s
+ * holding counts and order-independent hash sums, and books and users are
+ * compared against the merged tallies, so only entities that disagree are
+ * examined in detail.
+ *
+ * <p>Traffic keeps flowing during a run, so a suspect is re-read from the live
+ * repositories and only reported if it still disagrees and has not been saved
+ * since the scan. Repairs are version-checked saves: if a concurrent update
+ * wins, the discrepancy is reported as not repaired and looked at again on the
+ * next run.
+ */
+public class IntegrityChecker {
+
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+    private final LoanRepository loanRepository;
+    private SnapshotManager snapshotManager;
+    private int partitions = Runtime.getRuntime().availableProcessors() * 4;
+
+    public IntegrityChecker(BookRepository bookRepository, UserRepository userRepository,
+                            LoanRepository loanRepository) {
+        if (bookRepository == null || userRepository == null || loanRepository == null) {
+            throw new IllegalArgumentException("Repositories cannot be null.");
+        }
+        this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+        this.loanRepository = loanRepository;
+    }
+
+    /**
+     * Scans a pinned snapshot instead of the live repositories, so the tallies
+     * come from a single consistent point in time.
+     */
+    public void setSnapshotManager(SnapshotManager snapshotManager) {
+        this.snapshotManager = snapshotManager;
+    }
+
+    public void setPartitions(int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Partitions must be positive.");
+        }
+        this.partitions = partitions;
+    }
+
+    public IntegrityReport check() {
+        return run(false);
+    }
+
+    public IntegrityReport checkAndRepair() {
+        return run(true);
+    }
+
+    private IntegrityReport run(boolean repair) {
+        long start = System.nanoTime();
+        Scan scan;
+        if (snapshotManager == null) {
+            scan = scan(bookRepository, userRepository, loanRepository);
+        } else {
+            try (Snapshot snapshot = snapshotManager.pin()) {
+                scan = scan(snapshot.books(), snapshot.users(), snapshot.loans());
+            }
+        }
+
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        for (Suspect suspect : scan.suspects) {
+            Discrepancy confirmed = confirm(suspect, repair);
+            if (confirmed != null) {
+                discrepancies.add(confirmed);
+            }
+        }
+        return new IntegrityReport(scan.books, scan.users, scan.loans, scan.suspects.size(),
+                discrepancies, System.nanoTime() - start);
+    }
+
+    private Scan scan(BookRepository books, UserRepository users, LoanRepository loans) {
+        List<Book> bookList = books.findAll();
+        List<User> userList = users.findAll();
+        List<Loan> loanList = loans.findAll();
+        Map<String, Integer> bookIds = indexOf(bookList, Book::getIsbn);
+        Map<String, Integer> userIds = indexOf(userList, User::getId);
+
+        Tally tally = partitioned(loanList.size(), (from, to) -> tally(loanList, from, to, bookIds, userIds))
+                .reduce(Tally::merge)
+                .orElseGet(Tally::new);
+
+        List<Suspect> suspects = new ArrayList<>(tally.dangling);
+        partitioned(bookList.size(), (from, to) -> checkBooks(bookList, from, to, tally))
+                .forEachOrdered(suspects::addAll);
+        partitioned(userList.size(), (from, to) -> checkUsers(userList, from, to, tally))
+                .forEachOrdered(suspects::addAll);
+        return new Scan(bookList.size(), userList.size(), loanList.size(), suspects);
+    }
+
+    private static Tally tally(List<Loan> loans, int from, int to,
+                               Map<String, Integer> bookIds, Map<String, Integer> userIds) {
+        Tally tally = new Tally();
+        for (int i = from; i < to; i++) {
+            Loan loan = loans.get(i);
+            Integer userId = userIds.get(loan.getUser().getId());
+            if (userId == null) {
+                tally.dangling.add(new Suspect(Discrepancy.Kind.UNKNOWN_USER, loan.getId(), loan.getVersion()));
+            } else {
+                tally.loansByUser.addTo(userId, 1);
+                tally.loanIdsByUser.addTo(userId, loan.getId().hashCode());
+            }
+
+            Integer bookId = bookIds.get(loan.getBook().getIsbn());
+            if (bookId == null) {
+                tally.dangling.add(new Suspect(Discrepancy.Kind.UNKNOWN_BOOK, loan.getId(), loan.getVersion()));
+            } else if (!loan.isReturned()) {
+                tally.activeByBook.addTo(bookId, 1);
+                tally.assignmentsByBook.addTo(bookId, assignmentHash(loan.getCopyBarcode(), loan.getId()));
+            }
+        }
+        return tally;
+    }
+
+    private static List<Suspect> checkBooks(List<Book> books, int from, int to, Tally tally) {
+        List<Suspect> suspects = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            if (!(books.get(i) instanceof PhysicalBook book)) {
+                continue;
+            }
+            Discrepancy.Kind kind = null;
+            if (book.getTotalCopies() - book.getAvailableCopies() != tally.activeByBook.get(i)) {
+                kind = Discrepancy.Kind.AVAILABLE_COPIES;
+            } else if (assignmentHash(book) != tally.assignmentsByBook.get(i)) {
+                kind = Discrepancy.Kind.COPY_ASSIGNMENT;
+            }
+            if (kind != null) {
+                suspects.add(new Suspect(kind, book.getIsbn(), book.getVersion()));
+            }
+        }
+        return suspects;
+    }
+
+    private static List<Suspect> checkUsers(List<User> users, int from, int to, Tally tally) {
+        List<Suspect> suspects = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            User user = users.get(i);
+            List<String> history = user.getLoanHistory();
+            int idHash = 0;
+            for (String loanId : history) {
+                idHash += loanId.hashCode();
+            }
+            if (history.size() != tally.loansByUser.get(i) || idHash != tally.loanIdsByUser.get(i)) {
+                suspects.add(new Suspect(Discrepancy.Kind.LOAN_HISTORY, user.getId(), user.getVersion()));
+            }
+        }
+        return suspects;
+    }
+
+    private Discrepancy confirm(Suspect suspect, boolean repair) {
+        switch (suspect.kind()) {
+            case AVAILABLE_COPIES:
+            case COPY_ASSIGNMENT:
+                return confirmBook(suspect, repair);
+            case LOAN_HISTORY:
+                return confirmUser(suspect, repair);
+            default:
+                return confirmLoan(suspect);
+        }
+    }
+
+    private Discrepancy confirmBook(Suspect suspect, boolean repair) {
+        Map<String, String> expected = new HashMap<>();
+        int activeLoans = 0;
+        for (Loan loan : loanRepository.findByBookIsbn(suspect.key())) {
+            if (!loan.isReturned()) {
+                activeLoans++;
+                if (loan.getCopyBarcode() != null) {
+                    expected.put(loan.getCopyBarcode(), loan.getId());
+                }
+            }
+        }
+        Book current = bookRepository.findByIsbn(suspect.key()).orElse(null);
+        if (!(current instanceof PhysicalBook book) || book.getVersion() != suspect.version()) {
+            return null;
+        }
+        int onLoan = book.getTotalCopies() - book.getAvailableCopies();
+        if (onLoan == activeLoans && expected.size() == activeLoans && expected.equals(copiesOnLoan(book))) {
+            return null;
+        }
+
+        Discrepancy discrepancy = new Discrepancy(
+                onLoan == activeLoans ? Discrepancy.Kind.COPY_ASSIGNMENT : Discrepancy.Kind.AVAILABLE_COPIES,
+                book.getIsbn(),
+                String.format("%d copies on loan, %d active loans", onLoan, activeLoans),
+                false);
+        if (!repair) {
+            return discrepancy;
+        }
+        PhysicalBook updated = book.copy();
+        updated.reconcileCopies(expected);
+        try {
+            bookRepository.save(updated);
+        } catch (OptimisticLockException e) {
+            return discrepancy;
+        }
+        boolean reconciled = updated.getTotalCopies() - updated.getAvailableCopies() == activeLoans;
+        return reconciled ? discrepancy.markRepaired() : discrepancy;
+    }
+
+    private Discrepancy confirmUser(Suspect suspect, boolean repair) {
+        List<Loan> loans = loanRepository.findByUserId(suspect.key());
+        User current = userRepository.findById(suspect.key()).orElse(null);
+        if (current == null || current.getVersion() != suspect.version()) {
+            return null;
+        }
+
+        Set<String> storedIds = new HashSet<>();
+        for (Loan loan : loans) {
+            storedIds.add(loan.getId());
+        }
+        Set<String> historyIds = new HashSet<>();
+        Set<String> stale = new HashSet<>();
+        for (String loanId : current.getLoanHistory()) {
+            if (!storedIds.contains(loanId) || !historyIds.add(loanId)) {
+                stale.add(loanId);
+            }
+        }
+        historyIds.removeAll(stale);
+        List<Loan> missing = new ArrayList<>();
+        for (Loan loan : loans) {
+            if (!historyIds.contains(loan.getId())) {
+                missing.add(loan);
+            }
+        }
+        if (stale.isEmpty() && missing.isEmpty()) {
+            return null;
+        }
+
+        Discrepancy discrepancy = new Discrepancy(Discrepancy.Kind.LOAN_HISTORY, current.getId(),
+                String.format("%d loans missing from history, %d unknown or duplicated entries",
+                        missing.size(), stale.size()),
+                false);
+        if (!repair) {
+            return discrepancy;
+        }
+        User updated = current.copy();
+        for (String loanId : stale) {
+            updated.removeLoanFromHistory(loanId);
+        }
+        for (Loan loan : missing) {
+            updated.addLoanToHistory(loan.getId());
+        }
+        try {
+            userRepository.save(updated);
+        } catch (OptimisticLockException e) {
+            return discrepancy;
+        }
+        return discrepancy.markRepaired();
+    }
+
+    private Discrepancy confirmLoan(Suspect suspect) {
+        Loan loan = loanRepository.findById(suspect.key()).orElse(null);
+        if (loan == null) {
+            return null;
+        }
+        if (suspect.kind() == Discrepancy.Kind.UNKNOWN_USER && !userRepository.existsById(loan.getUser().getId())) {
+            return new Discrepancy(suspect.kind(), loan.getId(), "references user " + loan.getUser().getId(), false);
+        }
+        if (suspect.kind() == Discrepancy.Kind.UNKNOWN_BOOK && !bookRepository.existsByIsbn(loan.getBook().getIsbn())) {
+            return new Discrepancy(suspect.kind(), loan.getId(), "references book " + loan.getBook().getIsbn(), false);
+        }
+        return null;
+    }
+
+    private <T> Stream<T> partitioned(int size, PartitionTask<T> task) {
+        int count = Math.max(1, Math.min(partitions, size));
+        return IntStream.range(0, count).parallel()
+                .mapToObj(part -> task.run((int) ((long) size * part / count), (int) ((long) size * (part + 1) / count)));
+    }
+
+    private static <T> Map<String, Integer> indexOf(List<T> entities, Function<T, String> key) {
+        Map<String, Integer> index = new HashMap<>(entities.size() * 4 / 3 + 1);
+        for (int i = 0; i < entities.size(); i++) {
+            index.put(key.apply(entities.get(i)), i);
+        }
+        return index;
+    }
+
+    private static Map<String, String> copiesOnLoan(PhysicalBook book) {
+        Map<String, String> loanIdsByBarcode = new HashMap<>();
+        book.forEachCopyOnLoan(loanIdsByBarcode::put);
+        return loanIdsByBarcode;
+    }
+
+    private static int assignmentHash(PhysicalBook book) {
+        int[] hash = new int[1];
+        book.forEachCopyOnLoan((barcode, loanId) -> hash[0] += assignmentHash(barcode, loanId));
+        return hash[0];
+    }
+
+    private static int assignmentHash(String barcode, String loanId) {
+        int hash = 31 * (barcode == null ? 0 : barcode.hashCode()) + (loanId == null ? 0 : loanId.hashCode());
+        return hash ^ (hash >>> 16);
+    }
+
+    private interface PartitionTask<T> {
+        T run(int from, int to);
+    }
+
+    private record Suspect(Discrepancy.Kind kind, String key, long version) {
+    }
+
+    private record Scan(int books, int users, int loans, List<Suspect> suspects) {
+    }
+
+    private static final class Tally {
+        private final IntIntHashMap activeByBook = new IntIntHashMap();
+        private final IntIntHashMap assignmentsByBook = new IntIntHashMap();
+        private final IntIntHashMap loansByUser = new IntIntHashMap();
+        private final IntIntHashMap loanIdsByUser = new IntIntHashMap();
+        private final List<Suspect> dangling = new ArrayList<>();
+
+        private Tally merge(Tally other) {
+            other.activeByBook.forEach(activeByBook::addTo);
+            other.assignmentsByBook.forEach(assignmentsByBook::addTo);
+            other.loansByUser.forEach(loansByUser::addTo);
+            other.loanIdsByUser.forEach(loanIdsByUser::addTo);
+            dangling.addAll(other.dangling);
+            return this;
+        }
+    }
+}
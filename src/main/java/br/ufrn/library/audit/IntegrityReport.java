@@ -0,0 +1,62 @@
+package br.ufrn.library.audit;
+
+import java.util.List;
+
+public class IntegrityReport {
+
+    private final int booksScanned;
+    private final int usersScanned;
+    private final int loansScanned;
+    private final int suspectCount;
+    private final List<Discrepancy> discrepancies;
+    private final long elapsedNanos;
+
+    public IntegrityReport(int booksScanned, int usersScanned, int loansScanned, int suspectCount,
+                           List<Discrepancy> discrepancies, long elapsedNanos) {
+        this.booksScanned = booksScanned;
+        this.usersScanned = usersScanned;
+        this.loansScanned = loansScanned;
+        this.suspectCount = suspectCount;
+        this.discrepancies = List.copyOf(discrepancies);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getBooksScanned() {
+        return booksScanned;
+    }
+
+    public int getUsersScanned() {
+        return usersScanned;
+    }
+
+    public int getLoansScanned() {
+        return loansScanned;
+    }
+
+    public int getSuspectCount() {
+        return suspectCount;
+    }
+
+    public List<Discrepancy> getDiscrepancies() {
+        return discrepancies;
+    }
+
+    public long getRepairedCount() {
+        return discrepancies.stream().filter(Discrepancy::repaired).count();
+    }
+
+    public boolean isConsistent() {
+        return discrepancies.isEmpty();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IntegrityReport{books=%d, users=%d, loans=%d, suspects=%d, discrepancies=%d, repaired=%d, elapsedMs=%.1f}",
+                booksScanned, usersScanned, loansScanned, suspectCount, discrepancies.size(),
+                getRepairedCount(), elapsedNanos / 1e6);
+    }
+}
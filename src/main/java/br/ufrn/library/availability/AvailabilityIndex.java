@@ -0,0 +1,97 @@
+package br.ufrn.library.availability;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.service.LoanEventListener;
+
+/**
+ * Answers "as of date" questions about loan history. A loan counts as out from
+ * its loan date up to, but not including, its return date; open loans stay out
+ * indefinitely.
+ */
+public class AvailabilityIndex implements LoanEventListener {
+
+    private static final LocalDate FIRST_DATE = LocalDate.ofEpochDay(LoanTimeline.FIRST_DAY);
+    private static final LocalDate LAST_DATE = LocalDate.ofEpochDay(LoanTimeline.LAST_DAY);
+
+    private final Map<String, LoanTimeline> timelines = new ConcurrentHashMap<>();
+
+    @Override
+    public void onLoanCreated(Loan loan) {
+        timelineFor(loan.getBook().getIsbn()).add(epochDay(loan.getLoanDate()), 1);
+    }
+
+    @Override
+    public void onLoanReturned(Loan loan) {
+        timelineFor(loan.getBook().getIsbn()).add(epochDay(loan.getReturnDate()), -1);
+    }
+
+    public void rebuild(List<Loan> loans) {
+        timelines.clear();
+        for (Loan loan : loans) {
+            onLoanCreated(loan);
+            if (loan.isReturned()) {
+                onLoanReturned(loan);
+            }
+        }
+    }
+
+    public int getCopiesOutOn(String isbn, LocalDate date) {
+        LoanTimeline timeline = timelines.get(isbn);
+        return timeline == null ? 0 : timeline.valueOn(epochDay(date));
+    }
+
+    public int getAvailableCopiesOn(PhysicalBook book, LocalDate date) {
+        return Math.max(0, book.getTotalCopies() - getCopiesOutOn(book.getIsbn(), date));
+    }
+
+    public int getPeakCopiesOut(String isbn, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        LoanTimeline timeline = timelines.get(isbn);
+        return timeline == null ? 0 : timeline.peakBetween(epochDay(from), epochDay(to));
+    }
+
+    public long getLoanDays(String isbn, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        LoanTimeline timeline = timelines.get(isbn);
+        return timeline == null ? 0 : timeline.totalBetween(epochDay(from), epochDay(to));
+    }
+
+    public double getUtilization(PhysicalBook book, LocalDate from, LocalDate to) {
+        long copyDays = (long) book.getTotalCopies() * (epochDay(to) - epochDay(from) + 1);
+        if (copyDays <= 0) {
+            return 0.0;
+        }
+        return (double) getLoanDays(book.getIsbn(), from, to) / copyDays;
+    }
+
+    private LoanTimeline timelineFor(String isbn) {
+        LoanTimeline timeline = timelines.get(isbn);
+        if (timeline == null) {
+            timeline = timelines.computeIfAbsent(isbn, key -> new LoanTimeline());
+        }
+        return timeline;
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range cannot be null.");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date cannot be before start date.");
+        }
+    }
+
+    private static long epochDay(LocalDate date) {
+        if (date.isBefore(FIRST_DATE) || date.isAfter(LAST_DATE)) {
+            throw new IllegalArgumentException(
+                    "Date " + date + " is outside the supported range " + FIRST_DATE + " to " + LAST_DATE + ".");
+        }
+        return date.toEpochDay();
+    }
+}
@@ -0,0 +1,149 @@
+package br.ufrn.library.availability;
+
+import java.util.Arrays;
+
+/**
+ * Sparse segment tree over epoch days holding the change in copies out per day.
+ * Each node keeps the sum of its deltas, the best prefix sum inside it and the
+ * sum of its prefix sums, so "copies out on a day", "peak over a range" and
+ * "loan-days over a range" are all answered in O(log days).
+ */
+class LoanTimeline {
+
+    static final long FIRST_DAY = -(1L << 16);
+    static final long LAST_DAY = (1L << 16) - 1;
+
+    private static final int NONE = 0;
+    private static final int ROOT = 1;
+
+    private int[] left = new int[64];
+    private int[] right = new int[64];
+    private int[] sum = new int[64];
+    private int[] bestPrefix = new int[64];
+    private long[] area = new long[64];
+    private int nodeCount = ROOT + 1;
+
+    synchronized void add(long day, int delta) {
+        update(ROOT, FIRST_DAY, LAST_DAY, day, delta);
+    }
+
+    synchronized int valueOn(long day) {
+        return (int) prefix(ROOT, FIRST_DAY, LAST_DAY, day);
+    }
+
+    synchronized int peakBetween(long from, long to) {
+        Segment range = new Segment();
+        query(ROOT, FIRST_DAY, LAST_DAY, from, to, range);
+        return (int) (prefix(ROOT, FIRST_DAY, LAST_DAY, from - 1) + range.bestPrefix);
+    }
+
+    synchronized long totalBetween(long from, long to) {
+        Segment range = new Segment();
+        query(ROOT, FIRST_DAY, LAST_DAY, from, to, range);
+        return prefix(ROOT, FIRST_DAY, LAST_DAY, from - 1) * (to - from + 1) + range.area;
+    }
+
+    private void update(int node, long low, long high, long day, int delta) {
+        if (low == high) {
+            sum[node] += delta;
+            bestPrefix[node] = sum[node];
+            area[node] = sum[node];
+            return;
+        }
+        long mid = Math.floorDiv(low + high, 2);
+        if (day <= mid) {
+            if (left[node] == NONE) {
+                int child = newNode();
+                left[node] = child;
+            }
+            update(left[node], low, mid, day, delta);
+        } else {
+            if (right[node] == NONE) {
+                int child = newNode();
+                right[node] = child;
+            }
+            update(right[node], mid + 1, high, day, delta);
+        }
+        pull(node, mid - low + 1, high - mid);
+    }
+
+    private void pull(int node, long leftLength, long rightLength) {
+        int l = left[node];
+        int r = right[node];
+        sum[node] = sum[l] + sum[r];
+        bestPrefix[node] = Math.max(bestPrefixOf(l, leftLength), sum[l] + bestPrefixOf(r, rightLength));
+        area[node] = area[l] + (long) sum[l] * rightLength + area[r];
+    }
+
+    private int bestPrefixOf(int node, long length) {
+        return node == NONE && length > 0 ? 0 : bestPrefix[node];
+    }
+
+    private long prefix(int node, long low, long high, long day) {
+        long total = 0;
+        while (node != NONE && day >= low) {
+            if (day >= high) {
+                return total + sum[node];
+            }
+            long mid = Math.floorDiv(low + high, 2);
+            if (day <= mid) {
+                node = left[node];
+                high = mid;
+            } else {
+                total += sum[left[node]];
+                node = right[node];
+                low = mid + 1;
+            }
+        }
+        return total;
+    }
+
+    private void query(int node, long low, long high, long from, long to, Segment range) {
+        if (to < low || high < from) {
+            return;
+        }
+        if (node == NONE) {
+            range.append(0, 0, 0L, Math.min(high, to) - Math.max(low, from) + 1);
+            return;
+        }
+        if (from <= low && high <= to) {
+            range.append(sum[node], bestPrefix[node], area[node], high - low + 1);
+            return;
+        }
+        long mid = Math.floorDiv(low + high, 2);
+        query(left[node], low, mid, from, to, range);
+        query(right[node], mid + 1, high, from, to, range);
+    }
+
+    private int newNode() {
+        if (nodeCount == left.length) {
+            int capacity = left.length * 2;
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            sum = Arrays.copyOf(sum, capacity);
+            bestPrefix = Arrays.copyOf(bestPrefix, capacity);
+            area = Arrays.copyOf(area, capacity);
+        }
+        return nodeCount++;
+    }
+
+    private static final class Segment {
+        private boolean empty = true;
+        private long sum;
+        private long bestPrefix;
+        private long area;
+
+        private void append(long segmentSum, long segmentBest, long segmentArea, long length) {
+            if (empty) {
+                sum = segmentSum;
+                bestPrefix = segmentBest;
+                area = segmentArea;
+                empty = false;
+                return;
+            }
+            bestPrefix = Math.max(bestPrefix, sum + segmentBest);
+            area += sum * length + segmentArea;
+            sum += segmentSum;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package br.ufrn.library.branch;
+
+public class Branch {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final String id;
+    private final String name;
+    private final double latitude;
+    private final double longitude;
+
+    public Branch(String id, String name, double latitude, double longitude) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Branch ID cannot be empty.");
+        }
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Branch name cannot be empty.");
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Invalid coordinates for branch: " + id);
+        }
+        this.id = id;
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double distanceTo(Branch other) {
+        double dLat = Math.toRadians(other.latitude - latitude);
+        double dLon = Math.toRadians(other.longitude - longitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(other.latitude))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return id.equals(((Branch) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
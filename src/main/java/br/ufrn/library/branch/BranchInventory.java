@@ -0,0 +1,311 @@
+package br.ufrn.library.branch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+import br.ufrn.library.service.LoanEventListener;
+import br.ufrn.library.service.LoanStatus;
+
+/**
+ * Splits the copies of physical titles between library branches. Checkouts run
+ * inside {@link #atBranch} take a copy from that branch's shelf; checkouts made
+ * without a branch take one from any branch that has it. A returned copy is
+ * shelved where it was returned (floating collection), and copies can be sent
+ * between branches to fill holds. Titles with no allocation are left alone.
+ */
+public class BranchInventory implements LoanEventListener {
+
+    private final Map<String, Integer> branchIndexes = new ConcurrentHashMap<>();
+    private final Map<String, TitleStock> titles = new ConcurrentHashMap<>();
+    private final Map<String, Checkout> checkouts = new ConcurrentHashMap<>();
+    private final Map<String, PendingTransfer> transfers = new ConcurrentHashMap<>();
+    private final ThreadLocal<Integer> currentBranch = new ThreadLocal<>();
+    private final ThreadLocal<Checkout> pendingCheckout = new ThreadLocal<>();
+    private final AtomicLong transferSequence = new AtomicLong();
+    private volatile Branch[] branches = new Branch[0];
+    private volatile int[][] branchesByDistance = new int[0][];
+
+    public synchronized Branch registerBranch(Branch branch) {
+        if (branch == null) {
+            throw new IllegalArgumentException("Branch cannot be null.");
+        }
+        if (branchIndexes.containsKey(branch.getId())) {
+            throw new IllegalArgumentException("A branch with this ID already exists: " + branch.getId());
+        }
+        if (branches.length == TitleStock.MAX_BRANCHES) {
+            throw new IllegalStateException("Cannot register more than " + TitleStock.MAX_BRANCHES + " branches.");
+        }
+        Branch[] updated = Arrays.copyOf(branches, branches.length + 1);
+        updated[branches.length] = branch;
+        branchesByDistance = orderByDistance(updated);
+        branches = updated;
+        branchIndexes.put(branch.getId(), updated.length - 1);
+        return branch;
+    }
+
+    public List<Branch> getBranches() {
+        return List.of(branches);
+    }
+
+    public void allocateCopies(String isbn, String branchId, int copies) {
+        if (isbn == null || isbn.isBlank()) {
+            throw new IllegalArgumentException("ISBN cannot be null or empty.");
+        }
+        if (copies < 0) {
+            throw new IllegalArgumentException("Copies cannot be negative.");
+        }
+        titles.computeIfAbsent(isbn, key -> new TitleStock()).allocate(indexOf(branchId), copies);
+    }
+
+    /** Copies of the title owned by any branch plus those in transit between branches. */
+    public int getAllocatedCopies(String isbn) {
+        TitleStock stock = titles.get(isbn);
+        if (stock == null) {
+            return 0;
+        }
+        int allocated = stock.getInTransit();
+        for (int i = 0; i < branches.length; i++) {
+            allocated += stock.getOwned(i);
+        }
+        return allocated;
+    }
+
+    public int getOwnedCopies(String isbn, String branchId) {
+        TitleStock stock = titles.get(isbn);
+        return stock == null ? 0 : stock.getOwned(indexOf(branchId));
+    }
+
+    public boolean isManaged(String isbn) {
+        return titles.containsKey(isbn);
+    }
+
+    /**
+     * Runs {@code work} as if at the given branch: checkouts inside it take a
+     * copy from that branch and returns shelve the copy there.
+     */
+    public <T> T atBranch(String branchId, Supplier<T> work) {
+        Integer previous = currentBranch.get();
+        currentBranch.set(indexOf(branchId));
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                currentBranch.remove();
+            } else {
+                currentBranch.set(previous);
+            }
+        }
+    }
+
+    public int getAvailableCopies(String isbn, String branchId) {
+        TitleStock stock = titles.get(isbn);
+        return stock == null ? 0 : stock.getAvailable(indexOf(branchId));
+    }
+
+    public List<BranchStock> getBranchStock(String isbn) {
+        TitleStock stock = titles.get(isbn);
+        if (stock == null) {
+            return List.of();
+        }
+        Branch[] current = branches;
+        List<BranchStock> result = new ArrayList<>();
+        for (int i = 0; i < current.length; i++) {
+            if (stock.isStocked(i)) {
+                result.add(new BranchStock(current[i], stock.getAvailable(i), stock.getOwned(i)));
+            }
+        }
+        return result;
+    }
+
+    public int getCopiesInTransit(String isbn) {
+        TitleStock stock = titles.get(isbn);
+        return stock == null ? 0 : stock.getInTransit();
+    }
+
+    public List<Branch> findBranchesWithCopy(String isbn) {
+        TitleStock stock = titles.get(isbn);
+        if (stock == null) {
+            return List.of();
+        }
+        Branch[] current = branches;
+        List<Branch> result = new ArrayList<>();
+        for (long candidates = stock.getAvailableBranches(); candidates != 0; candidates &= candidates - 1) {
+            int branch = Long.numberOfTrailingZeros(candidates);
+            if (branch < current.length && stock.hasAvailable(branch)) {
+                result.add(current[branch]);
+            }
+        }
+        return result;
+    }
+
+    /** The given branch itself if it has a copy on the shelf, otherwise the closest one that does. */
+    public Optional<Branch> findNearestWithCopy(String isbn, String branchId) {
+        int origin = indexOf(branchId);
+        TitleStock stock = titles.get(isbn);
+        if (stock == null) {
+            return Optional.empty();
+        }
+        if (stock.hasAvailable(origin)) {
+            return Optional.of(branches[origin]);
+        }
+        int nearest = nearestWithCopy(stock, origin);
+        return nearest < 0 ? Optional.empty() : Optional.of(branches[nearest]);
+    }
+
+    public Transfer requestTransfer(String isbn, String fromBranchId, String toBranchId) {
+        int from = indexOf(fromBranchId);
+        int to = indexOf(toBranchId);
+        if (from == to) {
+            throw new IllegalArgumentException("Source and destination branches must differ.");
+        }
+        TitleStock stock = titles.get(isbn);
+        if (stock == null || !stock.tryShip(from)) {
+            throw new IllegalStateException("No copy of " + isbn + " available at branch: " + fromBranchId);
+        }
+        return startTransfer(isbn, stock, from, to);
+    }
+
+    /**
+     * Ships a copy to {@code toBranchId} from the closest other branch that has
+     * one, for a hold that cannot be filled locally. Empty if no other branch
+     * has a copy on the shelf.
+     */
+    public Optional<Transfer> requestTransferFromNearest(String isbn, String toBranchId) {
+        int to = indexOf(toBranchId);
+        TitleStock stock = titles.get(isbn);
+        if (stock == null) {
+            return Optional.empty();
+        }
+        while (true) {
+            int from = nearestWithCopy(stock, to);
+            if (from < 0) {
+                return Optional.empty();
+            }
+            if (stock.tryShip(from)) {
+                return Optional.of(startTransfer(isbn, stock, from, to));
+            }
+        }
+    }
+
+    public void completeTransfer(String transferId) {
+        PendingTransfer pending = transfers.remove(transferId);
+        if (pending == null) {
+            throw new IllegalArgumentException("Transfer not found: " + transferId);
+        }
+        pending.stock.receive(pending.to);
+    }
+
+    public List<Transfer> getPendingTransfers() {
+        List<Transfer> result = new ArrayList<>();
+        for (PendingTransfer pending : transfers.values()) {
+            result.add(pending.transfer);
+        }
+        result.sort(Comparator.comparing(Transfer::id));
+        return result;
+    }
+
+    @Override
+    public LoanStatus beforeLoanCreated(User user, Book book) {
+        TitleStock stock = titles.get(book.getIsbn());
+        if (stock == null) {
+            return LoanStatus.SUCCESS;
+        }
+        Integer branch = currentBranch.get();
+        int taken = branch == null ? stock.takeAny() : (stock.tryTake(branch) ? branch : -1);
+        if (taken < 0) {
+            return LoanStatus.NO_COPIES_AVAILABLE;
+        }
+        pendingCheckout.set(new Checkout(stock, taken));
+        return LoanStatus.SUCCESS;
+    }
+
+    @Override
+    public void onLoanCreationFailed(User user, Book book) {
+        Checkout pending = pendingCheckout.get();
+        if (pending != null) {
+            pendingCheckout.remove();
+            pending.stock.putBack(pending.branch);
+        }
+    }
+
+    @Override
+    public void onLoanCreated(Loan loan) {
+        Checkout pending = pendingCheckout.get();
+        if (pending != null) {
+            pendingCheckout.remove();
+            checkouts.put(loan.getId(), pending);
+        }
+    }
+
+    @Override
+    public void onLoanReturned(Loan loan) {
+        Checkout checkout = checkouts.remove(loan.getId());
+        if (checkout != null) {
+            Integer returnedAt = currentBranch.get();
+            checkout.stock.move(checkout.branch, returnedAt == null ? checkout.branch : returnedAt);
+        }
+    }
+
+    private Transfer startTransfer(String isbn, TitleStock stock, int from, int to) {
+        Branch[] current = branches;
+        Transfer transfer = new Transfer("T" + transferSequence.incrementAndGet(), isbn, current[from], current[to]);
+        transfers.put(transfer.id(), new PendingTransfer(transfer, stock, to));
+        return transfer;
+    }
+
+    private int nearestWithCopy(TitleStock stock, int origin) {
+        if ((stock.getAvailableBranches() & ~(1L << origin)) == 0) {
+            return -1;
+        }
+        for (int candidate : branchesByDistance[origin]) {
+            if (stock.hasAvailable(candidate)) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(String branchId) {
+        Integer index = branchId == null ? null : branchIndexes.get(branchId);
+        if (index == null) {
+            throw new IllegalArgumentException("Branch not found: " + branchId);
+        }
+        return index;
+    }
+
+    private static int[][] orderByDistance(Branch[] branches) {
+        int[][] order = new int[branches.length][];
+        for (int i = 0; i < branches.length; i++) {
+            Branch origin = branches[i];
+            Integer[] others = new Integer[branches.length - 1];
+            int n = 0;
+            for (int j = 0; j < branches.length; j++) {
+                if (j != i) {
+                    others[n++] = j;
+                }
+            }
+            Arrays.sort(others, Comparator.comparingDouble(j -> origin.distanceTo(branches[j])));
+            order[i] = new int[others.length];
+            for (int k = 0; k < others.length; k++) {
+                order[i][k] = others[k];
+            }
+        }
+        return order;
+    }
+
+    private record Checkout(TitleStock stock, int branch) {
+    }
+
+    private record PendingTransfer(Transfer transfer, TitleStock stock, int to) {
+    }
+}
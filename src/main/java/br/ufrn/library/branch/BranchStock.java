@@ -0,0 +1,8 @@
+package br.ufrn.library.branch;
+
+/**
+ * Copies of one title held by one branch: {@code owned} includes copies out on
+ * loan, {@code available} only those on the shelf.
+ */
+public record BranchStock(Branch branch, int available, int owned) {
+}
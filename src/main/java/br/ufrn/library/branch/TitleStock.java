@@ -0,0 +1,171 @@
+package br.ufrn.library.branch;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Copies of one title spread over branches. Every branch has its own counter
+ * cell (owned copies in the high half, copies on the shelf in the low half),
+ * so checkouts at different branches never update the same word. A bitmask of
+ * branches with a copy on the shelf answers "where is one available" without
+ * reading every cell. It is only touched when a shelf empties or refills; it
+ * may briefly list a branch whose last copy was just taken, so readers confirm
+ * against the cell, but it never misses a branch once its update has finished.
+ */
+class TitleStock {
+
+    static final int MAX_BRANCHES = Long.SIZE;
+
+    private static final long OWNED = 1L << 32;
+    private static final long AVAILABLE_MASK = OWNED - 1;
+
+    private final AtomicReferenceArray<AtomicLong> cells = new AtomicReferenceArray<>(MAX_BRANCHES);
+    private final AtomicLong availableBranches = new AtomicLong();
+    private final AtomicInteger inTransit = new AtomicInteger();
+
+    void allocate(int branch, int copies) {
+        AtomicLong cell = cell(branch);
+        while (true) {
+            long value = cell.get();
+            int out = owned(value) - available(value);
+            if (copies < out) {
+                throw new IllegalStateException("Cannot allocate " + copies + " copies: " + out + " are on loan.");
+            }
+            if (cell.compareAndSet(value, copies * OWNED + (copies - out))) {
+                refresh(branch, cell);
+                return;
+            }
+        }
+    }
+
+    boolean tryTake(int branch) {
+        AtomicLong cell = cells.get(branch);
+        if (cell == null) {
+            return false;
+        }
+        while (true) {
+            long value = cell.get();
+            int available = available(value);
+            if (available == 0) {
+                return false;
+            }
+            if (cell.compareAndSet(value, value - 1)) {
+                if (available == 1) {
+                    refresh(branch, cell);
+                }
+                return true;
+            }
+        }
+    }
+
+    int takeAny() {
+        long candidates = availableBranches.get();
+        while (candidates != 0) {
+            int branch = Long.numberOfTrailingZeros(candidates);
+            if (tryTake(branch)) {
+                return branch;
+            }
+            candidates &= candidates - 1;
+        }
+        return -1;
+    }
+
+    void putBack(int branch) {
+        AtomicLong cell = cell(branch);
+        if (available(cell.incrementAndGet()) == 1) {
+            refresh(branch, cell);
+        }
+    }
+
+    /** A copy taken at {@code from} is shelved at {@code to}, which now owns it. */
+    void move(int from, int to) {
+        if (from == to) {
+            putBack(to);
+            return;
+        }
+        cell(from).addAndGet(-OWNED);
+        AtomicLong cell = cell(to);
+        if (available(cell.addAndGet(OWNED + 1)) == 1) {
+            refresh(to, cell);
+        }
+    }
+
+    boolean tryShip(int from) {
+        if (!tryTake(from)) {
+            return false;
+        }
+        cells.get(from).addAndGet(-OWNED);
+        inTransit.incrementAndGet();
+        return true;
+    }
+
+    void receive(int to) {
+        inTransit.decrementAndGet();
+        AtomicLong cell = cell(to);
+        if (available(cell.addAndGet(OWNED + 1)) == 1) {
+            refresh(to, cell);
+        }
+    }
+
+    boolean hasAvailable(int branch) {
+        if ((availableBranches.get() & (1L << branch)) == 0) {
+            return false;
+        }
+        AtomicLong cell = cells.get(branch);
+        return cell != null && available(cell.get()) > 0;
+    }
+
+    long getAvailableBranches() {
+        return availableBranches.get();
+    }
+
+    int getAvailable(int branch) {
+        AtomicLong cell = cells.get(branch);
+        return cell == null ? 0 : available(cell.get());
+    }
+
+    int getOwned(int branch) {
+        AtomicLong cell = cells.get(branch);
+        return cell == null ? 0 : owned(cell.get());
+    }
+
+    boolean isStocked(int branch) {
+        return cells.get(branch) != null;
+    }
+
+    int getInTransit() {
+        return inTransit.get();
+    }
+
+    // Whoever clears a bit re-reads the cell afterwards, so a concurrent refill
+    // that set the bit first cannot be lost.
+    private void refresh(int branch, AtomicLong cell) {
+        long bit = 1L << branch;
+        if (available(cell.get()) > 0) {
+            availableBranches.getAndAccumulate(bit, (mask, b) -> mask | b);
+            return;
+        }
+        availableBranches.getAndAccumulate(bit, (mask, b) -> mask & ~b);
+        if (available(cell.get()) > 0) {
+            availableBranches.getAndAccumulate(bit, (mask, b) -> mask | b);
+        }
+    }
+
+    private AtomicLong cell(int branch) {
+        AtomicLong cell = cells.get(branch);
+        if (cell == null) {
+            cells.compareAndSet(branch, null, new AtomicLong());
+            cell = cells.get(branch);
+        }
+        return cell;
+    }
+
+    private static int owned(long value) {
+        return (int) (value >>> 32);
+    }
+
+    private static int available(long value) {
+        return (int) (value & AVAILABLE_MASK);
+    }
+}
@@ -0,0 +1,4 @@
+package br.ufrn.library.branch;
+
+public record Transfer(String id, String isbn, Branch from, Branch to) {
+}
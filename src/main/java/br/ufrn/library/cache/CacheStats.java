@@ -0,0 +1,60 @@
+package br.ufrn.library.cache;
+
+public class CacheStats {
+
+    private final long hitCount;
+    private final long negativeHitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expirationCount;
+    private final long size;
+
+    public CacheStats(long hitCount, long negativeHitCount, long missCount,
+                      long evictionCount, long expirationCount, long size) {
+        this.hitCount = hitCount;
+        this.negativeHitCount = negativeHitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.size = size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getRequestCount() {
+        return hitCount + negativeHitCount + missCount;
+    }
+
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 1.0 : (double) (hitCount + negativeHitCount) / requests;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats{hits=%d, negativeHits=%d, misses=%d, hitRate=%.3f, evictions=%d, expirations=%d, size=%d}",
+                hitCount, negativeHitCount, missCount, getHitRate(), evictionCount, expirationCount, size);
+    }
+}
@@ -0,0 +1,306 @@
+package br.ufrn.library.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Size- and time-bounded cache with W-TinyLFU eviction. New entries enter a
+ * small LRU window; when it overflows, its oldest entry competes with the
+ * oldest entry of the main segmented LRU and whichever the frequency sketch has
+ * seen less often is evicted. Misses can be remembered as negative entries with
+ * their own time to live.
+ *
+ * <p>Lookups read a {@link ConcurrentHashMap} without locking. Recency updates
+ * take the policy lock only if it is free and are skipped otherwise.
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+    private static final int STRIPES = 64;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final AtomicLongArray writeStamps = new AtomicLongArray(STRIPES);
+    private final FrequencySketch sketch;
+    private final Clock clock;
+    private final long timeToLiveMillis;
+    private final long negativeTimeToLiveMillis;
+    private final Comparator<? super V> freshness;
+
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final Node<K, V>[] heads;
+    private final int[] sizes = new int[3];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public TinyLfuCache(int maximumSize, Duration timeToLive, Duration negativeTimeToLive) {
+        this(maximumSize, timeToLive, negativeTimeToLive, null, Clock.systemUTC());
+    }
+
+    /**
+     * @param freshness orders values of the same key from older to newer; when
+     *                  given, {@link #put} never replaces a cached value with an
+     *                  older one. May be {@code null}.
+     */
+    public TinyLfuCache(int maximumSize, Duration timeToLive, Duration negativeTimeToLive,
+                        Comparator<? super V> freshness, Clock clock) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive.");
+        }
+        if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive.");
+        }
+        if (negativeTimeToLive == null || negativeTimeToLive.isNegative()) {
+            throw new IllegalArgumentException("Negative time to live cannot be negative.");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null.");
+        }
+        this.sketch = new FrequencySketch(maximumSize);
+        this.clock = clock;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.negativeTimeToLiveMillis = negativeTimeToLive.toMillis();
+        this.freshness = freshness;
+        this.windowCapacity = Math.max(1, maximumSize / 100);
+        this.mainCapacity = maximumSize - windowCapacity;
+        this.protectedCapacity = mainCapacity * 4 / 5;
+        this.heads = newHeads(3);
+        for (int queue = 0; queue < heads.length; queue++) {
+            Node<K, V> sentinel = new Node<>(null, null, 0L);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            heads[queue] = sentinel;
+        }
+    }
+
+    /**
+     * Returns the cached value, or loads it with {@code loader} on a miss. A
+     * {@code null} result is cached as a negative entry when negative caching
+     * is enabled. Loads racing with a write to the same key are not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long now = clock.millis();
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            if (node.expiresAt > now) {
+                if (node.value == null) {
+                    negativeHits.increment();
+                } else {
+                    hits.increment();
+                }
+                recordAccess(node);
+                return node.value;
+            }
+            expire(node);
+        }
+
+        misses.increment();
+        int stripe = stripe(key);
+        long stamp = writeStamps.get(stripe);
+        V loaded = loader.apply(key);
+        if (loaded != null || negativeTimeToLiveMillis > 0) {
+            policyLock.lock();
+            try {
+                if (writeStamps.get(stripe) == stamp && !data.containsKey(key)) {
+                    insert(key, loaded, now);
+                }
+            } finally {
+                policyLock.unlock();
+            }
+        }
+        return loaded;
+    }
+
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value cannot be null.");
+        }
+        writeStamps.incrementAndGet(stripe(key));
+        long now = clock.millis();
+        policyLock.lock();
+        try {
+            Node<K, V> node = data.get(key);
+            if (node == null) {
+                insert(key, value, now);
+            } else if (node.value == null || freshness == null || freshness.compare(value, node.value) >= 0) {
+                node.value = value;
+                node.expiresAt = now + timeToLiveMillis;
+                onAccess(node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        writeStamps.incrementAndGet(stripe(key));
+        policyLock.lock();
+        try {
+            Node<K, V> node = data.remove(key);
+            if (node != null) {
+                unlink(node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        policyLock.lock();
+        try {
+            for (K key : data.keySet()) {
+                writeStamps.incrementAndGet(stripe(key));
+            }
+            data.clear();
+            for (int queue = 0; queue < heads.length; queue++) {
+                heads[queue].prev = heads[queue];
+                heads[queue].next = heads[queue];
+                sizes[queue] = 0;
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), negativeHits.sum(), misses.sum(),
+                evictions.sum(), expirations.sum(), data.size());
+    }
+
+    private void recordAccess(Node<K, V> node) {
+        if (policyLock.tryLock()) {
+            try {
+                if (data.get(node.key) == node) {
+                    onAccess(node);
+                }
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    private void expire(Node<K, V> node) {
+        policyLock.lock();
+        try {
+            if (data.remove(node.key, node)) {
+                unlink(node);
+                expirations.increment();
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void insert(K key, V value, long now) {
+        long timeToLive = value == null ? negativeTimeToLiveMillis : timeToLiveMillis;
+        Node<K, V> node = new Node<>(key, value, now + timeToLive);
+        data.put(key, node);
+        sketch.increment(key);
+        link(node, WINDOW);
+        if (sizes[WINDOW] > windowCapacity) {
+            Node<K, V> candidate = heads[WINDOW].next;
+            unlink(candidate);
+            link(candidate, PROBATION);
+            if (sizes[PROBATION] + sizes[PROTECTED] > mainCapacity) {
+                Node<K, V> victim = heads[PROBATION].next;
+                if (victim == candidate || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                    victim = candidate;
+                }
+                evict(victim);
+            }
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case WINDOW:
+                unlink(node);
+                link(node, WINDOW);
+                break;
+            case PROBATION:
+                unlink(node);
+                link(node, PROTECTED);
+                if (sizes[PROTECTED] > protectedCapacity) {
+                    Node<K, V> demoted = heads[PROTECTED].next;
+                    unlink(demoted);
+                    link(demoted, PROBATION);
+                }
+                break;
+            default:
+                unlink(node);
+                link(node, PROTECTED);
+                break;
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        unlink(node);
+        data.remove(node.key, node);
+        evictions.increment();
+    }
+
+    private void link(Node<K, V> node, byte queue) {
+        Node<K, V> head = heads[queue];
+        node.queue = queue;
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+        sizes[queue]++;
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.prev == null) {
+            return;
+        }
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        sizes[node.queue]--;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[] newHeads(int queues) {
+        return (Node<K, V>[]) new Node<?, ?>[queues];
+    }
+
+    private static int stripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        volatile long expiresAt;
+        byte queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package br.ufrn.library.circulation;
+
+public record CirculationCounts(int loans, int returns) {
+}
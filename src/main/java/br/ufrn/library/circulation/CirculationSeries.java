@@ -0,0 +1,130 @@
+package br.ufrn.library.circulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Running loan and return totals for one series, plus, per resolution, a ring
+ * holding the totals as they stood when each recent bucket closed. The last n
+ * buckets are the current totals minus the totals at the close of the bucket
+ * n back, so a window costs the same however long the history is. Totals are
+ * ints subtracted modulo 2^32, which stays exact as long as a single window
+ * holds fewer than 2^31 events.
+ */
+class CirculationSeries {
+
+    private static final Resolution[] RESOLUTIONS = Resolution.values();
+
+    private final int[][] loansAtClose;
+    private final int[][] returnsAtClose;
+    private final long[] currentBucket;
+    private final long[] firstBucket;
+    private int loans;
+    private int returns;
+    private long lastEventMillis;
+
+    CirculationSeries(int[] capacities, long nowMillis) {
+        int count = RESOLUTIONS.length;
+        this.loansAtClose = new int[count][];
+        this.returnsAtClose = new int[count][];
+        this.currentBucket = new long[count];
+        this.firstBucket = new long[count];
+        for (int i = 0; i < count; i++) {
+            loansAtClose[i] = new int[capacities[i]];
+            returnsAtClose[i] = new int[capacities[i]];
+            currentBucket[i] = Math.floorDiv(nowMillis, RESOLUTIONS[i].getBucketMillis());
+            firstBucket[i] = currentBucket[i];
+        }
+        this.lastEventMillis = nowMillis;
+    }
+
+    synchronized void recordLoan(long nowMillis) {
+        advance(nowMillis);
+        loans++;
+        lastEventMillis = nowMillis;
+    }
+
+    synchronized void recordReturn(long nowMillis) {
+        advance(nowMillis);
+        returns++;
+        lastEventMillis = nowMillis;
+    }
+
+    synchronized CirculationCounts window(Resolution resolution, int buckets, long nowMillis) {
+        advance(nowMillis);
+        int i = resolution.ordinal();
+        checkWindow(i, buckets);
+        long baseline = currentBucket[i] - buckets;
+        return new CirculationCounts(loans - loansAtClose(i, baseline), returns - returnsAtClose(i, baseline));
+    }
+
+    synchronized List<CirculationCounts> buckets(Resolution resolution, int buckets, long nowMillis) {
+        advance(nowMillis);
+        int i = resolution.ordinal();
+        checkWindow(i, buckets);
+        List<CirculationCounts> result = new ArrayList<>(buckets);
+        long current = currentBucket[i];
+        for (long bucket = current - buckets + 1; bucket <= current; bucket++) {
+            int loansAtEnd = bucket == current ? loans : loansAtClose(i, bucket);
+            int returnsAtEnd = bucket == current ? returns : returnsAtClose(i, bucket);
+            result.add(new CirculationCounts(loansAtEnd - loansAtClose(i, bucket - 1),
+                    returnsAtEnd - returnsAtClose(i, bucket - 1)));
+        }
+        return result;
+    }
+
+    synchronized long getLastEventMillis() {
+        return lastEventMillis;
+    }
+
+    int getCapacity(Resolution resolution) {
+        return loansAtClose[resolution.ordinal()].length;
+    }
+
+    private void advance(long nowMillis) {
+        for (int i = 0; i < RESOLUTIONS.length; i++) {
+            long bucket = Math.floorDiv(nowMillis, RESOLUTIONS[i].getBucketMillis());
+            if (bucket <= currentBucket[i]) {
+                continue;
+            }
+            int capacity = loansAtClose[i].length;
+            long from = Math.max(currentBucket[i], bucket - capacity);
+            int first = (int) Math.floorMod(from, (long) capacity);
+            int count = (int) (bucket - from);
+            int head = Math.min(count, capacity - first);
+            fill(i, first, first + head);
+            fill(i, 0, count - head);
+            currentBucket[i] = bucket;
+        }
+    }
+
+    private void fill(int resolution, int from, int to) {
+        Arrays.fill(loansAtClose[resolution], from, to, loans);
+        Arrays.fill(returnsAtClose[resolution], from, to, returns);
+    }
+
+    private int loansAtClose(int resolution, long bucket) {
+        if (bucket < firstBucket[resolution]) {
+            return 0;
+        }
+        int[] ring = loansAtClose[resolution];
+        return ring[(int) Math.floorMod(bucket, (long) ring.length)];
+    }
+
+    private int returnsAtClose(int resolution, long bucket) {
+        if (bucket < firstBucket[resolution]) {
+            return 0;
+        }
+        int[] ring = returnsAtClose[resolution];
+        return ring[(int) Math.floorMod(bucket, (long) ring.length)];
+    }
+
+    private void checkWindow(int resolution, int buckets) {
+        int capacity = loansAtClose[resolution].length;
+        if (buckets <= 0 || buckets > capacity) {
+            throw new IllegalArgumentException("Window must be between 1 and " + capacity + " buckets for "
+                    + RESOLUTIONS[resolution] + ".");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package br.ufrn.library.circulation;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.service.LoanEventListener;
+
+/**
+ * Loans and returns per minute, hour and day, overall and per ISBN, counted
+ * as the events happen. The overall series keeps a day of minutes, 90 days of
+ * hours and three years of days; a title keeps an hour of minutes, two days
+ * of hours and 90 days, and is dropped once it has been idle for longer than
+ * that. Buckets follow the clock's time zone.
+ */
+public class CirculationStats implements LoanEventListener {
+
+    private static final int[] OVERALL_CAPACITY = {24 * 60, 90 * 24, 3 * 365};
+    private static final int[] TITLE_CAPACITY = {60, 2 * 24, 90};
+    private static final long TITLE_RETENTION_MILLIS = TITLE_CAPACITY[Resolution.DAY.ordinal()] * Resolution.DAY.getBucketMillis();
+
+    private final Clock clock;
+    private final CirculationSeries overall;
+    private final Map<String, CirculationSeries> titles = new ConcurrentHashMap<>();
+    private final AtomicLong nextPruneMillis;
+
+    public CirculationStats() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public CirculationStats(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null.");
+        }
+        this.clock = clock;
+        long now = localMillis();
+        this.overall = new CirculationSeries(OVERALL_CAPACITY, now);
+        this.nextPruneMillis = new AtomicLong(now + Resolution.HOUR.getBucketMillis());
+    }
+
+    @Override
+    public void onLoanCreated(Loan loan) {
+        long now = localMillis();
+        overall.recordLoan(now);
+        titles.compute(loan.getBook().getIsbn(), (isbn, series) -> {
+            CirculationSeries updated = series != null ? series : new CirculationSeries(TITLE_CAPACITY, now);
+            updated.recordLoan(now);
+            return updated;
+        });
+        pruneIfDue(now);
+    }
+
+    @Override
+    public void onLoanReturned(Loan loan) {
+        long now = localMillis();
+        overall.recordReturn(now);
+        titles.compute(loan.getBook().getIsbn(), (isbn, series) -> {
+            CirculationSeries updated = series != null ? series : new CirculationSeries(TITLE_CAPACITY, now);
+            updated.recordReturn(now);
+            return updated;
+        });
+        pruneIfDue(now);
+    }
+
+    /** Loans and returns in the current bucket and the {@code buckets - 1} before it. */
+    public CirculationCounts getOverall(Resolution resolution, int buckets) {
+        return overall.window(resolution, buckets, localMillis());
+    }
+
+    public CirculationCounts getForIsbn(String isbn, Resolution resolution, int buckets) {
+        CirculationSeries series = titles.get(isbn);
+        if (series == null) {
+            checkTitleWindow(resolution, buckets);
+            return new CirculationCounts(0, 0);
+        }
+        return series.window(resolution, buckets, localMillis());
+    }
+
+    /** Per-bucket counts, oldest first, ending with the current bucket. */
+    public List<CirculationCounts> getOverallSeries(Resolution resolution, int buckets) {
+        return overall.buckets(resolution, buckets, localMillis());
+    }
+
+    public List<CirculationCounts> getSeriesForIsbn(String isbn, Resolution resolution, int buckets) {
+        CirculationSeries series = titles.get(isbn);
+        if (series == null) {
+            checkTitleWindow(resolution, buckets);
+            return Collections.nCopies(buckets, new CirculationCounts(0, 0));
+        }
+        return series.buckets(resolution, buckets, localMillis());
+    }
+
+    public int getTrackedTitleCount() {
+        return titles.size();
+    }
+
+    public void pruneIdleTitles() {
+        long cutoff = localMillis() - TITLE_RETENTION_MILLIS;
+        for (String isbn : titles.keySet()) {
+            titles.computeIfPresent(isbn, (key, series) -> series.getLastEventMillis() < cutoff ? null : series);
+        }
+    }
+
+    private void pruneIfDue(long now) {
+        long due = nextPruneMillis.get();
+        if (now >= due && nextPruneMillis.compareAndSet(due, now + Resolution.HOUR.getBucketMillis())) {
+            pruneIdleTitles();
+        }
+    }
+
+    private long localMillis() {
+        Instant now = clock.instant();
+        return now.toEpochMilli() + clock.getZone().getRules().getOffset(now).getTotalSeconds() * 1000L;
+    }
+
+    private static void checkTitleWindow(Resolution resolution, int buckets) {
+        int capacity = TITLE_CAPACITY[resolution.ordinal()];
+        if (buckets <= 0 || buckets > capacity) {
+            throw new IllegalArgumentException("Window must be between 1 and " + capacity + " buckets for "
+                    + resolution + ".");
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package br.ufrn.library.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import br.ufrn.library.DataLoader;
+import br.ufrn.library.dto.BookAvailabilityDTO;
+import br.ufrn.library.dto.LoanReportDTO;
+import br.ufrn.library.export.ExportFormat;
+import br.ufrn.library.export.ExportResult;
+import br.ufrn.library.export.ReportExporter;
+import br.ufrn.library.export.ReportType;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+import br.ufrn.library.service.BookService;
+import br.ufrn.library.service.LoanService;
+import br.ufrn.library.service.UserService;
+
+/**
+ * Non-interactive driver for the services. Reads one command per line, with
+ * fields separated by {@code ;}:
+ *
+ * <pre>
+ * user;&lt;id&gt;;&lt;name&gt;
+ * physical;&lt;title&gt;;&lt;author&gt;;&lt;isbn&gt;;&lt;copies&gt;
+ * digital;&lt;title&gt;;&lt;author&gt;;&lt;isbn&gt;
+ * loan;&lt;loanId&gt;;&lt;userId&gt;;&lt;isbn&gt;[;&lt;yyyy-mm-dd&gt;]
+ * return;&lt;loanId&gt;[;&lt;yyyy-mm-dd&gt;]
+ * report;loans|availability|active|users
+ * export;loans|active|history|availability|users;csv|json;&lt;file&gt;[;gzip]
+ * seed
+ * </pre>
+ *
+ * Blank lines and lines starting with {@code #} are ignored. A failed command is
+ * reported with its line number and does not stop the batch.
+ */
+public class BatchCommandRunner {
+
+    private static final String SEPARATOR = ";";
+
+    private final BookService bookService;
+    private final UserService userService;
+    private final LoanService loanService;
+    private final PrintWriter out;
+    private final PrintWriter err;
+    private ReportExporter reportExporter;
+
+    private long executed;
+    private long failed;
+
+    public BatchCommandRunner(BookService bookService, UserService userService, LoanService loanService,
+            PrintWriter out, PrintWriter err) {
+        this.bookService = bookService;
+        this.userService = userService;
+        this.loanService = loanService;
+        this.out = out;
+        this.err = err;
+    }
+
+    public void setReportExporter(ReportExporter reportExporter) {
+        this.reportExporter = reportExporter;
+    }
+
+    public void run(BufferedReader input) throws IOException {
+        long start = System.nanoTime();
+        String line;
+        long lineNumber = 0;
+        while ((line = input.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                execute(line.split(SEPARATOR, -1));
+                executed++;
+            } catch (RuntimeException e) {
+                failed++;
+                err.printf("Linha %d: %s (%s)%n", lineNumber, e.getMessage(), line);
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        printSummary(elapsedNanos);
+        out.flush();
+        err.flush();
+    }
+
+    public long getExecuted() {
+        return executed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    private void execute(String[] fields) {
+        switch (fields[0].trim()) {
+            case "user":
+                requireFields(fields, 3);
+                userService.registerUser(fields[1], fields[2]);
+                break;
+            case "physical":
+                requireFields(fields, 5);
+                bookService.registerPhysicalBook(fields[1], fields[2], fields[3], Integer.parseInt(fields[4].trim()));
+                break;
+            case "digital":
+                requireFields(fields, 4);
+                bookService.registerDigitalBook(fields[1], fields[2], fields[3]);
+                break;
+            case "loan":
+                requireFields(fields, 4);
+                if (fields.length > 4) {
+                    loanService.createLoan(fields[1], fields[2], fields[3], LocalDate.parse(fields[4].trim()));
+                } else {
+                    loanService.createLoan(fields[1], fields[2], fields[3]);
+                }
+                break;
+            case "return":
+                requireFields(fields, 2);
+                loanService.returnLoan(fields[1], fields.length > 2 ? LocalDate.parse(fields[2].trim()) : LocalDate.now());
+                break;
+            case "report":
+                requireFields(fields, 2);
+                printReport(fields[1].trim());
+                break;
+            case "export":
+                requireFields(fields, 4);
+                export(fields);
+                break;
+            case "seed":
+                DataLoader.seed(userService, bookService, loanService);
+                break;
+            default:
+                throw new IllegalArgumentException("Comando desconhecido: " + fields[0]);
+        }
+    }
+
+    private void printReport(String name) {
+        switch (name) {
+            case "loans":
+                LoanReportDTO report = loanService.generateLoanReport();
+                out.println("Total de Empréstimos no Sistema: " + report.getTotalLoans());
+                report.getLoansPerBook().forEach((book, count) ->
+                        out.printf("  -> %s (ISBN: %s): %d empréstimo(s)%n", book.getTitle(), book.getIsbn(), count));
+                break;
+            case "availability":
+                for (BookAvailabilityDTO dto : bookService.getBookAvailabilityReport()) {
+                    out.printf("  -> %s (ISBN: %s) [%s] | %s%n",
+                            dto.getTitle(), dto.getIsbn(), dto.getType(), dto.getAvailability());
+                    if (!dto.getBranchAvailability().isEmpty()) {
+                        out.printf("     Unidades: %s%n", dto.getBranchAvailability());
+                    }
+                }
+                break;
+            case "active":
+                List<Loan> activeLoans = loanService.getAllActiveLoans();
+                for (Loan loan : activeLoans) {
+                    out.printf("  -> ID: %s | Data: %s | Usuário: %s | Livro: %s%n",
+                            loan.getId(), loan.getLoanDate(), loan.getUser().getName(), loan.getBook().getTitle());
+                }
+                break;
+            case "users":
+                for (User user : userService.listAllUsers()) {
+                    out.printf("  -> ID: %s | Nome: %s | Empréstimos no Histórico: %d%n",
+                            user.getId(), user.getName(), user.getLoanCount());
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Relatório desconhecido: " + name);
+        }
+    }
+
+    private void export(String[] fields) {
+        if (reportExporter == null) {
+            throw new IllegalStateException("Exportação não configurada.");
+        }
+        boolean gzip = fields.length > 4 && fields[4].trim().equals("gzip");
+        ExportResult result = reportExporter.export(ReportType.fromKey(fields[1].trim()), Path.of(fields[3].trim()),
+                ExportFormat.fromExtension(fields[2].trim()), gzip);
+        out.printf("Exportado: %s | %d linha(s) | %.1f ms | %.0f linhas/s | %d bytes%n",
+                result.getFile(), result.getRows(), result.getElapsedNanos() / 1e6,
+                result.getRowsPerSecond(), result.getBytes());
+    }
+
+    private void printSummary(long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long total = executed + failed;
+        out.printf("%n--- Resumo do Lote ---%n");
+        out.printf("Comandos executados: %d | Falhas: %d | Tempo: %.3f s | Vazão: %.0f ops/s%n",
+                executed, failed, seconds, seconds > 0 ? total / seconds : 0.0);
+    }
+
+    private static void requireFields(String[] fields, int count) {
+        if (fields.length < count) {
+            throw new IllegalArgumentException("Comando '" + fields[0] + "' espera " + (count - 1) + " argumento(s).");
+        }
+    }
+}
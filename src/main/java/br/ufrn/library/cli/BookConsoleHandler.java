@@ -54,6 +54,9 @@ public class BookConsoleHandler {
                     dto.getIsbn(),
                     dto.getType(),
                     dto.getAvailability());
+            if (!dto.getBranchAvailability().isEmpty()) {
+                System.out.printf("     Unidades: %s\n", dto.getBranchAvailability());
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package br.ufrn.library.cli;
+
+import java.nio.file.Path;
+import java.util.Scanner;
+
+import br.ufrn.library.export.ExportFormat;
+import br.ufrn.library.export.ExportResult;
+import br.ufrn.library.export.ReportExporter;
+import br.ufrn.library.export.ReportType;
+
+public class ExportConsoleHandler {
+
+    private final ReportExporter reportExporter;
+    private final Scanner scanner;
+
+    public ExportConsoleHandler(ReportExporter reportExporter, Scanner scanner) {
+        this.reportExporter = reportExporter;
+        this.scanner = scanner;
+    }
+
+    public void handleExportReport() {
+        System.out.println("\n--- 10. Exportar Relatório ---");
+        System.out.print("Relatório (1-Empréstimos por Livro, 2-Empréstimos Ativos, 3-Histórico de Empréstimos, "
+                + "4-Disponibilidade, 5-Usuários): ");
+        int choice = Integer.parseInt(scanner.nextLine().trim());
+        ReportType[] reports = ReportType.values();
+        if (choice < 1 || choice > reports.length) {
+            System.err.println("Relatório inválido.");
+            return;
+        }
+        System.out.print("Formato (1-CSV, 2-JSON): ");
+        ExportFormat format = scanner.nextLine().trim().equals("2") ? ExportFormat.JSON : ExportFormat.CSV;
+        System.out.print("Compactar com gzip? (s/n): ");
+        boolean gzip = scanner.nextLine().trim().equalsIgnoreCase("s");
+        System.out.print("Diretório (vazio para o atual): ");
+        String directory = scanner.nextLine().trim();
+
+        ExportResult result = reportExporter.exportTo(reports[choice - 1],
+                Path.of(directory.isEmpty() ? "." : directory), format, gzip);
+        System.out.printf("%d linha(s) exportada(s) para %s em %.1f ms (%.0f linhas/s, %d bytes)\n",
+                result.getRows(), result.getFile(), result.getElapsedNanos() / 1e6,
+                result.getRowsPerSecond(), result.getBytes());
+    }
+}
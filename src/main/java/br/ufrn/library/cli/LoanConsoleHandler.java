@@ -19,15 +19,18 @@ public class LoanConsoleHandler {
 
     public void handleCreateLoan() {
         System.out.println("\n--- 3. Realizar Empréstimo ---");
-        System.out.print("ID do Empréstimo: ");
+        System.out.print("ID do Empréstimo (vazio para gerar): ");
         String loanId = scanner.nextLine();
+        if (loanId.isBlank()) {
+            loanId = loanService.nextLoanId();
+        }
         System.out.print("ID do Usuário: ");
         String userId = scanner.nextLine();
         System.out.print("ISBN do Livro: ");
         String isbn = scanner.nextLine();
 
         loanService.createLoan(loanId, userId, isbn);
-        System.out.println("Empréstimo realizado com sucesso!");
+        System.out.println("Empréstimo " + loanId + " realizado com sucesso!");
     }
 
     public void handleReturnLoan() {
@@ -8,6 +8,8 @@ import br.ufrn.library.service.UserService;
 
 public class UserConsoleHandler {
 
+    private static final int SEARCH_LIMIT = 10;
+
     private final UserService userService;
     private final Scanner scanner;
 
@@ -40,7 +42,23 @@ public class UserConsoleHandler {
             System.out.printf("  -> ID: %s | Nome: %s | Empréstimos no Histórico: %d\n",
                     user.getId(),
                     user.getName(),
-                    user.getLoanHistory().size());
+                    user.getLoanCount());
+        }
+    }
+
+    public void handleSearchUsers() {
+        System.out.println("\n--- 11. Buscar Usuário por Nome ---");
+        System.out.print("Nome ou início do nome: ");
+        String query = scanner.nextLine();
+
+        List<User> users = userService.searchUsersByName(query, SEARCH_LIMIT);
+        if (users.isEmpty()) {
+            System.out.println("Nenhum usuário encontrado.");
+            return;
+        }
+
+        for (User user : users) {
+            System.out.printf("  -> ID: %s | Nome: %s\n", user.getId(), user.getName());
         }
     }
 
@@ -1,5 +1,11 @@
 package br.ufrn.library.dto;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
+import br.ufrn.library.branch.BranchStock;
+import br.ufrn.library.license.LicensePool;
+import br.ufrn.library.license.LicensePoolManager;
 import br.ufrn.library.model.Book;
 import br.ufrn.library.model.DigitalBook;
 import br.ufrn.library.model.PhysicalBook;
@@ -11,8 +17,19 @@ public class BookAvailabilityDTO {
     private final String author;
     private final String type;
     private final String availability;
+    private final String branchAvailability;
 
     public BookAvailabilityDTO(Book book) {
+        this(book, List.of(), 0);
+    }
+
+    public BookAvailabilityDTO(Book book, List<BranchStock> branchStock, int copiesInTransit) {
+        this(book, branchStock, copiesInTransit, null);
+    }
+
+    /** {@code licenses} may be null, in which case digital titles are shown as always available. */
+    public BookAvailabilityDTO(Book book, List<BranchStock> branchStock, int copiesInTransit,
+            LicensePoolManager licenses) {
         this.isbn = book.getIsbn();
         this.title = book.getTitle();
         this.author = book.getAuthor();
@@ -20,13 +37,39 @@ public class BookAvailabilityDTO {
         if (book instanceof PhysicalBook physicalBook) {
             this.type = "Físico";
             this.availability = physicalBook.getAvailableCopies() + " / " + physicalBook.getTotalCopies();
+            this.branchAvailability = describeBranches(branchStock, copiesInTransit, physicalBook.getTotalCopies());
         } else if (book instanceof DigitalBook) {
             this.type = "Digital";
-            this.availability = "Sempre disponível";
+            LicensePool pool = licenses == null ? null : licenses.getPool(book.getIsbn());
+            this.availability = pool == null
+                    ? "Sempre disponível"
+                    : licenses.getAvailableSeats(book.getIsbn()) + " / " + pool.getTerms().getConcurrentSeats()
+                            + " licenças";
+            this.branchAvailability = "";
         } else {
             this.type = "Unknown";
             this.availability = "N/A";
+            this.branchAvailability = "";
+        }
+    }
+
+    /** Branch breakdown, followed by copies in transit and copies not yet allocated to any branch. */
+    private static String describeBranches(List<BranchStock> branchStock, int copiesInTransit, int totalCopies) {
+        if (branchStock.isEmpty()) {
+            return "";
+        }
+        StringBuilder description = new StringBuilder(branchStock.stream()
+                .map(stock -> stock.branch().getName() + " " + stock.available() + "/" + stock.owned())
+                .collect(Collectors.joining(", ")));
+        if (copiesInTransit > 0) {
+            description.append(" (").append(copiesInTransit).append(" em trânsito)");
         }
+        int unallocated = totalCopies - copiesInTransit
+                - branchStock.stream().mapToInt(BranchStock::owned).sum();
+        if (unallocated > 0) {
+            description.append(" (").append(unallocated).append(" sem filial)");
+        }
+        return description.toString();
     }
 
     public String getIsbn() {
@@ -48,4 +91,8 @@ public class BookAvailabilityDTO {
     public String getAvailability() {
         return availability;
     }
+
+    public String getBranchAvailability() {
+        return branchAvailability;
+    }
 }
\ No newline at end of file
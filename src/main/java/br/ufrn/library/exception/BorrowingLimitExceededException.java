@@ -0,0 +1,10 @@
+package br.ufrn.library.exception;
+
+public class BorrowingLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BorrowingLimitExceededException(String message) {
+        super(message);
+    }
+}
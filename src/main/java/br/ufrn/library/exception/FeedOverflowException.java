@@ -0,0 +1,18 @@
+package br.ufrn.library.exception;
+
+public class FeedOverflowException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long resumeOffset;
+
+    public FeedOverflowException(long missedOffset, long resumeOffset) {
+        super("Subscriber fell behind the change feed at offset " + missedOffset
+                + "; resume from offset " + resumeOffset + ".");
+        this.resumeOffset = resumeOffset;
+    }
+
+    public long getResumeOffset() {
+        return resumeOffset;
+    }
+}
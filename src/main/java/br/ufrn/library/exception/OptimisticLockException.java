@@ -0,0 +1,10 @@
+package br.ufrn.library.exception;
+
+public class OptimisticLockException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public OptimisticLockException(String entity, String id, long expectedVersion) {
+        super(entity + " " + id + " was modified concurrently (expected version " + expectedVersion + ").");
+    }
+}
@@ -0,0 +1,70 @@
+package br.ufrn.library.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/** RFC 4180 quoting: a field is quoted only if it holds a comma, quote or line break. */
+class CsvRecordWriter extends RecordWriter {
+
+    private final StringBuilder line = new StringBuilder();
+
+    CsvRecordWriter(Writer out, List<String> columns) {
+        super(out, columns);
+    }
+
+    @Override
+    void begin() throws IOException {
+        writeLine(columns.toArray());
+    }
+
+    @Override
+    void write(Object... values) throws IOException {
+        checkWidth(values);
+        writeLine(values);
+    }
+
+    @Override
+    void end() {
+    }
+
+    private void writeLine(Object[] values) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            if (values[i] != null) {
+                appendField(values[i].toString());
+            }
+        }
+        line.append('\n');
+        out.append(line);
+    }
+
+    private void appendField(String value) {
+        if (!needsQuotes(value)) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,64 @@
+package br.ufrn.library.export;
+
+import java.nio.file.Path;
+
+public class ExportResult {
+
+    private final ReportType report;
+    private final Path file;
+    private final ExportFormat format;
+    private final boolean compressed;
+    private final long rows;
+    private final long bytes;
+    private final long elapsedNanos;
+
+    public ExportResult(ReportType report, Path file, ExportFormat format, boolean compressed, long rows, long bytes,
+                        long elapsedNanos) {
+        this.report = report;
+        this.file = file;
+        this.format = format;
+        this.compressed = compressed;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public ReportType getReport() {
+        return report;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /** Size of the written file, after compression. */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExportResult{report=%s, file=%s, format=%s, gzip=%s, rows=%d, bytes=%d, elapsedMs=%.1f, rowsPerSecond=%.0f}",
+                report, file, format, compressed, rows, bytes, elapsedNanos / 1e6, getRowsPerSecond());
+    }
+}
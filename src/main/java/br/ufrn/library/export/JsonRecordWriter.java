@@ -0,0 +1,91 @@
+package br.ufrn.library.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/** A JSON array with one object per row, written as the rows arrive. */
+class JsonRecordWriter extends RecordWriter {
+
+    private final String[] keys;
+    private final StringBuilder row = new StringBuilder();
+    private boolean first = true;
+
+    JsonRecordWriter(Writer out, List<String> columns) {
+        super(out, columns);
+        this.keys = new String[columns.size()];
+        for (int i = 0; i < keys.length; i++) {
+            StringBuilder key = new StringBuilder();
+            appendString(key, columns.get(i));
+            keys[i] = key.append(':').toString();
+        }
+    }
+
+    @Override
+    void begin() throws IOException {
+        out.write('[');
+    }
+
+    @Override
+    void write(Object... values) throws IOException {
+        checkWidth(values);
+        row.setLength(0);
+        row.append(first ? "\n{" : ",\n{");
+        first = false;
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            row.append(keys[i]);
+            appendValue(values[i]);
+        }
+        row.append('}');
+        out.append(row);
+    }
+
+    @Override
+    void end() throws IOException {
+        out.write(first ? "]\n" : "\n]\n");
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            row.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            row.append(value);
+        } else {
+            appendString(row, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,41 @@
+package br.ufrn.library.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/** Writes rows of a fixed set of columns to a character stream, one row at a time. */
+abstract class RecordWriter {
+
+    protected final Writer out;
+    protected final List<String> columns;
+
+    protected RecordWriter(Writer out, List<String> columns) {
+        this.out = out;
+        this.columns = columns;
+    }
+
+    static RecordWriter create(ExportFormat format, Writer out, List<String> columns) {
+        switch (format) {
+            case CSV:
+                return new CsvRecordWriter(out, columns);
+            case JSON:
+                return new JsonRecordWriter(out, columns);
+            default:
+                throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+    }
+
+    abstract void begin() throws IOException;
+
+    /** Values are written in column order; strings, numbers, booleans, dates and nulls are supported. */
+    abstract void write(Object... values) throws IOException;
+
+    abstract void end() throws IOException;
+
+    protected void checkWidth(Object[] values) {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values but got " + values.length + ".");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package br.ufrn.library.export;
+
+import java.util.List;
+
+public enum ReportType {
+    LOAN_SUMMARY("loans", List.of("isbn", "title", "loans")),
+    ACTIVE_LOANS("active", Columns.LOAN),
+    LOAN_HISTORY("history", Columns.LOAN),
+    AVAILABILITY("availability", List.of("isbn", "title", "author", "type", "availability", "branches")),
+    USERS("users", List.of("id", "name", "loans"));
+
+    private final String key;
+    private final List<String> columns;
+
+    ReportType(String key, List<String> columns) {
+        this.key = key;
+        this.columns = columns;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public String fileName(ExportFormat format, boolean gzip) {
+        return key + "." + format.getExtension() + (gzip ? ".gz" : "");
+    }
+
+    public static ReportType fromKey(String key) {
+        for (ReportType report : values()) {
+            if (report.key.equals(key)) {
+                return report;
+            }
+        }
+        throw new IllegalArgumentException("Unknown report: " + key);
+    }
+
+    // Enum constants are initialized before the enum's own static fields, so shared columns live here.
+    private static final class Columns {
+        static final List<String> LOAN = List.of("id", "userId", "userName", "isbn", "title", "copyBarcode",
+                "loanDate", "dueDate", "returnDate", "returned");
+    }
+}
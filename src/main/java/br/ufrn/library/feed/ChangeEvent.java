@@ -0,0 +1,61 @@
+package br.ufrn.library.feed;
+
+import java.time.Instant;
+
+public class ChangeEvent<T> {
+
+    private final long offset;
+    private final EntityType entityType;
+    private final ChangeType changeType;
+    private final String key;
+    private final T entity;
+    private final Instant timestamp;
+
+    ChangeEvent(long offset, EntityType entityType, ChangeType changeType, String key, T entity, Instant timestamp) {
+        this.offset = offset;
+        this.entityType = entityType;
+        this.changeType = changeType;
+        this.key = key;
+        this.entity = entity;
+        this.timestamp = timestamp;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getNextOffset() {
+        return offset + 1;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public T getEntity() {
+        return entity;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "offset=" + offset +
+                ", entityType=" + entityType +
+                ", changeType=" + changeType +
+                ", key='" + key + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
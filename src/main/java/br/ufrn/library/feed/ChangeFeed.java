@@ -0,0 +1,196 @@
+package br.ufrn.library.feed;
+
+import java.time.Clock;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.ufrn.library.exception.FeedOverflowException;
+
+/**
+ * Publishes repository mutations as an ordered stream of {@link ChangeEvent}s.
+ * Events are appended to a bounded in-memory log and every subscriber reads it
+ * through its own cursor, so publishing never blocks on a slow consumer. A
+ * subscriber that falls more than its buffer size behind is failed with a
+ * {@link FeedOverflowException} carrying the offset to resume from; a consumer
+ * that restarts resumes with {@link #subscribe(Flow.Subscriber, long)} as long
+ * as that offset is still retained.
+ */
+public class ChangeFeed implements Flow.Publisher<ChangeEvent<?>> {
+
+    private static final int DEFAULT_RETAINED_EVENTS = 1 << 14;
+
+    private final ChangeEvent<?>[] log;
+    private final int mask;
+    private final Executor executor;
+    private final Clock clock;
+    private final CopyOnWriteArrayList<FeedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long nextOffset;
+
+    public ChangeFeed() {
+        this(DEFAULT_RETAINED_EVENTS, ForkJoinPool.commonPool(), Clock.systemUTC());
+    }
+
+    public ChangeFeed(int retainedEvents, Executor executor, Clock clock) {
+        if (retainedEvents <= 0) {
+            throw new IllegalArgumentException("Retained events must be positive.");
+        }
+        if (executor == null || clock == null) {
+            throw new IllegalArgumentException("Executor and clock cannot be null.");
+        }
+        int capacity = Integer.highestOneBit(retainedEvents - 1) << 1;
+        this.log = new ChangeEvent<?>[Math.max(1, capacity)];
+        this.mask = log.length - 1;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    public <T> ChangeEvent<T> publish(EntityType entityType, ChangeType changeType, String key, T entity) {
+        ChangeEvent<T> event;
+        synchronized (log) {
+            event = new ChangeEvent<>(nextOffset, entityType, changeType, key, entity, clock.instant());
+            log[(int) (nextOffset & mask)] = event;
+            nextOffset++;
+        }
+        for (FeedSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+        return event;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ChangeEvent<?>> subscriber) {
+        subscribe(subscriber, getNextOffset());
+    }
+
+    public void subscribe(Flow.Subscriber<? super ChangeEvent<?>> subscriber, long fromOffset) {
+        subscribe(subscriber, fromOffset, log.length);
+    }
+
+    public void subscribe(Flow.Subscriber<? super ChangeEvent<?>> subscriber, long fromOffset, int bufferSize) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber cannot be null.");
+        }
+        if (bufferSize <= 0 || bufferSize > log.length) {
+            throw new IllegalArgumentException("Buffer size must be between 1 and " + log.length + ".");
+        }
+        if (fromOffset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative.");
+        }
+        FeedSubscription subscription = new FeedSubscription(subscriber, fromOffset, bufferSize);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        subscription.signal();
+    }
+
+    public long getNextOffset() {
+        synchronized (log) {
+            return nextOffset;
+        }
+    }
+
+    public long getOldestRetainedOffset() {
+        synchronized (log) {
+            return Math.max(0, nextOffset - log.length);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private ChangeEvent<?> eventAt(long offset) {
+        synchronized (log) {
+            if (offset >= nextOffset || offset < nextOffset - log.length) {
+                return null;
+            }
+            return log[(int) (offset & mask)];
+        }
+    }
+
+    private final class FeedSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super ChangeEvent<?>> subscriber;
+        private final int bufferSize;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingSignals = new AtomicInteger();
+        private volatile boolean done;
+        private volatile Throwable pendingError;
+        private long cursor;
+
+        private FeedSubscription(Flow.Subscriber<? super ChangeEvent<?>> subscriber, long fromOffset, int bufferSize) {
+            this.subscriber = subscriber;
+            this.cursor = fromOffset;
+            this.bufferSize = bufferSize;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                pendingError = new IllegalArgumentException("Requested events must be positive: " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            subscriptions.remove(this);
+        }
+
+        private void signal() {
+            if (!done && pendingSignals.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int signals = 1;
+            do {
+                drain();
+                signals = pendingSignals.addAndGet(-signals);
+            } while (signals != 0);
+        }
+
+        private void drain() {
+            while (!done) {
+                if (pendingError != null) {
+                    fail(pendingError);
+                    return;
+                }
+                long head = getNextOffset();
+                if (cursor < Math.max(0, head - bufferSize)) {
+                    fail(new FeedOverflowException(cursor, Math.max(cursor, getOldestRetainedOffset())));
+                    return;
+                }
+                if (cursor >= head || demand.get() == 0) {
+                    return;
+                }
+                ChangeEvent<?> event = eventAt(cursor);
+                if (event == null) {
+                    fail(new FeedOverflowException(cursor, Math.max(cursor, getOldestRetainedOffset())));
+                    return;
+                }
+                cursor++;
+                demand.decrementAndGet();
+                try {
+                    subscriber.onNext(event);
+                } catch (RuntimeException e) {
+                    cancel();
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        private void fail(Throwable error) {
+            cancel();
+            subscriber.onError(error);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package br.ufrn.library.feed;
+
+public enum ChangeType {
+    SAVED,
+    DELETED
+}
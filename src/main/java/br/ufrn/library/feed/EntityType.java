@@ -0,0 +1,7 @@
+package br.ufrn.library.feed;
+
+public enum EntityType {
+    BOOK,
+    USER,
+    LOAN
+}
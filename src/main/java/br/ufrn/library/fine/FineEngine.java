@@ -0,0 +1,214 @@
+package br.ufrn.library.fine;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.scheduler.OverdueListener;
+import br.ufrn.library.service.LoanEventListener;
+
+/**
+ * Charges fines for overdue loans. Each loan has one account from its first
+ * overdue event until it is returned; the return settles the fine up to the
+ * return date and leaves the account behind closed, so an overdue event that
+ * was already in flight cannot open a second one. Closed accounts are dropped
+ * by the nightly accrual once their return is a week old.
+ */
+public class FineEngine implements LoanEventListener, OverdueListener {
+
+    private static final long PARALLELISM_THRESHOLD = 1_000;
+    private static final int CLOSED_RETENTION_DAYS = 7;
+
+    private final FinePolicy physicalBookPolicy;
+    private final FinePolicy digitalBookPolicy;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, FineAccount> accounts = new ConcurrentHashMap<>();
+    private final AtomicInteger accruingCount = new AtomicInteger();
+    private final ConcurrentHashMap<String, AtomicLong> outstandingBalances = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executor;
+
+    public FineEngine(FinePolicy physicalBookPolicy, FinePolicy digitalBookPolicy) {
+        this(physicalBookPolicy, digitalBookPolicy, Clock.systemDefaultZone());
+    }
+
+    public FineEngine(FinePolicy physicalBookPolicy, FinePolicy digitalBookPolicy, Clock clock) {
+        if (physicalBookPolicy == null || digitalBookPolicy == null) {
+            throw new IllegalArgumentException("Fine policies cannot be null.");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null.");
+        }
+        this.physicalBookPolicy = physicalBookPolicy;
+        this.digitalBookPolicy = digitalBookPolicy;
+        this.clock = clock;
+    }
+
+    @Override
+    public void onOverdue(Loan loan, LocalDate detectedOn) {
+        if (loan.isReturned()) {
+            return;
+        }
+        FineAccount account = accounts.computeIfAbsent(loan.getId(), id -> {
+            accruingCount.incrementAndGet();
+            return new FineAccount(loan, policyFor(loan.getBook()));
+        });
+        accrue(account, detectedOn);
+    }
+
+    @Override
+    public void onLoanReturned(Loan loan) {
+        accounts.compute(loan.getId(), (id, account) -> {
+            if (account == null) {
+                account = new FineAccount(loan, policyFor(loan.getBook()));
+            } else if (account.closed) {
+                return account;
+            } else {
+                accruingCount.decrementAndGet();
+            }
+            synchronized (account) {
+                account.loan = loan;
+                accrue(account, loan.getReturnDate());
+                account.closed = true;
+            }
+            return account;
+        });
+    }
+
+    public long accrueAll(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null.");
+        }
+        LocalDate forgetBefore = date.minusDays(CLOSED_RETENTION_DAYS);
+        LongAdder accrued = new LongAdder();
+        accounts.forEach(PARALLELISM_THRESHOLD, (loanId, account) -> {
+            if (account.isClosedBefore(forgetBefore)) {
+                accounts.remove(loanId, account);
+            } else {
+                accrued.add(accrue(account, date));
+            }
+        });
+        return accrued.sum();
+    }
+
+    public long getOutstandingBalanceInCents(String userId) {
+        AtomicLong balance = outstandingBalances.get(userId);
+        return balance == null ? 0 : balance.get();
+    }
+
+    public long getAccruedFineInCents(String loanId) {
+        FineAccount account = accounts.get(loanId);
+        if (account == null) {
+            return 0;
+        }
+        synchronized (account) {
+            return account.chargedInCents;
+        }
+    }
+
+    public void payFine(String userId, long amountInCents) {
+        if (amountInCents <= 0) {
+            throw new IllegalArgumentException("Payment amount must be positive.");
+        }
+        AtomicLong balance = outstandingBalances.get(userId);
+        if (balance == null) {
+            throw new IllegalStateException("User has no outstanding fines: " + userId);
+        }
+        long current;
+        do {
+            current = balance.get();
+            if (amountInCents > current) {
+                throw new IllegalArgumentException(
+                        "Payment of " + amountInCents + " exceeds outstanding balance of " + current + ".");
+            }
+        } while (!balance.compareAndSet(current, current - amountInCents));
+    }
+
+    public int getAccruingCount() {
+        return accruingCount.get();
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fine-accrual");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long untilMidnight = Duration.between(LocalDateTime.now(clock),
+                LocalDate.now(clock).plusDays(1).atStartOfDay()).toMillis();
+        executor.scheduleAtFixedRate(this::nightlyAccrual, untilMidnight,
+                TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void nightlyAccrual() {
+        try {
+            accrueAll(LocalDate.now(clock));
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao calcular multas: " + e.getMessage());
+        }
+    }
+
+    private long accrue(FineAccount account, LocalDate upTo) {
+        long delta;
+        String userId;
+        synchronized (account) {
+            if (account.closed) {
+                return 0;
+            }
+            LocalDate returnDate = account.loan.getReturnDate();
+            if (returnDate != null && returnDate.isBefore(upTo)) {
+                upTo = returnDate;
+            }
+            long target = account.policy.fineFor(account.loan.getDueDate(), upTo);
+            delta = target - account.chargedInCents;
+            if (delta <= 0) {
+                return 0;
+            }
+            account.chargedInCents = target;
+            userId = account.loan.getUser().getId();
+        }
+        outstandingBalances.computeIfAbsent(userId, id -> new AtomicLong())
+                .addAndGet(delta);
+        return delta;
+    }
+
+    private FinePolicy policyFor(Book book) {
+        return book instanceof DigitalBook ? digitalBookPolicy : physicalBookPolicy;
+    }
+
+    private static final class FineAccount {
+        private Loan loan;
+        private final FinePolicy policy;
+        private long chargedInCents;
+        private boolean closed;
+
+        private FineAccount(Loan loan, FinePolicy policy) {
+            this.loan = loan;
+            this.policy = policy;
+        }
+
+        private synchronized boolean isClosedBefore(LocalDate date) {
+            return closed && loan.getReturnDate().isBefore(date);
+        }
+    }
+}
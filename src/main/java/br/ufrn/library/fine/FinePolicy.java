@@ -0,0 +1,43 @@
+package br.ufrn.library.fine;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+public class FinePolicy {
+
+    private final long dailyRateInCents;
+    private final long maxFineInCents;
+    private final int gracePeriodDays;
+
+    public FinePolicy(long dailyRateInCents, long maxFineInCents, int gracePeriodDays) {
+        if (dailyRateInCents < 0) {
+            throw new IllegalArgumentException("Daily rate cannot be negative.");
+        }
+        if (maxFineInCents < 0) {
+            throw new IllegalArgumentException("Maximum fine cannot be negative.");
+        }
+        if (gracePeriodDays < 0) {
+            throw new IllegalArgumentException("Grace period cannot be negative.");
+        }
+        this.dailyRateInCents = dailyRateInCents;
+        this.maxFineInCents = maxFineInCents;
+        this.gracePeriodDays = gracePeriodDays;
+    }
+
+    public long fineFor(LocalDate dueDate, LocalDate upTo) {
+        long chargeableDays = ChronoUnit.DAYS.between(dueDate, upTo) - gracePeriodDays;
+        if (chargeableDays <= 0 || dailyRateInCents == 0) {
+            return 0;
+        }
+        if (chargeableDays > maxFineInCents / dailyRateInCents) {
+            return maxFineInCents;
+        }
+        return chargeableDays * dailyRateInCents;
+    }
+
+    public long getDailyRateInCents() { return dailyRateInCents; }
+
+    public long getMaxFineInCents() { return maxFineInCents; }
+
+    public int getGracePeriodDays() { return gracePeriodDays; }
+}
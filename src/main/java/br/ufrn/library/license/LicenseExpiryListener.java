@@ -0,0 +1,10 @@
+package br.ufrn.library.license;
+
+import java.time.LocalDate;
+
+import br.ufrn.library.model.Loan;
+
+public interface LicenseExpiryListener {
+
+    void onLicenseExpired(Loan loan, LocalDate expiredOn);
+}
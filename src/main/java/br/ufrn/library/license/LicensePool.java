@@ -0,0 +1,140 @@
+package br.ufrn.library.license;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seats in use and checkouts consumed by one digital title, packed into a
+ * single {@link AtomicLong} (32 bits each) so that checking both limits and
+ * taking a seat is one compare-and-set.
+ */
+public class LicensePool {
+
+    public enum Decision {
+        GRANTED,
+        NO_SEAT_AVAILABLE,
+        CHECKOUTS_EXHAUSTED,
+        EXPIRED
+    }
+
+    static final int MAX_COUNT = Integer.MAX_VALUE;
+
+    private static final long SEAT = 1L;
+    private static final long CHECKOUT = 1L << 32;
+
+    private final AtomicLong state = new AtomicLong();
+    private volatile LicenseTerms terms;
+
+    public LicensePool(LicenseTerms terms) {
+        setTerms(terms);
+    }
+
+    public Decision tryAcquire(LocalDate date) {
+        LicenseTerms current = terms;
+        if (!current.isValidOn(date)) {
+            return Decision.EXPIRED;
+        }
+        while (true) {
+            long value = state.get();
+            if (current.isMetered() && checkouts(value) >= current.getMaxCheckouts()) {
+                return Decision.CHECKOUTS_EXHAUSTED;
+            }
+            if (seats(value) >= current.getConcurrentSeats()) {
+                return Decision.NO_SEAT_AVAILABLE;
+            }
+            if (state.compareAndSet(value, value + SEAT + CHECKOUT)) {
+                return Decision.GRANTED;
+            }
+        }
+    }
+
+    public void forceAcquire() {
+        state.addAndGet(SEAT);
+    }
+
+    public void release() {
+        while (true) {
+            long value = state.get();
+            if (seats(value) == 0) {
+                throw new IllegalStateException("No license seat is in use.");
+            }
+            if (state.compareAndSet(value, value - SEAT)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gives back a seat and the checkout it consumed. The checkout is not
+     * returned if a renewal has reset the count since it was taken.
+     */
+    public void cancelAcquire() {
+        while (true) {
+            long value = state.get();
+            if (seats(value) == 0) {
+                throw new IllegalStateException("No license seat is in use.");
+            }
+            long next = value - SEAT - (checkouts(value) == 0 ? 0 : CHECKOUT);
+            if (state.compareAndSet(value, next)) {
+                return;
+            }
+        }
+    }
+
+    void clearSeats() {
+        state.updateAndGet(value -> value & ~0xFFFF_FFFFL);
+    }
+
+    /**
+     * Replaces the terms, keeping the seats in use. A renewal starts a new
+     * metering period, so the checkout count is reset.
+     */
+    public void setTerms(LicenseTerms terms) {
+        if (terms == null) {
+            throw new IllegalArgumentException("License terms cannot be null.");
+        }
+        LicenseTerms previous = this.terms;
+        this.terms = terms;
+        if (previous != null) {
+            state.updateAndGet(value -> value & 0xFFFF_FFFFL);
+        }
+    }
+
+    public LicenseTerms getTerms() {
+        return terms;
+    }
+
+    public int getSeatsInUse() {
+        return seats(state.get());
+    }
+
+    public int getCheckoutsUsed() {
+        return checkouts(state.get());
+    }
+
+    /** Lends that could be granted on {@code date}: free seats, limited by the checkouts left. */
+    public int getAvailableSeats(LocalDate date) {
+        LicenseTerms current = terms;
+        if (!current.isValidOn(date)) {
+            return 0;
+        }
+        int free = Math.max(0, current.getConcurrentSeats() - getSeatsInUse());
+        return Math.min(free, getRemainingCheckouts());
+    }
+
+    public int getRemainingCheckouts() {
+        LicenseTerms current = terms;
+        if (!current.isMetered()) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.max(0, current.getMaxCheckouts() - getCheckoutsUsed());
+    }
+
+    private static int seats(long value) {
+        return (int) value;
+    }
+
+    private static int checkouts(long value) {
+        return (int) (value >>> 32);
+    }
+}
@@ -0,0 +1,249 @@
+package br.ufrn.library.license;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+import br.ufrn.library.service.LoanEventListener;
+import br.ufrn.library.service.LoanStatus;
+
+/**
+ * Enforces publisher licenses on digital titles. Each licensed title has a
+ * {@link LicensePool}; a lend holds one seat until it is returned or its due
+ * date is reached, whichever comes first. Expiring lends are kept in a
+ * lock-free skip list ordered by due date, so checkouts never share a lock.
+ * Digital titles without a license remain unlimited.
+ */
+public class LicensePoolManager implements LoanEventListener {
+
+    private static final Duration DEFAULT_CHECK_INTERVAL = Duration.ofMinutes(1);
+    private static final Comparator<Lease> BY_EXPIRY =
+            Comparator.comparingLong((Lease lease) -> lease.expiresOn).thenComparing(lease -> lease.loan.getId());
+
+    private final Clock clock;
+    private final Map<String, LicensePool> pools = new ConcurrentHashMap<>();
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Lease> expiries = new ConcurrentSkipListSet<>(BY_EXPIRY);
+    private final List<LicenseExpiryListener> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService executor;
+
+    public LicensePoolManager() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public LicensePoolManager(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null.");
+        }
+        this.clock = clock;
+    }
+
+    public void registerLicense(String isbn, LicenseTerms terms) {
+        if (isbn == null || isbn.isBlank()) {
+            throw new IllegalArgumentException("ISBN cannot be null or empty.");
+        }
+        if (terms == null) {
+            throw new IllegalArgumentException("License terms cannot be null.");
+        }
+        pools.compute(isbn, (key, pool) -> {
+            if (pool == null) {
+                return new LicensePool(terms);
+            }
+            pool.setTerms(terms);
+            return pool;
+        });
+    }
+
+    public LicensePool getPool(String isbn) {
+        return pools.get(isbn);
+    }
+
+    /** Seats free for a new lend of the title today, or {@link Integer#MAX_VALUE} if it has no license. */
+    public int getAvailableSeats(String isbn) {
+        LicensePool pool = pools.get(isbn);
+        return pool == null ? Integer.MAX_VALUE : pool.getAvailableSeats(LocalDate.now(clock));
+    }
+
+    public void addListener(LicenseExpiryListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(LicenseExpiryListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void rebuild(List<Loan> activeLoans) {
+        leases.clear();
+        expiries.clear();
+        for (LicensePool pool : pools.values()) {
+            pool.clearSeats();
+        }
+        for (Loan loan : activeLoans) {
+            LicensePool pool = poolFor(loan.getBook());
+            if (pool != null) {
+                pool.forceAcquire();
+                addLease(loan);
+            }
+        }
+    }
+
+    @Override
+    public LoanStatus beforeLoanCreated(User user, Book book) {
+        LicensePool pool = poolFor(book);
+        if (pool == null) {
+            return LoanStatus.SUCCESS;
+        }
+        switch (pool.tryAcquire(LocalDate.now(clock))) {
+            case GRANTED:
+                return LoanStatus.SUCCESS;
+            case NO_SEAT_AVAILABLE:
+                return LoanStatus.NO_LICENSE_AVAILABLE;
+            default:
+                return LoanStatus.LICENSE_EXHAUSTED;
+        }
+    }
+
+    @Override
+    public void onLoanCreationFailed(User user, Book book) {
+        LicensePool pool = poolFor(book);
+        if (pool != null) {
+            pool.cancelAcquire();
+        }
+    }
+
+    @Override
+    public void onLoanCreated(Loan loan) {
+        if (poolFor(loan.getBook()) != null) {
+            addLease(loan);
+        }
+    }
+
+    @Override
+    public void onLoanReturned(Loan loan) {
+        Lease lease = leases.remove(loan.getId());
+        if (lease != null) {
+            expiries.remove(lease);
+            lease.pool.release();
+        }
+    }
+
+    public int advanceTo(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null.");
+        }
+        long day = date.toEpochDay();
+        List<Lease> expired = new ArrayList<>();
+        Lease lease;
+        while ((lease = firstExpiry()) != null && lease.expiresOn <= day) {
+            if (expiries.remove(lease) && leases.remove(lease.loan.getId(), lease)) {
+                lease.pool.release();
+                expired.add(lease);
+            }
+        }
+        for (Lease each : expired) {
+            fire(each.loan, LocalDate.ofEpochDay(each.expiresOn));
+        }
+        return expired.size();
+    }
+
+    public int tick() {
+        return advanceTo(LocalDate.now(clock));
+    }
+
+    public int getActiveLeaseCount() {
+        return leases.size();
+    }
+
+    public synchronized void start() {
+        start(DEFAULT_CHECK_INTERVAL);
+    }
+
+    public synchronized void start(Duration checkInterval) {
+        if (checkInterval == null || checkInterval.isNegative() || checkInterval.isZero()) {
+            throw new IllegalArgumentException("Check interval must be positive.");
+        }
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "license-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = checkInterval.toMillis();
+        executor.scheduleAtFixedRate(this::safeTick, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private LicensePool poolFor(Book book) {
+        return book instanceof DigitalBook ? pools.get(book.getIsbn()) : null;
+    }
+
+    private void addLease(Loan loan) {
+        Lease lease = new Lease(loan, pools.get(loan.getBook().getIsbn()));
+        Lease previous = leases.put(loan.getId(), lease);
+        if (previous != null) {
+            expiries.remove(previous);
+        }
+        expiries.add(lease);
+    }
+
+    private Lease firstExpiry() {
+        Iterator<Lease> iterator = expiries.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao expirar licenças digitais: " + e.getMessage());
+        }
+    }
+
+    private void fire(Loan loan, LocalDate expiredOn) {
+        for (LicenseExpiryListener listener : listeners) {
+            try {
+                listener.onLicenseExpired(loan, expiredOn);
+            } catch (RuntimeException e) {
+                System.err.println("Erro no listener de expiração de licença: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Lease {
+        private final Loan loan;
+        private final LicensePool pool;
+        private final long expiresOn;
+
+        private Lease(Loan loan, LicensePool pool) {
+            this.loan = loan;
+            this.pool = pool;
+            this.expiresOn = loan.getDueDate().toEpochDay();
+        }
+    }
+}
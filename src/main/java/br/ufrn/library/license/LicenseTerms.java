@@ -0,0 +1,47 @@
+package br.ufrn.library.license;
+
+import java.time.LocalDate;
+
+public class LicenseTerms {
+
+    public static final int UNMETERED = 0;
+
+    private final int concurrentSeats;
+    private final int maxCheckouts;
+    private final LocalDate validUntil;
+
+    /**
+     * @param concurrentSeats simultaneous lends allowed
+     * @param maxCheckouts    lends allowed over the life of the license, or
+     *                        {@link #UNMETERED}
+     * @param validUntil      last day new lends may start, or {@code null} for a
+     *                        perpetual license
+     */
+    public LicenseTerms(int concurrentSeats, int maxCheckouts, LocalDate validUntil) {
+        if (concurrentSeats <= 0 || concurrentSeats > LicensePool.MAX_COUNT) {
+            throw new IllegalArgumentException("Concurrent seats must be between 1 and " + LicensePool.MAX_COUNT + ".");
+        }
+        if (maxCheckouts < 0 || maxCheckouts > LicensePool.MAX_COUNT) {
+            throw new IllegalArgumentException("Max checkouts must be between 0 and " + LicensePool.MAX_COUNT + ".");
+        }
+        this.concurrentSeats = concurrentSeats;
+        this.maxCheckouts = maxCheckouts;
+        this.validUntil = validUntil;
+    }
+
+    public static LicenseTerms concurrent(int seats) {
+        return new LicenseTerms(seats, UNMETERED, null);
+    }
+
+    public int getConcurrentSeats() { return concurrentSeats; }
+
+    public int getMaxCheckouts() { return maxCheckouts; }
+
+    public LocalDate getValidUntil() { return validUntil; }
+
+    public boolean isMetered() { return maxCheckouts != UNMETERED; }
+
+    public boolean isValidOn(LocalDate date) {
+        return validUntil == null || !date.isAfter(validUntil);
+    }
+}
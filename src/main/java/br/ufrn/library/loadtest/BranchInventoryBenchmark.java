@@ -0,0 +1,122 @@
+package br.ufrn.library.loadtest;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.ufrn.library.branch.Branch;
+import br.ufrn.library.branch.BranchInventory;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryLoanRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+import br.ufrn.library.service.BookService;
+import br.ufrn.library.service.LoanResult;
+import br.ufrn.library.service.LoanService;
+import br.ufrn.library.service.UserService;
+
+/**
+ * Spreads a catalogue over a consortium of branches and measures cross-branch
+ * "nearest copy" lookups and branch-local checkouts and returns from several
+ * threads. Usage: {@code BranchInventoryBenchmark [branches] [titles] [threads] [operations]}.
+ */
+public class BranchInventoryBenchmark {
+
+    private static final int COPIES_PER_BRANCH = 2;
+    private static final int USERS = 2_000;
+    private static final int LOOKUPS = 2_000_000;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        int branchCount = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int titles = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int operations = args.length > 3 ? Integer.parseInt(args[3]) : 400_000;
+
+        InMemoryBookRepository bookRepo = new InMemoryBookRepository();
+        InMemoryUserRepository userRepo = new InMemoryUserRepository();
+        BookService bookService = new BookService(bookRepo);
+        UserService userService = new UserService(userRepo);
+        LoanService loanService = new LoanService(new InMemoryLoanRepository(), bookRepo, userRepo);
+        BranchInventory branches = new BranchInventory();
+        loanService.addLoanEventListener(branches);
+        bookService.setBranchInventory(branches);
+
+        SplittableRandom random = new SplittableRandom(5);
+        for (int b = 0; b < branchCount; b++) {
+            branches.registerBranch(new Branch("br-" + b, "Unidade " + b,
+                    -6.0 + random.nextDouble(), -35.5 + random.nextDouble()));
+        }
+        for (int u = 0; u < USERS; u++) {
+            userService.registerUser("br-u" + u, "Leitor " + u);
+        }
+        for (int t = 0; t < titles; t++) {
+            String isbn = "br-isbn-" + t;
+            int stocked = 0;
+            for (int b = 0; b < branchCount; b++) {
+                if (random.nextInt(4) == 0) {
+                    branches.allocateCopies(isbn, "br-" + b, COPIES_PER_BRANCH);
+                    stocked++;
+                }
+            }
+            bookService.registerPhysicalBook("Livro " + t, "Autor " + t, isbn, stocked * COPIES_PER_BRANCH);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                sink = branches.findNearestWithCopy("br-isbn-" + random.nextInt(titles), "br-" + random.nextInt(branchCount));
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%-28s %10.1f ns/op%n", "findNearestWithCopy", (double) elapsed / LOOKUPS);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            runCirculation(loanService, branches, branchCount, titles, threads, operations, round);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            int rows = bookService.getBookAvailabilityReport().size();
+            System.out.printf("%-28s %10.1f ms (%d títulos)%n", "getBookAvailabilityReport",
+                    (System.nanoTime() - start) / 1e6, rows);
+        }
+    }
+
+    private static void runCirculation(LoanService loanService, BranchInventory branches, int branchCount,
+                                       int titles, int threads, int operations, int round) throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(operations);
+        LongAdder checkouts = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int seed = round * threads + t;
+            new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                LocalDate today = LocalDate.now();
+                int sequence = 0;
+                while (remaining.decrementAndGet() >= 0) {
+                    String loanId = "br-L" + seed + "-" + sequence++;
+                    String branch = "br-" + random.nextInt(branchCount);
+                    LoanResult result = branches.atBranch(branch, () -> loanService.tryCreateLoan(loanId,
+                            "br-u" + random.nextInt(USERS), "br-isbn-" + random.nextInt(titles), today, 14));
+                    if (result.getStatus().isSuccess()) {
+                        checkouts.increment();
+                        String returnBranch = random.nextInt(10) == 0 ? "br-" + random.nextInt(branchCount) : branch;
+                        branches.atBranch(returnBranch, () -> loanService.tryReturnLoan(loanId, today));
+                    } else {
+                        rejected.increment();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-28s %10.0f ops/s  empréstimos=%d recusados=%d%n", "empréstimo+devolução (" + threads + " threads)",
+                operations / (elapsed / 1e9), checkouts.sum(), rejected.sum());
+    }
+}
@@ -0,0 +1,107 @@
+package br.ufrn.library.loadtest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import br.ufrn.library.circulation.CirculationCounts;
+import br.ufrn.library.circulation.CirculationStats;
+import br.ufrn.library.circulation.Resolution;
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+
+/**
+ * Feeds simulated circulation into {@link CirculationStats} on a fast-forwarded
+ * clock and shows that window queries cost the same after ten times more
+ * history. Usage: {@code CirculationStatsBenchmark [events] [titles]}.
+ */
+public class CirculationStatsBenchmark {
+
+    private static final int QUERIES = 1_000_000;
+    private static final long MILLIS_PER_EVENT = 1_000;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int titles = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+
+        SimulatedClock clock = new SimulatedClock(Instant.parse("2026-01-01T00:00:00Z").toEpochMilli());
+        CirculationStats stats = new CirculationStats(clock);
+        User user = new User("bench-user", "Leitor");
+        Book[] books = new Book[titles];
+        for (int i = 0; i < titles; i++) {
+            books[i] = new PhysicalBook("Livro " + i, "Autor", "circ-" + i, 10);
+        }
+        LocalDate today = LocalDate.now();
+        Loan[] loans = new Loan[titles];
+        for (int i = 0; i < titles; i++) {
+            loans[i] = new Loan("circ-L" + i, user, books[i], today, today.plusDays(14));
+        }
+
+        SplittableRandom random = new SplittableRandom(3);
+        for (int round = 1; round <= 2; round++) {
+            int count = round == 1 ? events : events * 10;
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                clock.advance(MILLIS_PER_EVENT);
+                Loan loan = loans[random.nextInt(titles)];
+                if (random.nextBoolean()) {
+                    stats.onLoanCreated(loan);
+                } else {
+                    stats.onLoanReturned(loan);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%-32s %10.1f ns/evento (%d eventos, %d títulos rastreados)%n",
+                    "registro", (double) elapsed / count, count, stats.getTrackedTitleCount());
+
+            measure("últimas 24 horas (geral)", () -> stats.getOverall(Resolution.HOUR, 24));
+            measure("últimos 365 dias (geral)", () -> stats.getOverall(Resolution.DAY, 365));
+            measure("últimos 60 min (ISBN)", () -> stats.getForIsbn("circ-" + random.nextInt(titles), Resolution.MINUTE, 60));
+            CirculationCounts day = stats.getOverall(Resolution.DAY, 1);
+            System.out.printf("%-32s %d empréstimos, %d devoluções%n", "hoje", day.loans(), day.returns());
+        }
+    }
+
+    private static void measure(String label, Supplier<CirculationCounts> query) {
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            sink = query.get();
+        }
+        System.out.printf("%-32s %10.1f ns/consulta%n", label, (double) (System.nanoTime() - start) / QUERIES);
+    }
+
+    private static final class SimulatedClock extends Clock {
+
+        private long millis;
+
+        private SimulatedClock(long millis) {
+            this.millis = millis;
+        }
+
+        private void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("America/Fortaleza");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return Clock.fixed(instant(), zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
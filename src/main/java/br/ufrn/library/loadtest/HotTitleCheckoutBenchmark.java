@@ -0,0 +1,112 @@
+package br.ufrn.library.loadtest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryLoanRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+import br.ufrn.library.service.BookService;
+import br.ufrn.library.service.LoanResult;
+import br.ufrn.library.service.LoanService;
+import br.ufrn.library.service.UserService;
+
+/**
+ * Simulates a bestseller launch: many threads race to check out the same
+ * physical title until its copies run out, with and without hot-title
+ * combining. Usage: {@code HotTitleCheckoutBenchmark [copies] [requests] [threads...]}.
+ */
+public class HotTitleCheckoutBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final AtomicInteger RUNS = new AtomicInteger();
+
+    public static void main(String[] args) throws InterruptedException {
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            threadCounts.add(Integer.parseInt(args[i]));
+        }
+        if (threadCounts.isEmpty()) {
+            threadCounts = List.of(8, 32, 128, 256);
+        }
+
+        System.out.printf("%-8s %-10s %12s %10s %10s %8s %s%n",
+                "Threads", "Combinação", "req/s", "ms", "sucessos", "erros", "quentes");
+        for (int round = 0; round < 2; round++) {
+            for (int threads : threadCounts) {
+                run(threads, copies, requests, false);
+                run(threads, copies, requests, true);
+            }
+        }
+    }
+
+    private static void run(int threads, int copies, int requests, boolean combining) throws InterruptedException {
+        String prefix = "hot" + RUNS.incrementAndGet() + "-";
+        UserRepository userRepo = new InMemoryUserRepository();
+        BookRepository bookRepo = new InMemoryBookRepository();
+        LoanRepository loanRepo = new InMemoryLoanRepository();
+        UserService userService = new UserService(userRepo);
+        for (int i = 0; i < USERS; i++) {
+            userService.registerUser(prefix + "u" + i, "Leitor " + i);
+        }
+        String isbn = prefix + "bestseller";
+        new BookService(bookRepo).registerPhysicalBook("Best-seller", "Autora", isbn, copies);
+        LoanService loanService = new LoanService(loanRepo, bookRepo, userRepo);
+        loanService.setHotTitleCombining(combining);
+        LocalDate today = LocalDate.now();
+
+        AtomicInteger next = new AtomicInteger();
+        LongAdder successes = new LongAdder();
+        LongAdder errors = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    int request;
+                    while ((request = next.getAndIncrement()) < requests) {
+                        try {
+                            LoanResult result = loanService.tryCreateLoan(prefix + "L" + request,
+                                    prefix + "u" + (request % USERS), isbn, today, 14);
+                            if (result.getStatus().isSuccess()) {
+                                successes.increment();
+                            }
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        PhysicalBook book = (PhysicalBook) bookRepo.findByIsbn(isbn).orElseThrow();
+        if (book.getTotalCopies() - book.getAvailableCopies() != successes.sum()) {
+            throw new IllegalStateException("Copies out do not match successful checkouts.");
+        }
+        System.out.printf("%-8d %-10s %12.0f %10.1f %10d %8d %d%n",
+                threads, combining ? "sim" : "não",
+                requests / (elapsed / 1e9), elapsed / 1e6,
+                successes.sum(), errors.sum(), loanService.getHotTitles().size());
+    }
+}
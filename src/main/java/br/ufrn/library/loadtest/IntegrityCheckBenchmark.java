@@ -0,0 +1,136 @@
+package br.ufrn.library.loadtest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import br.ufrn.library.audit.Discrepancy;
+import br.ufrn.library.audit.IntegrityChecker;
+import br.ufrn.library.audit.IntegrityReport;
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryLoanRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+import br.ufrn.library.service.BookService;
+import br.ufrn.library.service.LoanResult;
+import br.ufrn.library.service.LoanService;
+import br.ufrn.library.service.UserService;
+
+/**
+ * Builds a consistent library, corrupts a few counters behind the services'
+ * back and runs the integrity checker while checkouts and returns keep going
+ * on other titles, then once more after the traffic stops. Usage: {@code IntegrityCheckBenchmark [loans] [users] [books] [corruptions]}.
+ */
+public class IntegrityCheckBenchmark {
+
+    private static final int COPIES_PER_BOOK = 100;
+    private static final long TRAFFIC_PAUSE_NANOS = 100_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int loans = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int books = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        int corruptions = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        UserRepository userRepo = new InMemoryUserRepository();
+        BookRepository bookRepo = new InMemoryBookRepository();
+        LoanRepository loanRepo = new InMemoryLoanRepository();
+        UserService userService = new UserService(userRepo);
+        BookService bookService = new BookService(bookRepo);
+        LoanService loanService = new LoanService(loanRepo, bookRepo, userRepo);
+        for (int i = 0; i < users; i++) {
+            userService.registerUser("audit-u" + i, "Leitor " + i);
+        }
+        for (int i = 0; i < books; i++) {
+            bookService.registerPhysicalBook("Livro " + i, "Autor " + i, "audit-b" + i, COPIES_PER_BOOK);
+        }
+
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < loans; i++) {
+            String loanId = "audit-L" + i;
+            LoanResult result = loanService.tryCreateLoan(loanId, "audit-u" + random.nextInt(users),
+                    "audit-b" + random.nextInt(books), today, 14);
+            if (result.getStatus().isSuccess() && random.nextInt(2) == 0) {
+                loanService.tryReturnLoan(loanId, today);
+            }
+        }
+        System.out.printf("Base criada: %d empréstimos em %.1f ms%n", loanRepo.findAll().size(), (System.nanoTime() - start) / 1e6);
+
+        corrupt(bookRepo, userRepo, loanRepo, corruptions, random);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong trafficOps = new AtomicLong();
+        Thread traffic = new Thread(() -> {
+            SplittableRandom trafficRandom = new SplittableRandom(23);
+            long next = 0;
+            while (running.get()) {
+                String loanId = "audit-T" + next++;
+                LoanResult result = loanService.tryCreateLoan(loanId, "audit-u" + trafficRandom.nextInt(users),
+                        "audit-b" + (corruptions + trafficRandom.nextInt(books - corruptions)), today, 14);
+                if (result.getStatus().isSuccess()) {
+                    loanService.tryReturnLoan(loanId, today);
+                }
+                trafficOps.incrementAndGet();
+                LockSupport.parkNanos(TRAFFIC_PAUSE_NANOS);
+            }
+        }, "audit-traffic");
+        traffic.start();
+
+        IntegrityChecker checker = new IntegrityChecker(bookRepo, userRepo, loanRepo);
+        for (int round = 0; round < 2; round++) {
+            print("verificação", checker.check());
+        }
+        print("reparo", checker.checkAndRepair());
+
+        running.set(false);
+        traffic.join();
+        System.out.printf("Tráfego concorrente: %d empréstimos/devoluções%n", trafficOps.get());
+
+        print("reparo", checker.checkAndRepair());
+        print("verificação", checker.check());
+    }
+
+    private static void corrupt(BookRepository bookRepo, UserRepository userRepo, LoanRepository loanRepo,
+                                int corruptions, SplittableRandom random) {
+        for (int i = 0; i < corruptions; i++) {
+            Book book = bookRepo.findByIsbn("audit-b" + i).orElseThrow().copy();
+            book.registerLoan();
+            bookRepo.save(book);
+        }
+        List<User> users = userRepo.findAll();
+        for (int i = 0; i < corruptions; i++) {
+            User user = users.get(random.nextInt(users.size())).copy();
+            if (!user.getLoanHistory().isEmpty()) {
+                user.removeLoanFromHistory(user.getLoanHistory().get(0));
+                userRepo.save(user);
+            }
+        }
+        List<Loan> active = loanRepo.findAllActive();
+        for (int i = 0; i < corruptions && i < active.size(); i++) {
+            loanRepo.deleteById(active.get(random.nextInt(active.size())).getId());
+        }
+    }
+
+    private static void print(String phase, IntegrityReport report) {
+        long records = (long) report.getBooksScanned() + report.getUsersScanned() + report.getLoansScanned();
+        System.out.printf("%-12s %10.0f registros/s %8.1f ms  suspeitos=%d divergências=%d reparadas=%d%n",
+                phase, records / (report.getElapsedNanos() / 1e9), report.getElapsedNanos() / 1e6,
+                report.getSuspectCount(), report.getDiscrepancies().size(), report.getRepairedCount());
+        for (Discrepancy.Kind kind : Discrepancy.Kind.values()) {
+            long count = report.getDiscrepancies().stream().filter(d -> d.kind() == kind).count();
+            if (count > 0) {
+                System.out.printf("%14s%-18s %d%n", "", kind, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package br.ufrn.library.loadtest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import br.ufrn.library.exception.NoCopiesAvailableException;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryLoanRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+import br.ufrn.library.service.BookService;
+import br.ufrn.library.service.LoanService;
+import br.ufrn.library.service.UserService;
+
+/**
+ * Synthetic load against {@link LoanService}. Each worker walks a simulated
+ * calendar: it checks out Zipf-distributed titles and returns its own loans when
+ * their planned return day arrives, a configurable share of them after the due
+ * date. Usage: {@code LoadTestHarness key=value ...}, see {@link WorkloadConfig}.
+ */
+public class LoadTestHarness {
+
+    private static final int LOAN_PERIOD_DAYS = 14;
+    private static final int MAX_DAYS_LATE = 21;
+    private static final int HOTSPOTS_TO_REPORT = 5;
+
+    private final WorkloadConfig config;
+    private final UserService userService;
+    private final BookService bookService;
+    private final LoanService loanService;
+    private final ZipfianGenerator popularity;
+    private final LocalDate startDate = LocalDate.now();
+    private final LongAdder[] rejectedByBook;
+    private final LongAdder[] nanosByBook;
+    private final LongAdder[] callsByBook;
+
+    public LoadTestHarness(WorkloadConfig config) {
+        this.config = config;
+
+        UserRepository userRepo = new InMemoryUserRepository();
+        BookRepository bookRepo = new InMemoryBookRepository();
+        LoanRepository loanRepo = new InMemoryLoanRepository();
+
+        this.userService = new UserService(userRepo);
+        this.bookService = new BookService(bookRepo);
+        this.loanService = new LoanService(loanRepo, bookRepo, userRepo);
+        this.popularity = new ZipfianGenerator(config.getBooks(), config.getZipfExponent());
+        this.rejectedByBook = newAdders(config.getBooks());
+        this.nanosByBook = newAdders(config.getBooks());
+        this.callsByBook = newAdders(config.getBooks());
+    }
+
+    public static void main(String[] args) throws Exception {
+        WorkloadConfig config = WorkloadConfig.parse(args);
+        LoadTestHarness harness = new LoadTestHarness(config);
+        harness.seed();
+        harness.run();
+    }
+
+    public void seed() {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(config.getSeed());
+        for (int i = 0; i < config.getUsers(); i++) {
+            userService.registerUser(userId(i), "Usuário " + i);
+        }
+        for (int i = 0; i < config.getBooks(); i++) {
+            if (random.nextDouble() < config.getPhysicalRatio()) {
+                bookService.registerPhysicalBook("Livro " + i, "Autor " + i, isbn(i), config.getCopiesPerBook());
+            } else {
+                bookService.registerDigitalBook("Livro " + i, "Autor " + i, isbn(i));
+            }
+        }
+        System.out.printf("Carga inicial: %d usuários, %d livros em %.1f ms%n",
+                config.getUsers(), config.getBooks(), (System.nanoTime() - start) / 1e6);
+    }
+
+    public void run() throws Exception {
+        System.out.println("Configuração: " + config);
+
+        int workerCount = config.getThreads();
+        long perWorker = config.getOperations() / workerCount;
+        long remainder = config.getOperations() % workerCount;
+        List<Worker> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(new Worker(i, perWorker + (i < remainder ? 1 : 0), config.getSeed() + i));
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = config.isVirtualThreads()
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(workerCount)) {
+            List<Future<?>> futures = new ArrayList<>(workerCount);
+            for (Worker worker : workers) {
+                futures.add(executor.submit(worker));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        report(workers, elapsed);
+    }
+
+    private void report(List<Worker> workers, long elapsedNanos) {
+        LatencyHistogram checkouts = new LatencyHistogram();
+        LatencyHistogram returns = new LatencyHistogram();
+        Map<String, Long> errors = new HashMap<>();
+        long overdueReturns = 0;
+
+        for (Worker worker : workers) {
+            checkouts.merge(worker.checkoutLatency);
+            returns.merge(worker.returnLatency);
+            worker.errors.forEach((type, count) -> errors.merge(type, count, Long::sum));
+            overdueReturns += worker.overdueReturns;
+        }
+
+        double seconds = elapsedNanos / 1e9;
+        long total = checkouts.getCount() + returns.getCount();
+        System.out.printf("%n--- Resultado ---%n");
+        System.out.printf("Operações: %d em %.2f s | Vazão: %.0f ops/s%n", total, seconds, total / seconds);
+        printLatency("Empréstimos", checkouts);
+        printLatency("Devoluções", returns);
+        System.out.printf("Devoluções em atraso: %d%n", overdueReturns);
+
+        if (!errors.isEmpty()) {
+            System.out.println("Falhas por tipo:");
+            errors.forEach((type, count) -> System.out.printf("  -> %s: %d%n", type, count));
+        }
+
+        long[] rejected = new long[config.getBooks()];
+        long[] meanNanos = new long[config.getBooks()];
+        long[] calls = new long[config.getBooks()];
+        for (int book = 0; book < rejected.length; book++) {
+            rejected[book] = rejectedByBook[book].sum();
+            calls[book] = callsByBook[book].sum();
+            meanNanos[book] = calls[book] == 0 ? 0 : nanosByBook[book].sum() / calls[book];
+        }
+
+        System.out.println("Títulos com mais recusas por falta de cópias:");
+        topBooks(rejected).forEach(book ->
+                System.out.printf("  -> %s: %d recusa(s)%n", isbn(book), rejected[book]));
+
+        System.out.println("Títulos com maior latência média de empréstimo:");
+        topBooks(meanNanos).forEach(book ->
+                System.out.printf("  -> %s: %.1f µs em %d chamada(s)%n",
+                        isbn(book), meanNanos[book] / 1e3, calls[book]));
+    }
+
+    private List<Integer> topBooks(long[] metric) {
+        return IntStream.range(0, metric.length)
+                .filter(book -> metric[book] > 0)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer book) -> metric[book]).reversed())
+                .limit(HOTSPOTS_TO_REPORT)
+                .toList();
+    }
+
+    private static void printLatency(String label, LatencyHistogram histogram) {
+        System.out.printf("%s: %d | média %.1f µs | p50 %.1f µs | p90 %.1f µs | p99 %.1f µs | p99.9 %.1f µs | máx %.1f µs%n",
+                label,
+                histogram.getCount(),
+                histogram.getMeanNanos() / 1e3,
+                histogram.percentileNanos(50) / 1e3,
+                histogram.percentileNanos(90) / 1e3,
+                histogram.percentileNanos(99) / 1e3,
+                histogram.percentileNanos(99.9) / 1e3,
+                histogram.getMaxNanos() / 1e3);
+    }
+
+    private static LongAdder[] newAdders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static String userId(int index) {
+        return "u-" + index;
+    }
+
+    private static String isbn(int index) {
+        return "isbn-" + index;
+    }
+
+    private final class Worker implements Runnable {
+
+        private final int id;
+        private final long operations;
+        private final SplittableRandom random;
+        private final PriorityQueue<PlannedReturn> plannedReturns =
+                new PriorityQueue<>(Comparator.comparingLong(PlannedReturn::day));
+        private final LatencyHistogram checkoutLatency = new LatencyHistogram();
+        private final LatencyHistogram returnLatency = new LatencyHistogram();
+        private final Map<String, Long> errors = new HashMap<>();
+        private long overdueReturns;
+        private long nextLoan;
+
+        private Worker(int id, long operations, long seed) {
+            this.id = id;
+            this.operations = operations;
+            this.random = new SplittableRandom(seed);
+        }
+
+        @Override
+        public void run() {
+            for (long op = 0; op < operations; op++) {
+                long day = startDate.toEpochDay() + op / config.getOperationsPerDay();
+                PlannedReturn due = plannedReturns.peek();
+                if (due != null && due.day() <= day) {
+                    plannedReturns.poll();
+                    giveBack(due, day);
+                } else {
+                    checkOut(day);
+                }
+            }
+        }
+
+        private void checkOut(long day) {
+            int book = popularity.next(random);
+            String loanId = "t" + id + "-" + nextLoan++;
+            String userId = userId(random.nextInt(config.getUsers()));
+            LocalDate loanDate = LocalDate.ofEpochDay(day);
+
+            long start = System.nanoTime();
+            try {
+                Loan loan = loanService.createLoan(loanId, userId, isbn(book), loanDate, LOAN_PERIOD_DAYS);
+                long elapsed = System.nanoTime() - start;
+                record(book, elapsed);
+
+                long dueDay = loan.getDueDate().toEpochDay();
+                long returnDay = random.nextDouble() < config.getOverdueRate()
+                        ? dueDay + 1 + random.nextInt(MAX_DAYS_LATE)
+                        : day + 1 + random.nextInt(LOAN_PERIOD_DAYS);
+                plannedReturns.add(new PlannedReturn(returnDay, loanId));
+            } catch (NoCopiesAvailableException e) {
+                record(book, System.nanoTime() - start);
+                rejectedByBook[book].increment();
+            } catch (RuntimeException e) {
+                record(book, System.nanoTime() - start);
+                errors.merge(e.getClass().getSimpleName(), 1L, Long::sum);
+            }
+        }
+
+        private void giveBack(PlannedReturn planned, long day) {
+            long start = System.nanoTime();
+            try {
+                Loan loan = loanService.returnLoan(planned.loanId(), LocalDate.ofEpochDay(day));
+                returnLatency.record(System.nanoTime() - start);
+                if (loan.getReturnDate().isAfter(loan.getDueDate())) {
+                    overdueReturns++;
+                }
+            } catch (RuntimeException e) {
+                returnLatency.record(System.nanoTime() - start);
+                errors.merge(e.getClass().getSimpleName(), 1L, Long::sum);
+            }
+        }
+
+        private void record(int book, long nanos) {
+            checkoutLatency.record(nanos);
+            nanosByBook[book].add(nanos);
+            callsByBook[book].increment();
+        }
+    }
+
+    private record PlannedReturn(long day, String loanId) {}
+}
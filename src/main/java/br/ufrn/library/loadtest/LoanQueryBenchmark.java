@@ -0,0 +1,120 @@
+package br.ufrn.library.loadtest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.query.LoanQuery;
+import br.ufrn.library.query.QueryEngine;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryLoanRepository;
+import br.ufrn.library.repository.impl.IndexedLoanRepository;
+
+/**
+ * Runs the same loan queries as a hand-written sequential scan, through the
+ * query engine over the plain repository and through the engine over the
+ * indexed one, printing each plan and checking that all three return the same
+ * rows. Usage: {@code LoanQueryBenchmark [loans] [users] [books] [iterations]}.
+ */
+public class LoanQueryBenchmark {
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int loanCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int userCount = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int bookCount = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+
+        LocalDate today = LocalDate.now();
+        SplittableRandom random = new SplittableRandom(5);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            users.add(new User("q-u" + i, "Leitor " + i));
+        }
+        BookRepository bookRepo = new InMemoryBookRepository();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < bookCount; i++) {
+            Book book = i % 4 == 0
+                    ? new DigitalBook("Livro " + i, "Autor " + i, "q-b" + i)
+                    : new PhysicalBook("Livro " + i, "Autor " + i, "q-b" + i, 1_000);
+            books.add(bookRepo.save(book));
+        }
+
+        LoanRepository plainLoans = new InMemoryLoanRepository();
+        long start = System.nanoTime();
+        for (int i = 0; i < loanCount; i++) {
+            LocalDate loanDate = today.minusDays(random.nextInt(365));
+            Loan loan = new Loan("q-L" + i, users.get(random.nextInt(userCount)),
+                    books.get(random.nextInt(bookCount)), loanDate, loanDate.plusDays(14));
+            if (loanDate.isBefore(today.minusDays(30)) || random.nextInt(3) != 0) {
+                LocalDate returnDate = loanDate.plusDays(random.nextInt(20));
+                loan.markAsReturned(returnDate.isAfter(today) ? today : returnDate);
+            }
+            plainLoans.save(loan);
+        }
+        IndexedLoanRepository indexedLoans = new IndexedLoanRepository(plainLoans);
+        System.out.printf("Base criada: %d empréstimos, índices em %.1f ms%n%n",
+                indexedLoans.size(), (System.nanoTime() - start) / 1e6);
+
+        QueryEngine scanEngine = new QueryEngine(plainLoans, bookRepo);
+        QueryEngine indexEngine = new QueryEngine(indexedLoans, bookRepo);
+
+        List<NamedQuery> queries = List.of(
+                new NamedQuery("ativos do usuário, digitais, vencendo na semana", i -> LoanQuery.all()
+                        .user("q-u" + (i * 7919 % userCount)).active().bookType(DigitalBook.class)
+                        .dueBetween(today, today.plusDays(7))),
+                new NamedQuery("devolvidos de um título", i -> LoanQuery.all()
+                        .isbn("q-b" + (i * 104_729 % bookCount)).returned(true)),
+                new NamedQuery("ativos vencendo nesta semana", i -> LoanQuery.all()
+                        .active().dueBetween(today, today.plusDays(6))),
+                new NamedQuery("digitais dos últimos 30 dias", i -> LoanQuery.all()
+                        .bookType(DigitalBook.class).loanedBetween(today.minusDays(30), today)),
+                new NamedQuery("atrasados", i -> LoanQuery.all()
+                        .active().dueBetween(null, today.minusDays(1))),
+                new NamedQuery("devolvidos (sem índice)", i -> LoanQuery.all().returned(true)));
+
+        System.out.printf("%-50s %-16s %12s %12s%n", "Consulta", "Estratégia", "µs/consulta", "linhas");
+        for (NamedQuery query : queries) {
+            long manual = measure(query, "varredura", iterations,
+                    q -> plainLoans.findAll().stream().filter(q::matches).toList());
+            long scanned = measure(query, "sem índice", iterations, scanEngine::find);
+            long indexed = measure(query, "com índice", iterations, indexEngine::find);
+            if (manual != scanned || manual != indexed) {
+                System.out.printf("  DIVERGÊNCIA: varredura=%d sem índice=%d com índice=%d%n", manual, scanned, indexed);
+            }
+            System.out.println("  " + indexEngine.explain(query.build().apply(0)).explain().replace("\n", "\n  "));
+        }
+    }
+
+    private static long measure(NamedQuery query, String strategy, int iterations,
+                                Function<LoanQuery, List<Loan>> run) {
+        for (int i = 0; i < iterations; i++) {
+            sink = run.apply(query.build().apply(i));
+        }
+        long rows = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            List<Loan> result = run.apply(query.build().apply(i));
+            rows += result.size();
+            sink = result;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-50s %-16s %12.1f %12.1f%n", query.name(), strategy,
+                elapsed / 1e3 / iterations, (double) rows / iterations);
+        return rows;
+    }
+
+    private record NamedQuery(String name, IntFunction<LoanQuery> build) {
+    }
+}
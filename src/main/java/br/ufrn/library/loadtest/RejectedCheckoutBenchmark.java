@@ -0,0 +1,79 @@
+package br.ufrn.library.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+import br.ufrn.library.exception.NoCopiesAvailableException;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryLoanRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+import br.ufrn.library.service.BookService;
+import br.ufrn.library.service.LoanResult;
+import br.ufrn.library.service.LoanService;
+import br.ufrn.library.service.UserService;
+
+/**
+ * Compares the exception-based {@link LoanService#createLoan} with the
+ * status-returning {@link LoanService#tryCreateLoan} on checkouts rejected for
+ * lack of copies, reporting time and bytes allocated per operation.
+ */
+public class RejectedCheckoutBenchmark {
+
+    private static final String ISBN = "bench-hot-title";
+    private static final String USER_ID = "bench-user";
+    private static final String LOAN_ID = "bench-loan";
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        UserRepository userRepo = new InMemoryUserRepository();
+        BookRepository bookRepo = new InMemoryBookRepository();
+        LoanRepository loanRepo = new InMemoryLoanRepository();
+        new UserService(userRepo).registerUser(USER_ID, "Usuário de Benchmark");
+        new BookService(bookRepo).registerPhysicalBook("Best-seller", "Autor", ISBN, 0);
+        LoanService loanService = new LoanService(loanRepo, bookRepo, userRepo);
+        LocalDate today = LocalDate.now();
+
+        Runnable throwing = () -> {
+            try {
+                sink = loanService.createLoan(LOAN_ID, USER_ID, ISBN, today, 14);
+            } catch (NoCopiesAvailableException e) {
+                sink = e;
+            }
+        };
+        Runnable resultBased = () -> {
+            LoanResult result = loanService.tryCreateLoan(LOAN_ID, USER_ID, ISBN, today, 14);
+            sink = result;
+        };
+
+        for (int round = 0; round < 3; round++) {
+            measure("createLoan (exceção)", throwing, iterations);
+            measure("tryCreateLoan (status)", resultBased, iterations);
+        }
+    }
+
+    private static void measure(String label, Runnable operation, int iterations) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        System.out.printf("%-24s %8.1f ns/op %10.1f bytes/op %8.1f MB/s alocados%n",
+                label,
+                (double) elapsed / iterations,
+                (double) bytes / iterations,
+                bytes / (elapsed / 1e9) / (1024 * 1024));
+    }
+}
@@ -0,0 +1,101 @@
+package br.ufrn.library.loadtest;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import br.ufrn.library.export.ExportFormat;
+import br.ufrn.library.export.ExportResult;
+import br.ufrn.library.export.ReportExporter;
+import br.ufrn.library.export.ReportType;
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryLoanRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+
+/**
+ * Dumps the active loans the way the console listing does (materialized list,
+ * one unbuffered printf per row, redirected to a file) and then through
+ * {@link ReportExporter} in each format, with and without gzip. Usage:
+ * {@code ReportExportBenchmark [activeLoans] [users] [books] [directory]}.
+ */
+public class ReportExportBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int loanCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int userCount = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int bookCount = args.length > 2 ? Integer.parseInt(args[2]) : 5_000;
+        Path directory = args.length > 3 ? Path.of(args[3]) : Files.createTempDirectory("library-export");
+
+        UserRepository userRepo = new InMemoryUserRepository();
+        BookRepository bookRepo = new InMemoryBookRepository();
+        LoanRepository loanRepo = new InMemoryLoanRepository();
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(userRepo.save(new User("exp-u" + i, "Leitor \"" + i + "\", Natal")));
+        }
+        List<Book> books = new ArrayList<>(bookCount);
+        for (int i = 0; i < bookCount; i++) {
+            books.add(bookRepo.save(i % 4 == 0
+                    ? new DigitalBook("Livro " + i, "Autor " + i, "exp-b" + i)
+                    : new PhysicalBook("Livro " + i, "Autor " + i, "exp-b" + i, 1_000)));
+        }
+        LocalDate today = LocalDate.now();
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < loanCount; i++) {
+            LocalDate loanDate = today.minusDays(random.nextInt(14));
+            loanRepo.save(new Loan("exp-L" + i, users.get(random.nextInt(userCount)),
+                    books.get(random.nextInt(bookCount)), loanDate, loanDate.plusDays(14)));
+        }
+        System.out.printf("Base criada: %d empréstimos ativos; arquivos em %s%n%n", loanCount, directory);
+
+        System.out.printf("%-28s %10s %10s %12s %10s%n", "Método", "linhas", "ms", "linhas/s", "MB");
+        printfBaseline(loanRepo, directory.resolve("active-printf.txt"));
+
+        ReportExporter exporter = new ReportExporter(loanRepo, bookRepo, userRepo);
+        for (int round = 0; round < 2; round++) {
+            for (ExportFormat format : ExportFormat.values()) {
+                for (boolean gzip : new boolean[] {false, true}) {
+                    ExportResult result = exporter.exportTo(ReportType.ACTIVE_LOANS, directory, format, gzip);
+                    print(format + (gzip ? " + gzip" : "") + (round == 0 ? " (aquecimento)" : ""),
+                            result.getRows(), result.getElapsedNanos(), result.getBytes());
+                }
+            }
+        }
+        for (ReportType report : ReportType.values()) {
+            ExportResult result = exporter.exportTo(report, directory, ExportFormat.CSV, true);
+            print("CSV + gzip: " + report.getKey(), result.getRows(), result.getElapsedNanos(), result.getBytes());
+        }
+    }
+
+    private static void printfBaseline(LoanRepository loanRepo, Path file) throws IOException {
+        long start = System.nanoTime();
+        List<Loan> activeLoans = loanRepo.findAllActive();
+        try (PrintStream out = new PrintStream(new FileOutputStream(file.toFile()), false, StandardCharsets.UTF_8)) {
+            for (Loan loan : activeLoans) {
+                out.printf("  -> ID: %s | Data: %s | Usuário: %s | Livro: %s\n",
+                        loan.getId(), loan.getLoanDate().toString(), loan.getUser().getName(), loan.getBook().getTitle());
+            }
+        }
+        print("printf (console)", activeLoans.size(), System.nanoTime() - start, Files.size(file));
+    }
+
+    private static void print(String method, long rows, long elapsedNanos, long bytes) {
+        System.out.printf("%-28s %10d %10.1f %12.0f %10.1f%n", method, rows, elapsedNanos / 1e6,
+                rows / (elapsedNanos / 1e9), bytes / 1e6);
+    }
+}
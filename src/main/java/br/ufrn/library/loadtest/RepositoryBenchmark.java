@@ -0,0 +1,182 @@
+package br.ufrn.library.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.repository.impl.CachingBookRepository;
+import br.ufrn.library.repository.impl.CachingUserRepository;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryLoanRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+import br.ufrn.library.repository.impl.JdbcBookRepository;
+import br.ufrn.library.repository.impl.JdbcConnectionPool;
+import br.ufrn.library.repository.impl.JdbcLoanRepository;
+import br.ufrn.library.repository.impl.JdbcSchema;
+import br.ufrn.library.repository.impl.JdbcUserRepository;
+
+/**
+ * Runs the same repository workload against the in-memory implementations and
+ * against H2 (in-memory and file-backed). Usage:
+ * {@code RepositoryBenchmark [loans] [users] [books] [connections]}.
+ */
+public class RepositoryBenchmark {
+
+    private static final int LOOKUPS = 20_000;
+    private static final int SCANS = 20;
+    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
+
+    private final int loanCount;
+    private final List<User> users = new ArrayList<>();
+    private final List<Book> books = new ArrayList<>();
+    private final LocalDate today = LocalDate.now();
+
+    private static volatile Object sink;
+
+    private RepositoryBenchmark(int loanCount, int userCount, int bookCount) {
+        this.loanCount = loanCount;
+        for (int i = 0; i < userCount; i++) {
+            users.add(new User("u-" + i, "Usuário " + i));
+        }
+        for (int i = 0; i < bookCount; i++) {
+            books.add(i % 4 == 0
+                    ? new DigitalBook("Livro " + i, "Autor " + i, "isbn-" + i)
+                    : new PhysicalBook("Livro " + i, "Autor " + i, "isbn-" + i, 1_000));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int loans = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int books = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+        int connections = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        RepositoryBenchmark benchmark = new RepositoryBenchmark(loans, users, books);
+
+        System.out.printf("%-16s %-24s %12s %14s%n", "Backend", "Operação", "ops/s", "µs/op");
+        benchmark.runInMemory();
+
+        try (JdbcConnectionPool pool = new JdbcConnectionPool("jdbc:h2:mem:library-bench;DB_CLOSE_DELAY=-1", connections)) {
+            benchmark.runJdbc("H2 memória", pool);
+        }
+
+        Path directory = Files.createTempDirectory("library-bench");
+        String url = "jdbc:h2:file:" + directory.resolve("library").toAbsolutePath();
+        try (JdbcConnectionPool pool = new JdbcConnectionPool(url, connections)) {
+            benchmark.runJdbc("H2 arquivo", pool);
+        }
+    }
+
+    private void runInMemory() {
+        UserRepository userRepo = new InMemoryUserRepository();
+        BookRepository bookRepo = new InMemoryBookRepository();
+        LoanRepository loanRepo = new InMemoryLoanRepository();
+        users.forEach(userRepo::save);
+        books.forEach(bookRepo::save);
+        run("Memória", loanRepo);
+    }
+
+    private void runJdbc(String backend, JdbcConnectionPool pool) {
+        JdbcSchema.create(pool);
+        JdbcUserRepository userRepo = new JdbcUserRepository(pool);
+        JdbcBookRepository bookRepo = new JdbcBookRepository(pool);
+        userRepo.saveAll(users);
+        bookRepo.saveAll(books);
+        run(backend, new JdbcLoanRepository(pool, userRepo, bookRepo));
+        runLookups(backend, userRepo, bookRepo);
+    }
+
+    private void runLookups(String backend, UserRepository userRepo, BookRepository bookRepo) {
+        CachingUserRepository cachedUsers = new CachingUserRepository(userRepo, users.size() / 10, CACHE_TTL, CACHE_TTL);
+        CachingBookRepository cachedBooks = new CachingBookRepository(bookRepo, books.size() / 10, CACHE_TTL, CACHE_TTL);
+
+        SplittableRandom random = new SplittableRandom(7);
+        measure(backend, "findByIsbn", LOOKUPS, i -> sink = bookRepo.findByIsbn(skewedIsbn(random)));
+        measure(backend, "findByIsbn (cache)", LOOKUPS, i -> sink = cachedBooks.findByIsbn(skewedIsbn(random)));
+        measure(backend, "findById user", LOOKUPS, i -> sink = userRepo.findById(skewedUserId(random)));
+        measure(backend, "findById user (cache)", LOOKUPS, i -> sink = cachedUsers.findById(skewedUserId(random)));
+        System.out.printf("%-16s livros: %s%n", backend, cachedBooks.getStats());
+        System.out.printf("%-16s usuários: %s%n", backend, cachedUsers.getStats());
+    }
+
+    private void run(String backend, LoanRepository loanRepo) {
+        List<Loan> loans = newLoans("a-", loanCount);
+        measure(backend, "save (individual)", loans.size(), i -> loanRepo.save(loans.get(i)));
+
+        if (loanRepo instanceof JdbcLoanRepository jdbcLoans) {
+            List<Loan> batch = newLoans("b-", loanCount);
+            long start = System.nanoTime();
+            jdbcLoans.saveAll(batch);
+            print(backend, "saveAll (lote)", batch.size(), System.nanoTime() - start);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        measure(backend, "findById", LOOKUPS, i -> sink = loanRepo.findById("a-" + random.nextInt(loanCount)));
+        measure(backend, "findByUserId", LOOKUPS,
+                i -> sink = loanRepo.findByUserId(users.get(random.nextInt(users.size())).getId()));
+        measure(backend, "findActiveByUserId", LOOKUPS,
+                i -> sink = loanRepo.findActiveByUserId(users.get(random.nextInt(users.size())).getId()));
+        measure(backend, "findAllActive", SCANS, i -> sink = loanRepo.findAllActive());
+    }
+
+    private String skewedIsbn(SplittableRandom random) {
+        if (random.nextInt(100) == 0) {
+            return "isbn-ausente-" + random.nextInt(10);
+        }
+        return "isbn-" + skewed(random, books.size());
+    }
+
+    private String skewedUserId(SplittableRandom random) {
+        return "u-" + skewed(random, users.size());
+    }
+
+    // Log-uniform over [0, bound): small indexes are drawn far more often than large ones.
+    private static int skewed(SplittableRandom random, int bound) {
+        return (int) Math.pow(bound + 1, random.nextDouble()) - 1;
+    }
+
+    private List<Loan> newLoans(String prefix, int count) {
+        SplittableRandom random = new SplittableRandom(prefix.hashCode());
+        List<Loan> loans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = users.get(random.nextInt(users.size()));
+            Book book = books.get(random.nextInt(books.size()));
+            LocalDate loanDate = today.minusDays(random.nextInt(60));
+            Loan loan = new Loan(prefix + i, user, book, loanDate, loanDate.plusDays(14));
+            if (random.nextInt(4) != 0) {
+                loan.markAsReturned(loanDate.plusDays(random.nextInt(20)));
+            }
+            loans.add(loan);
+        }
+        return loans;
+    }
+
+    private static void measure(String backend, String operation, int iterations, IntConsumer body) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            body.accept(i);
+        }
+        print(backend, operation, iterations, System.nanoTime() - start);
+    }
+
+    private static void print(String backend, String operation, int iterations, long elapsedNanos) {
+        System.out.printf("%-16s %-24s %12.0f %14.2f%n",
+                backend, operation,
+                iterations / (elapsedNanos / 1e9),
+                elapsedNanos / 1e3 / iterations);
+    }
+}
@@ -0,0 +1,98 @@
+package br.ufrn.library.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import br.ufrn.library.model.User;
+import br.ufrn.library.search.NameMatch;
+import br.ufrn.library.search.UserNameIndex;
+
+/**
+ * Looks up patrons by name prefix and with typos through {@link UserNameIndex},
+ * against a linear scan of lower-cased names, over synthetic Brazilian names.
+ * Usage: {@code UserNameSearchBenchmark [users] [iterations]}.
+ */
+public class UserNameSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"João", "José", "Maria", "Ana", "Francisco", "Antônio", "Joadson",
+            "Nathan", "Luiz", "Paulo", "Carlos", "Manoel", "Pedro", "Francisca", "Marcos", "Raimundo", "Sebastião",
+            "Antônia", "Marcelo", "Jorge", "Márcia", "Geraldo", "Adriana", "Sandra", "Luis", "Fernando", "Fabio",
+            "Roberto", "Márcio", "Edson", "André", "Sérgio", "Josefa", "Patrícia", "Daniel", "Rodrigo", "Rafael",
+            "Joaquim", "Vera", "Ricardo", "Eduardo", "Terezinha", "Sônia", "Alexandre", "Rita", "Luciana", "Cláudio",
+            "Rosa", "Benedito", "Leandro", "Raimunda", "Marcelo", "Teresa", "Severino", "Juliana", "Lúcia", "Fábio"};
+    private static final String[] SURNAMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+            "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes",
+            "Soares", "Fernandes", "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes",
+            "Marques", "Machado", "Mendes", "Freitas", "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira",
+            "Medeiros", "Araújo", "Cavalcanti", "Bezerra", "Dantas", "Galvão", "Macêdo", "Fontes", "Queiroz"};
+    private static final String[] SYLLABLES = {"ba", "be", "ca", "da", "fa", "ga", "la", "le", "li", "ma", "me",
+            "mi", "na", "no", "pa", "ra", "re", "ri", "sa", "so", "ta", "te", "va", "vi", "za"};
+    private static final String[] QUERIES = {"jo", "Medeiros", "joão med", "Galv", "Ana Cavalcanti Fontes",
+            "Mederios", "Feriera", "Joadsno Medeiros", "Cavalcnati", "Xyzzy"};
+
+    public static void main(String[] args) {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        SplittableRandom random = new SplittableRandom(11);
+        // Rarer family names, so the trie holds tens of thousands of distinct words as a real roll would.
+        String[] rareSurnames = new String[SYLLABLES.length * SYLLABLES.length * SYLLABLES.length];
+        for (int i = 0; i < rareSurnames.length; i++) {
+            String word = SYLLABLES[i / (SYLLABLES.length * SYLLABLES.length)]
+                    + SYLLABLES[i / SYLLABLES.length % SYLLABLES.length] + SYLLABLES[i % SYLLABLES.length];
+            rareSurnames[i] = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+        }
+        UserNameIndex index = new UserNameIndex();
+        List<User> users = new ArrayList<>(userCount);
+        long start = System.nanoTime();
+        for (int i = 0; i < userCount; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + SURNAMES[random.nextInt(SURNAMES.length)] + " " + SURNAMES[random.nextInt(SURNAMES.length)]
+                    + (i % 10 == 0 ? " " + rareSurnames[random.nextInt(rareSurnames.length)] : "");
+            User user = new User("nm-u" + i, name);
+            users.add(user);
+            index.put(user);
+        }
+        System.out.printf("Índice com %d usuários criado em %.1f ms%n%n", index.size(),
+                (System.nanoTime() - start) / 1e6);
+
+        for (int i = 0; i < iterations; i++) {
+            index.search(QUERIES[i % QUERIES.length], 10);
+        }
+
+        System.out.printf("%-24s %8s %12s %12s  %s%n", "Consulta", "achados", "índice µs", "varredura µs",
+                "primeiro resultado");
+        for (String query : QUERIES) {
+            List<NameMatch> matches = index.search(query, 10);
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                index.search(query, 10);
+            }
+            double indexMicros = (System.nanoTime() - start) / 1e3 / iterations;
+
+            int scanRounds = Math.max(1, iterations / 500);
+            String needle = query.toLowerCase(Locale.ROOT);
+            start = System.nanoTime();
+            for (int i = 0; i < scanRounds; i++) {
+                scan(users, needle);
+            }
+            double scanMicros = (System.nanoTime() - start) / 1e3 / scanRounds;
+
+            System.out.printf("%-24s %8d %12.1f %12.1f  %s%n", query, matches.size(), indexMicros, scanMicros,
+                    matches.isEmpty() ? "-" : matches.get(0).getName() + " (" + matches.get(0).getDistance() + ")");
+        }
+    }
+
+    // What a listing filter would do: lower-case every name and keep the first ten containing the query.
+    private static int scan(List<User> users, String needle) {
+        int found = 0;
+        for (User user : users) {
+            if (user.getName().toLowerCase(Locale.ROOT).contains(needle) && ++found == 10) {
+                break;
+            }
+        }
+        return found;
+    }
+}
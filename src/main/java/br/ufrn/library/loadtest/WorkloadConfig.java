@@ -0,0 +1,116 @@
+package br.ufrn.library.loadtest;
+
+public class WorkloadConfig {
+
+    private int users = 10_000;
+    private int books = 2_000;
+    private double physicalRatio = 0.7;
+    private int copiesPerBook = 3;
+    private long operations = 1_000_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean virtualThreads = false;
+    private double zipfExponent = 1.0;
+    private int operationsPerDay = 500;
+    private double overdueRate = 0.1;
+    private long seed = 42;
+
+    public static WorkloadConfig parse(String[] args) {
+        WorkloadConfig config = new WorkloadConfig();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            String key = arg.substring(0, separator).trim();
+            String value = arg.substring(separator + 1).trim();
+            switch (key) {
+                case "users":
+                    config.users = Integer.parseInt(value);
+                    break;
+                case "books":
+                    config.books = Integer.parseInt(value);
+                    break;
+                case "physicalRatio":
+                    config.physicalRatio = Double.parseDouble(value);
+                    break;
+                case "copies":
+                    config.copiesPerBook = Integer.parseInt(value);
+                    break;
+                case "operations":
+                    config.operations = Long.parseLong(value);
+                    break;
+                case "threads":
+                    config.threads = Integer.parseInt(value);
+                    break;
+                case "virtual":
+                    config.virtualThreads = Boolean.parseBoolean(value);
+                    break;
+                case "zipf":
+                    config.zipfExponent = Double.parseDouble(value);
+                    break;
+                case "opsPerDay":
+                    config.operationsPerDay = Integer.parseInt(value);
+                    break;
+                case "overdueRate":
+                    config.overdueRate = Double.parseDouble(value);
+                    break;
+                case "seed":
+                    config.seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown workload option: " + key);
+            }
+        }
+        config.validate();
+        return config;
+    }
+
+    private void validate() {
+        if (users <= 0 || books <= 0 || operations <= 0 || threads <= 0 || operationsPerDay <= 0) {
+            throw new IllegalArgumentException("Counts must be positive.");
+        }
+        if (copiesPerBook < 0) {
+            throw new IllegalArgumentException("Copies per book cannot be negative.");
+        }
+        if (physicalRatio < 0 || physicalRatio > 1 || overdueRate < 0 || overdueRate > 1) {
+            throw new IllegalArgumentException("Ratios must be between 0 and 1.");
+        }
+    }
+
+    public int getUsers() { return users; }
+
+    public int getBooks() { return books; }
+
+    public double getPhysicalRatio() { return physicalRatio; }
+
+    public int getCopiesPerBook() { return copiesPerBook; }
+
+    public long getOperations() { return operations; }
+
+    public int getThreads() { return threads; }
+
+    public boolean isVirtualThreads() { return virtualThreads; }
+
+    public double getZipfExponent() { return zipfExponent; }
+
+    public int getOperationsPerDay() { return operationsPerDay; }
+
+    public double getOverdueRate() { return overdueRate; }
+
+    public long getSeed() { return seed; }
+
+    @Override
+    public String toString() {
+        return "users=" + users +
+                " books=" + books +
+                " physicalRatio=" + physicalRatio +
+                " copies=" + copiesPerBook +
+                " operations=" + operations +
+                " threads=" + threads +
+                " virtual=" + virtualThreads +
+                " zipf=" + zipfExponent +
+                " opsPerDay=" + operationsPerDay +
+                " overdueRate=" + overdueRate +
+                " seed=" + seed;
+    }
+}
@@ -5,6 +5,7 @@ public abstract class Book {
     protected String title;
     protected String author;
     protected final String isbn;
+    private long version;
 
     public Book(String title, String author, String isbn) {
 
@@ -23,6 +24,13 @@ public abstract class Book {
         this.isbn = isbn;
     }
 
+    protected Book(Book other) {
+        this.title = other.title;
+        this.author = other.author;
+        this.isbn = other.isbn;
+        this.version = other.version;
+    }
+
     public void updateDetails(String title, String author) {
 
         if (title == null || title.trim().isEmpty()) {
@@ -39,8 +47,25 @@ public abstract class Book {
     public String getTitle() { return title; }
     public String getAuthor() { return author; }
     public String getIsbn() { return isbn; }
-    
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public abstract Book copy();
     public abstract boolean isAvailableForLoan();
     public abstract void registerLoan();
     public abstract void registerReturn();
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Book book = (Book) o;
+        return isbn.equals(book.isbn);
+    }
+
+    @Override
+    public int hashCode() {
+        return isbn.hashCode();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package br.ufrn.library.model;
+
+public class BookCopy {
+
+    private final String barcode;
+    private final String isbn;
+    private final CopyStatus status;
+    private final String currentLoanId;
+
+    public BookCopy(String barcode, String isbn, CopyStatus status, String currentLoanId) {
+        this.barcode = barcode;
+        this.isbn = isbn;
+        this.status = status;
+        this.currentLoanId = currentLoanId;
+    }
+
+    public String getBarcode() { return barcode; }
+
+    public String getIsbn() { return isbn; }
+
+    public CopyStatus getStatus() { return status; }
+
+    public String getCurrentLoanId() { return currentLoanId; }
+
+    @Override
+    public String toString() {
+        return "BookCopy{" +
+                "barcode='" + barcode + '\'' +
+                ", isbn='" + isbn + '\'' +
+                ", status=" + status +
+                ", currentLoanId='" + currentLoanId + '\'' +
+                '}';
+    }
+}
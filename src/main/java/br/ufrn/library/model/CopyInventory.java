@@ -0,0 +1,299 @@
+package br.ufrn.library.model;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import br.ufrn.library.util.IntIntHashMap;
+
+/**
+ * Per-book copy table. Copy slots are grouped in chunks of 64, each holding
+ * the slots' serial numbers, current loan IDs and an on-loan bitmask. A copy
+ * keeps a serial number that never changes, so its barcode
+ * ({@code isbn-C<serial>}) stays stable even when the copy is moved to another
+ * slot by a shrink. Copy {@code n} lives in slot {@code n - 1} unless it is
+ * listed in {@code displacedSlots}.
+ * <p>
+ * {@link #CopyInventory(CopyInventory)} shares every chunk with the source
+ * table instead of copying it. A table only writes chunks it created itself
+ * and clones any other chunk the first time it writes to it, so copying is
+ * O(1), a checkout on a copy costs one chunk plus the chunk index, and each
+ * table reads only its own checkouts. Not thread-safe: a table is written only
+ * while its book version is being built, never after it has been stored.
+ */
+class CopyInventory {
+
+    static final String BARCODE_SEPARATOR = "-C";
+
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final String isbn;
+    private int size;
+    private int loaned;
+    private int nextSerial = 1;
+    private int firstFreeChunkHint;
+    private Chunk[] chunks;
+    private IntIntHashMap displacedSlots;
+    private Object owner = new Object();
+    private boolean ownsChunkIndex = true;
+    private boolean ownsDisplacedSlots = true;
+
+    CopyInventory(String isbn, int totalCopies) {
+        this.isbn = isbn;
+        this.chunks = new Chunk[0];
+        this.displacedSlots = new IntIntHashMap(0);
+        resize(totalCopies);
+    }
+
+    /** A table with the same copies as {@code other}; afterwards neither writes the chunks they share. */
+    CopyInventory(CopyInventory other) {
+        this.isbn = other.isbn;
+        this.size = other.size;
+        this.loaned = other.loaned;
+        this.nextSerial = other.nextSerial;
+        this.firstFreeChunkHint = other.firstFreeChunkHint;
+        this.chunks = other.chunks;
+        this.displacedSlots = other.displacedSlots;
+        this.ownsChunkIndex = false;
+        this.ownsDisplacedSlots = false;
+        other.owner = new Object();
+        other.ownsChunkIndex = false;
+        other.ownsDisplacedSlots = false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int loanedCount() {
+        return loaned;
+    }
+
+    boolean hasSequentialSerials() {
+        return displacedSlots.isEmpty() && nextSerial == size + 1;
+    }
+
+    int checkOut(String loanId) {
+        int slot = firstFreeSlot();
+        if (slot < 0) {
+            throw new IllegalStateException("No copies available to register loan for book: " + isbn);
+        }
+        checkOutSlot(slot, loanId);
+        return slot;
+    }
+
+    void checkOutSlot(int slot, String loanId) {
+        if (slot < 0 || slot >= size || isOnLoan(slot)) {
+            throw new IllegalStateException("Copy is not available for book: " + isbn);
+        }
+        Chunk chunk = writableChunk(slot >>> CHUNK_SHIFT);
+        chunk.onLoan |= 1L << slot;
+        chunk.loanIds[slot & CHUNK_MASK] = loanId;
+        loaned++;
+    }
+
+    void checkIn(int slot) {
+        if (slot < 0 || slot >= size || !isOnLoan(slot)) {
+            throw new IllegalStateException("Copy is not on loan for book: " + isbn);
+        }
+        Chunk chunk = writableChunk(slot >>> CHUNK_SHIFT);
+        chunk.onLoan &= ~(1L << slot);
+        chunk.loanIds[slot & CHUNK_MASK] = null;
+        loaned--;
+        if ((slot >>> CHUNK_SHIFT) < firstFreeChunkHint) {
+            firstFreeChunkHint = slot >>> CHUNK_SHIFT;
+        }
+    }
+
+    void forEachOnLoan(BiConsumer<String, String> action) {
+        for (int index = 0; index < chunks.length; index++) {
+            Chunk chunk = chunks[index];
+            long bits = chunk.onLoan;
+            while (bits != 0) {
+                int offset = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int slot = (index << CHUNK_SHIFT) + offset;
+                if (slot < size) {
+                    action.accept(barcode(chunk.serials[offset]), chunk.loanIds[offset]);
+                }
+            }
+        }
+    }
+
+    void resize(int newSize) {
+        if (newSize < loaned) {
+            throw new IllegalStateException("Cannot drop copies that are on loan.");
+        }
+        if (newSize > size) {
+            ensureChunks(newSize);
+            for (int slot = size; slot < newSize; slot++) {
+                int serial = nextSerial++;
+                writableChunk(slot >>> CHUNK_SHIFT).serials[slot & CHUNK_MASK] = serial;
+                if (serial != slot + 1) {
+                    writableDisplacedSlots().put(serial, slot);
+                }
+            }
+        } else {
+            for (int slot = newSize; slot < size; slot++) {
+                if (isOnLoan(slot)) {
+                    relocate(slot, firstFreeSlotBelow(newSize));
+                }
+                forget(slot);
+            }
+            chunks = Arrays.copyOf(chunks, chunksFor(newSize));
+            ownsChunkIndex = true;
+        }
+        size = newSize;
+        firstFreeChunkHint = 0;
+    }
+
+    int slotOf(String barcode) {
+        int separator = barcode.lastIndexOf(BARCODE_SEPARATOR);
+        if (separator != isbn.length() || !barcode.startsWith(isbn)) {
+            return -1;
+        }
+        int serial;
+        try {
+            serial = Integer.parseInt(barcode, separator + BARCODE_SEPARATOR.length(), barcode.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        int slot = displacedSlots.containsKey(serial) ? displacedSlots.get(serial) : serial - 1;
+        return slot >= 0 && slot < size && serialAt(slot) == serial ? slot : -1;
+    }
+
+    BookCopy copyAt(int slot) {
+        boolean loanedOut = isOnLoan(slot);
+        return new BookCopy(barcodeAt(slot), isbn,
+                loanedOut ? CopyStatus.ON_LOAN : CopyStatus.AVAILABLE, loanIdAt(slot));
+    }
+
+    String barcodeAt(int slot) {
+        return barcode(serialAt(slot));
+    }
+
+    boolean isOnLoan(int slot) {
+        return (chunks[slot >>> CHUNK_SHIFT].onLoan & (1L << slot)) != 0;
+    }
+
+    String loanIdAt(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].loanIds[slot & CHUNK_MASK];
+    }
+
+    private int serialAt(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].serials[slot & CHUNK_MASK];
+    }
+
+    private String barcode(int serial) {
+        return isbn + BARCODE_SEPARATOR + serial;
+    }
+
+    private int firstFreeSlot() {
+        int slot = firstFreeSlotFrom(firstFreeChunkHint, size);
+        if (slot >= 0) {
+            firstFreeChunkHint = slot >>> CHUNK_SHIFT;
+        }
+        return slot;
+    }
+
+    private int firstFreeSlotBelow(int limit) {
+        return firstFreeSlotFrom(0, limit);
+    }
+
+    private int firstFreeSlotFrom(int startChunk, int limit) {
+        int count = chunksFor(limit);
+        for (int index = startChunk; index < count; index++) {
+            long free = ~chunks[index].onLoan;
+            if (free != 0) {
+                int slot = (index << CHUNK_SHIFT) + Long.numberOfTrailingZeros(free);
+                return slot < limit ? slot : -1;
+            }
+        }
+        return -1;
+    }
+
+    private void relocate(int from, int to) {
+        Chunk source = writableChunk(from >>> CHUNK_SHIFT);
+        Chunk target = writableChunk(to >>> CHUNK_SHIFT);
+        int fromOffset = from & CHUNK_MASK;
+        int toOffset = to & CHUNK_MASK;
+        IntIntHashMap displaced = writableDisplacedSlots();
+        displaced.remove(target.serials[toOffset]);
+        target.serials[toOffset] = source.serials[fromOffset];
+        target.loanIds[toOffset] = source.loanIds[fromOffset];
+        target.onLoan |= 1L << to;
+        displaced.put(target.serials[toOffset], to);
+        source.serials[fromOffset] = 0;
+        source.loanIds[fromOffset] = null;
+        source.onLoan &= ~(1L << from);
+    }
+
+    private void forget(int slot) {
+        Chunk chunk = writableChunk(slot >>> CHUNK_SHIFT);
+        int offset = slot & CHUNK_MASK;
+        if (chunk.serials[offset] != 0 && displacedSlots.containsKey(chunk.serials[offset])) {
+            writableDisplacedSlots().remove(chunk.serials[offset]);
+        }
+        chunk.serials[offset] = 0;
+        chunk.loanIds[offset] = null;
+        chunk.onLoan &= ~(1L << slot);
+    }
+
+    private void ensureChunks(int slots) {
+        int required = chunksFor(slots);
+        if (required > chunks.length) {
+            int start = chunks.length;
+            chunks = Arrays.copyOf(chunks, required);
+            ownsChunkIndex = true;
+            for (int index = start; index < required; index++) {
+                chunks[index] = new Chunk(owner);
+            }
+        }
+    }
+
+    private Chunk writableChunk(int index) {
+        if (!ownsChunkIndex) {
+            chunks = chunks.clone();
+            ownsChunkIndex = true;
+        }
+        Chunk chunk = chunks[index];
+        if (chunk.owner != owner) {
+            chunk = new Chunk(chunk, owner);
+            chunks[index] = chunk;
+        }
+        return chunk;
+    }
+
+    private IntIntHashMap writableDisplacedSlots() {
+        if (!ownsDisplacedSlots) {
+            displacedSlots = new IntIntHashMap(displacedSlots);
+            ownsDisplacedSlots = true;
+        }
+        return displacedSlots;
+    }
+
+    private static int chunksFor(int slots) {
+        return (slots + CHUNK_MASK) >>> CHUNK_SHIFT;
+    }
+
+    private static final class Chunk {
+        private final Object owner;
+        private final int[] serials;
+        private final String[] loanIds;
+        private long onLoan;
+
+        private Chunk(Object owner) {
+            this.owner = owner;
+            this.serials = new int[CHUNK_SIZE];
+            this.loanIds = new String[CHUNK_SIZE];
+        }
+
+        private Chunk(Chunk other, Object owner) {
+            this.owner = owner;
+            this.serials = other.serials.clone();
+            this.loanIds = other.loanIds.clone();
+            this.onLoan = other.onLoan;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package br.ufrn.library.model;
+
+public enum CopyStatus {
+    AVAILABLE,
+    ON_LOAN
+}
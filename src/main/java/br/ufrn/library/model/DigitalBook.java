@@ -6,6 +6,15 @@ public class DigitalBook extends Book {
         super(title, author, isbn);
     }
 
+    private DigitalBook(DigitalBook other) {
+        super(other);
+    }
+
+    @Override
+    public DigitalBook copy() {
+        return new DigitalBook(this);
+    }
+
     public void download() {
         System.out.println("Downloading digital book: " + getTitle());
     }
@@ -11,6 +11,8 @@ public class Loan {
     private LocalDate dueDate;
     private LocalDate returnDate;
     private boolean isReturned;
+    private String copyBarcode;
+    private long version;
 
     public Loan(String id, User user, Book book, LocalDate loanDate, LocalDate dueDate) {
         if (id == null || id.trim().isEmpty()) {
@@ -41,6 +43,22 @@ public class Loan {
         this.isReturned = false;
     }
 
+    private Loan(Loan other) {
+        this.id = other.id;
+        this.user = other.user;
+        this.book = other.book;
+        this.loanDate = other.loanDate;
+        this.dueDate = other.dueDate;
+        this.returnDate = other.returnDate;
+        this.isReturned = other.isReturned;
+        this.copyBarcode = other.copyBarcode;
+        this.version = other.version;
+    }
+
+    public Loan copy() {
+        return new Loan(this);
+    }
+
     public void markAsReturned(LocalDate returnDate) {
         if (returnDate == null) {
             throw new IllegalArgumentException("Return date cannot be null.");
@@ -56,6 +74,25 @@ public class Loan {
         this.isReturned = true;
     }
 
+    /** Undoes {@link #markAsReturned} for a return that could not be completed. */
+    public void cancelReturn() {
+        if (!this.isReturned) {
+            throw new IllegalStateException("Loan has not been returned.");
+        }
+        this.returnDate = null;
+        this.isReturned = false;
+    }
+
+    public void assignCopy(String copyBarcode) {
+        if (copyBarcode == null || copyBarcode.trim().isEmpty()) {
+            throw new IllegalArgumentException("Copy barcode cannot be null or empty.");
+        }
+        if (this.copyBarcode != null) {
+            throw new IllegalStateException("Loan already has a copy assigned.");
+        }
+        this.copyBarcode = copyBarcode;
+    }
+
     public boolean isOverdue(LocalDate currentDate) {
         if (currentDate == null) {
             throw new IllegalArgumentException("Current date cannot be null.");
@@ -91,12 +128,25 @@ public class Loan {
         return isReturned;
     }
 
+    public String getCopyBarcode() {
+        return copyBarcode;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Loan{" +
                 "id='" + id + '\'' +
                 ", userId='" + (user != null ? user.getId() : "null") + '\'' +
                 ", bookIsbn='" + (book != null ? book.getIsbn() : "null") + '\'' +
+                ", copyBarcode='" + copyBarcode + '\'' +
                 ", loanDate=" + loanDate +
                 ", dueDate=" + dueDate +
                 ", returnDate=" + returnDate +
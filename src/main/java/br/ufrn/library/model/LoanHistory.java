@@ -0,0 +1,70 @@
+package br.ufrn.library.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable list of loan IDs whose versions share one backing array. Appending
+ * to the newest version claims the next free slot of that array, so copying a
+ * {@link User} and adding a loan costs O(1) instead of copying the history;
+ * only an append racing another version of the same length, or a removal,
+ * copies the array.
+ */
+final class LoanHistory {
+
+    static final LoanHistory EMPTY = new LoanHistory(new Backing(new String[0], 0), 0);
+
+    private static final int MIN_CAPACITY = 4;
+
+    private final Backing backing;
+    private final int size;
+
+    private LoanHistory(Backing backing, int size) {
+        this.backing = backing;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    LoanHistory append(String loanId) {
+        String[] ids = backing.ids;
+        if (size < ids.length && backing.claimed.compareAndSet(size, size + 1)) {
+            ids[size] = loanId;
+            return new LoanHistory(backing, size + 1);
+        }
+        String[] grown = Arrays.copyOf(ids, Math.max(MIN_CAPACITY, size * 2));
+        Arrays.fill(grown, size, grown.length, null);
+        grown[size] = loanId;
+        return new LoanHistory(new Backing(grown, size + 1), size + 1);
+    }
+
+    LoanHistory remove(String loanId) {
+        String[] ids = backing.ids;
+        String[] kept = new String[Math.max(MIN_CAPACITY, size)];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (!ids[i].equals(loanId)) {
+                kept[count++] = ids[i];
+            }
+        }
+        return count == size ? this : new LoanHistory(new Backing(kept, count), count);
+    }
+
+    List<String> asList() {
+        return Collections.unmodifiableList(Arrays.asList(backing.ids).subList(0, size));
+    }
+
+    private static final class Backing {
+        private final String[] ids;
+        private final AtomicInteger claimed;
+
+        private Backing(String[] ids, int claimed) {
+            this.ids = ids;
+            this.claimed = new AtomicInteger(claimed);
+        }
+    }
+}
@@ -1,9 +1,22 @@
 package br.ufrn.library.model;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * A title with numbered copies. {@link #copy()} does not duplicate the copy
+ * table: the new version shares it chunk by chunk and copies a chunk only when
+ * it checks a copy in or out, so every version sees exactly its own copies.
+ */
 public class PhysicalBook extends Book {
-    
+
     private int totalCopies;
     private int availableCopies;
+    private int anonymousLoans;
+    private final CopyInventory copies;
 
     public PhysicalBook(String title, String author, String isbn, int totalCopies) {
         super(title, author, isbn);
@@ -12,6 +25,27 @@ public class PhysicalBook extends Book {
         }
         this.totalCopies = totalCopies;
         this.availableCopies = totalCopies;
+        this.copies = new CopyInventory(isbn, totalCopies);
+    }
+
+    private PhysicalBook(PhysicalBook other) {
+        super(other);
+        this.totalCopies = other.totalCopies;
+        this.availableCopies = other.availableCopies;
+        this.anonymousLoans = other.anonymousLoans;
+        this.copies = new CopyInventory(other.copies);
+    }
+
+    @Override
+    public PhysicalBook copy() {
+        return new PhysicalBook(this);
+    }
+    public static String isbnFromBarcode(String barcode) {
+        if (barcode == null) {
+            return null;
+        }
+        int separator = barcode.lastIndexOf(CopyInventory.BARCODE_SEPARATOR);
+        return separator > 0 ? barcode.substring(0, separator) : null;
     }
 
     @Override
@@ -19,9 +53,15 @@ public class PhysicalBook extends Book {
         return availableCopies > 0;
     }
 
+    /**
+     * Takes a copy off the shelf without tying it to a barcode. Such loans are
+     * only counted; they never occupy a copy slot, so {@link #registerReturn()}
+     * can only give back what was taken this way.
+     */
     @Override
     public void registerLoan() {
         if (isAvailableForLoan()) {
+            this.anonymousLoans++;
             this.availableCopies--;
         } else {
             throw new IllegalStateException("No copies available to register loan for book: " + this.isbn);
@@ -30,11 +70,94 @@ public class PhysicalBook extends Book {
 
     @Override
     public void registerReturn() {
-        if (this.availableCopies < this.totalCopies) {
+        if (this.anonymousLoans > 0) {
+            this.anonymousLoans--;
             this.availableCopies++;
         }
     }
 
+    public String checkOutCopy(String loanId) {
+        if (!isAvailableForLoan()) {
+            throw new IllegalStateException("No copies available to register loan for book: " + this.isbn);
+        }
+        int slot = copies.checkOut(loanId);
+        this.availableCopies--;
+        return copies.barcodeAt(slot);
+    }
+
+    public void restoreCopyLoan(String barcode, String loanId) {
+        int slot = copies.slotOf(barcode);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Copy not found with barcode: " + barcode);
+        }
+        copies.checkOutSlot(slot, loanId);
+        this.availableCopies--;
+    }
+
+    public void checkInCopy(String barcode) {
+        int slot = copies.slotOf(barcode);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Copy not found with barcode: " + barcode);
+        }
+        copies.checkIn(slot);
+        this.availableCopies++;
+    }
+
+    /**
+     * Makes the copies on loan match {@code loanIdsByBarcode}: copies not listed
+     * (or listed for another loan) are checked in, listed copies are checked out
+     * to their loan. Barcodes that do not belong to this book are ignored and
+     * anonymous loans are dropped. Returns how many copies changed state.
+     */
+    public int reconcileCopies(Map<String, String> loanIdsByBarcode) {
+        int changed = 0;
+        for (int slot = 0; slot < totalCopies; slot++) {
+            BookCopy copy = copies.copyAt(slot);
+            String expectedLoanId = loanIdsByBarcode.get(copy.getBarcode());
+            boolean onLoan = copy.getStatus() == CopyStatus.ON_LOAN;
+            if (onLoan && expectedLoanId != null && expectedLoanId.equals(copy.getCurrentLoanId())) {
+                continue;
+            }
+            if (onLoan) {
+                copies.checkIn(slot);
+                changed++;
+            }
+            if (expectedLoanId != null) {
+                copies.checkOutSlot(slot, expectedLoanId);
+                changed += onLoan ? 0 : 1;
+            }
+        }
+        changed += anonymousLoans;
+        this.anonymousLoans = 0;
+        this.availableCopies = totalCopies - copies.loanedCount();
+        return changed;
+    }
+
+    public Optional<BookCopy> findCopy(String barcode) {
+        int slot = copies.slotOf(barcode);
+        return slot < 0 ? Optional.empty() : Optional.of(copies.copyAt(slot));
+    }
+
+    public List<BookCopy> getCopies() {
+        List<BookCopy> result = new ArrayList<>(totalCopies);
+        for (int slot = 0; slot < totalCopies; slot++) {
+            result.add(copies.copyAt(slot));
+        }
+        return result;
+    }
+
+    /**
+     * Visits the barcode and loan ID of every copy on loan without materializing
+     * the free copies.
+     */
+    public void forEachCopyOnLoan(BiConsumer<String, String> action) {
+        copies.forEachOnLoan(action);
+    }
+
+    public boolean hasSequentialCopyNumbers() {
+        return copies.hasSequentialSerials();
+    }
+
     public int getTotalCopies() {
         return totalCopies;
     }
@@ -43,6 +166,10 @@ public class PhysicalBook extends Book {
         return availableCopies;
     }
 
+    public int getAnonymousLoans() {
+        return anonymousLoans;
+    }
+
     public void setTotalCopies(int newTotalCopies) {
         if (newTotalCopies < 0) {
             throw new IllegalArgumentException("Total copies cannot be negative.");
@@ -52,12 +179,13 @@ public class PhysicalBook extends Book {
 
         if (newTotalCopies < loanedCopies) {
             throw new IllegalStateException(
-                "Cannot set total copies to " + newTotalCopies + 
+                "Cannot set total copies to " + newTotalCopies +
                 ". There are currently " + loanedCopies + " copies on loan."
             );
         }
 
+        copies.resize(newTotalCopies);
         this.totalCopies = newTotalCopies;
         this.availableCopies = newTotalCopies - loanedCopies;
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,13 @@
 package br.ufrn.library.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public class User {
 
     private final String id;
     private String name;
-    private List<Loan> loanHistory;
+    private LoanHistory loanHistory;
+    private long version;
 
     public User(String id, String name) {
         if (id == null || id.trim().isEmpty()) {
@@ -20,7 +19,18 @@ public class User {
         
         this.id = id;
         this.name = name;
-        this.loanHistory = new ArrayList<>();
+        this.loanHistory = LoanHistory.EMPTY;
+    }
+
+    private User(User other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.loanHistory = other.loanHistory;
+        this.version = other.version;
+    }
+
+    public User copy() {
+        return new User(this);
     }
 
     public void setName(String name) {
@@ -30,16 +40,35 @@ public class User {
         this.name = name;
     }
 
-    public void addLoanToHistory(Loan loan) {
-        this.loanHistory.add(loan);
+    public void addLoanToHistory(String loanId) {
+        if (loanId == null || loanId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Loan ID cannot be null or empty.");
+        }
+        this.loanHistory = loanHistory.append(loanId);
+    }
+
+    public boolean removeLoanFromHistory(String loanId) {
+        LoanHistory remaining = loanHistory.remove(loanId);
+        boolean removed = remaining != loanHistory;
+        this.loanHistory = remaining;
+        return removed;
     }
 
     public String getId() { return id; }
     
     public String getName() { return name; }
 
-    public List<Loan> getLoanHistory() {
-        return Collections.unmodifiableList(loanHistory);
+    public long getVersion() { return version; }
+
+    public void setVersion(long version) { this.version = version; }
+
+    /** IDs of the user's loans in checkout order; resolve them through the loan repository. */
+    public List<String> getLoanHistory() {
+        return loanHistory.asList();
+    }
+
+    public int getLoanCount() {
+        return loanHistory.size();
     }
 
     @Override
@@ -0,0 +1,114 @@
+package br.ufrn.library.policy;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+import br.ufrn.library.scheduler.OverdueListener;
+import br.ufrn.library.service.LoanEventListener;
+import br.ufrn.library.service.LoanStatus;
+
+public class BorrowingLimitEnforcer implements LoanEventListener, OverdueListener {
+
+    private volatile BorrowingPolicy policy;
+    private final Map<String, UserLoanCounters> counters = new ConcurrentHashMap<>();
+    private final Set<String> overdueLoanIds = ConcurrentHashMap.newKeySet();
+
+    public BorrowingLimitEnforcer(BorrowingPolicy policy) {
+        setPolicy(policy);
+    }
+
+    public void setPolicy(BorrowingPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Borrowing policy cannot be null.");
+        }
+        this.policy = policy;
+    }
+
+    public BorrowingPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Replaces all counters with those implied by {@code activeLoans}. Not safe
+     * to run alongside checkouts, returns or overdue events: call it at startup,
+     * before the enforcer is registered as a listener.
+     */
+    public void rebuild(List<Loan> activeLoans, LocalDate currentDate) {
+        counters.clear();
+        overdueLoanIds.clear();
+        for (Loan loan : activeLoans) {
+            UserLoanCounters userCounters = countersFor(loan.getUser().getId());
+            userCounters.forceAcquire(isDigital(loan.getBook()));
+            if (loan.isOverdue(currentDate) && overdueLoanIds.add(loan.getId())) {
+                userCounters.markOverdue();
+            }
+        }
+    }
+
+    @Override
+    public LoanStatus beforeLoanCreated(User user, Book book) {
+        UserLoanCounters.Decision decision = countersFor(user.getId()).tryAcquire(isDigital(book), policy);
+        switch (decision) {
+            case ADMITTED:
+                return LoanStatus.SUCCESS;
+            case BLOCKED_BY_OVERDUE:
+                return LoanStatus.BLOCKED_BY_OVERDUE;
+            case PHYSICAL_LIMIT_REACHED:
+                return LoanStatus.PHYSICAL_LIMIT_REACHED;
+            case DIGITAL_LIMIT_REACHED:
+                return LoanStatus.DIGITAL_LIMIT_REACHED;
+            default:
+                return LoanStatus.ACTIVE_LIMIT_REACHED;
+        }
+    }
+
+    @Override
+    public void onLoanCreationFailed(User user, Book book) {
+        countersFor(user.getId()).release(isDigital(book));
+    }
+
+    @Override
+    public void onLoanReturned(Loan loan) {
+        UserLoanCounters userCounters = countersFor(loan.getUser().getId());
+        if (overdueLoanIds.remove(loan.getId())) {
+            userCounters.clearOverdue();
+        }
+        userCounters.release(isDigital(loan.getBook()));
+    }
+
+    @Override
+    public void onOverdue(Loan loan, LocalDate detectedOn) {
+        if (!loan.isReturned() && overdueLoanIds.add(loan.getId())) {
+            countersFor(loan.getUser().getId()).markOverdue();
+        }
+    }
+
+    public int getActiveLoanCount(String userId) {
+        UserLoanCounters userCounters = counters.get(userId);
+        return userCounters == null ? 0 : userCounters.getActiveLoans();
+    }
+
+    public int getOverdueLoanCount(String userId) {
+        UserLoanCounters userCounters = counters.get(userId);
+        return userCounters == null ? 0 : userCounters.getOverdueLoans();
+    }
+
+    private UserLoanCounters countersFor(String userId) {
+        UserLoanCounters userCounters = counters.get(userId);
+        if (userCounters == null) {
+            userCounters = counters.computeIfAbsent(userId, id -> new UserLoanCounters());
+        }
+        return userCounters;
+    }
+
+    private static boolean isDigital(Book book) {
+        return book instanceof DigitalBook;
+    }
+}
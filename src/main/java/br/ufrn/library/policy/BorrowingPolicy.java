@@ -0,0 +1,33 @@
+package br.ufrn.library.policy;
+
+public class BorrowingPolicy {
+
+    private final int maxActiveLoans;
+    private final int maxActivePhysicalLoans;
+    private final int maxActiveDigitalLoans;
+    private final boolean blockOnOverdue;
+
+    public BorrowingPolicy(int maxActiveLoans, int maxActivePhysicalLoans, int maxActiveDigitalLoans,
+            boolean blockOnOverdue) {
+        if (maxActiveLoans < 0 || maxActivePhysicalLoans < 0 || maxActiveDigitalLoans < 0) {
+            throw new IllegalArgumentException("Borrowing limits cannot be negative.");
+        }
+        if (maxActiveLoans > UserLoanCounters.MAX_COUNT
+                || maxActivePhysicalLoans > UserLoanCounters.MAX_COUNT
+                || maxActiveDigitalLoans > UserLoanCounters.MAX_COUNT) {
+            throw new IllegalArgumentException("Borrowing limits cannot exceed " + UserLoanCounters.MAX_COUNT + ".");
+        }
+        this.maxActiveLoans = maxActiveLoans;
+        this.maxActivePhysicalLoans = maxActivePhysicalLoans;
+        this.maxActiveDigitalLoans = maxActiveDigitalLoans;
+        this.blockOnOverdue = blockOnOverdue;
+    }
+
+    public int getMaxActiveLoans() { return maxActiveLoans; }
+
+    public int getMaxActivePhysicalLoans() { return maxActivePhysicalLoans; }
+
+    public int getMaxActiveDigitalLoans() { return maxActiveDigitalLoans; }
+
+    public boolean isBlockOnOverdue() { return blockOnOverdue; }
+}
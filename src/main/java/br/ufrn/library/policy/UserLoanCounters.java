@@ -0,0 +1,97 @@
+package br.ufrn.library.policy;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Physical, digital and overdue loan counts of one user packed into a single
+ * {@link AtomicLong} (16 bits each), so a limit check and the matching increment
+ * happen in one compare-and-set.
+ */
+public class UserLoanCounters {
+
+    public enum Decision {
+        ADMITTED,
+        ACTIVE_LIMIT_REACHED,
+        PHYSICAL_LIMIT_REACHED,
+        DIGITAL_LIMIT_REACHED,
+        BLOCKED_BY_OVERDUE
+    }
+
+    static final int MAX_COUNT = 0xFFFF;
+
+    private static final int PHYSICAL_SHIFT = 0;
+    private static final int DIGITAL_SHIFT = 16;
+    private static final int OVERDUE_SHIFT = 32;
+
+    private final AtomicLong state = new AtomicLong();
+
+    public Decision tryAcquire(boolean digital, BorrowingPolicy policy) {
+        int shift = digital ? DIGITAL_SHIFT : PHYSICAL_SHIFT;
+        int typeLimit = digital ? policy.getMaxActiveDigitalLoans() : policy.getMaxActivePhysicalLoans();
+        while (true) {
+            long current = state.get();
+            if (policy.isBlockOnOverdue() && field(current, OVERDUE_SHIFT) > 0) {
+                return Decision.BLOCKED_BY_OVERDUE;
+            }
+            if (field(current, PHYSICAL_SHIFT) + field(current, DIGITAL_SHIFT) >= policy.getMaxActiveLoans()) {
+                return Decision.ACTIVE_LIMIT_REACHED;
+            }
+            if (field(current, shift) >= typeLimit) {
+                return digital ? Decision.DIGITAL_LIMIT_REACHED : Decision.PHYSICAL_LIMIT_REACHED;
+            }
+            if (state.compareAndSet(current, current + (1L << shift))) {
+                return Decision.ADMITTED;
+            }
+        }
+    }
+
+    public void forceAcquire(boolean digital) {
+        add(digital ? DIGITAL_SHIFT : PHYSICAL_SHIFT, 1);
+    }
+
+    public void release(boolean digital) {
+        add(digital ? DIGITAL_SHIFT : PHYSICAL_SHIFT, -1);
+    }
+
+    public void markOverdue() {
+        add(OVERDUE_SHIFT, 1);
+    }
+
+    public void clearOverdue() {
+        add(OVERDUE_SHIFT, -1);
+    }
+
+    public int getActiveLoans() {
+        long current = state.get();
+        return field(current, PHYSICAL_SHIFT) + field(current, DIGITAL_SHIFT);
+    }
+
+    public int getActivePhysicalLoans() {
+        return field(state.get(), PHYSICAL_SHIFT);
+    }
+
+    public int getActiveDigitalLoans() {
+        return field(state.get(), DIGITAL_SHIFT);
+    }
+
+    public int getOverdueLoans() {
+        return field(state.get(), OVERDUE_SHIFT);
+    }
+
+    private void add(int shift, int delta) {
+        while (true) {
+            long current = state.get();
+            int value = field(current, shift) + delta;
+            if (value < 0 || value > MAX_COUNT) {
+                throw new IllegalStateException("Loan counter out of range: " + value);
+            }
+            if (state.compareAndSet(current, current + ((long) delta << shift))) {
+                return;
+            }
+        }
+    }
+
+    private static int field(long state, int shift) {
+        return (int) ((state >>> shift) & MAX_COUNT);
+    }
+}
@@ -0,0 +1,17 @@
+package br.ufrn.library.query;
+
+public enum AccessPath {
+    PRIMARY_KEY,
+    USER_INDEX,
+    ISBN_INDEX,
+    BOOK_TYPE_INDEX,
+    ACTIVE_INDEX,
+    DUE_DATE_INDEX,
+    LOAN_DATE_INDEX,
+    REPOSITORY_LOOKUP,
+    PARALLEL_SCAN;
+
+    public boolean isIndex() {
+        return this != REPOSITORY_LOOKUP && this != PARALLEL_SCAN;
+    }
+}
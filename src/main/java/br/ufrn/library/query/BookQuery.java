@@ -0,0 +1,80 @@
+package br.ufrn.library.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.ufrn.library.model.Book;
+
+/** Conjunction of book predicates; immutable like {@link LoanQuery}. */
+public final class BookQuery {
+
+    private final String isbn;
+    private final Class<? extends Book> bookType;
+    private final Boolean availableForLoan;
+
+    private BookQuery(String isbn, Class<? extends Book> bookType, Boolean availableForLoan) {
+        this.isbn = isbn;
+        this.bookType = bookType;
+        this.availableForLoan = availableForLoan;
+    }
+
+    public static BookQuery all() {
+        return new BookQuery(null, null, null);
+    }
+
+    public BookQuery isbn(String isbn) {
+        if (isbn == null || isbn.isBlank()) {
+            throw new IllegalArgumentException("ISBN cannot be null or empty.");
+        }
+        return new BookQuery(isbn, bookType, availableForLoan);
+    }
+
+    public BookQuery bookType(Class<? extends Book> bookType) {
+        if (bookType == null) {
+            throw new IllegalArgumentException("Book type cannot be null.");
+        }
+        return new BookQuery(isbn, bookType, availableForLoan);
+    }
+
+    public BookQuery availableForLoan(boolean availableForLoan) {
+        return new BookQuery(isbn, bookType, availableForLoan);
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public Class<? extends Book> getBookType() {
+        return bookType;
+    }
+
+    public Boolean getAvailableForLoan() {
+        return availableForLoan;
+    }
+
+    public boolean matches(Book book) {
+        return (isbn == null || isbn.equals(book.getIsbn()))
+                && (bookType == null || bookType.isInstance(book))
+                && (availableForLoan == null || availableForLoan == book.isAvailableForLoan());
+    }
+
+    public List<String> describe() {
+        List<String> predicates = new ArrayList<>();
+        if (isbn != null) {
+            predicates.add("isbn = " + isbn);
+        }
+        if (bookType != null) {
+            predicates.add("bookType = " + bookType.getSimpleName());
+        }
+        if (availableForLoan != null) {
+            predicates.add("availableForLoan = " + availableForLoan);
+        }
+        return predicates;
+    }
+
+    @Override
+    public String toString() {
+        List<String> predicates = describe();
+        return predicates.isEmpty() ? "BookQuery{all}" : "BookQuery{" + String.join(" and ", predicates) + "}";
+    }
+}
@@ -0,0 +1,176 @@
+package br.ufrn.library.query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+
+/**
+ * Conjunction of loan predicates. Instances are immutable: every method
+ * returns a new query with that predicate set, replacing an earlier one on the
+ * same attribute. Date ranges are inclusive and a null bound is open.
+ */
+public final class LoanQuery {
+
+    private final String userId;
+    private final String isbn;
+    private final Class<? extends Book> bookType;
+    private final LocalDate dueFrom;
+    private final LocalDate dueTo;
+    private final LocalDate loanedFrom;
+    private final LocalDate loanedTo;
+    private final Boolean returned;
+
+    private LoanQuery(String userId, String isbn, Class<? extends Book> bookType, LocalDate dueFrom, LocalDate dueTo,
+            LocalDate loanedFrom, LocalDate loanedTo, Boolean returned) {
+        this.userId = userId;
+        this.isbn = isbn;
+        this.bookType = bookType;
+        this.dueFrom = dueFrom;
+        this.dueTo = dueTo;
+        this.loanedFrom = loanedFrom;
+        this.loanedTo = loanedTo;
+        this.returned = returned;
+    }
+
+    public static LoanQuery all() {
+        return new LoanQuery(null, null, null, null, null, null, null, null);
+    }
+
+    public LoanQuery user(String userId) {
+        if (userId == null || userId.isBlank()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty.");
+        }
+        return new LoanQuery(userId, isbn, bookType, dueFrom, dueTo, loanedFrom, loanedTo, returned);
+    }
+
+    public LoanQuery isbn(String isbn) {
+        if (isbn == null || isbn.isBlank()) {
+            throw new IllegalArgumentException("ISBN cannot be null or empty.");
+        }
+        return new LoanQuery(userId, isbn, bookType, dueFrom, dueTo, loanedFrom, loanedTo, returned);
+    }
+
+    public LoanQuery bookType(Class<? extends Book> bookType) {
+        if (bookType == null) {
+            throw new IllegalArgumentException("Book type cannot be null.");
+        }
+        return new LoanQuery(userId, isbn, bookType, dueFrom, dueTo, loanedFrom, loanedTo, returned);
+    }
+
+    public LoanQuery dueBetween(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return new LoanQuery(userId, isbn, bookType, from, to, loanedFrom, loanedTo, returned);
+    }
+
+    public LoanQuery loanedBetween(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return new LoanQuery(userId, isbn, bookType, dueFrom, dueTo, from, to, returned);
+    }
+
+    public LoanQuery returned(boolean returned) {
+        return new LoanQuery(userId, isbn, bookType, dueFrom, dueTo, loanedFrom, loanedTo, returned);
+    }
+
+    public LoanQuery active() {
+        return returned(false);
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public Class<? extends Book> getBookType() {
+        return bookType;
+    }
+
+    public boolean hasDueRange() {
+        return dueFrom != null || dueTo != null;
+    }
+
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    public LocalDate getDueTo() {
+        return dueTo;
+    }
+
+    public boolean hasLoanedRange() {
+        return loanedFrom != null || loanedTo != null;
+    }
+
+    public LocalDate getLoanedFrom() {
+        return loanedFrom;
+    }
+
+    public LocalDate getLoanedTo() {
+        return loanedTo;
+    }
+
+    public Boolean getReturned() {
+        return returned;
+    }
+
+    public boolean matches(Loan loan) {
+        return (userId == null || userId.equals(loan.getUser().getId()))
+                && (isbn == null || isbn.equals(loan.getBook().getIsbn()))
+                && (bookType == null || bookType.isInstance(loan.getBook()))
+                && inRange(loan.getDueDate(), dueFrom, dueTo)
+                && inRange(loan.getLoanDate(), loanedFrom, loanedTo)
+                && (returned == null || returned == loan.isReturned());
+    }
+
+    /** One line per predicate, in the order the planner considers them. */
+    public List<String> describe() {
+        List<String> predicates = new ArrayList<>();
+        if (userId != null) {
+            predicates.add("userId = " + userId);
+        }
+        if (isbn != null) {
+            predicates.add("isbn = " + isbn);
+        }
+        if (bookType != null) {
+            predicates.add("bookType = " + bookType.getSimpleName());
+        }
+        if (hasDueRange()) {
+            predicates.add("dueDate in " + describeRange(dueFrom, dueTo));
+        }
+        if (hasLoanedRange()) {
+            predicates.add("loanDate in " + describeRange(loanedFrom, loanedTo));
+        }
+        if (returned != null) {
+            predicates.add("returned = " + returned);
+        }
+        return predicates;
+    }
+
+    @Override
+    public String toString() {
+        List<String> predicates = describe();
+        return predicates.isEmpty() ? "LoanQuery{all}" : "LoanQuery{" + String.join(" and ", predicates) + "}";
+    }
+
+    static String describeRange(LocalDate from, LocalDate to) {
+        return "[" + (from == null ? "-inf" : from) + ", " + (to == null ? "+inf" : to) + "]";
+    }
+
+    private static boolean inRange(LocalDate date, LocalDate from, LocalDate to) {
+        return (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            throw new IllegalArgumentException("At least one bound of the date range must be set.");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start cannot be after its end.");
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package br.ufrn.library.query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.impl.IndexedLoanRepository;
+
+/**
+ * Runs {@link LoanQuery} and {@link BookQuery} against the repositories. When
+ * the loan repository is an {@link IndexedLoanRepository} the planner sizes
+ * every index the query can use, drives the scan from the smallest one and
+ * checks the remaining ID indexes by membership before a loan is fetched. An
+ * index that would still visit more than a quarter of the loans, or a query
+ * no index covers, falls back to a parallel scan. Without indexes, the
+ * repository's own finders are used where they match. Every fetched record is
+ * checked against the whole query, so loans updated during the run are never
+ * returned if they no longer match.
+ */
+public class QueryEngine {
+
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int MAX_INDEX_FRACTION_DIVISOR = 4;
+
+    private final LoanRepository loanRepository;
+    private final BookRepository bookRepository;
+    private final IndexedLoanRepository loanIndex;
+
+    public QueryEngine(LoanRepository loanRepository, BookRepository bookRepository) {
+        if (loanRepository == null || bookRepository == null) {
+            throw new IllegalArgumentException("Repositories cannot be null.");
+        }
+        this.loanRepository = loanRepository;
+        this.bookRepository = bookRepository;
+        this.loanIndex = loanRepository instanceof IndexedLoanRepository indexed ? indexed : null;
+    }
+
+    public QueryPlan explain(LoanQuery query) {
+        return plan(query).plan();
+    }
+
+    public List<Loan> find(LoanQuery query) {
+        return plan(query).execute(query);
+    }
+
+    public QueryPlan explain(BookQuery query) {
+        checkQuery(query);
+        if (query.getIsbn() != null) {
+            return new QueryPlan(AccessPath.PRIMARY_KEY, "isbn = " + query.getIsbn(), 1, QueryPlan.UNKNOWN, false,
+                    List.of(), residual(query.describe(), List.of("isbn = " + query.getIsbn())));
+        }
+        return new QueryPlan(AccessPath.PARALLEL_SCAN, "books", QueryPlan.UNKNOWN, QueryPlan.UNKNOWN, true,
+                List.of(), query.describe());
+    }
+
+    public List<Book> find(BookQuery query) {
+        checkQuery(query);
+        if (query.getIsbn() != null) {
+            return bookRepository.findByIsbn(query.getIsbn()).filter(query::matches).stream()
+                    .collect(Collectors.toList());
+        }
+        return bookRepository.findAll().parallelStream()
+                .filter(query::matches)
+                .collect(Collectors.toList());
+    }
+
+    private LoanPlan plan(LoanQuery query) {
+        checkQuery(query);
+        return loanIndex == null ? planWithoutIndexes(query) : planWithIndexes(query);
+    }
+
+    private LoanPlan planWithIndexes(LoanQuery query) {
+        long total = loanIndex.size();
+        List<Candidate> candidates = new ArrayList<>();
+        if (query.getUserId() != null) {
+            candidates.add(Candidate.of(AccessPath.USER_INDEX, "userId = " + query.getUserId(),
+                    loanIndex.loanIdsForUser(query.getUserId())));
+        }
+        if (query.getIsbn() != null) {
+            candidates.add(Candidate.of(AccessPath.ISBN_INDEX, "isbn = " + query.getIsbn(),
+                    loanIndex.loanIdsForIsbn(query.getIsbn())));
+        }
+        if (query.getBookType() != null) {
+            candidates.add(Candidate.of(AccessPath.BOOK_TYPE_INDEX, "bookType = " + query.getBookType().getSimpleName(),
+                    loanIndex.loanIdsForBookType(query.getBookType())));
+        }
+        if (Boolean.FALSE.equals(query.getReturned())) {
+            candidates.add(Candidate.of(AccessPath.ACTIVE_INDEX, "returned = false", loanIndex.activeLoanIds()));
+        }
+        candidates.sort(Comparator.comparingLong(Candidate::rows));
+
+        Candidate driver = candidates.isEmpty() ? null : candidates.get(0);
+        long limit = driver == null ? total : driver.rows();
+        if (query.hasDueRange()) {
+            Candidate range = Candidate.ofRange(AccessPath.DUE_DATE_INDEX,
+                    "dueDate in " + LoanQuery.describeRange(query.getDueFrom(), query.getDueTo()),
+                    loanIndex.loanIdsDueBetween(query.getDueFrom(), query.getDueTo()), limit);
+            if (range.rows() < limit) {
+                driver = range;
+                limit = range.rows();
+            }
+        }
+        if (query.hasLoanedRange()) {
+            Candidate range = Candidate.ofRange(AccessPath.LOAN_DATE_INDEX,
+                    "loanDate in " + LoanQuery.describeRange(query.getLoanedFrom(), query.getLoanedTo()),
+                    loanIndex.loanIdsLoanedBetween(query.getLoanedFrom(), query.getLoanedTo()), limit);
+            if (range.rows() < limit) {
+                driver = range;
+            }
+        }
+
+        if (driver == null || driver.rows() > total / MAX_INDEX_FRACTION_DIVISOR) {
+            return scan(query, total);
+        }
+        List<Candidate> probes = new ArrayList<>(candidates);
+        probes.remove(driver);
+        List<String> covered = new ArrayList<>();
+        covered.add(driver.key());
+        List<String> indexFilters = new ArrayList<>();
+        for (Candidate probe : probes) {
+            covered.add(probe.key());
+            indexFilters.add(probe.key());
+        }
+        boolean parallel = driver.rows() >= PARALLEL_THRESHOLD;
+        QueryPlan plan = new QueryPlan(driver.path(), driver.key(), driver.rows(), total, parallel,
+                indexFilters, residual(query.describe(), covered));
+        Candidate source = driver;
+        return new LoanPlan(plan, () -> fetch(source, probes, parallel));
+    }
+
+    private Stream<Loan> fetch(Candidate driver, List<Candidate> probes, boolean parallel) {
+        Stream<String> ids = driver.ids() != null
+                ? driver.ids().stream()
+                : driver.range().values().stream().flatMap(Set::stream);
+        if (parallel) {
+            ids = ids.parallel();
+        }
+        for (Candidate probe : probes) {
+            Set<String> members = probe.ids();
+            ids = ids.filter(members::contains);
+        }
+        return ids.map(loanRepository::findById).flatMap(Optional::stream);
+    }
+
+    private LoanPlan planWithoutIndexes(LoanQuery query) {
+        String userId = query.getUserId();
+        boolean activeOnly = Boolean.FALSE.equals(query.getReturned());
+        if (userId != null && activeOnly) {
+            return lookup(query, "findActiveByUserId(" + userId + ")",
+                    List.of("userId = " + userId, "returned = false"),
+                    () -> loanRepository.findActiveByUserId(userId));
+        }
+        if (userId != null) {
+            return lookup(query, "findByUserId(" + userId + ")", List.of("userId = " + userId),
+                    () -> loanRepository.findByUserId(userId));
+        }
+        if (query.getIsbn() != null) {
+            return lookup(query, "findByBookIsbn(" + query.getIsbn() + ")", List.of("isbn = " + query.getIsbn()),
+                    () -> loanRepository.findByBookIsbn(query.getIsbn()));
+        }
+        if (activeOnly) {
+            return lookup(query, "findAllActive()", List.of("returned = false"), loanRepository::findAllActive);
+        }
+        return scan(query, QueryPlan.UNKNOWN);
+    }
+
+    private LoanPlan lookup(LoanQuery query, String finder, List<String> covered, Supplier<List<Loan>> source) {
+        QueryPlan plan = new QueryPlan(AccessPath.REPOSITORY_LOOKUP, finder, QueryPlan.UNKNOWN, QueryPlan.UNKNOWN,
+                false, List.of(), residual(query.describe(), covered));
+        return new LoanPlan(plan, () -> source.get().stream());
+    }
+
+    private LoanPlan scan(LoanQuery query, long total) {
+        QueryPlan plan = new QueryPlan(AccessPath.PARALLEL_SCAN, "loans", total, total, true,
+                List.of(), query.describe());
+        return new LoanPlan(plan, () -> loanRepository.findAll().parallelStream());
+    }
+
+    private static List<String> residual(List<String> predicates, List<String> covered) {
+        List<String> remaining = new ArrayList<>(predicates);
+        remaining.removeAll(covered);
+        return remaining;
+    }
+
+    private static void checkQuery(Object query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null.");
+        }
+    }
+
+    private record LoanPlan(QueryPlan plan, Supplier<Stream<Loan>> candidates) {
+
+        List<Loan> execute(LoanQuery query) {
+            return candidates.get()
+                    .filter(query::matches)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private record Candidate(AccessPath path, String key, long rows, Set<String> ids,
+                             NavigableMap<LocalDate, Set<String>> range) {
+
+        static Candidate of(AccessPath path, String key, Set<String> ids) {
+            return new Candidate(path, key, ids.size(), ids, null);
+        }
+
+        // Sums the range's buckets only until they exceed the best estimate so far.
+        static Candidate ofRange(AccessPath path, String key, NavigableMap<LocalDate, Set<String>> range, long limit) {
+            long rows = 0;
+            for (Set<String> ids : range.values()) {
+                rows += ids.size();
+                if (rows >= limit) {
+                    break;
+                }
+            }
+            return new Candidate(path, key, rows, null, range);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package br.ufrn.library.query;
+
+import java.util.List;
+
+public class QueryPlan {
+
+    public static final long UNKNOWN = -1;
+
+    private final AccessPath accessPath;
+    private final String accessKey;
+    private final long estimatedRows;
+    private final long totalRows;
+    private final boolean parallel;
+    private final List<String> indexFilters;
+    private final List<String> filters;
+
+    public QueryPlan(AccessPath accessPath, String accessKey, long estimatedRows, long totalRows, boolean parallel,
+                     List<String> indexFilters, List<String> filters) {
+        this.accessPath = accessPath;
+        this.accessKey = accessKey;
+        this.estimatedRows = estimatedRows;
+        this.totalRows = totalRows;
+        this.parallel = parallel;
+        this.indexFilters = List.copyOf(indexFilters);
+        this.filters = List.copyOf(filters);
+    }
+
+    public AccessPath getAccessPath() {
+        return accessPath;
+    }
+
+    public String getAccessKey() {
+        return accessKey;
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /** Predicates checked against other indexes by ID, before the record is fetched. */
+    public List<String> getIndexFilters() {
+        return indexFilters;
+    }
+
+    /** Predicates checked on the fetched record. */
+    public List<String> getFilters() {
+        return filters;
+    }
+
+    public String explain() {
+        StringBuilder out = new StringBuilder();
+        out.append(accessPath);
+        if (accessKey != null) {
+            out.append(" (").append(accessKey).append(')');
+        }
+        out.append(" rows=").append(estimatedRows == UNKNOWN ? "?" : String.valueOf(estimatedRows));
+        if (totalRows != UNKNOWN) {
+            out.append('/').append(totalRows);
+        }
+        if (parallel) {
+            out.append(" parallel");
+        }
+        if (!indexFilters.isEmpty()) {
+            out.append(System.lineSeparator()).append("  index filter: ").append(String.join(" and ", indexFilters));
+        }
+        if (!filters.isEmpty()) {
+            out.append(System.lineSeparator()).append("  filter: ").append(String.join(" and ", filters));
+        }
+        return out.toString();
+    }
+
+    @Override
+    public String toString() {
+        return explain();
+    }
+}
@@ -0,0 +1,245 @@
+package br.ufrn.library.recommendation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.service.LoanEventListener;
+import br.ufrn.library.util.IntIntHashMap;
+
+/**
+ * "Patrons who borrowed this also borrowed" model. Co-occurrence counts only grow,
+ * so each item's top-K can be kept exact incrementally: an item can only enter the
+ * top-K on the update that raises its own count.
+ */
+public class RecommendationEngine implements LoanEventListener {
+
+    private static final int DEFAULT_TOP_K = 10;
+
+    private final int topK;
+    private final Object writeLock = new Object();
+    private volatile State state = new State();
+
+    public RecommendationEngine() {
+        this(DEFAULT_TOP_K);
+    }
+
+    public RecommendationEngine(int topK) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("Top-K must be positive.");
+        }
+        this.topK = topK;
+    }
+
+    @Override
+    public void onLoanCreated(Loan loan) {
+        record(loan.getUser().getId(), loan.getBook().getIsbn());
+    }
+
+    public void record(String userId, String isbn) {
+        synchronized (writeLock) {
+            State current = state;
+            Item item = current.itemFor(isbn);
+            IntIntHashMap borrowed = current.itemsByUser.computeIfAbsent(userId, id -> new IntIntHashMap());
+            if (borrowed.addTo(item.id, 1) > 1) {
+                return;
+            }
+            borrowed.forEach((otherId, ignored) -> {
+                if (otherId != item.id) {
+                    Item other = current.items.get(otherId);
+                    increment(item, other);
+                    increment(other, item);
+                }
+            });
+        }
+    }
+
+    public List<String> recommend(String isbn) {
+        return recommend(isbn, topK);
+    }
+
+    public List<String> recommend(String isbn, int limit) {
+        Item item = state.itemsByIsbn.get(isbn);
+        if (item == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        TopK snapshot = item.topK;
+        int n = Math.min(limit, snapshot.isbns.length);
+        List<String> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(snapshot.isbns[i]);
+        }
+        return result;
+    }
+
+    public int coBorrowCount(String isbn, String otherIsbn) {
+        synchronized (writeLock) {
+            State current = state;
+            Item item = current.itemsByIsbn.get(isbn);
+            Item other = current.itemsByIsbn.get(otherIsbn);
+            return item == null || other == null ? 0 : item.coCounts.get(other.id);
+        }
+    }
+
+    /**
+     * Recomputes the model from {@code loanHistory} and swaps it in. Loans
+     * recorded while it runs are lost with the old model, so call it at
+     * startup, before the engine is registered as a listener.
+     */
+    public void rebuild(List<Loan> loanHistory) {
+        State rebuilt = new State();
+        for (Loan loan : loanHistory) {
+            rebuilt.itemFor(loan.getBook().getIsbn());
+        }
+
+        Map<String, List<Loan>> loansByUser = loanHistory.parallelStream()
+                .collect(Collectors.groupingByConcurrent(loan -> loan.getUser().getId()));
+
+        int itemCount = rebuilt.items.size();
+        List<List<int[]>> usersByItem = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            usersByItem.add(new ArrayList<>());
+        }
+        loansByUser.forEach((userId, loans) -> {
+            IntIntHashMap borrowed = new IntIntHashMap(loans.size());
+            for (Loan loan : loans) {
+                borrowed.addTo(rebuilt.itemsByIsbn.get(loan.getBook().getIsbn()).id, 1);
+            }
+            rebuilt.itemsByUser.put(userId, borrowed);
+            int[] distinct = borrowed.keys();
+            for (int itemId : distinct) {
+                usersByItem.get(itemId).add(distinct);
+            }
+        });
+
+        IntStream.range(0, itemCount).parallel().forEach(itemId -> {
+            Item item = rebuilt.items.get(itemId);
+            for (int[] basket : usersByItem.get(itemId)) {
+                for (int otherId : basket) {
+                    if (otherId != itemId) {
+                        item.coCounts.addTo(otherId, 1);
+                    }
+                }
+            }
+            item.topK = computeTopK(rebuilt, item);
+        });
+
+        synchronized (writeLock) {
+            state = rebuilt;
+        }
+    }
+
+    private void increment(Item item, Item other) {
+        int count = item.coCounts.addTo(other.id, 1);
+        TopK current = item.topK;
+        int position = current.indexOf(other.id);
+        if (position < 0 && current.size() == topK && count <= current.counts[topK - 1]) {
+            return;
+        }
+        item.topK = current.with(other, count, position, topK);
+    }
+
+    private TopK computeTopK(State source, Item item) {
+        TopK result = TopK.EMPTY;
+        int[] keys = item.coCounts.keys();
+        for (int otherId : keys) {
+            int count = item.coCounts.get(otherId);
+            if (result.size() < topK || count > result.counts[result.size() - 1]) {
+                result = result.with(source.items.get(otherId), count, -1, topK);
+            }
+        }
+        return result;
+    }
+
+    private static final class State {
+        private final Map<String, Item> itemsByIsbn = new ConcurrentHashMap<>();
+        private final List<Item> items = new ArrayList<>();
+        private final Map<String, IntIntHashMap> itemsByUser = new ConcurrentHashMap<>();
+
+        private Item itemFor(String isbn) {
+            Item item = itemsByIsbn.get(isbn);
+            if (item == null) {
+                item = new Item(items.size(), isbn);
+                items.add(item);
+                itemsByIsbn.put(isbn, item);
+            }
+            return item;
+        }
+    }
+
+    private static final class Item {
+        private final int id;
+        private final String isbn;
+        private final IntIntHashMap coCounts = new IntIntHashMap();
+        private volatile TopK topK = TopK.EMPTY;
+
+        private Item(int id, String isbn) {
+            this.id = id;
+            this.isbn = isbn;
+        }
+    }
+
+    private static final class TopK {
+        private static final TopK EMPTY = new TopK(new int[0], new String[0], new int[0]);
+
+        private final int[] ids;
+        private final String[] isbns;
+        private final int[] counts;
+
+        private TopK(int[] ids, String[] isbns, int[] counts) {
+            this.ids = ids;
+            this.isbns = isbns;
+            this.counts = counts;
+        }
+
+        private int size() {
+            return ids.length;
+        }
+
+        private int indexOf(int id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private TopK with(Item other, int count, int position, int k) {
+            int n = position >= 0 ? ids.length : Math.min(ids.length + 1, k);
+            int[] newIds = new int[n];
+            String[] newIsbns = new String[n];
+            int[] newCounts = new int[n];
+            int out = 0;
+            boolean placed = false;
+            for (int i = 0; i < ids.length && out < n; i++) {
+                if (i == position) {
+                    continue;
+                }
+                if (!placed && count > counts[i]) {
+                    newIds[out] = other.id;
+                    newIsbns[out] = other.isbn;
+                    newCounts[out++] = count;
+                    placed = true;
+                    if (out == n) {
+                        break;
+                    }
+                }
+                newIds[out] = ids[i];
+                newIsbns[out] = isbns[i];
+                newCounts[out++] = counts[i];
+            }
+            if (!placed && out < n) {
+                newIds[out] = other.id;
+                newIsbns[out] = other.isbn;
+                newCounts[out] = count;
+            }
+            return new TopK(newIds, newIsbns, newCounts);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package br.ufrn.library.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import br.ufrn.library.model.Book;
 
@@ -10,5 +11,10 @@ public interface BookRepository {
     Optional<Book> findByIsbn(String isbn);
     List<Book> findAll();
     boolean deleteByIsbn(String isbn);
-    boolean existsByIsbn(String isbn); 
+    boolean existsByIsbn(String isbn);
+
+    /** All books, read incrementally where the implementation can. */
+    default Stream<Book> streamAll() {
+        return findAll().stream();
+    }
 }
\ No newline at end of file
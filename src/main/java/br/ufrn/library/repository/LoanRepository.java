@@ -2,6 +2,8 @@ package br.ufrn.library.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
 import br.ufrn.library.model.Loan;
 
 public interface LoanRepository {
@@ -14,4 +16,16 @@ public interface LoanRepository {
     List<Loan> findAllActive();
     boolean deleteById(String id);
     boolean existsById(String id);
+
+    /**
+     * All loans, read incrementally where the implementation can; the default
+     * materializes {@link #findAll()}.
+     */
+    default Stream<Loan> streamAll() {
+        return findAll().stream();
+    }
+
+    default Stream<Loan> streamAllActive() {
+        return findAllActive().stream();
+    }
 }
\ No newline at end of file
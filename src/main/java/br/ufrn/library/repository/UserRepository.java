@@ -2,6 +2,7 @@ package br.ufrn.library.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import br.ufrn.library.model.User;
 
@@ -12,4 +13,9 @@ public interface UserRepository {
     List<User> findAll();
     boolean deleteById(String id);
     boolean existsById(String id);
+
+    /** All users, read incrementally where the implementation can. */
+    default Stream<User> streamAll() {
+        return findAll().stream();
+    }
 }
\ No newline at end of file
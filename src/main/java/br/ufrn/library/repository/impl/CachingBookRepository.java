@@ -0,0 +1,84 @@
+package br.ufrn.library.repository.impl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import br.ufrn.library.cache.CacheStats;
+import br.ufrn.library.cache.TinyLfuCache;
+import br.ufrn.library.exception.OptimisticLockException;
+import br.ufrn.library.model.Book;
+import br.ufrn.library.repository.BookRepository;
+
+public class CachingBookRepository implements BookRepository {
+
+    private final BookRepository delegate;
+    private final TinyLfuCache<String, Book> cache;
+
+    public CachingBookRepository(BookRepository delegate, int maximumSize, Duration timeToLive, Duration negativeTimeToLive) {
+        this(delegate, new TinyLfuCache<>(maximumSize, timeToLive, negativeTimeToLive,
+                Comparator.comparingLong(Book::getVersion), Clock.systemUTC()));
+    }
+
+    public CachingBookRepository(BookRepository delegate, TinyLfuCache<String, Book> cache) {
+        if (delegate == null || cache == null) {
+            throw new IllegalArgumentException("Delegate repository and cache cannot be null.");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Book save(Book book) {
+        Book saved;
+        try {
+            saved = delegate.save(book);
+        } catch (OptimisticLockException e) {
+            cache.invalidate(book.getIsbn());
+            throw e;
+        }
+        cache.put(saved.getIsbn(), saved);
+        return saved;
+    }
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        if (isbn == null) {
+            return delegate.findByIsbn(null);
+        }
+        return Optional.ofNullable(cache.get(isbn, key -> delegate.findByIsbn(key).orElse(null)));
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public boolean deleteByIsbn(String isbn) {
+        try {
+            return delegate.deleteByIsbn(isbn);
+        } finally {
+            if (isbn != null) {
+                cache.invalidate(isbn);
+            }
+        }
+    }
+
+    @Override
+    public boolean existsByIsbn(String isbn) {
+        return findByIsbn(isbn).isPresent();
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+}
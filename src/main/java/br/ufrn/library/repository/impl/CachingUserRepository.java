@@ -0,0 +1,84 @@
+package br.ufrn.library.repository.impl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import br.ufrn.library.cache.CacheStats;
+import br.ufrn.library.cache.TinyLfuCache;
+import br.ufrn.library.exception.OptimisticLockException;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.UserRepository;
+
+public class CachingUserRepository implements UserRepository {
+
+    private final UserRepository delegate;
+    private final TinyLfuCache<String, User> cache;
+
+    public CachingUserRepository(UserRepository delegate, int maximumSize, Duration timeToLive, Duration negativeTimeToLive) {
+        this(delegate, new TinyLfuCache<>(maximumSize, timeToLive, negativeTimeToLive,
+                Comparator.comparingLong(User::getVersion), Clock.systemUTC()));
+    }
+
+    public CachingUserRepository(UserRepository delegate, TinyLfuCache<String, User> cache) {
+        if (delegate == null || cache == null) {
+            throw new IllegalArgumentException("Delegate repository and cache cannot be null.");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public User save(User user) {
+        User saved;
+        try {
+            saved = delegate.save(user);
+        } catch (OptimisticLockException e) {
+            cache.invalidate(user.getId());
+            throw e;
+        }
+        cache.put(saved.getId(), saved);
+        return saved;
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        if (id == null) {
+            return delegate.findById(null);
+        }
+        return Optional.ofNullable(cache.get(id, key -> delegate.findById(key).orElse(null)));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            if (id != null) {
+                cache.invalidate(id);
+            }
+        }
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return findById(id).isPresent();
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+}
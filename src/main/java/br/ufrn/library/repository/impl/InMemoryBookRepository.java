@@ -5,7 +5,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+import br.ufrn.library.exception.OptimisticLockException;
 import br.ufrn.library.model.Book;
 import br.ufrn.library.repository.BookRepository;
 
@@ -15,7 +17,17 @@ public class InMemoryBookRepository implements BookRepository {
 
     @Override
     public Book save(Book book) {
-        database.put(book.getIsbn(), book);
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null.");
+        }
+        long expectedVersion = book.getVersion();
+        database.compute(book.getIsbn(), (isbn, current) -> {
+            if ((current == null ? 0 : current.getVersion()) != expectedVersion) {
+                throw new OptimisticLockException("Book", isbn, expectedVersion);
+            }
+            book.setVersion(expectedVersion + 1);
+            return book;
+        });
         return book;
     }
 
@@ -29,6 +41,11 @@ public class InMemoryBookRepository implements BookRepository {
         return new ArrayList<>(database.values());
     }
 
+    @Override
+    public Stream<Book> streamAll() {
+        return database.values().stream();
+    }
+
     @Override
     public boolean deleteByIsbn(String isbn) {
         return database.remove(isbn) != null;
@@ -6,7 +6,9 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import br.ufrn.library.exception.OptimisticLockException;
 import br.ufrn.library.model.Loan;
 import br.ufrn.library.repository.LoanRepository;
 
@@ -19,7 +21,14 @@ public class InMemoryLoanRepository implements LoanRepository {
         if (loan == null) {
             throw new IllegalArgumentException("Loan cannot be null.");
         }
-        database.put(loan.getId(), loan);
+        long expectedVersion = loan.getVersion();
+        database.compute(loan.getId(), (id, current) -> {
+            if ((current == null ? 0 : current.getVersion()) != expectedVersion) {
+                throw new OptimisticLockException("Loan", id, expectedVersion);
+            }
+            loan.setVersion(expectedVersion + 1);
+            return loan;
+        });
         return loan;
     }
 
@@ -33,6 +42,16 @@ public class InMemoryLoanRepository implements LoanRepository {
         return new ArrayList<>(database.values());
     }
 
+    @Override
+    public Stream<Loan> streamAll() {
+        return database.values().stream();
+    }
+
+    @Override
+    public Stream<Loan> streamAllActive() {
+        return database.values().stream().filter(loan -> !loan.isReturned());
+    }
+
     @Override
     public List<Loan> findByUserId(String userId) {
         return database.values().stream()
@@ -5,7 +5,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+import br.ufrn.library.exception.OptimisticLockException;
 import br.ufrn.library.model.User;
 import br.ufrn.library.repository.UserRepository;
 
@@ -15,7 +17,17 @@ public class InMemoryUserRepository implements UserRepository {
 
     @Override
     public User save(User user) {
-        database.put(user.getId(), user);
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null.");
+        }
+        long expectedVersion = user.getVersion();
+        database.compute(user.getId(), (id, current) -> {
+            if ((current == null ? 0 : current.getVersion()) != expectedVersion) {
+                throw new OptimisticLockException("User", id, expectedVersion);
+            }
+            user.setVersion(expectedVersion + 1);
+            return user;
+        });
         return user;
     }
 
@@ -29,6 +41,11 @@ public class InMemoryUserRepository implements UserRepository {
         return new ArrayList<>(database.values());
     }
 
+    @Override
+    public Stream<User> streamAll() {
+        return database.values().stream();
+    }
+
     @Override
     public boolean deleteById(String id) {
         return database.remove(id) != null;
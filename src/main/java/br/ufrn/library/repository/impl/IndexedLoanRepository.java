@@ -0,0 +1,236 @@
+package br.ufrn.library.repository.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.repository.LoanRepository;
+
+/**
+ * Keeps secondary indexes of loan IDs by user, ISBN, book type, due date, loan
+ * date and active status next to a delegate repository. Saves and deletes of
+ * the same loan are serialized on a lock stripe so the indexes follow the
+ * delegate's version order; loans written to the delegate directly are not
+ * seen.
+ */
+public class IndexedLoanRepository implements LoanRepository {
+
+    private static final int STRIPES = 64;
+
+    private final LoanRepository delegate;
+    private final Object[] locks = new Object[STRIPES];
+    private final Map<String, Set<String>> byUser = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byIsbn = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Set<String>> byBookType = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<LocalDate, Set<String>> byDueDate = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<LocalDate, Set<String>> byLoanDate = new ConcurrentSkipListMap<>();
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+    private final Set<String> all = ConcurrentHashMap.newKeySet();
+
+    public IndexedLoanRepository(LoanRepository delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null.");
+        }
+        this.delegate = delegate;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        for (Loan loan : delegate.findAll()) {
+            index(loan);
+        }
+    }
+
+    @Override
+    public Loan save(Loan loan) {
+        if (loan == null) {
+            return delegate.save(null);
+        }
+        synchronized (lockFor(loan.getId())) {
+            Loan saved = delegate.save(loan);
+            index(saved);
+            return saved;
+        }
+    }
+
+    @Override
+    public Optional<Loan> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Loan> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Loan> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Loan> streamAllActive() {
+        return active.stream()
+                .map(delegate::findById)
+                .flatMap(Optional::stream)
+                .filter(loan -> !loan.isReturned());
+    }
+
+    @Override
+    public List<Loan> findByUserId(String userId) {
+        return resolve(loanIdsForUser(userId), loan -> loan.getUser().getId().equals(userId));
+    }
+
+    @Override
+    public List<Loan> findByBookIsbn(String isbn) {
+        return resolve(loanIdsForIsbn(isbn), loan -> loan.getBook().getIsbn().equals(isbn));
+    }
+
+    @Override
+    public List<Loan> findActiveByUserId(String userId) {
+        Collection<String> ids = loanIdsForUser(userId);
+        if (ids.size() > active.size()) {
+            ids = active;
+        }
+        return resolve(ids, loan -> loan.getUser().getId().equals(userId) && !loan.isReturned());
+    }
+
+    @Override
+    public List<Loan> findAllActive() {
+        return resolve(active, loan -> !loan.isReturned());
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        if (id == null) {
+            return delegate.deleteById(null);
+        }
+        synchronized (lockFor(id)) {
+            Optional<Loan> existing = delegate.findById(id);
+            boolean deleted = delegate.deleteById(id);
+            if (deleted && existing.isPresent()) {
+                unindex(existing.get());
+            }
+            return deleted;
+        }
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return delegate.existsById(id);
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    public Set<String> loanIdsForUser(String userId) {
+        return byUser.getOrDefault(userId, Set.of());
+    }
+
+    public Set<String> loanIdsForIsbn(String isbn) {
+        return byIsbn.getOrDefault(isbn, Set.of());
+    }
+
+    /** IDs of loans whose book is of {@code type} or one of its subclasses. */
+    public Set<String> loanIdsForBookType(Class<? extends Book> type) {
+        List<Set<String>> matching = new ArrayList<>();
+        for (Map.Entry<Class<?>, Set<String>> entry : byBookType.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+                matching.add(entry.getValue());
+            }
+        }
+        if (matching.size() == 1) {
+            return matching.get(0);
+        }
+        Set<String> result = ConcurrentHashMap.newKeySet();
+        matching.forEach(result::addAll);
+        return result;
+    }
+
+    public Set<String> activeLoanIds() {
+        return active;
+    }
+
+    /** Loans due in {@code [from, to]}; a null bound leaves that side open. */
+    public NavigableMap<LocalDate, Set<String>> loanIdsDueBetween(LocalDate from, LocalDate to) {
+        return range(byDueDate, from, to);
+    }
+
+    public NavigableMap<LocalDate, Set<String>> loanIdsLoanedBetween(LocalDate from, LocalDate to) {
+        return range(byLoanDate, from, to);
+    }
+
+    private void index(Loan loan) {
+        String id = loan.getId();
+        if (all.add(id)) {
+            add(byUser, loan.getUser().getId(), id);
+            add(byIsbn, loan.getBook().getIsbn(), id);
+            add(byBookType, loan.getBook().getClass(), id);
+            add(byDueDate, loan.getDueDate(), id);
+            add(byLoanDate, loan.getLoanDate(), id);
+        }
+        if (loan.isReturned()) {
+            active.remove(id);
+        } else {
+            active.add(id);
+        }
+    }
+
+    private void unindex(Loan loan) {
+        String id = loan.getId();
+        all.remove(id);
+        active.remove(id);
+        remove(byUser, loan.getUser().getId(), id);
+        remove(byIsbn, loan.getBook().getIsbn(), id);
+        remove(byBookType, loan.getBook().getClass(), id);
+        remove(byDueDate, loan.getDueDate(), id);
+        remove(byLoanDate, loan.getLoanDate(), id);
+    }
+
+    private static <K> void add(Map<K, Set<String>> index, K key, String id) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    // Emptied sets stay in place: dropping one could race with a concurrent add into it.
+    private static <K> void remove(Map<K, Set<String>> index, K key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+
+    private static NavigableMap<LocalDate, Set<String>> range(ConcurrentSkipListMap<LocalDate, Set<String>> index,
+            LocalDate from, LocalDate to) {
+        if (from != null && to != null) {
+            return from.isAfter(to) ? new ConcurrentSkipListMap<>() : index.subMap(from, true, to, true);
+        }
+        if (from != null) {
+            return index.tailMap(from, true);
+        }
+        return to != null ? index.headMap(to, true) : index;
+    }
+
+    private List<Loan> resolve(Collection<String> ids, Predicate<Loan> filter) {
+        return ids.stream()
+                .map(delegate::findById)
+                .flatMap(Optional::stream)
+                .filter(filter)
+                .collect(Collectors.toList());
+    }
+
+    private Object lockFor(String id) {
+        return locks[(id.hashCode() & 0x7fffffff) % STRIPES];
+    }
+}
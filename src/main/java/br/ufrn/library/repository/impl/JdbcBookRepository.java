@@ -0,0 +1,221 @@
+package br.ufrn.library.repository.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import br.ufrn.library.exception.DataAccessException;
+import br.ufrn.library.exception.OptimisticLockException;
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.repository.BookRepository;
+
+/**
+ * Book table on top of {@link JdbcConnectionPool}. The copies on loan of a
+ * physical book are stored in its own row (one {@code barcode<TAB>loanId} line
+ * per copy), so the versioned row is the whole state a compare-and-set save
+ * protects.
+ */
+public class JdbcBookRepository implements BookRepository {
+
+    private static final String PHYSICAL = "P";
+    private static final String DIGITAL = "D";
+    private static final char FIELD_SEPARATOR = '\t';
+    private static final char LINE_SEPARATOR = '\n';
+
+    private static final String INSERT = "INSERT INTO books (kind, title, author, total_copies, available_copies, "
+            + "copies_on_loan, version, isbn) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE books SET kind = ?, title = ?, author = ?, total_copies = ?, "
+            + "available_copies = ?, copies_on_loan = ?, version = ? WHERE isbn = ? AND version = ?";
+    private static final String COLUMNS = "SELECT isbn, kind, title, author, total_copies, available_copies, "
+            + "copies_on_loan, version FROM books";
+    private static final String FIND_BY_ISBN = COLUMNS + " WHERE isbn = ?";
+    private static final String DELETE = "DELETE FROM books WHERE isbn = ?";
+    private static final String EXISTS = "SELECT 1 FROM books WHERE isbn = ?";
+
+    private final JdbcConnectionPool pool;
+
+    public JdbcBookRepository(JdbcConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public Book save(Book book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null.");
+        }
+        long expectedVersion = book.getVersion();
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(expectedVersion == 0 ? INSERT : UPDATE);
+                bind(statement, book, expectedVersion + 1);
+                if (expectedVersion != 0) {
+                    statement.setLong(9, expectedVersion);
+                }
+                if (statement.executeUpdate() == 0) {
+                    throw new OptimisticLockException("Book", book.getIsbn(), expectedVersion);
+                }
+            } catch (SQLIntegrityConstraintViolationException e) {
+                throw new OptimisticLockException("Book", book.getIsbn(), expectedVersion);
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not save book " + book.getIsbn(), e);
+            }
+        }
+        book.setVersion(expectedVersion + 1);
+        return book;
+    }
+
+    public void saveAll(Collection<? extends Book> books) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(INSERT);
+                connection.inTransaction(() -> {
+                    for (Book book : books) {
+                        bind(statement, book, 1);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                });
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not save " + books.size() + " books", e);
+            }
+        }
+        books.forEach(book -> book.setVersion(1));
+    }
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(FIND_BY_ISBN);
+                statement.setString(1, isbn);
+                try (ResultSet rows = statement.executeQuery()) {
+                    return rows.next() ? Optional.of(map(rows)) : Optional.empty();
+                }
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not load book " + isbn, e);
+            }
+        }
+    }
+
+    @Override
+    public List<Book> findAll() {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                List<Book> books = new ArrayList<>();
+                try (ResultSet rows = connection.prepare(COLUMNS).executeQuery()) {
+                    while (rows.next()) {
+                        books.add(map(rows));
+                    }
+                }
+                return books;
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not load books", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean deleteByIsbn(String isbn) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(DELETE);
+                statement.setString(1, isbn);
+                return statement.executeUpdate() > 0;
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not delete book " + isbn, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean existsByIsbn(String isbn) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(EXISTS);
+                statement.setString(1, isbn);
+                try (ResultSet rows = statement.executeQuery()) {
+                    return rows.next();
+                }
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not check book " + isbn, e);
+            }
+        }
+    }
+
+    private static String encodeCopiesOnLoan(PhysicalBook book) {
+        if (book.getAvailableCopies() == book.getTotalCopies()) {
+            return null;
+        }
+        StringBuilder encoded = new StringBuilder();
+        book.forEachCopyOnLoan((barcode, loanId) -> encoded.append(barcode).append(FIELD_SEPARATOR)
+                .append(loanId == null ? "" : loanId)
+                .append(LINE_SEPARATOR));
+        return encoded.toString();
+    }
+
+    private static void restoreCopiesOnLoan(PhysicalBook book, String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        for (String line : encoded.split(String.valueOf(LINE_SEPARATOR))) {
+            int separator = line.indexOf(FIELD_SEPARATOR);
+            String barcode = line.substring(0, separator);
+            String loanId = line.substring(separator + 1);
+            if (book.findCopy(barcode).isEmpty()) {
+                throw new IllegalStateException("Book " + book.getIsbn() + " has no copy " + barcode
+                        + " but it is recorded as on loan.");
+            }
+            book.restoreCopyLoan(barcode, loanId.isEmpty() ? null : loanId);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Book book, long newVersion) throws SQLException {
+        statement.setString(2, book.getTitle());
+        statement.setString(3, book.getAuthor());
+        if (book instanceof PhysicalBook physicalBook) {
+            statement.setString(1, PHYSICAL);
+            statement.setInt(4, physicalBook.getTotalCopies());
+            statement.setInt(5, physicalBook.getAvailableCopies());
+            statement.setString(6, encodeCopiesOnLoan(physicalBook));
+        } else {
+            statement.setString(1, DIGITAL);
+            statement.setInt(4, 0);
+            statement.setInt(5, 0);
+            statement.setString(6, null);
+        }
+        statement.setLong(7, newVersion);
+        statement.setString(8, book.getIsbn());
+    }
+
+    private static Book map(ResultSet rows) throws SQLException {
+        String isbn = rows.getString("isbn");
+        String title = rows.getString("title");
+        String author = rows.getString("author");
+        Book book;
+        if (PHYSICAL.equals(rows.getString("kind"))) {
+            PhysicalBook physicalBook = new PhysicalBook(title, author, isbn, rows.getInt("total_copies"));
+            restoreCopiesOnLoan(physicalBook, rows.getString("copies_on_loan"));
+            while (physicalBook.getAvailableCopies() > rows.getInt("available_copies")) {
+                physicalBook.registerLoan();
+            }
+            book = physicalBook;
+        } else {
+            book = new DigitalBook(title, author, isbn);
+        }
+        book.setVersion(rows.getLong("version"));
+        return book;
+    }
+}
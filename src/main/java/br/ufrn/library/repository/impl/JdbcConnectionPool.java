@@ -0,0 +1,97 @@
+package br.ufrn.library.repository.impl;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import br.ufrn.library.exception.DataAccessException;
+
+/**
+ * Bounded pool of JDBC connections. Connections are opened lazily up to
+ * {@code maxConnections}; callers beyond that wait up to the acquire timeout.
+ * Each pooled connection keeps its prepared statements, so repositories
+ * reuse them across calls.
+ */
+public class JdbcConnectionPool implements AutoCloseable {
+
+    private static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<PooledConnection> idle = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    public JdbcConnectionPool(String url, int maxConnections) {
+        this(url, "", "", maxConnections, DEFAULT_ACQUIRE_TIMEOUT);
+    }
+
+    public JdbcConnectionPool(String url, String username, String password, int maxConnections, Duration acquireTimeout) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("JDBC URL cannot be null or empty.");
+        }
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("Maximum connections must be positive.");
+        }
+        if (acquireTimeout == null || acquireTimeout.isNegative()) {
+            throw new IllegalArgumentException("Acquire timeout cannot be null or negative.");
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    public PooledConnection acquire() {
+        if (closed) {
+            throw new IllegalStateException("Connection pool is closed.");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Timed out waiting for a database connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a database connection.", e);
+        }
+
+        PooledConnection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        try {
+            return new PooledConnection(this, DriverManager.getConnection(url, username, password));
+        } catch (SQLException e) {
+            permits.release();
+            throw new DataAccessException("Could not open database connection to " + url, e);
+        }
+    }
+
+    void release(PooledConnection connection, boolean broken) {
+        if (broken || closed) {
+            connection.closeQuietly();
+        } else {
+            idle.offer(connection);
+        }
+        permits.release();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.closeQuietly();
+        }
+    }
+}
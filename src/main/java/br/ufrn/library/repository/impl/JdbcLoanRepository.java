@@ -0,0 +1,272 @@
+package br.ufrn.library.repository.impl;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import br.ufrn.library.exception.DataAccessException;
+import br.ufrn.library.exception.OptimisticLockException;
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+
+/**
+ * Loan table on top of {@link JdbcConnectionPool}. Rows are read and the
+ * connection handed back before users and books are resolved, so loading a
+ * loan never holds two pooled connections at once.
+ */
+public class JdbcLoanRepository implements LoanRepository {
+
+    private static final String INSERT = "INSERT INTO loans "
+            + "(user_id, book_isbn, loan_date, due_date, return_date, returned, copy_barcode, version, id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE loans SET user_id = ?, book_isbn = ?, loan_date = ?, due_date = ?, "
+            + "return_date = ?, returned = ?, copy_barcode = ?, version = ? WHERE id = ? AND version = ?";
+    private static final String COLUMNS = "SELECT id, user_id, book_isbn, loan_date, due_date, return_date, returned, "
+            + "copy_barcode, version FROM loans";
+    private static final String FIND_BY_ID = COLUMNS + " WHERE id = ?";
+    private static final String FIND_BY_USER = COLUMNS + " WHERE user_id = ?";
+    private static final String FIND_BY_BOOK = COLUMNS + " WHERE book_isbn = ?";
+    private static final String FIND_ACTIVE_BY_USER = COLUMNS + " WHERE user_id = ? AND returned = FALSE";
+    private static final String FIND_ALL_ACTIVE = COLUMNS + " WHERE returned = FALSE";
+    private static final String PAGE = COLUMNS + " WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String ACTIVE_PAGE = COLUMNS + " WHERE returned = FALSE AND id > ? ORDER BY id LIMIT ?";
+    private static final int PAGE_SIZE = 1_000;
+    private static final String DELETE = "DELETE FROM loans WHERE id = ?";
+    private static final String EXISTS = "SELECT 1 FROM loans WHERE id = ?";
+
+    private final JdbcConnectionPool pool;
+    private final UserRepository userRepository;
+    private final BookRepository bookRepository;
+
+    public JdbcLoanRepository(JdbcConnectionPool pool, UserRepository userRepository, BookRepository bookRepository) {
+        this.pool = pool;
+        this.userRepository = userRepository;
+        this.bookRepository = bookRepository;
+    }
+
+    @Override
+    public Loan save(Loan loan) {
+        if (loan == null) {
+            throw new IllegalArgumentException("Loan cannot be null.");
+        }
+        long expectedVersion = loan.getVersion();
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(expectedVersion == 0 ? INSERT : UPDATE);
+                bind(statement, loan, expectedVersion + 1);
+                if (expectedVersion != 0) {
+                    statement.setLong(10, expectedVersion);
+                }
+                if (statement.executeUpdate() == 0) {
+                    throw new OptimisticLockException("Loan", loan.getId(), expectedVersion);
+                }
+            } catch (SQLIntegrityConstraintViolationException e) {
+                throw new OptimisticLockException("Loan", loan.getId(), expectedVersion);
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not save loan " + loan.getId(), e);
+            }
+        }
+        loan.setVersion(expectedVersion + 1);
+        return loan;
+    }
+
+    public void saveAll(Collection<Loan> loans) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(INSERT);
+                connection.inTransaction(() -> {
+                    for (Loan loan : loans) {
+                        bind(statement, loan, 1);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                });
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not save " + loans.size() + " loans", e);
+            }
+        }
+        loans.forEach(loan -> loan.setVersion(1));
+    }
+
+    @Override
+    public Optional<Loan> findById(String id) {
+        List<Loan> loans = query(FIND_BY_ID, id);
+        return loans.isEmpty() ? Optional.empty() : Optional.of(loans.get(0));
+    }
+
+    @Override
+    public List<Loan> findAll() {
+        return query(COLUMNS, null);
+    }
+
+    @Override
+    public List<Loan> findByUserId(String userId) {
+        return query(FIND_BY_USER, userId);
+    }
+
+    @Override
+    public List<Loan> findByBookIsbn(String isbn) {
+        return query(FIND_BY_BOOK, isbn);
+    }
+
+    @Override
+    public List<Loan> findActiveByUserId(String userId) {
+        return query(FIND_ACTIVE_BY_USER, userId);
+    }
+
+    @Override
+    public List<Loan> findAllActive() {
+        return query(FIND_ALL_ACTIVE, null);
+    }
+
+    @Override
+    public Stream<Loan> streamAll() {
+        return pages(PAGE);
+    }
+
+    @Override
+    public Stream<Loan> streamAllActive() {
+        return pages(ACTIVE_PAGE);
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(DELETE);
+                statement.setString(1, id);
+                return statement.executeUpdate() > 0;
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not delete loan " + id, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(EXISTS);
+                statement.setString(1, id);
+                try (ResultSet rows = statement.executeQuery()) {
+                    return rows.next();
+                }
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not check loan " + id, e);
+            }
+        }
+    }
+
+    // Keyset pagination: each page is its own query, so no connection is held while the stream is consumed.
+    private Stream<Loan> pages(String sql) {
+        return Stream.iterate(query(sql, "", PAGE_SIZE), page -> !page.isEmpty(),
+                        page -> page.size() < PAGE_SIZE
+                                ? List.of()
+                                : query(sql, page.get(page.size() - 1).getId(), PAGE_SIZE))
+                .flatMap(List::stream);
+    }
+
+    private List<Loan> query(String sql, String parameter) {
+        return query(sql, parameter, 0);
+    }
+
+    private List<Loan> query(String sql, String parameter, int limit) {
+        List<LoanRow> rows = new ArrayList<>();
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(sql);
+                if (parameter != null) {
+                    statement.setString(1, parameter);
+                }
+                if (limit > 0) {
+                    statement.setInt(2, limit);
+                }
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        rows.add(readRow(result));
+                    }
+                }
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not load loans", e);
+            }
+        }
+
+        Map<String, User> users = new HashMap<>();
+        Map<String, Book> books = new HashMap<>();
+        List<Loan> loans = new ArrayList<>(rows.size());
+        for (LoanRow row : rows) {
+            User user = users.computeIfAbsent(row.userId(), id -> userRepository.findById(id)
+                    .orElseThrow(() -> new IllegalStateException("Loan " + row.id() + " references unknown user " + id)));
+            Book book = books.computeIfAbsent(row.isbn(), isbn -> bookRepository.findByIsbn(isbn)
+                    .orElseThrow(() -> new IllegalStateException("Loan " + row.id() + " references unknown book " + isbn)));
+            loans.add(row.toLoan(user, book));
+        }
+        return loans;
+    }
+
+    private static void bind(PreparedStatement statement, Loan loan, long newVersion) throws SQLException {
+        statement.setString(1, loan.getUser().getId());
+        statement.setString(2, loan.getBook().getIsbn());
+        statement.setDate(3, Date.valueOf(loan.getLoanDate()));
+        statement.setDate(4, Date.valueOf(loan.getDueDate()));
+        if (loan.getReturnDate() != null) {
+            statement.setDate(5, Date.valueOf(loan.getReturnDate()));
+        } else {
+            statement.setNull(5, Types.DATE);
+        }
+        statement.setBoolean(6, loan.isReturned());
+        statement.setString(7, loan.getCopyBarcode());
+        statement.setLong(8, newVersion);
+        statement.setString(9, loan.getId());
+    }
+
+    private static LoanRow readRow(ResultSet result) throws SQLException {
+        Date returnDate = result.getDate("return_date");
+        return new LoanRow(
+                result.getString("id"),
+                result.getString("user_id"),
+                result.getString("book_isbn"),
+                result.getDate("loan_date").toLocalDate(),
+                result.getDate("due_date").toLocalDate(),
+                returnDate == null ? null : returnDate.toLocalDate(),
+                result.getBoolean("returned"),
+                result.getString("copy_barcode"),
+                result.getLong("version"));
+    }
+
+    private record LoanRow(String id, String userId, String isbn, LocalDate loanDate, LocalDate dueDate,
+            LocalDate returnDate, boolean returned, String copyBarcode, long version) {
+
+        private Loan toLoan(User user, Book book) {
+            Loan loan = new Loan(id, user, book, loanDate, dueDate);
+            if (copyBarcode != null) {
+                loan.assignCopy(copyBarcode);
+            }
+            if (returned) {
+                loan.markAsReturned(returnDate);
+            }
+            loan.setVersion(version);
+            return loan;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package br.ufrn.library.repository.impl;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import br.ufrn.library.exception.DataAccessException;
+
+public final class JdbcSchema {
+
+    private static final String[] STATEMENTS = {
+        "CREATE TABLE IF NOT EXISTS users ("
+                + "id VARCHAR(64) PRIMARY KEY, "
+                + "name VARCHAR(255) NOT NULL, "
+                + "version BIGINT NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS books ("
+                + "isbn VARCHAR(64) PRIMARY KEY, "
+                + "kind CHAR(1) NOT NULL, "
+                + "title VARCHAR(255) NOT NULL, "
+                + "author VARCHAR(255) NOT NULL, "
+                + "total_copies INT NOT NULL, "
+                + "available_copies INT NOT NULL, "
+                + "copies_on_loan VARCHAR, "
+                + "version BIGINT NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS loans ("
+                + "id VARCHAR(64) PRIMARY KEY, "
+                + "user_id VARCHAR(64) NOT NULL, "
+                + "book_isbn VARCHAR(64) NOT NULL, "
+                + "loan_date DATE NOT NULL, "
+                + "due_date DATE NOT NULL, "
+                + "return_date DATE, "
+                + "returned BOOLEAN NOT NULL, "
+                + "copy_barcode VARCHAR(96), "
+                + "version BIGINT NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS loans_by_user ON loans(user_id, returned)",
+        "CREATE INDEX IF NOT EXISTS loans_by_book ON loans(book_isbn, returned)",
+        "CREATE INDEX IF NOT EXISTS loans_by_state ON loans(returned)"
+    };
+
+    private JdbcSchema() {
+    }
+
+    public static void create(JdbcConnectionPool pool) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                connection.inTransaction(() -> {
+                    for (String sql : STATEMENTS) {
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute(sql);
+                        }
+                    }
+                });
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not create library schema.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package br.ufrn.library.repository.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import br.ufrn.library.exception.DataAccessException;
+import br.ufrn.library.exception.OptimisticLockException;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.UserRepository;
+
+/**
+ * Stores the user row only; the loan history is rebuilt on load from the
+ * {@code loans} table, ordered by loan date, so it cannot drift from the loans
+ * that actually exist.
+ */
+public class JdbcUserRepository implements UserRepository {
+
+    private static final String INSERT = "INSERT INTO users (name, version, id) VALUES (?, ?, ?)";
+    private static final String UPDATE = "UPDATE users SET name = ?, version = ? WHERE id = ? AND version = ?";
+    private static final String FIND_BY_ID = "SELECT id, name, version FROM users WHERE id = ?";
+    private static final String FIND_ALL = "SELECT id, name, version FROM users";
+    private static final String HISTORY = "SELECT id FROM loans WHERE user_id = ? ORDER BY loan_date, id";
+    private static final String ALL_HISTORIES = "SELECT user_id, id FROM loans ORDER BY loan_date, id";
+    private static final String DELETE = "DELETE FROM users WHERE id = ?";
+    private static final String EXISTS = "SELECT 1 FROM users WHERE id = ?";
+
+    private final JdbcConnectionPool pool;
+
+    public JdbcUserRepository(JdbcConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public User save(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null.");
+        }
+        long expectedVersion = user.getVersion();
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(expectedVersion == 0 ? INSERT : UPDATE);
+                bind(statement, user, expectedVersion + 1);
+                if (expectedVersion != 0) {
+                    statement.setLong(4, expectedVersion);
+                }
+                if (statement.executeUpdate() == 0) {
+                    throw new OptimisticLockException("User", user.getId(), expectedVersion);
+                }
+            } catch (SQLIntegrityConstraintViolationException e) {
+                throw new OptimisticLockException("User", user.getId(), expectedVersion);
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not save user " + user.getId(), e);
+            }
+        }
+        user.setVersion(expectedVersion + 1);
+        return user;
+    }
+
+    public void saveAll(Collection<User> users) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(INSERT);
+                connection.inTransaction(() -> {
+                    for (User user : users) {
+                        bind(statement, user, 1);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                });
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not save " + users.size() + " users", e);
+            }
+        }
+        users.forEach(user -> user.setVersion(1));
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(FIND_BY_ID);
+                statement.setString(1, id);
+                User user;
+                try (ResultSet rows = statement.executeQuery()) {
+                    if (!rows.next()) {
+                        return Optional.empty();
+                    }
+                    user = map(rows);
+                }
+                PreparedStatement history = connection.prepare(HISTORY);
+                history.setString(1, id);
+                try (ResultSet rows = history.executeQuery()) {
+                    while (rows.next()) {
+                        user.addLoanToHistory(rows.getString("id"));
+                    }
+                }
+                return Optional.of(user);
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not load user " + id, e);
+            }
+        }
+    }
+
+    @Override
+    public List<User> findAll() {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                List<User> users = new ArrayList<>();
+                Map<String, User> byId = new HashMap<>();
+                try (ResultSet rows = connection.prepare(FIND_ALL).executeQuery()) {
+                    while (rows.next()) {
+                        User user = map(rows);
+                        users.add(user);
+                        byId.put(user.getId(), user);
+                    }
+                }
+                try (ResultSet rows = connection.prepare(ALL_HISTORIES).executeQuery()) {
+                    while (rows.next()) {
+                        User user = byId.get(rows.getString("user_id"));
+                        if (user != null) {
+                            user.addLoanToHistory(rows.getString("id"));
+                        }
+                    }
+                }
+                return users;
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not load users", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(DELETE);
+                statement.setString(1, id);
+                return statement.executeUpdate() > 0;
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not delete user " + id, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement statement = connection.prepare(EXISTS);
+                statement.setString(1, id);
+                try (ResultSet rows = statement.executeQuery()) {
+                    return rows.next();
+                }
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw new DataAccessException("Could not check user " + id, e);
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, User user, long newVersion) throws SQLException {
+        statement.setString(1, user.getName());
+        statement.setLong(2, newVersion);
+        statement.setString(3, user.getId());
+    }
+
+    private static User map(ResultSet rows) throws SQLException {
+        User user = new User(rows.getString("id"), rows.getString("name"));
+        user.setVersion(rows.getLong("version"));
+        return user;
+    }
+}
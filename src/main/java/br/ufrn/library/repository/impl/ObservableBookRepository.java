@@ -0,0 +1,88 @@
+package br.ufrn.library.repository.impl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import br.ufrn.library.feed.ChangeFeed;
+import br.ufrn.library.feed.ChangeType;
+import br.ufrn.library.feed.EntityType;
+import br.ufrn.library.model.Book;
+import br.ufrn.library.repository.BookRepository;
+
+/**
+ * Publishes every save and delete of the wrapped repository to a
+ * {@link ChangeFeed}. Writes to the same ISBN are serialized on a lock stripe
+ * and published before the lock is released, so the feed lists the changes to
+ * each book in the order the delegate committed them.
+ */
+public class ObservableBookRepository implements BookRepository {
+
+    private static final int STRIPES = 64;
+
+    private final BookRepository delegate;
+    private final ChangeFeed feed;
+    private final Object[] locks = new Object[STRIPES];
+
+    public ObservableBookRepository(BookRepository delegate, ChangeFeed feed) {
+        if (delegate == null || feed == null) {
+            throw new IllegalArgumentException("Delegate repository and feed cannot be null.");
+        }
+        this.delegate = delegate;
+        this.feed = feed;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Book save(Book book) {
+        if (book == null) {
+            return delegate.save(null);
+        }
+        synchronized (lockFor(book.getIsbn())) {
+            Book saved = delegate.save(book);
+            feed.publish(EntityType.BOOK, ChangeType.SAVED, saved.getIsbn(), saved);
+            return saved;
+        }
+    }
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        return delegate.findByIsbn(isbn);
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public boolean deleteByIsbn(String isbn) {
+        if (isbn == null) {
+            return delegate.deleteByIsbn(null);
+        }
+        synchronized (lockFor(isbn)) {
+            Optional<Book> existing = delegate.findByIsbn(isbn);
+            boolean deleted = delegate.deleteByIsbn(isbn);
+            if (deleted) {
+                feed.publish(EntityType.BOOK, ChangeType.DELETED, isbn, existing.orElse(null));
+            }
+            return deleted;
+        }
+    }
+
+    @Override
+    public boolean existsByIsbn(String isbn) {
+        return delegate.existsByIsbn(isbn);
+    }
+
+    private Object lockFor(String isbn) {
+        return locks[(isbn.hashCode() & 0x7fffffff) % STRIPES];
+    }
+}
@@ -0,0 +1,113 @@
+package br.ufrn.library.repository.impl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import br.ufrn.library.feed.ChangeFeed;
+import br.ufrn.library.feed.ChangeType;
+import br.ufrn.library.feed.EntityType;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.repository.LoanRepository;
+
+/**
+ * Publishes every save and delete of the wrapped repository to a
+ * {@link ChangeFeed}. Writes to the same ID are serialized on a lock stripe
+ * and published before the lock is released, so the feed lists the changes to
+ * each loan in the order the delegate committed them.
+ */
+public class ObservableLoanRepository implements LoanRepository {
+
+    private static final int STRIPES = 64;
+
+    private final LoanRepository delegate;
+    private final ChangeFeed feed;
+    private final Object[] locks = new Object[STRIPES];
+
+    public ObservableLoanRepository(LoanRepository delegate, ChangeFeed feed) {
+        if (delegate == null || feed == null) {
+            throw new IllegalArgumentException("Delegate repository and feed cannot be null.");
+        }
+        this.delegate = delegate;
+        this.feed = feed;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Loan save(Loan loan) {
+        if (loan == null) {
+            return delegate.save(null);
+        }
+        synchronized (lockFor(loan.getId())) {
+            Loan saved = delegate.save(loan);
+            feed.publish(EntityType.LOAN, ChangeType.SAVED, saved.getId(), saved);
+            return saved;
+        }
+    }
+
+    @Override
+    public Optional<Loan> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Loan> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Loan> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Loan> streamAllActive() {
+        return delegate.streamAllActive();
+    }
+
+    @Override
+    public List<Loan> findByUserId(String userId) {
+        return delegate.findByUserId(userId);
+    }
+
+    @Override
+    public List<Loan> findByBookIsbn(String isbn) {
+        return delegate.findByBookIsbn(isbn);
+    }
+
+    @Override
+    public List<Loan> findActiveByUserId(String userId) {
+        return delegate.findActiveByUserId(userId);
+    }
+
+    @Override
+    public List<Loan> findAllActive() {
+        return delegate.findAllActive();
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        if (id == null) {
+            return delegate.deleteById(null);
+        }
+        synchronized (lockFor(id)) {
+            Optional<Loan> existing = delegate.findById(id);
+            boolean deleted = delegate.deleteById(id);
+            if (deleted) {
+                feed.publish(EntityType.LOAN, ChangeType.DELETED, id, existing.orElse(null));
+            }
+            return deleted;
+        }
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return delegate.existsById(id);
+    }
+
+    private Object lockFor(String id) {
+        return locks[(id.hashCode() & 0x7fffffff) % STRIPES];
+    }
+}
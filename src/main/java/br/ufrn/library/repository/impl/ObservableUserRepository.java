@@ -0,0 +1,88 @@
+package br.ufrn.library.repository.impl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import br.ufrn.library.feed.ChangeFeed;
+import br.ufrn.library.feed.ChangeType;
+import br.ufrn.library.feed.EntityType;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.UserRepository;
+
+/**
+ * Publishes every save and delete of the wrapped repository to a
+ * {@link ChangeFeed}. Writes to the same ID are serialized on a lock stripe
+ * and published before the lock is released, so the feed lists the changes to
+ * each user in the order the delegate committed them.
+ */
+public class ObservableUserRepository implements UserRepository {
+
+    private static final int STRIPES = 64;
+
+    private final UserRepository delegate;
+    private final ChangeFeed feed;
+    private final Object[] locks = new Object[STRIPES];
+
+    public ObservableUserRepository(UserRepository delegate, ChangeFeed feed) {
+        if (delegate == null || feed == null) {
+            throw new IllegalArgumentException("Delegate repository and feed cannot be null.");
+        }
+        this.delegate = delegate;
+        this.feed = feed;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public User save(User user) {
+        if (user == null) {
+            return delegate.save(null);
+        }
+        synchronized (lockFor(user.getId())) {
+            User saved = delegate.save(user);
+            feed.publish(EntityType.USER, ChangeType.SAVED, saved.getId(), saved);
+            return saved;
+        }
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        if (id == null) {
+            return delegate.deleteById(null);
+        }
+        synchronized (lockFor(id)) {
+            Optional<User> existing = delegate.findById(id);
+            boolean deleted = delegate.deleteById(id);
+            if (deleted) {
+                feed.publish(EntityType.USER, ChangeType.DELETED, id, existing.orElse(null));
+            }
+            return deleted;
+        }
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return delegate.existsById(id);
+    }
+
+    private Object lockFor(String id) {
+        return locks[(id.hashCode() & 0x7fffffff) % STRIPES];
+    }
+}
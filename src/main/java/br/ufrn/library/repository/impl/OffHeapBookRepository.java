@@ -0,0 +1,462 @@
+package br.ufrn.library.repository.impl;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import br.ufrn.library.exception.OptimisticLockException;
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.repository.BookRepository;
+
+/**
+ * Keeps the catalog outside the Java heap: fixed-size book records and an
+ * open-addressing ISBN index live in direct buffers, and title, author and ISBN
+ * text lives in an {@link OffHeapStringArena}. {@link #findByIsbn} materializes a
+ * {@link Book} on demand.
+ *
+ * Physical books with copies on loan (or with renumbered copies) are also kept
+ * on the heap, because their copy-level state does not fit in a record; they are
+ * already referenced by their loans anyway. Other views are only weakly cached,
+ * so callers holding the same ISBN share one instance while it is in use and the
+ * heap set follows the circulating titles, not the catalog size.
+ *
+ * Saves keep the arena text of an unchanged title or author; once replaced text
+ * makes up most of the arena, the live strings are copied into a fresh one.
+ */
+public class OffHeapBookRepository implements BookRepository {
+
+    private static final byte FREE = 0;
+    private static final byte PHYSICAL = 1;
+    private static final byte DIGITAL = 2;
+
+    private static final int TYPE = 0;
+    private static final int HASH = 4;
+    private static final int ISBN_REF = 8;
+    private static final int TITLE_REF = 16;
+    private static final int AUTHOR_REF = 24;
+    private static final int ISBN_LEN = 32;
+    private static final int TITLE_LEN = 36;
+    private static final int AUTHOR_LEN = 40;
+    private static final int TOTAL_COPIES = 44;
+    private static final int NEXT_FREE = 44;
+    private static final int VERSION = 48;
+    private static final int RECORD_SIZE = 56;
+
+    // A direct buffer is indexed by int, which bounds both the record table and the index.
+    static final int MAX_BOOKS = Integer.MAX_VALUE / RECORD_SIZE;
+    private static final int MAX_INDEX_SLOTS = 1 << 28;
+
+    private static final int NO_RECORD = -1;
+    private static final long COMPACTION_MIN_GARBAGE = 1 << 20;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private OffHeapStringArena arena = new OffHeapStringArena();
+    private final Map<String, Book> circulating = new ConcurrentHashMap<>();
+    private final Map<String, BookView> views = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Book> clearedViews = new ReferenceQueue<>();
+    private final int maxBooks;
+    private ByteBuffer records;
+    private int recordCount;
+    private int freeListHead = NO_RECORD;
+    private ByteBuffer index;
+    private int indexMask;
+    private int size;
+
+    public OffHeapBookRepository() {
+        this(1024);
+    }
+
+    public OffHeapBookRepository(int expectedBooks) {
+        this(expectedBooks, MAX_BOOKS);
+    }
+
+    OffHeapBookRepository(int expectedBooks, int maxBooks) {
+        if (maxBooks <= 0 || maxBooks > MAX_BOOKS) {
+            throw new IllegalArgumentException("Maximum number of books must be between 1 and " + MAX_BOOKS + ".");
+        }
+        if (expectedBooks <= 0 || expectedBooks > maxBooks) {
+            throw new IllegalArgumentException("Expected number of books must be between 1 and " + maxBooks + ".");
+        }
+        this.maxBooks = maxBooks;
+        this.records = ByteBuffer.allocateDirect(expectedBooks * RECORD_SIZE);
+        int slots = Integer.highestOneBit(expectedBooks * 2 - 1) << 1;
+        this.index = ByteBuffer.allocateDirect(slots * Integer.BYTES);
+        this.indexMask = slots - 1;
+    }
+
+    @Override
+    public Book save(Book book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null.");
+        }
+        byte[] isbn = utf8(book.getIsbn());
+        int hash = hash(isbn);
+        long expectedVersion = book.getVersion();
+
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(isbn, hash);
+            int record = slotRecord(slot);
+            long currentVersion = record == NO_RECORD ? 0 : records.getLong(recordOffset(record) + VERSION);
+            if (currentVersion != expectedVersion) {
+                throw new OptimisticLockException("Book", book.getIsbn(), expectedVersion);
+            }
+            boolean created = record == NO_RECORD;
+            if (created) {
+                record = allocateRecord();
+                records.putInt(recordOffset(record) + ISBN_LEN, isbn.length);
+                records.putLong(recordOffset(record) + ISBN_REF, arena.append(isbn));
+                records.putInt(recordOffset(record) + HASH, hash);
+                index.putInt(slot * Integer.BYTES, record + 1);
+                size++;
+                growIndexIfNeeded();
+            }
+            writeDetails(record, book, created);
+            records.putLong(recordOffset(record) + VERSION, expectedVersion + 1);
+            book.setVersion(expectedVersion + 1);
+
+            // Published under the write lock so a slower save of an older version cannot overwrite it.
+            if (book instanceof PhysicalBook physicalBook
+                    && (physicalBook.getAvailableCopies() < physicalBook.getTotalCopies()
+                            || !physicalBook.hasSequentialCopyNumbers())) {
+                circulating.put(book.getIsbn(), book);
+            } else {
+                circulating.remove(book.getIsbn());
+            }
+            views.put(book.getIsbn(), new BookView(book, clearedViews));
+            compactArenaIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return book;
+    }
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        if (isbn == null) {
+            return Optional.empty();
+        }
+        Book live = liveView(isbn);
+        if (live != null) {
+            return Optional.of(live);
+        }
+        byte[] key = utf8(isbn);
+        Book materialized;
+        lock.readLock().lock();
+        try {
+            int record = slotRecord(findSlot(key, hash(key)));
+            if (record == NO_RECORD) {
+                return Optional.empty();
+            }
+            materialized = materialize(record, isbn);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(canonical(isbn, materialized));
+    }
+
+    @Override
+    public List<Book> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Book> books = new ArrayList<>(size);
+            for (int record = 0; record < recordCount; record++) {
+                if (records.get(recordOffset(record)) == FREE) {
+                    continue;
+                }
+                String isbn = readString(record, ISBN_REF, ISBN_LEN);
+                Book live = liveView(isbn);
+                books.add(live != null ? live : canonical(isbn, materialize(record, isbn)));
+            }
+            return books;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteByIsbn(String isbn) {
+        if (isbn == null) {
+            return false;
+        }
+        byte[] key = utf8(isbn);
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(key, hash(key));
+            int record = slotRecord(slot);
+            if (record == NO_RECORD) {
+                return false;
+            }
+            removeSlot(slot);
+            freeRecord(record);
+            size--;
+            circulating.remove(isbn);
+            views.remove(isbn);
+            compactArenaIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByIsbn(String isbn) {
+        if (isbn == null) {
+            return false;
+        }
+        byte[] key = utf8(isbn);
+        lock.readLock().lock();
+        try {
+            return slotRecord(findSlot(key, hash(key))) != NO_RECORD;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getOffHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) records.capacity() + index.capacity() + arena.getReservedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Arena bytes held by titles, authors and ISBNs that have since been replaced or deleted. */
+    public long getGarbageBytes() {
+        lock.readLock().lock();
+        try {
+            return arena.getGarbageBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getCirculatingCount() {
+        return circulating.size();
+    }
+
+    private Book liveView(String isbn) {
+        Book live = circulating.get(isbn);
+        if (live != null) {
+            return live;
+        }
+        BookView view = views.get(isbn);
+        return view == null ? null : view.get();
+    }
+
+    private Book canonical(String isbn, Book materialized) {
+        expungeClearedViews();
+        BookView winner = views.compute(isbn, (key, existing) -> {
+            Book current = existing == null ? null : existing.get();
+            return current != null && current.getVersion() >= materialized.getVersion()
+                    ? existing
+                    : new BookView(materialized, clearedViews);
+        });
+        Book book = winner.get();
+        return book != null ? book : materialized;
+    }
+
+    private void expungeClearedViews() {
+        BookView cleared;
+        while ((cleared = (BookView) clearedViews.poll()) != null) {
+            views.remove(cleared.isbn, cleared);
+        }
+    }
+
+    private Book materialize(int record, String isbn) {
+        int offset = recordOffset(record);
+        String title = readString(record, TITLE_REF, TITLE_LEN);
+        String author = readString(record, AUTHOR_REF, AUTHOR_LEN);
+        Book book = records.get(offset + TYPE) == PHYSICAL
+                ? new PhysicalBook(title, author, isbn, records.getInt(offset + TOTAL_COPIES))
+                : new DigitalBook(title, author, isbn);
+        book.setVersion(records.getLong(offset + VERSION));
+        return book;
+    }
+
+    private void writeDetails(int record, Book book, boolean created) {
+        int offset = recordOffset(record);
+        writeString(record, TITLE_REF, TITLE_LEN, utf8(book.getTitle()), created);
+        writeString(record, AUTHOR_REF, AUTHOR_LEN, utf8(book.getAuthor()), created);
+        if (book instanceof PhysicalBook physicalBook) {
+            records.put(offset + TYPE, PHYSICAL);
+            records.putInt(offset + TOTAL_COPIES, physicalBook.getTotalCopies());
+        } else {
+            records.put(offset + TYPE, DIGITAL);
+            records.putInt(offset + TOTAL_COPIES, 0);
+        }
+    }
+
+    private void writeString(int record, int referenceField, int lengthField, byte[] value, boolean created) {
+        int offset = recordOffset(record);
+        if (!created) {
+            long reference = records.getLong(offset + referenceField);
+            int length = records.getInt(offset + lengthField);
+            if (arena.matches(reference, length, value)) {
+                return;
+            }
+            arena.release(length);
+        }
+        records.putLong(offset + referenceField, arena.append(value));
+        records.putInt(offset + lengthField, value.length);
+    }
+
+    private void compactArenaIfNeeded() {
+        long garbage = arena.getGarbageBytes();
+        if (garbage < COMPACTION_MIN_GARBAGE || garbage * 2 < arena.getUsedBytes()) {
+            return;
+        }
+        OffHeapStringArena compacted = new OffHeapStringArena();
+        for (int record = 0; record < recordCount; record++) {
+            if (records.get(recordOffset(record)) == FREE) {
+                continue;
+            }
+            moveString(compacted, record, ISBN_REF, ISBN_LEN);
+            moveString(compacted, record, TITLE_REF, TITLE_LEN);
+            moveString(compacted, record, AUTHOR_REF, AUTHOR_LEN);
+        }
+        arena = compacted;
+    }
+
+    private void moveString(OffHeapStringArena target, int record, int referenceField, int lengthField) {
+        int offset = recordOffset(record);
+        byte[] bytes = arena.bytes(records.getLong(offset + referenceField), records.getInt(offset + lengthField));
+        records.putLong(offset + referenceField, target.append(bytes));
+    }
+
+    private String readString(int record, int referenceField, int lengthField) {
+        int offset = recordOffset(record);
+        return arena.read(records.getLong(offset + referenceField), records.getInt(offset + lengthField));
+    }
+
+    private int allocateRecord() {
+        if (freeListHead != NO_RECORD) {
+            int record = freeListHead;
+            freeListHead = records.getInt(recordOffset(record) + NEXT_FREE);
+            return record;
+        }
+        if (recordCount == maxBooks) {
+            throw new IllegalStateException("Off-heap book store is full: it holds at most " + maxBooks + " books.");
+        }
+        if ((recordCount + 1) * RECORD_SIZE > records.capacity()) {
+            int capacity = (int) Math.min(2L * records.capacity(), (long) maxBooks * RECORD_SIZE);
+            ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+            grown.put(records.duplicate().position(0).limit(recordCount * RECORD_SIZE));
+            records = grown;
+        }
+        return recordCount++;
+    }
+
+    private void freeRecord(int record) {
+        int offset = recordOffset(record);
+        arena.release(records.getInt(offset + ISBN_LEN));
+        arena.release(records.getInt(offset + TITLE_LEN));
+        arena.release(records.getInt(offset + AUTHOR_LEN));
+        records.put(offset + TYPE, FREE);
+        records.putInt(offset + NEXT_FREE, freeListHead);
+        freeListHead = record;
+    }
+
+    private int findSlot(byte[] isbn, int hash) {
+        int slot = hash & indexMask;
+        while (true) {
+            int record = slotRecord(slot);
+            if (record == NO_RECORD) {
+                return slot;
+            }
+            int offset = recordOffset(record);
+            if (records.getInt(offset + HASH) == hash
+                    && arena.matches(records.getLong(offset + ISBN_REF), records.getInt(offset + ISBN_LEN), isbn)) {
+                return slot;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+    }
+
+    private int slotRecord(int slot) {
+        return index.getInt(slot * Integer.BYTES) - 1;
+    }
+
+    private void removeSlot(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & indexMask;
+        while (slotRecord(next) != NO_RECORD) {
+            int home = records.getInt(recordOffset(slotRecord(next)) + HASH) & indexMask;
+            if (((next - home) & indexMask) >= ((next - gap) & indexMask)) {
+                index.putInt(gap * Integer.BYTES, index.getInt(next * Integer.BYTES));
+                gap = next;
+            }
+            next = (next + 1) & indexMask;
+        }
+        index.putInt(gap * Integer.BYTES, 0);
+    }
+
+    private void growIndexIfNeeded() {
+        int slots = indexMask + 1;
+        if (size <= slots / 2) {
+            return;
+        }
+        if (slots == MAX_INDEX_SLOTS) {
+            throw new IllegalStateException("Off-heap book index cannot grow past " + MAX_INDEX_SLOTS + " slots.");
+        }
+        ByteBuffer old = index;
+        int newSlots = slots * 2;
+        index = ByteBuffer.allocateDirect(newSlots * Integer.BYTES);
+        indexMask = newSlots - 1;
+        for (int slot = 0; slot < slots; slot++) {
+            int entry = old.getInt(slot * Integer.BYTES);
+            if (entry != 0) {
+                int target = records.getInt(recordOffset(entry - 1) + HASH) & indexMask;
+                while (index.getInt(target * Integer.BYTES) != 0) {
+                    target = (target + 1) & indexMask;
+                }
+                index.putInt(target * Integer.BYTES, entry);
+            }
+        }
+    }
+
+    private static int recordOffset(int record) {
+        return record * RECORD_SIZE;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int hash(byte[] utf8) {
+        int h = 1;
+        for (byte b : utf8) {
+            h = 31 * h + b;
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class BookView extends WeakReference<Book> {
+        private final String isbn;
+
+        private BookView(Book book, ReferenceQueue<Book> queue) {
+            super(book, queue);
+            this.isbn = book.getIsbn();
+        }
+    }
+}
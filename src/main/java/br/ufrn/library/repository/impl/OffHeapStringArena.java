@@ -0,0 +1,86 @@
+package br.ufrn.library.repository.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only UTF-8 storage in direct buffers. A string is addressed by a
+ * {@code long} reference (chunk index in the high half, offset in the low half)
+ * plus its encoded length. Space of replaced strings is only counted, not reused;
+ * the owner reclaims it by copying the live strings into a new arena.
+ * Not thread-safe.
+ */
+class OffHeapStringArena {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer current;
+    private long usedBytes;
+    private long garbageBytes;
+
+    long append(byte[] utf8) {
+        if (current == null || current.remaining() < utf8.length) {
+            current = ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, utf8.length));
+            chunks.add(current);
+        }
+        int offset = current.position();
+        current.put(utf8);
+        usedBytes += utf8.length;
+        return ((long) (chunks.size() - 1) << 32) | offset;
+    }
+
+    String read(long reference, int length) {
+        return new String(bytes(reference, length), StandardCharsets.UTF_8);
+    }
+
+    byte[] bytes(long reference, int length) {
+        byte[] bytes = new byte[length];
+        chunk(reference).get(offset(reference), bytes);
+        return bytes;
+    }
+
+    boolean matches(long reference, int length, byte[] utf8) {
+        if (length != utf8.length) {
+            return false;
+        }
+        ByteBuffer chunk = chunk(reference);
+        int offset = offset(reference);
+        for (int i = 0; i < length; i++) {
+            if (chunk.get(offset + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void release(int length) {
+        garbageBytes += length;
+    }
+
+    long getUsedBytes() {
+        return usedBytes;
+    }
+
+    long getGarbageBytes() {
+        return garbageBytes;
+    }
+
+    long getReservedBytes() {
+        long reserved = 0;
+        for (ByteBuffer chunk : chunks) {
+            reserved += chunk.capacity();
+        }
+        return reserved;
+    }
+
+    private ByteBuffer chunk(long reference) {
+        return chunks.get((int) (reference >>> 32));
+    }
+
+    private static int offset(long reference) {
+        return (int) reference;
+    }
+}
@@ -0,0 +1,18 @@
+package br.ufrn.library.scheduler;
+
+import java.time.LocalDate;
+
+import br.ufrn.library.model.Loan;
+
+public class LoggingOverdueListener implements OverdueListener {
+
+    @Override
+    public void onOverdue(Loan loan, LocalDate detectedOn) {
+        System.out.printf("[ATRASO] Empréstimo %s (Usuário: %s, ISBN: %s) venceu em %s. Detectado em %s.\n",
+                loan.getId(),
+                loan.getUser().getId(),
+                loan.getBook().getIsbn(),
+                loan.getDueDate(),
+                detectedOn);
+    }
+}
@@ -0,0 +1,10 @@
+package br.ufrn.library.scheduler;
+
+import java.time.LocalDate;
+
+import br.ufrn.library.model.Loan;
+
+public interface OverdueListener {
+
+    void onOverdue(Loan loan, LocalDate detectedOn);
+}
@@ -0,0 +1,210 @@
+package br.ufrn.library.scheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.scheduler.TimingWheel.Timeout;
+import br.ufrn.library.service.LoanEventListener;
+
+/**
+ * Fires {@link OverdueListener}s the day after a loan's due date. Listeners
+ * only run on the thread that turns the wheel (the scheduler thread once
+ * started): a loan that is already overdue when scheduled is queued for the
+ * next turn instead of being reported on the checkout thread.
+ */
+public class OverdueScheduler implements LoanEventListener {
+
+    private static final Duration DEFAULT_CHECK_INTERVAL = Duration.ofMinutes(1);
+
+    private final Clock clock;
+    private final TimingWheel<Loan> wheel;
+    // Guarded by the wheel's lock, so it always lists exactly the loans still in the wheel.
+    private final Map<String, Timeout<Loan>> pending = new HashMap<>();
+    private final Queue<Loan> overdueOnArrival = new ConcurrentLinkedQueue<>();
+    private final List<OverdueListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Function<String, Optional<Loan>> loanLookup;
+    private ScheduledExecutorService executor;
+
+    public OverdueScheduler() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public OverdueScheduler(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null.");
+        }
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(LocalDate.now(clock).toEpochDay());
+    }
+
+    public void addListener(OverdueListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(OverdueListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Re-reads each loan when it falls due, so listeners get its current state
+     * rather than the instance seen at checkout. Loans the lookup no longer
+     * finds are skipped.
+     */
+    public void setLoanLookup(Function<String, Optional<Loan>> loanLookup) {
+        this.loanLookup = loanLookup;
+    }
+
+    @Override
+    public void onLoanCreated(Loan loan) {
+        schedule(loan);
+    }
+
+    @Override
+    public void onLoanReturned(Loan loan) {
+        cancel(loan.getId());
+    }
+
+    public void schedule(Loan loan) {
+        if (loan == null) {
+            throw new IllegalArgumentException("Loan cannot be null.");
+        }
+        if (loan.isReturned()) {
+            return;
+        }
+        long overdueDay = loan.getDueDate().plusDays(1).toEpochDay();
+        Timeout<Loan> timeout;
+        synchronized (wheel) {
+            timeout = wheel.schedule(overdueDay, loan);
+            Timeout<Loan> previous = timeout == null
+                    ? pending.remove(loan.getId())
+                    : pending.put(loan.getId(), timeout);
+            if (previous != null) {
+                wheel.cancel(previous);
+            }
+        }
+        if (timeout == null) {
+            overdueOnArrival.add(loan);
+            wakeUp();
+        }
+    }
+
+    public boolean cancel(String loanId) {
+        synchronized (wheel) {
+            Timeout<Loan> timeout = pending.remove(loanId);
+            return timeout != null && wheel.cancel(timeout);
+        }
+    }
+
+    public int advanceTo(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null.");
+        }
+        int fired = 0;
+        Loan arrived;
+        while ((arrived = overdueOnArrival.poll()) != null) {
+            fireIfOutstanding(arrived, date);
+            fired++;
+        }
+        List<Loan> expired;
+        synchronized (wheel) {
+            expired = wheel.advanceTo(date.toEpochDay());
+            for (Loan loan : expired) {
+                pending.remove(loan.getId());
+            }
+        }
+        for (Loan loan : expired) {
+            fireIfOutstanding(loan, date);
+        }
+        return fired + expired.size();
+    }
+
+    public int tick() {
+        return advanceTo(LocalDate.now(clock));
+    }
+
+    public long getPendingCount() {
+        return wheel.size() + overdueOnArrival.size();
+    }
+
+    public synchronized void start() {
+        start(DEFAULT_CHECK_INTERVAL);
+    }
+
+    public synchronized void start(Duration checkInterval) {
+        if (checkInterval == null || checkInterval.isNegative() || checkInterval.isZero()) {
+            throw new IllegalArgumentException("Check interval must be positive.");
+        }
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "overdue-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = checkInterval.toMillis();
+        executor.scheduleAtFixedRate(this::safeTick, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private synchronized void wakeUp() {
+        if (executor != null) {
+            executor.execute(this::safeTick);
+        }
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao processar empréstimos atrasados: " + e.getMessage());
+        }
+    }
+
+    private void fireIfOutstanding(Loan scheduled, LocalDate detectedOn) {
+        Loan loan = scheduled;
+        Function<String, Optional<Loan>> lookup = loanLookup;
+        if (lookup != null) {
+            try {
+                loan = lookup.apply(scheduled.getId()).orElse(null);
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao consultar empréstimo " + scheduled.getId() + ": " + e.getMessage());
+            }
+        }
+        if (loan != null && !loan.isReturned()) {
+            fire(loan, detectedOn);
+        }
+    }
+
+    private void fire(Loan loan, LocalDate detectedOn) {
+        for (OverdueListener listener : listeners) {
+            try {
+                listener.onOverdue(loan, detectedOn);
+            } catch (RuntimeException e) {
+                System.err.println("Erro no listener de atraso: " + e.getMessage());
+            }
+        }
+    }
+}
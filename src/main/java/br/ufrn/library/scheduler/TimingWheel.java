@@ -0,0 +1,175 @@
+package br.ufrn.library.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel with 64 slots per level. A timeout is placed on the
+ * lowest level whose parent slot it shares with the current tick and is cascaded
+ * down as the wheel turns, so advancing one tick only touches the timeouts that
+ * expire (or cascade) on that tick.
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS_PER_LEVEL = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS_PER_LEVEL - 1;
+    private static final int LEVELS = 4;
+
+    public static final class Timeout<T> {
+        private final long deadline;
+        private final T payload;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private Bucket<T> bucket;
+
+        private Timeout(long deadline, T payload) {
+            this.deadline = deadline;
+            this.payload = payload;
+        }
+
+        public long getDeadline() { return deadline; }
+
+        public T getPayload() { return payload; }
+    }
+
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+
+        private void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        private Timeout<T> drain() {
+            Timeout<T> drained = head;
+            head = null;
+            return drained;
+        }
+    }
+
+    private final Bucket<T>[][] wheels;
+    private long currentTick;
+    private long size;
+
+    public TimingWheel(long startTick) {
+        if (startTick < 0) {
+            throw new IllegalArgumentException("Start tick cannot be negative.");
+        }
+        this.wheels = newWheels();
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS_PER_LEVEL; slot++) {
+                wheels[level][slot] = new Bucket<>();
+            }
+        }
+        this.currentTick = startTick;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Bucket<T>[][] newWheels() {
+        return (Bucket<T>[][]) new Bucket<?>[LEVELS][SLOTS_PER_LEVEL];
+    }
+
+    /**
+     * Schedules {@code payload} to expire at {@code deadline}. Returns {@code null}
+     * when the deadline is not in the future; the caller should treat the payload
+     * as already expired.
+     */
+    public synchronized Timeout<T> schedule(long deadline, T payload) {
+        if (deadline <= currentTick) {
+            return null;
+        }
+        Timeout<T> timeout = new Timeout<>(deadline, payload);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Turns the wheel up to {@code targetTick} and returns the payloads that expired
+     * on the way, in deadline order.
+     */
+    public synchronized List<T> advanceTo(long targetTick) {
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Timeout<T> timeout = wheels[0][(int) (currentTick & SLOT_MASK)].drain();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.prev = null;
+                timeout.next = null;
+                timeout.bucket = null;
+                expired.add(timeout.payload);
+                size--;
+                timeout = next;
+            }
+        }
+        return expired;
+    }
+
+    public synchronized long getCurrentTick() {
+        return currentTick;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    private void cascade() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            long lowBitsMask = (1L << (SLOT_BITS * level)) - 1;
+            if ((currentTick & lowBitsMask) != 0) {
+                continue;
+            }
+            int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            Timeout<T> timeout = wheels[level][slot].drain();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long deadline = timeout.deadline;
+        for (int level = 0; level < LEVELS; level++) {
+            int parentShift = SLOT_BITS * (level + 1);
+            if ((deadline >>> parentShift) == (currentTick >>> parentShift)) {
+                int slot = (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+                wheels[level][slot].add(timeout);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Deadline is beyond the wheel range: " + deadline);
+    }
+}
@@ -0,0 +1,32 @@
+package br.ufrn.library.search;
+
+public class NameMatch {
+
+    private final String userId;
+    private final String name;
+    private final int distance;
+
+    public NameMatch(String userId, String name, int distance) {
+        this.userId = userId;
+        this.name = name;
+        this.distance = distance;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Total edits needed to make the query words prefixes of the name's words; 0 for a plain prefix match. */
+    public int getDistance() {
+        return distance;
+    }
+
+    @Override
+    public String toString() {
+        return "NameMatch{userId='" + userId + "', name='" + name + "', distance=" + distance + "}";
+    }
+}
@@ -0,0 +1,558 @@
+package br.ufrn.library.search;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import br.ufrn.library.model.User;
+
+/**
+ * Prefix and typo-tolerant lookup over user names. Names are folded (accents
+ * stripped, lower-cased) and split into words, and each word is a path in a
+ * trie whose end node lists the users carrying it. A query matches a user when
+ * every query word is a prefix of one of the user's words, so "jo med" finds
+ * "João Medeiros". The trie is walked from the rarest query word's node in
+ * word order and the walk stops as soon as the limit is reached.
+ *
+ * <p>Only when prefix matches fall short is the trie walked again allowing a
+ * few edits per query word (insertions, deletions, substitutions and adjacent
+ * transpositions), carrying one edit-distance row per trie level and pruning
+ * any branch whose row already exceeds the bound. The first letter is taken as
+ * typed: it is rarely the misspelled one, and fixing it keeps the walk inside
+ * one branch of the trie.
+ */
+public class UserNameIndex {
+
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int TWO_EDITS_LENGTH = 6;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    /**
+     * Indexes the user under its current name, replacing the previous one. A
+     * user older than the indexed version is ignored, so racing updates leave
+     * the name of the last save.
+     */
+    public void put(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null.");
+        }
+        String[] words = words(user.getName());
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(user.getId());
+            if (slot == null) {
+                slot = freeSlots.isEmpty() ? entries.size() : freeSlots.pop();
+                slots.put(user.getId(), slot);
+                if (slot == entries.size()) {
+                    entries.add(null);
+                }
+            } else {
+                Entry previous = entries.get(slot);
+                if (previous.version > user.getVersion()) {
+                    return;
+                }
+                if (previous.name.equals(user.getName())) {
+                    entries.set(slot, new Entry(previous.userId, previous.name, user.getVersion(), previous.words));
+                    return;
+                }
+                for (String word : previous.words) {
+                    remove(word, slot);
+                }
+            }
+            entries.set(slot, new Entry(user.getId(), user.getName(), user.getVersion(), words));
+            for (String word : words) {
+                insert(word, slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String userId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(userId);
+            if (slot == null) {
+                return;
+            }
+            for (String word : entries.get(slot).words) {
+                remove(word, slot);
+            }
+            entries.set(slot, null);
+            freeSlots.push(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Best matches first: prefix matches in word order, then typo matches by edit count. */
+    public List<NameMatch> search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        String[] words = words(query == null ? "" : query);
+        if (words.length == 0) {
+            return List.of();
+        }
+        List<NameMatch> matches = new ArrayList<>(Math.min(limit, 64));
+        Set<Integer> matched = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            prefixMatches(words, limit, matches, matched);
+            if (matches.size() < limit) {
+                fuzzyMatches(words, limit, matches, matched);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    private void prefixMatches(String[] words, int limit, List<NameMatch> matches, Set<Integer> matched) {
+        Node[] nodes = new Node[words.length];
+        int driver = 0;
+        for (int i = 0; i < words.length; i++) {
+            nodes[i] = find(words[i]);
+            if (nodes[i] == null) {
+                return;
+            }
+            if (nodes[i].subtreeUsers < nodes[driver].subtreeUsers) {
+                driver = i;
+            }
+        }
+        collectPrefixMatches(nodes[driver], words, nodes, driver, limit, matches, matched);
+    }
+
+    private boolean collectPrefixMatches(Node node, String[] words, Node[] nodes, int driver, int limit,
+                                         List<NameMatch> matches, Set<Integer> matched) {
+        int[] cursors = new int[words.length];
+        for (int i = 0; i < node.userCount; i++) {
+            int slot = node.users[i];
+            if (hasPrefixes(slot, words, nodes, driver, cursors) && !matched.contains(slot)) {
+                Entry entry = entries.get(slot);
+                matched.add(slot);
+                matches.add(new NameMatch(entry.userId, entry.name, 0));
+                if (matches.size() == limit) {
+                    return true;
+                }
+            }
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            if (collectPrefixMatches(node.children[i], words, nodes, driver, limit, matches, matched)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A word nobody extends (a whole surname, typically) is checked by merging its sorted user list with
+    // the driver's, which walks both in order; only true prefixes need the candidate's own words.
+    private boolean hasPrefixes(int slot, String[] words, Node[] nodes, int driver, int[] cursors) {
+        for (int i = 0; i < words.length; i++) {
+            if (i == driver) {
+                continue;
+            }
+            Node node = nodes[i];
+            boolean found;
+            if (node.userCount == node.subtreeUsers) {
+                cursors[i] = node.seekUser(slot, cursors[i]);
+                found = cursors[i] < node.userCount && node.users[cursors[i]] == slot;
+            } else {
+                found = hasPrefix(entries.get(slot).words, words[i]);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasPrefix(String[] userWords, String prefix) {
+        for (String word : userWords) {
+            if (word.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void fuzzyMatches(String[] words, int limit, List<NameMatch> matches, Set<Integer> matched) {
+        // Drive from the rarest word: a misspelled one usually has no node at all, and the well-spelled
+        // ones then cut its near misses down quickly.
+        int driver = -1;
+        int driverUsers = Integer.MAX_VALUE;
+        for (int i = 0; i < words.length; i++) {
+            if (maxEdits(words[i].length()) == 0) {
+                continue;
+            }
+            Node node = find(words[i]);
+            int users = node == null ? 0 : node.subtreeUsers;
+            if (driver < 0 || users < driverUsers
+                    || (users == driverUsers && words[i].length() > words[driver].length())) {
+                driver = i;
+                driverUsers = users;
+            }
+        }
+        if (driver < 0) {
+            return;
+        }
+        char[] target = words[driver].toCharArray();
+        int maxEdits = maxEdits(target.length);
+        List<Term> terms = new ArrayList<>();
+        int[] firstRow = new int[target.length + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        walk(root, new StringBuilder(), target, firstRow, null, firstRow[target.length], maxEdits, terms);
+        // Among equally close words the commoner one is the likelier intent.
+        terms.sort(Comparator.comparingInt((Term term) -> term.distance)
+                .thenComparing(Comparator.comparingInt((Term term) -> term.node.userCount).reversed())
+                .thenComparing(term -> term.word));
+
+        int needed = limit - matches.size();
+        List<NameMatch> candidates = new ArrayList<>();
+        for (Term term : terms) {
+            // Later terms are at least this far off, so candidates at or under it can no longer be beaten.
+            int settled = countAtMost(candidates, term.distance);
+            for (int i = 0; i < term.node.userCount && settled < needed; i++) {
+                int slot = term.node.users[i];
+                if (matched.contains(slot)) {
+                    continue;
+                }
+                Entry entry = entries.get(slot);
+                int distance = otherWordsDistance(entry.words, words, driver);
+                if (distance >= 0) {
+                    matched.add(slot);
+                    candidates.add(new NameMatch(entry.userId, entry.name, term.distance + distance));
+                    if (distance == 0) {
+                        settled++;
+                    }
+                }
+            }
+            if (settled >= needed) {
+                break;
+            }
+        }
+        candidates.sort(Comparator.comparingInt(NameMatch::getDistance));
+        matches.addAll(candidates.subList(0, Math.min(needed, candidates.size())));
+    }
+
+    private static int countAtMost(List<NameMatch> candidates, int distance) {
+        int count = 0;
+        for (NameMatch candidate : candidates) {
+            if (candidate.getDistance() <= distance) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Optimal string alignment distance of {@code target} against every trie
+     * path. {@code best} is the smallest distance to any prefix of the path so
+     * far: once it is within bounds every word below matches.
+     */
+    private static void walk(Node node, StringBuilder path, char[] target, int[] previous, int[] beforePrevious,
+                             int best, int maxEdits, List<Term> terms) {
+        int depth = path.length() + 1;
+        int[] row = new int[target.length + 1];
+        for (int c = 0; c < node.childCount; c++) {
+            char letter = node.keys[c];
+            if (depth == 1 && letter != target[0]) {
+                continue;
+            }
+            row[0] = depth;
+            int rowMin = depth;
+            for (int i = 1; i <= target.length; i++) {
+                int cost = target[i - 1] == letter ? 0 : 1;
+                int distance = Math.min(Math.min(previous[i] + 1, row[i - 1] + 1), previous[i - 1] + cost);
+                if (beforePrevious != null && i > 1 && target[i - 1] == path.charAt(depth - 2)
+                        && target[i - 2] == letter) {
+                    distance = Math.min(distance, beforePrevious[i - 2] + 1);
+                }
+                row[i] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            int childBest = Math.min(best, row[target.length]);
+            if (rowMin > maxEdits && childBest > maxEdits) {
+                continue;
+            }
+            Node child = node.children[c];
+            path.append(letter);
+            if (child.userCount > 0 && childBest <= maxEdits) {
+                terms.add(new Term(child, path.toString(), childBest));
+            }
+            walk(child, path, target, row, previous, childBest, maxEdits, terms);
+            path.setLength(depth - 1);
+        }
+    }
+
+    /** Summed edits for the non-driver query words against the user's words, or -1 if one is out of bounds. */
+    private static int otherWordsDistance(String[] userWords, String[] words, int driver) {
+        int total = 0;
+        for (int i = 0; i < words.length; i++) {
+            if (i == driver) {
+                continue;
+            }
+            int maxEdits = maxEdits(words[i].length());
+            int best = maxEdits + 1;
+            for (String userWord : userWords) {
+                best = Math.min(best, prefixDistance(words[i], userWord, maxEdits));
+            }
+            if (best > maxEdits) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int prefixDistance(String query, String word, int maxEdits) {
+        if (word.startsWith(query)) {
+            return 0;
+        }
+        if (maxEdits == 0) {
+            return 1;
+        }
+        int[] beforePrevious = null;
+        int[] previous = new int[query.length() + 1];
+        for (int i = 0; i < previous.length; i++) {
+            previous[i] = i;
+        }
+        int best = previous[query.length()];
+        for (int j = 1; j <= word.length(); j++) {
+            char letter = word.charAt(j - 1);
+            int[] row = new int[query.length() + 1];
+            row[0] = j;
+            int rowMin = j;
+            for (int i = 1; i <= query.length(); i++) {
+                int cost = query.charAt(i - 1) == letter ? 0 : 1;
+                int distance = Math.min(Math.min(previous[i] + 1, row[i - 1] + 1), previous[i - 1] + cost);
+                if (beforePrevious != null && i > 1 && query.charAt(i - 1) == word.charAt(j - 2)
+                        && query.charAt(i - 2) == letter) {
+                    distance = Math.min(distance, beforePrevious[i - 2] + 1);
+                }
+                row[i] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            best = Math.min(best, row[query.length()]);
+            if (rowMin > maxEdits) {
+                break;
+            }
+            beforePrevious = previous;
+            previous = row;
+        }
+        return best;
+    }
+
+    private static int maxEdits(int length) {
+        if (length < MIN_FUZZY_LENGTH) {
+            return 0;
+        }
+        return length < TWO_EDITS_LENGTH ? 1 : 2;
+    }
+
+    private Node find(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.child(word.charAt(i));
+        }
+        return node;
+    }
+
+    private void insert(String word, int slot) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.addChild(word.charAt(i));
+            node.subtreeUsers++;
+        }
+        node.addUser(slot);
+    }
+
+    // Emptied nodes are left in place; the next name using the word reuses them.
+    private void remove(String word, int slot) {
+        Node[] path = new Node[word.length()];
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.child(word.charAt(i));
+            path[i] = node;
+        }
+        if (node.removeUser(slot)) {
+            for (Node step : path) {
+                step.subtreeUsers--;
+            }
+        }
+    }
+
+    /** Folded, de-duplicated words of {@code text}: "João  JOAO Medeiros" gives [joao, medeiros]. */
+    static String[] words(String text) {
+        String folded = fold(text);
+        List<String> words = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean inWord = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                String word = folded.substring(start, i);
+                if (!words.contains(word)) {
+                    words.add(word);
+                }
+                start = -1;
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+    private static String fold(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 0x7f) {
+                return MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return lower;
+    }
+
+    private static final class Entry {
+
+        final String userId;
+        final String name;
+        final long version;
+        final String[] words;
+
+        Entry(String userId, String name, long version, String[] words) {
+            this.userId = userId;
+            this.name = name;
+            this.version = version;
+            this.words = words;
+        }
+    }
+
+    private static final class Term {
+
+        final Node node;
+        final String word;
+        final int distance;
+
+        Term(Node node, String word, int distance) {
+            this.node = node;
+            this.word = word;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * Children are kept sorted by letter so walks visit words in alphabetical
+     * order; users are kept sorted by slot.
+     */
+    private static final class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final int[] NO_USERS = new int[0];
+
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int childCount;
+        int[] users = NO_USERS;
+        int userCount;
+        int subtreeUsers;
+
+        Node child(char letter) {
+            int index = Arrays.binarySearch(keys, 0, childCount, letter);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node addChild(char letter) {
+            int index = Arrays.binarySearch(keys, 0, childCount, letter);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, index, keys, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            Node child = new Node();
+            keys[index] = letter;
+            children[index] = child;
+            childCount++;
+            return child;
+        }
+
+        /** Index of the first user at or after {@code slot}, galloping forward from {@code from}. */
+        int seekUser(int slot, int from) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < userCount && users[high] < slot) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, userCount);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (users[mid] < slot) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // New users get the highest slot so far, so this is an append unless a renamed user comes back.
+        void addUser(int slot) {
+            int index = userCount == 0 || users[userCount - 1] < slot
+                    ? userCount
+                    : -Arrays.binarySearch(users, 0, userCount, slot) - 1;
+            if (userCount == users.length) {
+                users = Arrays.copyOf(users, Math.max(2, userCount * 2));
+            }
+            System.arraycopy(users, index, users, index + 1, userCount - index);
+            users[index] = slot;
+            userCount++;
+        }
+
+        boolean removeUser(int slot) {
+            int index = Arrays.binarySearch(users, 0, userCount, slot);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(users, index + 1, users, index, userCount - index - 1);
+            userCount--;
+            return true;
+        }
+    }
+}
@@ -3,27 +3,48 @@ package br.ufrn.library.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import br.ufrn.library.branch.BranchInventory;
 import br.ufrn.library.exception.BookNotFoundException;
+import br.ufrn.library.license.LicensePoolManager;
+import br.ufrn.library.exception.OptimisticLockException;
 import br.ufrn.library.model.Book;
+import br.ufrn.library.model.BookCopy;
 import br.ufrn.library.model.DigitalBook;
 import br.ufrn.library.model.PhysicalBook;
 import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.snapshot.Snapshot;
+import br.ufrn.library.snapshot.SnapshotManager;
 import br.ufrn.library.dto.BookAvailabilityDTO;
 
 public class BookService {
 
     private final BookRepository bookRepository;
+    private volatile SnapshotManager snapshotManager;
+    private volatile BranchInventory branchInventory;
+    private volatile LicensePoolManager licensePoolManager;
 
     public BookService(BookRepository bookRepository) {
         this.bookRepository = bookRepository;
     }
 
+    public void setSnapshotManager(SnapshotManager snapshotManager) {
+        this.snapshotManager = snapshotManager;
+    }
+
+    public void setBranchInventory(BranchInventory branchInventory) {
+        this.branchInventory = branchInventory;
+    }
+
+    public void setLicensePoolManager(LicensePoolManager licensePoolManager) {
+        this.licensePoolManager = licensePoolManager;
+    }
+
     public void registerDigitalBook(String title, String author, String isbn) {
         if (bookRepository.existsByIsbn(isbn)) {
             throw new IllegalArgumentException("A book with this ISBN already exists: " + isbn);
         }
         DigitalBook digitalBook = new DigitalBook(title, author, isbn);
-        bookRepository.save(digitalBook);
+        insert(digitalBook);
     }
 
     public void registerPhysicalBook(String title, String author, String isbn, int totalCopies) {
@@ -31,30 +52,72 @@ public class BookService {
             throw new IllegalArgumentException("A book with this ISBN already exists: " + isbn);
         }
         PhysicalBook physicalBook = new PhysicalBook(title, author, isbn, totalCopies);
-        bookRepository.save(physicalBook);
+        insert(physicalBook);
+    }
+
+    private void insert(Book book) {
+        try {
+            bookRepository.save(book);
+        } catch (OptimisticLockException e) {
+            throw new IllegalArgumentException("A book with this ISBN already exists: " + book.getIsbn());
+        }
     }
 
     public void updateDigitalBook(String isbn, String newTitle, String newAuthor) {
-        Book bookToUpdate = findBookByIsbn(isbn);
+        OptimisticRetry.run(() -> {
+            Book bookToUpdate = findBookByIsbn(isbn);
 
-        if (bookToUpdate instanceof DigitalBook digitalBook) {
-            digitalBook.updateDetails(newTitle, newAuthor);
-            bookRepository.save(digitalBook);
-        } else {
-            throw new IllegalArgumentException("Book with isbn: " + isbn + " is not a digital book.");
-        }
+            if (bookToUpdate instanceof DigitalBook digitalBook) {
+                DigitalBook updated = digitalBook.copy();
+                updated.updateDetails(newTitle, newAuthor);
+                return bookRepository.save(updated);
+            } else {
+                throw new IllegalArgumentException("Book with isbn: " + isbn + " is not a digital book.");
+            }
+        });
     }
 
     public void updatePhysicalBook(String isbn, String newTitle, String newAuthor, int newTotalCopies) {
-        Book bookToUpdate = findBookByIsbn(isbn);
+        OptimisticRetry.run(() -> {
+            Book bookToUpdate = findBookByIsbn(isbn);
+
+            if (bookToUpdate instanceof PhysicalBook physicalBook) {
+                BranchInventory branches = branchInventory;
+                int allocated = branches == null ? 0 : branches.getAllocatedCopies(isbn);
+                if (newTotalCopies < allocated) {
+                    throw new IllegalStateException("Cannot set total copies to " + newTotalCopies + ". "
+                            + allocated + " copies are allocated to branches.");
+                }
+                PhysicalBook updated = physicalBook.copy();
+                updated.updateDetails(newTitle, newAuthor);
+                updated.setTotalCopies(newTotalCopies);
+                return bookRepository.save(updated);
+            } else {
+                throw new IllegalArgumentException("Book with isbn: " + isbn + " is not a physical book.");
+            }
+        });
+    }
 
-        if (bookToUpdate instanceof PhysicalBook physicalBook) {
-            physicalBook.updateDetails(newTitle, newAuthor);
-            physicalBook.setTotalCopies(newTotalCopies);
-            bookRepository.save(physicalBook);
-        } else {
+    /**
+     * Gives {@code copies} of a physical title to a branch, replacing its
+     * previous allocation. The copies held by all branches, including those in
+     * transit, may not exceed the title's total.
+     */
+    public synchronized void allocateToBranch(String isbn, String branchId, int copies) {
+        BranchInventory branches = branchInventory;
+        if (branches == null) {
+            throw new IllegalStateException("No branch inventory configured.");
+        }
+        if (!(findBookByIsbn(isbn) instanceof PhysicalBook physicalBook)) {
             throw new IllegalArgumentException("Book with isbn: " + isbn + " is not a physical book.");
         }
+        int elsewhere = branches.getAllocatedCopies(isbn) - branches.getOwnedCopies(isbn, branchId);
+        if (elsewhere + copies > physicalBook.getTotalCopies()) {
+            throw new IllegalStateException("Cannot allocate " + copies + " copies of " + isbn + " to " + branchId
+                    + ": " + elsewhere + " of its " + physicalBook.getTotalCopies()
+                    + " copies are already allocated to other branches.");
+        }
+        branches.allocateCopies(isbn, branchId, copies);
     }
 
     public Book findBookByIsbn(String isbn) {
@@ -62,13 +125,46 @@ public class BookService {
                 .orElseThrow(() -> new BookNotFoundException("Book not found with isbn: " + isbn));
     }
 
+    public BookCopy findCopyByBarcode(String barcode) {
+        String isbn = PhysicalBook.isbnFromBarcode(barcode);
+        if (isbn == null) {
+            throw new IllegalArgumentException("Invalid copy barcode: " + barcode);
+        }
+        if (findBookByIsbn(isbn) instanceof PhysicalBook physicalBook) {
+            return physicalBook.findCopy(barcode)
+                    .orElseThrow(() -> new BookNotFoundException("Copy not found with barcode: " + barcode));
+        }
+        throw new IllegalArgumentException("Book with isbn: " + isbn + " is not a physical book.");
+    }
+
     public List<Book> listAllBooks() {
         return bookRepository.findAll();
     }
 
+    /**
+     * Titles, authors and copy totals come from one snapshot of the books, but
+     * branch counts are read live from the branch inventory, so a row for a
+     * title under heavy circulation may show branch figures a few checkouts
+     * ahead of (or behind) the snapshot.
+     */
     public List<BookAvailabilityDTO> getBookAvailabilityReport() {
-        return bookRepository.findAll().stream()
-                .map(BookAvailabilityDTO::new)
+        SnapshotManager manager = snapshotManager;
+        if (manager == null) {
+            return getBookAvailabilityReport(bookRepository.findAll());
+        }
+        try (Snapshot snapshot = manager.pin()) {
+            return getBookAvailabilityReport(snapshot.books().findAll());
+        }
+    }
+
+    private List<BookAvailabilityDTO> getBookAvailabilityReport(List<Book> books) {
+        BranchInventory branches = branchInventory;
+        LicensePoolManager licenses = licensePoolManager;
+        return books.stream()
+                .map(book -> branches == null
+                        ? new BookAvailabilityDTO(book, List.of(), 0, licenses)
+                        : new BookAvailabilityDTO(book, branches.getBranchStock(book.getIsbn()),
+                                branches.getCopiesInTransit(book.getIsbn()), licenses))
                 .collect(Collectors.toList());
     }
 
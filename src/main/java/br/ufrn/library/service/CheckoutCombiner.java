@@ -0,0 +1,134 @@
+package br.ufrn.library.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+
+/**
+ * Flat-combining checkout for one title. Callers enqueue their request and
+ * take the combiner lock; whoever holds it drains every queued request and
+ * applies them as one batch, so the book record is read, copied and saved once
+ * per batch instead of once (plus retries) per request. Callers whose request
+ * was applied by another thread find it complete as soon as they get the lock.
+ */
+final class CheckoutCombiner {
+
+    private static final int MAX_BATCH = 256;
+
+    private final String isbn;
+    private final Consumer<List<Request>> applier;
+    private final HotTitleDetector detector;
+    private final ConcurrentLinkedQueue<Request> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private int singleRequestBatches;
+
+    CheckoutCombiner(String isbn, Consumer<List<Request>> applier, HotTitleDetector detector) {
+        this.isbn = isbn;
+        this.applier = applier;
+        this.detector = detector;
+    }
+
+    String getIsbn() {
+        return isbn;
+    }
+
+    long getBatchCount() {
+        return batches.sum();
+    }
+
+    long getRequestCount() {
+        return requests.sum();
+    }
+
+    LoanResult submit(Request request) {
+        pending.add(request);
+        while (!request.isDone()) {
+            lock.lock();
+            try {
+                if (!request.isDone()) {
+                    combine();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return request.getResult();
+    }
+
+    private void combine() {
+        List<Request> batch = new ArrayList<>();
+        Request request;
+        while (batch.size() < MAX_BATCH && (request = pending.poll()) != null) {
+            batch.add(request);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batches.increment();
+        requests.add(batch.size());
+        try {
+            applier.accept(batch);
+        } catch (RuntimeException e) {
+            for (Request failed : batch) {
+                failed.fail(e);
+            }
+        }
+        for (Request each : batch) {
+            if (!each.isDone()) {
+                each.fail(new IllegalStateException("Checkout request was not completed: " + each.loanId));
+            }
+        }
+
+        singleRequestBatches = batch.size() == 1 ? singleRequestBatches + 1 : 0;
+        if (singleRequestBatches >= HotTitleDetector.COOL_DOWN_BATCHES) {
+            detector.demote(this);
+        }
+    }
+
+    static final class Request {
+        final String loanId;
+        final User user;
+        final LocalDate loanDate;
+        final LocalDate dueDate;
+        Loan loan;
+        private volatile LoanResult result;
+        private volatile RuntimeException failure;
+
+        Request(String loanId, User user, LocalDate loanDate, LocalDate dueDate) {
+            this.loanId = loanId;
+            this.user = user;
+            this.loanDate = loanDate;
+            this.dueDate = dueDate;
+        }
+
+        void complete(LoanResult result) {
+            this.result = result;
+        }
+
+        void fail(RuntimeException failure) {
+            if (result == null) {
+                this.failure = failure;
+            }
+        }
+
+        boolean isDone() {
+            return result != null || failure != null;
+        }
+
+        LoanResult getResult() {
+            if (result == null) {
+                throw failure;
+            }
+            return result;
+        }
+    }
+}
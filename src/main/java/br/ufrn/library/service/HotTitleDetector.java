@@ -0,0 +1,61 @@
+package br.ufrn.library.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Decides which titles check out through a {@link CheckoutCombiner}. A title
+ * is promoted after {@link #PROMOTE_CONFLICTS} failed compare-and-set saves of
+ * its book within {@link #WINDOW_NANOS}, and demoted again by its combiner
+ * once {@link #COOL_DOWN_BATCHES} consecutive batches held a single request.
+ */
+final class HotTitleDetector {
+
+    static final int PROMOTE_CONFLICTS = 16;
+    static final long WINDOW_NANOS = 50_000_000L;
+    static final int COOL_DOWN_BATCHES = 1_024;
+
+    private final BiConsumer<String, List<CheckoutCombiner.Request>> applier;
+    private final Map<String, Heat> heat = new ConcurrentHashMap<>();
+    private final Map<String, CheckoutCombiner> combiners = new ConcurrentHashMap<>();
+
+    HotTitleDetector(BiConsumer<String, List<CheckoutCombiner.Request>> applier) {
+        this.applier = applier;
+    }
+
+    CheckoutCombiner combinerFor(String isbn) {
+        return combiners.isEmpty() ? null : combiners.get(isbn);
+    }
+
+    void recordConflict(String isbn) {
+        Heat titleHeat = heat.computeIfAbsent(isbn, key -> new Heat());
+        long now = System.nanoTime();
+        if (now - titleHeat.windowStart > WINDOW_NANOS) {
+            titleHeat.windowStart = now;
+            titleHeat.conflicts.set(0);
+        }
+        if (titleHeat.conflicts.incrementAndGet() >= PROMOTE_CONFLICTS) {
+            combiners.computeIfAbsent(isbn,
+                    key -> new CheckoutCombiner(key, batch -> applier.accept(key, batch), this));
+        }
+    }
+
+    void demote(CheckoutCombiner combiner) {
+        if (combiners.remove(combiner.getIsbn(), combiner)) {
+            heat.remove(combiner.getIsbn());
+        }
+    }
+
+    Set<String> getHotTitles() {
+        return Set.copyOf(combiners.keySet());
+    }
+
+    private static final class Heat {
+        private final AtomicInteger conflicts = new AtomicInteger();
+        private volatile long windowStart = System.nanoTime();
+    }
+}
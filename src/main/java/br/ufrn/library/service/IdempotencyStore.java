@@ -0,0 +1,112 @@
+package br.ufrn.library.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the successful outcome of requests by idempotency key for a fixed
+ * retention period. The first request for a key runs; concurrent duplicates
+ * wait for it and later duplicates get the stored result. Each key is given
+ * one request ID (e.g. the loan ID) when first seen and keeps it for every
+ * attempt. A request that returns a failure status committed nothing, so its
+ * key is forgotten; one that throws may have failed after committing, so its
+ * key stays, and the retry runs again with the same ID and can find what the
+ * first attempt stored. Keys are evicted in arrival order, which is also expiry
+ * order.
+ */
+final class IdempotencyStore {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> arrivals = new ConcurrentLinkedQueue<>();
+    private final Clock clock;
+    private final long retentionMillis;
+
+    IdempotencyStore(Duration retention, Clock clock) {
+        this.retentionMillis = retention.toMillis();
+        this.clock = clock;
+    }
+
+    LoanResult execute(String key, String fingerprint, Supplier<LoanResult> request) {
+        return execute(key, fingerprint, () -> null, requestId -> request.get());
+    }
+
+    LoanResult execute(String key, String fingerprint, Supplier<String> requestIds,
+                       Function<String, LoanResult> request) {
+        long now = clock.millis();
+        evictExpired(now);
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            Entry created = new Entry(key, fingerprint, now + retentionMillis, requestIds.get());
+            entry = entries.putIfAbsent(key, created);
+            if (entry == null) {
+                entry = created;
+            }
+        }
+        if (!entry.fingerprint.equals(fingerprint)) {
+            return LoanResult.failure(LoanStatus.IDEMPOTENCY_KEY_REUSED);
+        }
+        if (!entry.started.compareAndSet(false, true)) {
+            try {
+                return entry.result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        LoanResult result;
+        try {
+            result = request.apply(entry.requestId);
+        } catch (RuntimeException e) {
+            Entry retry = new Entry(key, fingerprint, now + retentionMillis, entry.requestId);
+            if (entries.replace(key, entry, retry)) {
+                arrivals.add(retry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        if (result.getStatus().isSuccess()) {
+            arrivals.add(entry);
+        } else {
+            entries.remove(key, entry);
+        }
+        entry.result.complete(result);
+        return result;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        Entry oldest;
+        while ((oldest = arrivals.peek()) != null && oldest.expiresAt <= now) {
+            if (arrivals.remove(oldest)) {
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final String fingerprint;
+        private final long expiresAt;
+        private final String requestId;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<LoanResult> result = new CompletableFuture<>();
+
+        private Entry(String key, String fingerprint, long expiresAt, String requestId) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+            this.requestId = requestId;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package br.ufrn.library.service;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+
+public interface LoanEventListener {
+
+    /**
+     * Called before a loan is created. Any status other than {@link LoanStatus#SUCCESS}
+     * rejects the checkout; listeners that reserve state here must undo it in
+     * {@link #onLoanCreationFailed}.
+     */
+    default LoanStatus beforeLoanCreated(User user, Book book) {
+        return LoanStatus.SUCCESS;
+    }
+
+    default void onLoanCreationFailed(User user, Book book) {}
+
+    default void onLoanCreated(Loan loan) {}
+
+    default void onLoanReturned(Loan loan) {}
+}
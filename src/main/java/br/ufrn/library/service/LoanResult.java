@@ -0,0 +1,45 @@
+package br.ufrn.library.service;
+
+import br.ufrn.library.model.Loan;
+
+/**
+ * Outcome of {@link LoanService#tryCreateLoan} and {@link LoanService#tryReturnLoan}.
+ * Failures are shared constants, so a rejected request allocates nothing.
+ */
+public final class LoanResult {
+
+    private static final LoanResult[] FAILURES = new LoanResult[LoanStatus.values().length];
+
+    static {
+        for (LoanStatus status : LoanStatus.values()) {
+            if (!status.isSuccess()) {
+                FAILURES[status.ordinal()] = new LoanResult(status, null);
+            }
+        }
+    }
+
+    private final LoanStatus status;
+    private final Loan loan;
+
+    private LoanResult(LoanStatus status, Loan loan) {
+        this.status = status;
+        this.loan = loan;
+    }
+
+    static LoanResult success(Loan loan) {
+        return new LoanResult(LoanStatus.SUCCESS, loan);
+    }
+
+    static LoanResult failure(LoanStatus status) {
+        if (status.isSuccess()) {
+            throw new IllegalArgumentException("Failure status expected.");
+        }
+        return FAILURES[status.ordinal()];
+    }
+
+    public LoanStatus getStatus() { return status; }
+
+    public Loan getLoan() { return loan; }
+
+    public boolean isSuccess() { return status.isSuccess(); }
+}
@@ -1,29 +1,54 @@
 package br.ufrn.library.service;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import br.ufrn.library.exception.BookNotFoundException;
+import br.ufrn.library.exception.BorrowingLimitExceededException;
 import br.ufrn.library.exception.NoCopiesAvailableException;
+import br.ufrn.library.exception.OptimisticLockException;
 import br.ufrn.library.exception.UserNotFoundException;
 import br.ufrn.library.model.Book;
+import br.ufrn.library.model.BookCopy;
+import br.ufrn.library.model.CopyStatus;
 import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
 import br.ufrn.library.model.User;
+import br.ufrn.library.query.LoanQuery;
+import br.ufrn.library.query.QueryEngine;
+import br.ufrn.library.query.QueryPlan;
 import br.ufrn.library.repository.BookRepository;
 import br.ufrn.library.repository.LoanRepository;
 import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.snapshot.Snapshot;
+import br.ufrn.library.snapshot.SnapshotManager;
+import br.ufrn.library.util.TimeOrderedIdGenerator;
 import br.ufrn.library.dto.LoanReportDTO;
 
 public class LoanService {
 
     private static final int DEFAULT_LOAN_PERIOD_DAYS = 14;
+    private static final Duration IDEMPOTENCY_RETENTION = Duration.ofHours(24);
 
     private final LoanRepository loanRepository;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
+    private final List<LoanEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore(IDEMPOTENCY_RETENTION, Clock.systemUTC());
+    private final HotTitleDetector hotTitles = new HotTitleDetector(this::applyCheckoutBatch);
+    private volatile boolean hotTitleCombining = true;
+    private volatile SnapshotManager snapshotManager;
+    private volatile TimeOrderedIdGenerator loanIdGenerator = new TimeOrderedIdGenerator(0);
+    private volatile QueryEngine queryEngine;
 
     public LoanService(LoanRepository loanRepository, BookRepository bookRepository, UserRepository userRepository) {
         if (loanRepository == null) {
@@ -39,17 +64,74 @@ public class LoanService {
         this.loanRepository = loanRepository;
         this.bookRepository = bookRepository;
         this.userRepository = userRepository;
+        this.queryEngine = new QueryEngine(loanRepository, bookRepository);
+    }
+
+    public void addLoanEventListener(LoanEventListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener não pode ser nulo.");
+        }
+        listeners.add(listener);
+    }
+
+    public void removeLoanEventListener(LoanEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void setSnapshotManager(SnapshotManager snapshotManager) {
+        this.snapshotManager = snapshotManager;
+    }
+
+    public void setLoanIdGenerator(TimeOrderedIdGenerator loanIdGenerator) {
+        if (loanIdGenerator == null) {
+            throw new IllegalArgumentException("Gerador de IDs não pode ser nulo.");
+        }
+        this.loanIdGenerator = loanIdGenerator;
+    }
+
+    /**
+     * Replaces the default engine, e.g. with one over the indexed repository
+     * when the service's own repository is wrapped.
+     */
+    public void setQueryEngine(QueryEngine queryEngine) {
+        if (queryEngine == null) {
+            throw new IllegalArgumentException("Motor de consultas não pode ser nulo.");
+        }
+        this.queryEngine = queryEngine;
+    }
+
+    /**
+     * Enables or disables batching of concurrent checkouts for titles detected
+     * as hot (enabled by default).
+     */
+    public void setHotTitleCombining(boolean enabled) {
+        this.hotTitleCombining = enabled;
+    }
+
+    public Set<String> getHotTitles() {
+        return hotTitles.getHotTitles();
+    }
+
+    public String nextLoanId() {
+        return loanIdGenerator.nextString();
     }
 
     public Loan createLoan(String loanId, String userId, String isbn) {
         return createLoan(loanId, userId, isbn, LocalDate.now(), DEFAULT_LOAN_PERIOD_DAYS);
     }
 
+    public Loan createLoan(String loanId, String userId, String isbn, LocalDate loanDate) {
+        return createLoan(loanId, userId, isbn, loanDate, DEFAULT_LOAN_PERIOD_DAYS);
+    }
+
     public Loan createLoan(String loanId, String userId, String isbn, LocalDate loanDate, int loanPeriodDays) {
-        if (userId == null || userId.trim().isEmpty()) {
+        if (loanId == null || loanId.isBlank()) {
+            throw new IllegalArgumentException("ID do empréstimo não pode ser nulo ou vazio.");
+        }
+        if (userId == null || userId.isBlank()) {
             throw new IllegalArgumentException("ID do usuário não pode ser nulo ou vazio.");
         }
-        if (isbn == null || isbn.trim().isEmpty()) {
+        if (isbn == null || isbn.isBlank()) {
             throw new IllegalArgumentException("ISBN não pode ser nulo ou vazio.");
         }
         if (loanDate == null) {
@@ -59,30 +141,308 @@ public class LoanService {
             throw new IllegalArgumentException("Período do empréstimo deve ser positivo.");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado com ID: " + userId));
+        LoanResult result = checkOut(loanId, userId, isbn, loanDate, loanPeriodDays);
+        switch (result.getStatus()) {
+            case SUCCESS:
+                return result.getLoan();
+            case USER_NOT_FOUND:
+                throw new UserNotFoundException("Usuário não encontrado com ID: " + userId);
+            case BOOK_NOT_FOUND:
+                throw new BookNotFoundException("Livro não encontrado com ISBN: " + isbn);
+            case NO_COPIES_AVAILABLE:
+                throw new NoCopiesAvailableException("Nenhuma cópia disponível para o livro: " + titleOf(isbn));
+            case NO_LICENSE_AVAILABLE:
+                throw new NoCopiesAvailableException("Nenhuma licença disponível para o livro: " + titleOf(isbn));
+            case LICENSE_EXHAUSTED:
+                throw new NoCopiesAvailableException("Licença esgotada ou expirada para o livro: " + titleOf(isbn));
+            case LOAN_ID_IN_USE:
+                throw new IllegalArgumentException("Já existe um empréstimo com ID: " + loanId);
+            case BLOCKED_BY_OVERDUE:
+                throw new BorrowingLimitExceededException("Usuário possui empréstimos em atraso: " + userId);
+            case PHYSICAL_LIMIT_REACHED:
+                throw new BorrowingLimitExceededException(
+                        "Limite de empréstimos de livros físicos atingido para o usuário: " + userId);
+            case DIGITAL_LIMIT_REACHED:
+                throw new BorrowingLimitExceededException(
+                        "Limite de empréstimos de livros digitais atingido para o usuário: " + userId);
+            case ACTIVE_LIMIT_REACHED:
+                throw new BorrowingLimitExceededException(
+                        "Limite de empréstimos ativos atingido para o usuário: " + userId);
+            default:
+                throw new IllegalStateException("Falha inesperada ao criar empréstimo: " + result.getStatus());
+        }
+    }
+
+    public LoanResult tryCreateLoan(String loanId, String userId, String isbn) {
+        return tryCreateLoan(loanId, userId, isbn, LocalDate.now(), DEFAULT_LOAN_PERIOD_DAYS);
+    }
+
+    public LoanResult tryCreateLoan(String loanId, String userId, String isbn, LocalDate loanDate, int loanPeriodDays) {
+        if (loanId == null || loanId.isBlank() || userId == null || userId.isBlank()
+                || isbn == null || isbn.isBlank() || loanDate == null || loanPeriodDays <= 0) {
+            return LoanResult.failure(LoanStatus.INVALID_REQUEST);
+        }
+        return checkOut(loanId, userId, isbn, loanDate, loanPeriodDays);
+    }
+
+    /**
+     * Checks out under a loan ID generated once per idempotency key. Retrying
+     * with the same key returns the original loan instead of creating another
+     * one, even when the first attempt failed after the loan was stored; reusing
+     * a key for a different request yields {@link LoanStatus#IDEMPOTENCY_KEY_REUSED}.
+     */
+    public LoanResult tryCreateLoanOnce(String idempotencyKey, String userId, String isbn,
+                                        LocalDate loanDate, int loanPeriodDays) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || userId == null || userId.isBlank()
+                || isbn == null || isbn.isBlank() || loanDate == null || loanPeriodDays <= 0) {
+            return LoanResult.failure(LoanStatus.INVALID_REQUEST);
+        }
+        String fingerprint = "checkout|" + userId + "|" + isbn + "|" + loanDate + "|" + loanPeriodDays;
+        return idempotencyStore.execute(idempotencyKey, fingerprint, this::nextLoanId, loanId -> {
+            Loan stored = loanRepository.findById(loanId).orElse(null);
+            return stored != null
+                    ? LoanResult.success(stored)
+                    : checkOut(loanId, userId, isbn, loanDate, loanPeriodDays);
+        });
+    }
+
+    public LoanResult tryReturnLoanOnce(String idempotencyKey, String loanId, LocalDate returnDate) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()
+                || loanId == null || loanId.isBlank() || returnDate == null) {
+            return LoanResult.failure(LoanStatus.INVALID_REQUEST);
+        }
+        String fingerprint = "return|" + loanId + "|" + returnDate;
+        return idempotencyStore.execute(idempotencyKey, fingerprint, () -> checkIn(loanId, returnDate));
+    }
+
+    private LoanResult checkOut(String loanId, String userId, String isbn, LocalDate loanDate, int loanPeriodDays) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            return LoanResult.failure(LoanStatus.USER_NOT_FOUND);
+        }
+
+        Book book = bookRepository.findByIsbn(isbn).orElse(null);
+        if (book == null) {
+            return LoanResult.failure(LoanStatus.BOOK_NOT_FOUND);
+        }
+
+        if (loanRepository.existsById(loanId)) {
+            return LoanResult.failure(LoanStatus.LOAN_ID_IN_USE);
+        }
+
+        int admitted = 0;
+        LoanResult result;
+        try {
+            for (LoanEventListener listener : listeners) {
+                LoanStatus admission = listener.beforeLoanCreated(user, book);
+                if (!admission.isSuccess()) {
+                    rollBackAdmission(admitted, user, book);
+                    return LoanResult.failure(admission);
+                }
+                admitted++;
+            }
+
+            if (!book.isAvailableForLoan()) {
+                rollBackAdmission(admitted, user, book);
+                return LoanResult.failure(LoanStatus.NO_COPIES_AVAILABLE);
+            }
+
+            LocalDate dueDate = loanDate.plusDays(loanPeriodDays);
+
+            result = inTransaction(() -> recordCheckOut(loanId, user, isbn, loanDate, dueDate));
+            if (!result.getStatus().isSuccess()) {
+                rollBackAdmission(admitted, user, book);
+                return result;
+            }
+        } catch (RuntimeException e) {
+            rollBackAdmission(admitted, user, book);
+            throw e;
+        }
+
+        for (LoanEventListener listener : listeners) {
+            try {
+                listener.onLoanCreated(result.getLoan());
+            } catch (RuntimeException e) {
+                reportListenerFailure(e);
+            }
+        }
+
+        return result;
+    }
+
+    private LoanResult recordCheckOut(String loanId, User user, String isbn, LocalDate loanDate, LocalDate dueDate) {
+        CheckoutCombiner combiner = hotTitleCombining ? hotTitles.combinerFor(isbn) : null;
+        if (combiner != null) {
+            return combiner.submit(new CheckoutCombiner.Request(loanId, user, loanDate, dueDate));
+        }
+
+        LoanResult reserved = OptimisticRetry.run(() -> {
+            try {
+                return reserveCopy(loanId, user, isbn, loanDate, dueDate);
+            } catch (OptimisticLockException e) {
+                if (hotTitleCombining) {
+                    hotTitles.recordConflict(isbn);
+                }
+                throw e;
+            }
+        });
+        if (!reserved.getStatus().isSuccess()) {
+            return reserved;
+        }
+        return recordLoan(reserved.getLoan(), user);
+    }
+
+    /**
+     * Stores a loan whose copy is already reserved and adds it to the user's
+     * history. If either step fails, the steps already done are undone before
+     * the failure is reported, so a checkout is never left half recorded.
+     */
+    private LoanResult recordLoan(Loan loan, User user) {
+        try {
+            loanRepository.save(loan);
+        } catch (OptimisticLockException e) {
+            OptimisticRetry.run(() -> releaseCopy(loan));
+            return LoanResult.failure(LoanStatus.LOAN_ID_IN_USE);
+        } catch (RuntimeException e) {
+            undo(e, () -> OptimisticRetry.run(() -> releaseCopy(loan)));
+            throw e;
+        }
+
+        try {
+            OptimisticRetry.run(() -> appendToHistory(user.getId(), loan.getId()));
+        } catch (RuntimeException e) {
+            undo(e, () -> {
+                loanRepository.deleteById(loan.getId());
+                OptimisticRetry.run(() -> releaseCopy(loan));
+            });
+            throw e;
+        }
+        return LoanResult.success(loan);
+    }
+
+    private LoanResult reserveCopy(String loanId, User user, String isbn, LocalDate loanDate, LocalDate dueDate) {
+        Book current = bookRepository.findByIsbn(isbn).orElse(null);
+        if (current == null) {
+            return LoanResult.failure(LoanStatus.BOOK_NOT_FOUND);
+        }
+        if (!current.isAvailableForLoan()) {
+            return LoanResult.failure(LoanStatus.NO_COPIES_AVAILABLE);
+        }
+
+        Book updated = current.copy();
+        Loan loan = new Loan(loanId, user, updated, loanDate, dueDate);
+        if (updated instanceof PhysicalBook physicalBook) {
+            loan.assignCopy(physicalBook.checkOutCopy(loanId));
+        } else {
+            updated.registerLoan();
+        }
+        bookRepository.save(updated);
+        return LoanResult.success(loan);
+    }
 
-        Book book = bookRepository.findByIsbn(isbn)
-                .orElseThrow(() -> new BookNotFoundException("Livro não encontrado com ISBN: " + isbn));
+    private void applyCheckoutBatch(String isbn, List<CheckoutCombiner.Request> batch) {
+        List<CheckoutCombiner.Request> granted = OptimisticRetry.run(() -> reserveCopies(isbn, batch));
+        for (CheckoutCombiner.Request request : granted) {
+            try {
+                request.complete(recordLoan(request.loan, request.user));
+            } catch (RuntimeException e) {
+                request.fail(e);
+            }
+        }
+    }
 
-        if (!book.isAvailableForLoan()) {
-            throw new NoCopiesAvailableException("Nenhuma cópia disponível para o livro: " + book.getTitle());
+    private List<CheckoutCombiner.Request> reserveCopies(String isbn, List<CheckoutCombiner.Request> batch) {
+        Book current = bookRepository.findByIsbn(isbn).orElse(null);
+        if (current == null) {
+            for (CheckoutCombiner.Request request : batch) {
+                request.complete(LoanResult.failure(LoanStatus.BOOK_NOT_FOUND));
+            }
+            return List.of();
         }
 
-        LocalDate dueDate = loanDate.plusDays(loanPeriodDays);
+        Book updated = current.copy();
+        List<CheckoutCombiner.Request> granted = new ArrayList<>(batch.size());
+        for (CheckoutCombiner.Request request : batch) {
+            if (!updated.isAvailableForLoan()) {
+                break;
+            }
+            Loan loan = new Loan(request.loanId, request.user, updated, request.loanDate, request.dueDate);
+            if (updated instanceof PhysicalBook physicalBook) {
+                loan.assignCopy(physicalBook.checkOutCopy(request.loanId));
+            } else {
+                updated.registerLoan();
+            }
+            request.loan = loan;
+            granted.add(request);
+        }
+        if (!granted.isEmpty()) {
+            bookRepository.save(updated);
+        }
+        for (int i = granted.size(); i < batch.size(); i++) {
+            batch.get(i).complete(LoanResult.failure(LoanStatus.NO_COPIES_AVAILABLE));
+        }
+        return granted;
+    }
+
+    private Book releaseCopy(Loan loan) {
+        Book current = bookRepository.findByIsbn(loan.getBook().getIsbn()).orElse(null);
+        if (current == null) {
+            return null;
+        }
+
+        Book updated = current.copy();
+        if (updated instanceof PhysicalBook physicalBook && loan.getCopyBarcode() != null) {
+            BookCopy copy = physicalBook.findCopy(loan.getCopyBarcode()).orElse(null);
+            if (copy == null || copy.getStatus() != CopyStatus.ON_LOAN
+                    || !loan.getId().equals(copy.getCurrentLoanId())) {
+                return current;
+            }
+            physicalBook.checkInCopy(loan.getCopyBarcode());
+        } else if (updated instanceof PhysicalBook physicalBook && physicalBook.getAnonymousLoans() == 0) {
+            return current;
+        } else {
+            updated.registerReturn();
+        }
+        return bookRepository.save(updated);
+    }
 
-        Loan loan = new Loan(loanId, user, book, loanDate, dueDate);
+    private User appendToHistory(String userId, String loanId) {
+        User current = userRepository.findById(userId).orElse(null);
+        if (current == null) {
+            return null;
+        }
+        User updated = current.copy();
+        updated.addLoanToHistory(loanId);
+        return userRepository.save(updated);
+    }
 
-        book.registerLoan();
+    private <T> T inTransaction(Supplier<T> work) {
+        SnapshotManager manager = snapshotManager;
+        return manager == null ? work.get() : manager.inTransaction(work);
+    }
 
-        bookRepository.save(book);
+    // A failed undo must not hide the failure that caused it.
+    private static void undo(RuntimeException cause, Runnable compensation) {
+        try {
+            compensation.run();
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
 
-        loanRepository.save(loan);
+    private void rollBackAdmission(int admitted, User user, Book book) {
+        for (int i = 0; i < admitted; i++) {
+            listeners.get(i).onLoanCreationFailed(user, book);
+        }
+    }
 
-        user.addLoanToHistory(loan);
-        userRepository.save(user);
+    // The loan is already committed: a failing listener must neither undo it nor keep the others from running.
+    private static void reportListenerFailure(RuntimeException e) {
+        System.err.println("Erro no listener de empréstimo: " + e.getMessage());
+    }
 
-        return loan;
+    private String titleOf(String isbn) {
+        return bookRepository.findByIsbn(isbn).map(Book::getTitle).orElse(isbn);
     }
 
     public Loan returnLoan(String loanId) {
@@ -90,34 +450,122 @@ public class LoanService {
     }
 
     public Loan returnLoan(String loanId, LocalDate returnDate) {
-        if (loanId == null || loanId.trim().isEmpty()) {
+        if (loanId == null || loanId.isBlank()) {
             throw new IllegalArgumentException("ID do empréstimo não pode ser nulo ou vazio.");
         }
         if (returnDate == null) {
             throw new IllegalArgumentException("Data de devolução não pode ser nula.");
         }
 
-        Loan loan = loanRepository.findById(loanId)
-                .orElseThrow(() -> new IllegalArgumentException("Empréstimo não encontrado com ID: " + loanId));
+        LoanResult result = checkIn(loanId, returnDate);
+        switch (result.getStatus()) {
+            case SUCCESS:
+                return result.getLoan();
+            case LOAN_NOT_FOUND:
+                throw new IllegalArgumentException("Empréstimo não encontrado com ID: " + loanId);
+            case ALREADY_RETURNED:
+                throw new IllegalStateException("O empréstimo já foi devolvido.");
+            default:
+                throw new IllegalStateException("Falha inesperada ao devolver empréstimo: " + result.getStatus());
+        }
+    }
+
+    public LoanResult tryReturnLoan(String loanId, LocalDate returnDate) {
+        if (loanId == null || loanId.isBlank() || returnDate == null) {
+            return LoanResult.failure(LoanStatus.INVALID_REQUEST);
+        }
+        return checkIn(loanId, returnDate);
+    }
+
+    private LoanResult checkIn(String loanId, LocalDate returnDate) {
+        Loan loan = loanRepository.findById(loanId).orElse(null);
+        if (loan == null) {
+            return LoanResult.failure(LoanStatus.LOAN_NOT_FOUND);
+        }
 
         if (loan.isReturned()) {
-            throw new IllegalStateException("O empréstimo já foi devolvido.");
+            return LoanResult.failure(LoanStatus.ALREADY_RETURNED);
+        }
+
+        LoanResult result = inTransaction(() -> recordCheckIn(loanId, returnDate));
+        if (!result.getStatus().isSuccess()) {
+            return result;
+        }
+        Loan returned = result.getLoan();
+
+        for (LoanEventListener listener : listeners) {
+            try {
+                listener.onLoanReturned(returned);
+            } catch (RuntimeException e) {
+                reportListenerFailure(e);
+            }
         }
 
-        loan.markAsReturned(returnDate);
+        return result;
+    }
+
+    // Like recordLoan: if the copy cannot be released, the loan is reopened so both stay as they were.
+    private LoanResult recordCheckIn(String loanId, LocalDate returnDate) {
+        LoanResult result = OptimisticRetry.run(() -> markReturned(loanId, returnDate));
+        if (result.getStatus().isSuccess()) {
+            Loan returned = result.getLoan();
+            try {
+                OptimisticRetry.run(() -> releaseCopy(returned));
+            } catch (RuntimeException e) {
+                undo(e, () -> OptimisticRetry.run(() -> reopen(returned)));
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    private LoanResult markReturned(String loanId, LocalDate returnDate) {
+        Loan current = loanRepository.findById(loanId).orElse(null);
+        if (current == null) {
+            return LoanResult.failure(LoanStatus.LOAN_NOT_FOUND);
+        }
+        if (current.isReturned()) {
+            return LoanResult.failure(LoanStatus.ALREADY_RETURNED);
+        }
+
+        Loan updated = current.copy();
+        updated.markAsReturned(returnDate);
+        loanRepository.save(updated);
+        return LoanResult.success(updated);
+    }
+
+    private Loan reopen(Loan returned) {
+        Loan current = loanRepository.findById(returned.getId()).orElse(null);
+        if (current == null || current.getVersion() != returned.getVersion()) {
+            return current;
+        }
+        Loan reopened = current.copy();
+        reopened.cancelReturn();
+        return loanRepository.save(reopened);
+    }
 
-        Book book = loan.getBook();
-        book.registerReturn();
+    public Loan returnLoanByBarcode(String barcode, LocalDate returnDate) {
+        if (barcode == null || barcode.isBlank()) {
+            throw new IllegalArgumentException("Código de barras não pode ser nulo ou vazio.");
+        }
 
-        bookRepository.save(book);
+        String isbn = PhysicalBook.isbnFromBarcode(barcode);
+        Book book = isbn == null ? null : bookRepository.findByIsbn(isbn).orElse(null);
+        if (!(book instanceof PhysicalBook physicalBook)) {
+            throw new BookNotFoundException("Exemplar não encontrado com código de barras: " + barcode);
+        }
 
-        loanRepository.save(loan);
+        BookCopy copy = physicalBook.findCopy(barcode)
+                .orElseThrow(() -> new BookNotFoundException("Exemplar não encontrado com código de barras: " + barcode));
+        if (copy.getCurrentLoanId() == null) {
+            throw new IllegalStateException("O exemplar não está emprestado: " + barcode);
+        }
 
-        return loan;
+        return returnLoan(copy.getCurrentLoanId(), returnDate);
     }
 
     public Loan findLoanById(String loanId) {
-        if (loanId == null || loanId.trim().isEmpty()) {
+        if (loanId == null || loanId.isBlank()) {
             throw new IllegalArgumentException("ID do empréstimo não pode ser nulo ou vazio.");
         }
 
@@ -126,7 +574,7 @@ public class LoanService {
     }
 
     public List<Loan> getLoansByUser(String userId) {
-        if (userId == null || userId.trim().isEmpty()) {
+        if (userId == null || userId.isBlank()) {
             throw new IllegalArgumentException("ID do usuário não pode ser nulo ou vazio.");
         }
 
@@ -134,7 +582,7 @@ public class LoanService {
     }
 
     public List<Loan> getActiveLoansbyUser(String userId) {
-        if (userId == null || userId.trim().isEmpty()) {
+        if (userId == null || userId.isBlank()) {
             throw new IllegalArgumentException("ID do usuário não pode ser nulo ou vazio.");
         }
 
@@ -142,7 +590,7 @@ public class LoanService {
     }
 
     public List<Loan> getLoansByBook(String isbn) {
-        if (isbn == null || isbn.trim().isEmpty()) {
+        if (isbn == null || isbn.isBlank()) {
             throw new IllegalArgumentException("ISBN não pode ser nulo ou vazio.");
         }
 
@@ -166,15 +614,34 @@ public class LoanService {
             throw new IllegalArgumentException("Data atual não pode ser nula.");
         }
 
-        List<Loan> activeLoans = loanRepository.findAllActive();
-        return activeLoans.stream()
-                .filter(loan -> loan.isOverdue(currentDate))
-                .toList();
+        return findLoans(LoanQuery.all().active().dueBetween(null, currentDate.minusDays(1)));
+    }
+
+    public List<Loan> findLoans(LoanQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Consulta não pode ser nula.");
+        }
+        return queryEngine.find(query);
+    }
+
+    public QueryPlan explainLoans(LoanQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Consulta não pode ser nula.");
+        }
+        return queryEngine.explain(query);
     }
 
     public LoanReportDTO generateLoanReport() {
-        
-        List<Loan> allLoans = loanRepository.findAll();
+        SnapshotManager manager = snapshotManager;
+        if (manager == null) {
+            return generateLoanReport(loanRepository.findAll());
+        }
+        try (Snapshot snapshot = manager.pin()) {
+            return generateLoanReport(snapshot.loans().findAll());
+        }
+    }
+
+    private LoanReportDTO generateLoanReport(List<Loan> allLoans) {
 
         long totalLoanCount = allLoans.size();
 
@@ -197,7 +664,7 @@ public class LoanService {
     }
 
     public boolean isLoanOverdue(String loanId) {
-        if (loanId == null || loanId.trim().isEmpty()) {
+        if (loanId == null || loanId.isBlank()) {
             throw new IllegalArgumentException("ID do empréstimo não pode ser nulo ou vazio.");
         }
 
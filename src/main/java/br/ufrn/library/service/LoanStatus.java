@@ -0,0 +1,23 @@
+package br.ufrn.library.service;
+
+public enum LoanStatus {
+    SUCCESS,
+    INVALID_REQUEST,
+    USER_NOT_FOUND,
+    BOOK_NOT_FOUND,
+    NO_COPIES_AVAILABLE,
+    LOAN_ID_IN_USE,
+    IDEMPOTENCY_KEY_REUSED,
+    ACTIVE_LIMIT_REACHED,
+    PHYSICAL_LIMIT_REACHED,
+    DIGITAL_LIMIT_REACHED,
+    BLOCKED_BY_OVERDUE,
+    NO_LICENSE_AVAILABLE,
+    LICENSE_EXHAUSTED,
+    LOAN_NOT_FOUND,
+    ALREADY_RETURNED;
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
@@ -0,0 +1,42 @@
+package br.ufrn.library.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import br.ufrn.library.exception.OptimisticLockException;
+
+/**
+ * Re-runs a read-modify-write attempt when its compare-and-set save loses a
+ * race. Each attempt must re-read what it modifies; between attempts the thread
+ * backs off for a short, randomized, exponentially growing pause.
+ */
+final class OptimisticRetry {
+
+    static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    private static final long BASE_BACKOFF_NANOS = 1_000;
+    private static final long MAX_BACKOFF_NANOS = 1_000_000;
+
+    private OptimisticRetry() {
+    }
+
+    static <T> T run(Supplier<T> attempt) {
+        return run(DEFAULT_MAX_ATTEMPTS, attempt);
+    }
+
+    static <T> T run(int maxAttempts, Supplier<T> attempt) {
+        long backoff = BASE_BACKOFF_NANOS;
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockException e) {
+                if (attemptNumber >= maxAttempts) {
+                    throw e;
+                }
+            }
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(backoff) + 1);
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+        }
+    }
+}
@@ -1,16 +1,42 @@
 package br.ufrn.library.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
 
+import br.ufrn.library.exception.OptimisticLockException;
+import br.ufrn.library.feed.ChangeEvent;
+import br.ufrn.library.feed.ChangeFeed;
+import br.ufrn.library.feed.ChangeType;
+import br.ufrn.library.feed.EntityType;
 import br.ufrn.library.model.User;
 import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.search.NameMatch;
+import br.ufrn.library.search.UserNameIndex;
 
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserNameIndex nameIndex = new UserNameIndex();
 
     public UserService(UserRepository userRepository) {
         this.userRepository = userRepository;
+        reindex();
+    }
+
+    /**
+     * Keeps the name index in step with users saved or deleted by anyone
+     * writing to the repository behind the feed, not only through this
+     * service. If the index falls behind the feed it is refreshed from the
+     * repository and follows the feed again from its head; users deleted in
+     * the gap stay indexed but are dropped from search results.
+     */
+    public void followChanges(ChangeFeed feed) {
+        if (feed == null) {
+            throw new IllegalArgumentException("Change feed cannot be null.");
+        }
+        feed.subscribe(new NameIndexUpdater(feed));
     }
 
     public User registerUser(String id, String name) {
@@ -18,7 +44,13 @@ public class UserService {
             throw new IllegalArgumentException("User with this ID already exists.");
         }
         User newUser = new User(id, name);
-        return userRepository.save(newUser);
+        try {
+            User saved = userRepository.save(newUser);
+            nameIndex.put(saved);
+            return saved;
+        } catch (OptimisticLockException e) {
+            throw new IllegalArgumentException("User with this ID already exists.");
+        }
     }
 
     public User findUserById(String id) {
@@ -29,11 +61,71 @@ public class UserService {
     public List<User> listAllUsers() {
         return userRepository.findAll();
     }
+
+    /** Users whose name words start with the query's words, falling back to near misses for typos. */
+    public List<User> searchUsersByName(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty.");
+        }
+        List<User> users = new ArrayList<>();
+        for (NameMatch match : nameIndex.search(query, limit)) {
+            userRepository.findById(match.getUserId()).ifPresent(users::add);
+        }
+        return users;
+    }
     
     public User updateUser(String id, String newName) {
-        User userToUpdate = findUserById(id);
-        userToUpdate.setName(newName);
-        
-        return userRepository.save(userToUpdate);
+        return OptimisticRetry.run(() -> {
+            User userToUpdate = findUserById(id).copy();
+            userToUpdate.setName(newName);
+
+            User saved = userRepository.save(userToUpdate);
+            // The index keeps the highest version it has seen, so a racing update cannot put back an older name.
+            nameIndex.put(saved);
+            return saved;
+        });
+    }
+
+    private void reindex() {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(nameIndex::put);
+        }
+    }
+
+    private final class NameIndexUpdater implements Flow.Subscriber<ChangeEvent<?>> {
+
+        private final ChangeFeed feed;
+
+        private NameIndexUpdater(ChangeFeed feed) {
+            this.feed = feed;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ChangeEvent<?> event) {
+            if (event.getEntityType() != EntityType.USER) {
+                return;
+            }
+            if (event.getChangeType() == ChangeType.DELETED) {
+                nameIndex.remove(event.getKey());
+            } else {
+                nameIndex.put((User) event.getEntity());
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // Subscribing before the rebuild means no write is missed; replayed ones are older versions.
+            feed.subscribe(new NameIndexUpdater(feed));
+            reindex();
+        }
+
+        @Override
+        public void onComplete() {
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+package br.ufrn.library.snapshot;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+
+/**
+ * Read-only, point-in-time view of the repositories wrapped by a
+ * {@link SnapshotManager}. Keeps the versions it can see alive until closed.
+ */
+public class Snapshot implements AutoCloseable {
+
+    private final SnapshotManager manager;
+    private final long sequence;
+    private final VersionedMap<Book> books;
+    private final VersionedMap<Loan> loans;
+    private final VersionedMap<User> users;
+    private boolean closed;
+
+    Snapshot(SnapshotManager manager, long sequence,
+             VersionedMap<Book> books, VersionedMap<Loan> loans, VersionedMap<User> users) {
+        this.manager = manager;
+        this.sequence = sequence;
+        this.books = books;
+        this.loans = loans;
+        this.users = users;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public BookRepository books() {
+        return new BookView(require(books, "book"));
+    }
+
+    public LoanRepository loans() {
+        return new LoanView(require(loans, "loan"));
+    }
+
+    public UserRepository users() {
+        return new UserView(require(users, "user"));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            manager.release(sequence);
+        }
+    }
+
+    private <V> VersionedMap<V> require(VersionedMap<V> versions, String entity) {
+        if (versions == null) {
+            throw new IllegalStateException("No " + entity + " repository is wrapped by this snapshot manager.");
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Snapshot is already closed.");
+            }
+        }
+        return versions;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Snapshots are read-only.");
+    }
+
+    private final class BookView implements BookRepository {
+        private final VersionedMap<Book> versions;
+
+        private BookView(VersionedMap<Book> versions) {
+            this.versions = versions;
+        }
+
+        @Override
+        public Book save(Book book) {
+            throw readOnly();
+        }
+
+        @Override
+        public Optional<Book> findByIsbn(String isbn) {
+            return Optional.ofNullable(isbn == null ? null : versions.read(isbn, sequence));
+        }
+
+        @Override
+        public List<Book> findAll() {
+            return versions.readAll(sequence);
+        }
+
+        @Override
+        public boolean deleteByIsbn(String isbn) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean existsByIsbn(String isbn) {
+            return findByIsbn(isbn).isPresent();
+        }
+    }
+
+    private final class UserView implements UserRepository {
+        private final VersionedMap<User> versions;
+
+        private UserView(VersionedMap<User> versions) {
+            this.versions = versions;
+        }
+
+        @Override
+        public User save(User user) {
+            throw readOnly();
+        }
+
+        @Override
+        public Optional<User> findById(String id) {
+            return Optional.ofNullable(id == null ? null : versions.read(id, sequence));
+        }
+
+        @Override
+        public List<User> findAll() {
+            return versions.readAll(sequence);
+        }
+
+        @Override
+        public boolean deleteById(String id) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean existsById(String id) {
+            return findById(id).isPresent();
+        }
+    }
+
+    private final class LoanView implements LoanRepository {
+        private final VersionedMap<Loan> versions;
+
+        private LoanView(VersionedMap<Loan> versions) {
+            this.versions = versions;
+        }
+
+        @Override
+        public Loan save(Loan loan) {
+            throw readOnly();
+        }
+
+        @Override
+        public Optional<Loan> findById(String id) {
+            return Optional.ofNullable(id == null ? null : versions.read(id, sequence));
+        }
+
+        @Override
+        public List<Loan> findAll() {
+            return versions.readAll(sequence);
+        }
+
+        @Override
+        public List<Loan> findByUserId(String userId) {
+            return filter(loan -> loan.getUser().getId().equals(userId));
+        }
+
+        @Override
+        public List<Loan> findByBookIsbn(String isbn) {
+            return filter(loan -> loan.getBook().getIsbn().equals(isbn));
+        }
+
+        @Override
+        public List<Loan> findActiveByUserId(String userId) {
+            return filter(loan -> !loan.isReturned() && loan.getUser().getId().equals(userId));
+        }
+
+        @Override
+        public List<Loan> findAllActive() {
+            return filter(loan -> !loan.isReturned());
+        }
+
+        @Override
+        public boolean deleteById(String id) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean existsById(String id) {
+            return findById(id).isPresent();
+        }
+
+        private List<Loan> filter(Predicate<Loan> predicate) {
+            return versions.readAll(sequence).stream().filter(predicate).toList();
+        }
+    }
+}
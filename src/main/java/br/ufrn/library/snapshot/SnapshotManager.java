@@ -0,0 +1,189 @@
+package br.ufrn.library.snapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+
+/**
+ * Multi-version view over the repositories it wraps. Every write made through a
+ * wrapped repository is kept as a new version stamped with a commit sequence
+ * once its transaction ends; {@link #pin()} returns a {@link Snapshot} that reads
+ * the state as of the latest commit, without locking out writers.
+ *
+ * <p>Writes issued inside {@link #inTransaction(Supplier)} become visible
+ * together. A transaction that overwrites a value still pending in another
+ * transaction is merged with it, so neither becomes visible before the other.
+ * Stored entities must not be mutated after they are saved.
+ */
+public class SnapshotManager {
+
+    private final Object commitLock = new Object();
+    private final ThreadLocal<Transaction> current = new ThreadLocal<>();
+    private final TreeMap<Long, Integer> pinned = new TreeMap<>();
+    private volatile long visibleSequence;
+    private volatile long horizon;
+
+    private VersionedMap<Book> books;
+    private VersionedMap<Loan> loans;
+    private VersionedMap<User> users;
+
+    public synchronized BookRepository wrap(BookRepository repository) {
+        if (books != null) {
+            throw new IllegalStateException("A book repository is already wrapped.");
+        }
+        books = new VersionedMap<>(this);
+        for (Book book : repository.findAll()) {
+            books.load(book.getIsbn(), book);
+        }
+        return new VersionedBookRepository(repository, books);
+    }
+
+    public synchronized LoanRepository wrap(LoanRepository repository) {
+        if (loans != null) {
+            throw new IllegalStateException("A loan repository is already wrapped.");
+        }
+        loans = new VersionedMap<>(this);
+        for (Loan loan : repository.findAll()) {
+            loans.load(loan.getId(), loan);
+        }
+        return new VersionedLoanRepository(repository, loans);
+    }
+
+    public synchronized UserRepository wrap(UserRepository repository) {
+        if (users != null) {
+            throw new IllegalStateException("A user repository is already wrapped.");
+        }
+        users = new VersionedMap<>(this);
+        for (User user : repository.findAll()) {
+            users.load(user.getId(), user);
+        }
+        return new VersionedUserRepository(repository, users);
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        if (current.get() != null) {
+            return work.get();
+        }
+        Transaction transaction = new Transaction();
+        current.set(transaction);
+        try {
+            return work.get();
+        } finally {
+            current.remove();
+            commit(transaction);
+        }
+    }
+
+    public Snapshot pin() {
+        long sequence;
+        synchronized (commitLock) {
+            sequence = visibleSequence;
+            pinned.merge(sequence, 1, Integer::sum);
+            horizon = pinned.firstKey();
+        }
+        return new Snapshot(this, sequence, books, loans, users);
+    }
+
+    public long getVisibleSequence() {
+        return visibleSequence;
+    }
+
+    public int getPinnedCount() {
+        synchronized (commitLock) {
+            int count = 0;
+            for (int pins : pinned.values()) {
+                count += pins;
+            }
+            return count;
+        }
+    }
+
+    void release(long sequence) {
+        synchronized (commitLock) {
+            pinned.computeIfPresent(sequence, (s, pins) -> pins == 1 ? null : pins - 1);
+            horizon = pinned.isEmpty() ? visibleSequence : pinned.firstKey();
+        }
+    }
+
+    long getHorizon() {
+        return horizon;
+    }
+
+    Transaction currentOrAutoCommit() {
+        Transaction transaction = current.get();
+        if (transaction == null) {
+            transaction = new Transaction();
+            transaction.autoCommit = true;
+        }
+        return transaction;
+    }
+
+    void finishAutoCommit(Transaction transaction) {
+        if (transaction.autoCommit) {
+            commit(transaction);
+        }
+    }
+
+    void stage(Transaction transaction, VersionedMap.Version<?> version, VersionedMap.Version<?> overwritten) {
+        synchronized (commitLock) {
+            version.transaction = transaction;
+            transaction.group.versions.add(version);
+            Transaction owner = overwritten == null ? null : overwritten.transaction;
+            if (owner != null && owner.group != transaction.group) {
+                merge(transaction.group, owner.group);
+            }
+        }
+    }
+
+    private static void merge(Group first, Group second) {
+        Group larger = first.versions.size() >= second.versions.size() ? first : second;
+        Group smaller = larger == first ? second : first;
+        for (Transaction member : smaller.members) {
+            member.group = larger;
+            larger.members.add(member);
+        }
+        larger.versions.addAll(smaller.versions);
+        larger.open += smaller.open;
+    }
+
+    private void commit(Transaction transaction) {
+        synchronized (commitLock) {
+            Group group = transaction.group;
+            if (--group.open > 0 || group.versions.isEmpty()) {
+                return;
+            }
+            long sequence = visibleSequence + 1;
+            for (VersionedMap.Version<?> version : group.versions) {
+                version.commitSequence = sequence;
+                version.transaction = null;
+            }
+            visibleSequence = sequence;
+            if (pinned.isEmpty()) {
+                horizon = sequence;
+            }
+        }
+    }
+
+    static final class Transaction {
+        private Group group = new Group(this);
+        private boolean autoCommit;
+    }
+
+    private static final class Group {
+        private final List<Transaction> members = new ArrayList<>(1);
+        private final List<VersionedMap.Version<?>> versions = new ArrayList<>();
+        private int open = 1;
+
+        private Group(Transaction owner) {
+            members.add(owner);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package br.ufrn.library.snapshot;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.repository.BookRepository;
+
+class VersionedBookRepository implements BookRepository {
+
+    private final BookRepository delegate;
+    private final VersionedMap<Book> versions;
+
+    VersionedBookRepository(BookRepository delegate, VersionedMap<Book> versions) {
+        this.delegate = delegate;
+        this.versions = versions;
+    }
+
+    @Override
+    public Book save(Book book) {
+        if (book == null) {
+            return delegate.save(null);
+        }
+        return versions.write(book.getIsbn(), book, () -> delegate.save(book));
+    }
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        return delegate.findByIsbn(isbn);
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public boolean deleteByIsbn(String isbn) {
+        if (isbn == null) {
+            return delegate.deleteByIsbn(null);
+        }
+        return versions.write(isbn, null, () -> delegate.deleteByIsbn(isbn));
+    }
+
+    @Override
+    public boolean existsByIsbn(String isbn) {
+        return delegate.existsByIsbn(isbn);
+    }
+}
@@ -0,0 +1,80 @@
+package br.ufrn.library.snapshot;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.repository.LoanRepository;
+
+class VersionedLoanRepository implements LoanRepository {
+
+    private final LoanRepository delegate;
+    private final VersionedMap<Loan> versions;
+
+    VersionedLoanRepository(LoanRepository delegate, VersionedMap<Loan> versions) {
+        this.delegate = delegate;
+        this.versions = versions;
+    }
+
+    @Override
+    public Loan save(Loan loan) {
+        if (loan == null) {
+            return delegate.save(null);
+        }
+        return versions.write(loan.getId(), loan, () -> delegate.save(loan));
+    }
+
+    @Override
+    public Optional<Loan> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Loan> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Loan> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Loan> streamAllActive() {
+        return delegate.streamAllActive();
+    }
+
+    @Override
+    public List<Loan> findByUserId(String userId) {
+        return delegate.findByUserId(userId);
+    }
+
+    @Override
+    public List<Loan> findByBookIsbn(String isbn) {
+        return delegate.findByBookIsbn(isbn);
+    }
+
+    @Override
+    public List<Loan> findActiveByUserId(String userId) {
+        return delegate.findActiveByUserId(userId);
+    }
+
+    @Override
+    public List<Loan> findAllActive() {
+        return delegate.findAllActive();
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        if (id == null) {
+            return delegate.deleteById(null);
+        }
+        return versions.write(id, null, () -> delegate.deleteById(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return delegate.existsById(id);
+    }
+}
@@ -0,0 +1,91 @@
+package br.ufrn.library.snapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-key chains of committed and pending values, newest first. A reader pinned
+ * at sequence {@code s} sees, for each key, the newest version committed at or
+ * before {@code s}; a {@code null} value marks a deletion.
+ */
+class VersionedMap<V> {
+
+    static final long UNCOMMITTED = Long.MAX_VALUE;
+
+    private final SnapshotManager manager;
+    private final ConcurrentHashMap<String, Version<V>> heads = new ConcurrentHashMap<>();
+
+    VersionedMap(SnapshotManager manager) {
+        this.manager = manager;
+    }
+
+    void load(String key, V value) {
+        heads.putIfAbsent(key, new Version<>(value, 0L, null));
+    }
+
+    <R> R write(String key, V value, Supplier<R> liveWrite) {
+        Object[] result = new Object[1];
+        SnapshotManager.Transaction transaction = manager.currentOrAutoCommit();
+        try {
+            heads.compute(key, (k, head) -> {
+                result[0] = liveWrite.get();
+                Version<V> version = new Version<>(value, UNCOMMITTED, head);
+                manager.stage(transaction, version, head);
+                prune(version, manager.getHorizon());
+                return version;
+            });
+        } finally {
+            manager.finishAutoCommit(transaction);
+        }
+        @SuppressWarnings("unchecked")
+        R written = (R) result[0];
+        return written;
+    }
+
+    V read(String key, long sequence) {
+        Version<V> version = heads.get(key);
+        while (version != null) {
+            if (version.commitSequence <= sequence) {
+                return version.value;
+            }
+            version = version.previous;
+        }
+        return null;
+    }
+
+    List<V> readAll(long sequence) {
+        List<V> values = new ArrayList<>();
+        for (String key : heads.keySet()) {
+            V value = read(key, sequence);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static <V> void prune(Version<V> head, long horizon) {
+        Version<V> version = head;
+        while (version != null && version.commitSequence > horizon) {
+            version = version.previous;
+        }
+        if (version != null) {
+            version.previous = null;
+        }
+    }
+
+    static final class Version<V> {
+        final V value;
+        volatile long commitSequence;
+        volatile Version<V> previous;
+        SnapshotManager.Transaction transaction;
+
+        Version(V value, long commitSequence, Version<V> previous) {
+            this.value = value;
+            this.commitSequence = commitSequence;
+            this.previous = previous;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package br.ufrn.library.snapshot;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.UserRepository;
+
+class VersionedUserRepository implements UserRepository {
+
+    private final UserRepository delegate;
+    private final VersionedMap<User> versions;
+
+    VersionedUserRepository(UserRepository delegate, VersionedMap<User> versions) {
+        this.delegate = delegate;
+        this.versions = versions;
+    }
+
+    @Override
+    public User save(User user) {
+        if (user == null) {
+            return delegate.save(null);
+        }
+        return versions.write(user.getId(), user, () -> delegate.save(user));
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        if (id == null) {
+            return delegate.deleteById(null);
+        }
+        return versions.write(id, null, () -> delegate.deleteById(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return delegate.existsById(id);
+    }
+}
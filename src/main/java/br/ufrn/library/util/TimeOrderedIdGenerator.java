@@ -0,0 +1,76 @@
+package br.ufrn.library.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates 64-bit IDs that sort by creation time: 41 bits of milliseconds
+ * since {@link #EPOCH}, a 10-bit node number and a 12-bit per-millisecond
+ * sequence. Nodes with distinct numbers never collide. Within a node, the last
+ * issued timestamp and sequence live in one {@link AtomicLong}, so IDs are
+ * strictly increasing without locking. If the clock steps back, or more than
+ * 4096 IDs are requested in one millisecond, the generator runs ahead of the
+ * clock until the clock catches up.
+ *
+ * <p>{@link #nextString()} encodes the ID as 13 Crockford base32 characters,
+ * which sort in the same order as the numbers.
+ */
+public class TimeOrderedIdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    public static final int MAX_NODE = (1 << 10) - 1;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long node;
+    private final Clock clock;
+    private final long epochMillis = EPOCH.toEpochMilli();
+    private final AtomicLong last = new AtomicLong();
+
+    public TimeOrderedIdGenerator(int node) {
+        this(node, Clock.systemUTC());
+    }
+
+    public TimeOrderedIdGenerator(int node, Clock clock) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node must be between 0 and " + MAX_NODE + ".");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null.");
+        }
+        this.node = node;
+        this.clock = clock;
+    }
+
+    public long next() {
+        long now = (clock.millis() - epochMillis) << SEQUENCE_BITS;
+        long stamp = last.accumulateAndGet(now, (previous, current) -> current > previous ? current : previous + 1);
+        long millis = stamp >>> SEQUENCE_BITS;
+        long sequence = stamp & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    public String nextString() {
+        return encode(next());
+    }
+
+    public static String encode(long id) {
+        char[] chars = new char[13];
+        for (int i = chars.length - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH.toEpochMilli());
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE);
+    }
+}
@@ -0,0 +1,93 @@
+package br.ufrn.library.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.PhysicalBook;
+
+class LoanSegmentTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackEveryLoanSortedById() throws IOException {
+        List<ArchivedLoan> loans = List.of(
+                returned("l-003", "u-2", "Bruno Costa", "978-2-01", "Duna", "Frank Herbert", true, null, 10),
+                returned("l-001", "u-1", "Alice Smith", "978-1-01", "O Senhor dos Anéis", "J.R.R. Tolkien", false,
+                        "978-1-01-C1", 0),
+                returned("l-002", "u-1", "Alice Smith", "978-1-01", "O Senhor dos Anéis", "J.R.R. Tolkien", false,
+                        "978-1-01-C2", -5));
+
+        LoanSegment.write(directory.resolve("loans.seg"), loans);
+        LoanSegment segment = LoanSegment.open(directory.resolve("loans.seg"));
+
+        assertEquals(3, segment.size());
+        assertEquals(List.of(loans.get(1), loans.get(2), loans.get(0)), segment.read());
+    }
+
+    @Test
+    void findsLoansByIdAndKeepsNamesForDeletedEntities() throws IOException {
+        ArchivedLoan loan = returned("l-010", "u-9", "João Medeiros", "978-1-04", "Cem Anos de Solidão",
+                "Gabriel García Márquez", false, "978-1-04-C3", 3);
+        LoanSegment.write(directory.resolve("loans.seg"), List.of(loan));
+        LoanSegment segment = LoanSegment.open(directory.resolve("loans.seg"));
+
+        ArchivedLoan found = segment.find("l-010");
+
+        assertEquals(loan, found);
+        assertEquals("João Medeiros", found.archivedUser().getName());
+        Book book = found.archivedBook();
+        assertTrue(book instanceof PhysicalBook);
+        assertEquals("Cem Anos de Solidão", book.getTitle());
+        assertNull(segment.find("l-011"));
+        assertTrue(segment.containsUser("u-9"));
+        assertFalse(segment.containsUser("u-1"));
+        assertTrue(segment.containsBook("978-1-04"));
+    }
+
+    @Test
+    void digitalLoansReadBackAsDigitalBooks() throws IOException {
+        LoanSegment.write(directory.resolve("loans.seg"),
+                List.of(returned("l-020", "u-3", "Carla Dias", "978-2-05", "Sapiens", "Yuval Noah Harari", true,
+                        null, 1)));
+
+        ArchivedLoan found = LoanSegment.open(directory.resolve("loans.seg")).find("l-020");
+
+        assertTrue(found.archivedBook() instanceof DigitalBook);
+        assertNull(found.copyBarcode());
+    }
+
+    @Test
+    void rejectsLoansThatWereNotReturned() {
+        ArchivedLoan active = new ArchivedLoan("l-030", "u-1", "Alice Smith", "978-1-02", "1984", "George Orwell",
+                false, DAY, DAY.plusDays(14), null, "978-1-02-C1", 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> LoanSegment.write(directory.resolve("loans.seg"), List.of(active)));
+        assertThrows(IllegalArgumentException.class,
+                () -> LoanSegment.write(directory.resolve("empty.seg"), List.of()));
+    }
+
+    private static ArchivedLoan returned(String id, String userId, String userName, String isbn, String title,
+            String author, boolean digital, String barcode, int dayOffset) {
+        LocalDate loanDate = DAY.plusDays(dayOffset);
+        return new ArchivedLoan(id, userId, userName, isbn, title, author, digital, loanDate, loanDate.plusDays(14),
+                loanDate.plusDays(7), barcode, 2);
+    }
+}
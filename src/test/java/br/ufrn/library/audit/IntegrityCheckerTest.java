@@ -0,0 +1,269 @@
+package br.ufrn.library.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.LoanRepository;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.repository.impl.JdbcBookRepository;
+import br.ufrn.library.repository.impl.JdbcConnectionPool;
+import br.ufrn.library.repository.impl.JdbcSchema;
+
+class IntegrityCheckerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private JdbcConnectionPool pool;
+    private JdbcBookRepository books;
+    private final MapUserRepository users = new MapUserRepository();
+    private final MapLoanRepository loans = new MapLoanRepository();
+    private IntegrityChecker checker;
+
+    @BeforeEach
+    void setUp() {
+        pool = new JdbcConnectionPool("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", 4);
+        JdbcSchema.create(pool);
+        books = new JdbcBookRepository(pool);
+        checker = new IntegrityChecker(books, users, loans);
+        checker.setPartitions(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void consistentLibraryHasNoDiscrepancies() {
+        PhysicalBook book = new PhysicalBook("Title", "Author", "978-1", 3);
+        User ana = new User("u-1", "Ana");
+        User bruno = new User("u-2", "Bruno");
+        lend(book, ana, "l-1");
+        lend(book, bruno, "l-2");
+        Loan returned = lend(book, ana, "l-3");
+        book.checkInCopy(returned.getCopyBarcode());
+        returned.markAsReturned(DAY.plusDays(2));
+        books.save(book);
+        users.save(ana);
+        users.save(bruno);
+
+        IntegrityReport report = checker.check();
+
+        assertTrue(report.isConsistent(), report.toString());
+        assertEquals(0, report.getSuspectCount());
+        assertEquals(1, report.getBooksScanned());
+        assertEquals(2, report.getUsersScanned());
+        assertEquals(3, report.getLoansScanned());
+    }
+
+    @Test
+    void copyStillOnLoanAfterItsReturnIsFoundAndRepaired() {
+        PhysicalBook book = new PhysicalBook("Title", "Author", "978-1", 2);
+        User ana = new User("u-1", "Ana");
+        Loan loan = lend(book, ana, "l-1");
+        loan.markAsReturned(DAY.plusDays(2));
+        books.save(book);
+        users.save(ana);
+
+        IntegrityReport found = checker.check();
+        assertEquals(List.of(new Discrepancy(Discrepancy.Kind.AVAILABLE_COPIES, "978-1",
+                "1 copies on loan, 0 active loans", false)), found.getDiscrepancies());
+
+        IntegrityReport repaired = checker.checkAndRepair();
+        assertEquals(1, repaired.getRepairedCount());
+        assertEquals(2, ((PhysicalBook) books.findByIsbn("978-1").orElseThrow()).getAvailableCopies());
+        assertTrue(checker.check().isConsistent());
+    }
+
+    @Test
+    void copyHeldForTheWrongLoanIsMovedToTheLoanThatHasIt() {
+        PhysicalBook book = new PhysicalBook("Title", "Author", "978-1", 2);
+        User ana = new User("u-1", "Ana");
+        book.checkOutCopy("l-1");
+        Loan loan = new Loan("l-1", ana, book, DAY, DAY.plusDays(14));
+        loan.assignCopy("978-1-C2");
+        ana.addLoanToHistory("l-1");
+        loans.save(loan);
+        books.save(book);
+        users.save(ana);
+
+        IntegrityReport repaired = checker.checkAndRepair();
+
+        assertEquals(Discrepancy.Kind.COPY_ASSIGNMENT, repaired.getDiscrepancies().get(0).kind());
+        assertTrue(repaired.getDiscrepancies().get(0).repaired());
+        PhysicalBook stored = (PhysicalBook) books.findByIsbn("978-1").orElseThrow();
+        assertEquals("l-1", stored.findCopy("978-1-C2").orElseThrow().getCurrentLoanId());
+        assertNull(stored.findCopy("978-1-C1").orElseThrow().getCurrentLoanId());
+        assertTrue(checker.check().isConsistent());
+    }
+
+    @Test
+    void historyGainsMissingLoansAndLosesUnknownOnes() {
+        PhysicalBook book = new PhysicalBook("Title", "Author", "978-1", 2);
+        User ana = new User("u-1", "Ana");
+        lend(book, ana, "l-1");
+        lend(book, ana, "l-2");
+        ana.removeLoanFromHistory("l-2");
+        ana.addLoanToHistory("l-ghost");
+        books.save(book);
+        users.save(ana);
+
+        IntegrityReport repaired = checker.checkAndRepair();
+
+        assertEquals(List.of(new Discrepancy(Discrepancy.Kind.LOAN_HISTORY, "u-1",
+                "1 loans missing from history, 1 unknown or duplicated entries", true)), repaired.getDiscrepancies());
+        List<String> history = users.findById("u-1").orElseThrow().getLoanHistory();
+        assertEquals(2, history.size());
+        assertTrue(history.containsAll(List.of("l-1", "l-2")));
+        assertTrue(checker.check().isConsistent());
+    }
+
+    @Test
+    void loanForAMissingBookIsReportedButLeftAlone() {
+        PhysicalBook book = new PhysicalBook("Title", "Author", "978-1", 1);
+        User ana = new User("u-1", "Ana");
+        lend(book, ana, "l-1");
+        users.save(ana);
+
+        IntegrityReport report = checker.checkAndRepair();
+
+        assertEquals(List.of(new Discrepancy(Discrepancy.Kind.UNKNOWN_BOOK, "l-1", "references book 978-1", false)),
+                report.getDiscrepancies());
+        assertEquals(0, report.getRepairedCount());
+        assertTrue(loans.existsById("l-1"));
+    }
+
+    @Test
+    void bookSavedAfterTheScanIsNotReported() {
+        PhysicalBook book = new PhysicalBook("Title", "Author", "978-1", 2);
+        User ana = new User("u-1", "Ana");
+        Loan loan = lend(book, ana, "l-1");
+        loan.markAsReturned(DAY.plusDays(2));
+        books.save(book);
+        users.save(ana);
+        loans.beforeLookup = () -> {
+            PhysicalBook fixed = (PhysicalBook) books.findByIsbn("978-1").orElseThrow();
+            fixed.checkInCopy("978-1-C1");
+            books.save(fixed);
+        };
+
+        IntegrityReport report = checker.checkAndRepair();
+
+        assertEquals(1, report.getSuspectCount());
+        assertTrue(report.isConsistent());
+        assertNull(((PhysicalBook) books.findByIsbn("978-1").orElseThrow()).findCopy("978-1-C1")
+                .orElseThrow().getCurrentLoanId());
+    }
+
+    private Loan lend(PhysicalBook book, User user, String loanId) {
+        Loan loan = new Loan(loanId, user, book, DAY, DAY.plusDays(14));
+        loan.assignCopy(book.checkOutCopy(loanId));
+        user.addLoanToHistory(loanId);
+        loans.save(loan);
+        return loan;
+    }
+
+    private static final class MapUserRepository implements UserRepository {
+
+        private final Map<String, User> users = new ConcurrentHashMap<>();
+
+        @Override
+        public User save(User user) {
+            User stored = user.copy();
+            stored.setVersion(user.getVersion() + 1);
+            users.put(stored.getId(), stored);
+            return stored;
+        }
+
+        @Override
+        public Optional<User> findById(String id) {
+            return Optional.ofNullable(users.get(id)).map(User::copy);
+        }
+
+        @Override
+        public List<User> findAll() {
+            return users.values().stream().map(User::copy).toList();
+        }
+
+        @Override
+        public boolean deleteById(String id) {
+            return users.remove(id) != null;
+        }
+
+        @Override
+        public boolean existsById(String id) {
+            return users.containsKey(id);
+        }
+    }
+
+    private static final class MapLoanRepository implements LoanRepository {
+
+        private final Map<String, Loan> loans = new ConcurrentHashMap<>();
+        private Runnable beforeLookup;
+
+        @Override
+        public Loan save(Loan loan) {
+            loans.put(loan.getId(), loan);
+            return loan;
+        }
+
+        @Override
+        public Optional<Loan> findById(String id) {
+            return Optional.ofNullable(loans.get(id));
+        }
+
+        @Override
+        public List<Loan> findAll() {
+            return new ArrayList<>(loans.values());
+        }
+
+        @Override
+        public List<Loan> findByUserId(String userId) {
+            return loans.values().stream().filter(loan -> loan.getUser().getId().equals(userId)).toList();
+        }
+
+        @Override
+        public List<Loan> findByBookIsbn(String isbn) {
+            if (beforeLookup != null) {
+                beforeLookup.run();
+            }
+            return loans.values().stream().filter(loan -> loan.getBook().getIsbn().equals(isbn)).toList();
+        }
+
+        @Override
+        public List<Loan> findActiveByUserId(String userId) {
+            return findByUserId(userId).stream().filter(loan -> !loan.isReturned()).toList();
+        }
+
+        @Override
+        public List<Loan> findAllActive() {
+            return loans.values().stream().filter(loan -> !loan.isReturned()).toList();
+        }
+
+        @Override
+        public boolean deleteById(String id) {
+            return loans.remove(id) != null;
+        }
+
+        @Override
+        public boolean existsById(String id) {
+            return loans.containsKey(id);
+        }
+    }
+}
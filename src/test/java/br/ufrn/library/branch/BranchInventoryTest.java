@@ -0,0 +1,99 @@
+package br.ufrn.library.branch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.service.LoanStatus;
+
+class BranchInventoryTest {
+
+    private static final String ISBN = "978-1";
+
+    private final BranchInventory inventory = new BranchInventory();
+    private final PhysicalBook book = new PhysicalBook("Title", "Author", ISBN, 10);
+    private final User user = new User("u-1", "Ana");
+
+    @BeforeEach
+    void setUp() {
+        inventory.registerBranch(new Branch("central", "Central", -5.8402, -35.1996));
+        inventory.registerBranch(new Branch("norte", "Zona Norte", -5.7467, -35.2507));
+        inventory.registerBranch(new Branch("parnamirim", "Parnamirim", -5.9156, -35.2628));
+    }
+
+    @Test
+    void checkoutAtABranchTakesItsCopyAndReturnShelvesItWhereItCameBack() {
+        inventory.allocateCopies(ISBN, "central", 1);
+
+        Loan loan = checkOutAt("central", "l-1");
+        assertEquals(0, inventory.getAvailableCopies(ISBN, "central"));
+        assertEquals(LoanStatus.NO_COPIES_AVAILABLE,
+                inventory.atBranch("central", () -> inventory.beforeLoanCreated(user, book)));
+
+        inventory.atBranch("norte", () -> {
+            inventory.onLoanReturned(loan);
+            return null;
+        });
+
+        assertEquals(0, inventory.getOwnedCopies(ISBN, "central"));
+        assertEquals(1, inventory.getAvailableCopies(ISBN, "norte"));
+        assertEquals(1, inventory.getAllocatedCopies(ISBN));
+    }
+
+    @Test
+    void failedLoanPutsTheCopyBack() {
+        inventory.allocateCopies(ISBN, "norte", 1);
+
+        assertEquals(LoanStatus.SUCCESS, inventory.beforeLoanCreated(user, book));
+        inventory.onLoanCreationFailed(user, book);
+
+        assertEquals(1, inventory.getAvailableCopies(ISBN, "norte"));
+    }
+
+    @Test
+    void nearestBranchWithACopyIsFoundAndShippedFrom() {
+        inventory.allocateCopies(ISBN, "central", 1);
+        inventory.allocateCopies(ISBN, "parnamirim", 1);
+
+        assertEquals("central", inventory.findNearestWithCopy(ISBN, "norte").orElseThrow().getId());
+
+        Transfer transfer = inventory.requestTransferFromNearest(ISBN, "norte").orElseThrow();
+        assertEquals("central", transfer.from().getId());
+        assertEquals(1, inventory.getCopiesInTransit(ISBN));
+        assertEquals(2, inventory.getAllocatedCopies(ISBN));
+
+        inventory.completeTransfer(transfer.id());
+        assertEquals(List.of("norte", "parnamirim"),
+                inventory.findBranchesWithCopy(ISBN).stream().map(Branch::getId).toList());
+        assertTrue(inventory.getPendingTransfers().isEmpty());
+    }
+
+    @Test
+    void allocationCannotDropCopiesOnLoan() {
+        inventory.allocateCopies(ISBN, "central", 2);
+        checkOutAt("central", "l-1");
+        checkOutAt("central", "l-2");
+
+        assertThrows(IllegalStateException.class, () -> inventory.allocateCopies(ISBN, "central", 1));
+        assertThrows(IllegalStateException.class, () -> inventory.requestTransfer(ISBN, "central", "norte"));
+    }
+
+    private Loan checkOutAt(String branchId, String loanId) {
+        Loan loan = new Loan(loanId, user, book, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15));
+        inventory.atBranch(branchId, () -> {
+            assertEquals(LoanStatus.SUCCESS, inventory.beforeLoanCreated(user, book));
+            inventory.onLoanCreated(loan);
+            return null;
+        });
+        return loan;
+    }
+}
@@ -0,0 +1,132 @@
+package br.ufrn.library.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheTest {
+
+    private final ManualClock clock = new ManualClock();
+
+    @Test
+    void frequentKeysSurviveAScanOfOneHitKeys() {
+        TinyLfuCache<Integer, String> cache = cache(100, Duration.ZERO);
+        for (int key = 0; key < 50; key++) {
+            cache.put(key, "hot-" + key);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int key = 0; key < 50; key++) {
+                cache.get(key, k -> "reloaded");
+            }
+        }
+
+        for (int key = 1_000; key < 1_500; key++) {
+            cache.put(key, "scan-" + key);
+        }
+
+        // The sketch is approximate, so a few hot keys may lose to a colliding scan key.
+        assertTrue(cache.size() <= 100);
+        int survivors = 0;
+        for (int key = 0; key < 50; key++) {
+            if (("hot-" + key).equals(cache.get(key, k -> null))) {
+                survivors++;
+            }
+        }
+        assertTrue(survivors >= 45, "hot keys left: " + survivors);
+        assertTrue(cache.getStats().getEvictionCount() >= 400);
+    }
+
+    @Test
+    void loadsOnlyOnMiss() {
+        TinyLfuCache<String, String> cache = cache(10, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", k -> "value-" + loads.incrementAndGet());
+        String second = cache.get("a", k -> "value-" + loads.incrementAndGet());
+
+        assertEquals("value-1", second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().getHitCount());
+        assertEquals(1, cache.getStats().getMissCount());
+    }
+
+    @Test
+    void entriesExpireAfterTheirTimeToLive() {
+        TinyLfuCache<String, String> cache = cache(10, Duration.ofSeconds(5));
+        cache.put("a", "value");
+        cache.get("missing", k -> null);
+
+        clock.advance(Duration.ofSeconds(6));
+        assertEquals("value", cache.get("a", k -> "reloaded"));
+        assertEquals("found", cache.get("missing", k -> "found"));
+
+        clock.advance(Duration.ofMinutes(2));
+        assertEquals("reloaded", cache.get("a", k -> "reloaded"));
+        assertEquals(2, cache.getStats().getExpirationCount());
+    }
+
+    @Test
+    void negativeEntriesAreCachedWhenEnabled() {
+        TinyLfuCache<String, String> cache = cache(10, Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get("missing", k -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get("missing", k -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().getNegativeHitCount());
+    }
+
+    @Test
+    void invalidatedKeysAreLoadedAgain() {
+        TinyLfuCache<String, String> cache = cache(10, Duration.ZERO);
+        cache.put("a", "old");
+
+        cache.invalidate("a");
+
+        assertEquals("new", cache.get("a", k -> "new"));
+    }
+
+    private <K, V> TinyLfuCache<K, V> cache(int maximumSize, Duration negativeTimeToLive) {
+        return new TinyLfuCache<>(maximumSize, Duration.ofMinutes(1), negativeTimeToLive, null, clock);
+    }
+
+    private static final class ManualClock extends Clock {
+
+        private Instant now = Instant.parse("2024-03-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return Clock.fixed(now, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
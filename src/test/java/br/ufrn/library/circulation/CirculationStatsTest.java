@@ -0,0 +1,138 @@
+package br.ufrn.library.circulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+
+class CirculationStatsTest {
+
+    private final MutableClock clock = new MutableClock(ZoneOffset.UTC);
+    private final CirculationStats stats = new CirculationStats(clock);
+
+    @Test
+    void windowCoversTheCurrentBucketAndThoseBeforeIt() {
+        stats.onLoanCreated(loan("978-1"));
+        stats.onLoanCreated(loan("978-1"));
+        clock.advance(Duration.ofMinutes(1));
+        stats.onLoanCreated(loan("978-2"));
+        stats.onLoanReturned(loan("978-1"));
+
+        assertEquals(new CirculationCounts(1, 1), stats.getOverall(Resolution.MINUTE, 1));
+        assertEquals(new CirculationCounts(3, 1), stats.getOverall(Resolution.MINUTE, 2));
+        assertEquals(new CirculationCounts(3, 1), stats.getOverall(Resolution.HOUR, 1));
+        assertEquals(List.of(new CirculationCounts(0, 0), new CirculationCounts(2, 0), new CirculationCounts(1, 1)),
+                stats.getOverallSeries(Resolution.MINUTE, 3));
+    }
+
+    @Test
+    void eventsLeaveTheWindowAsTimeMovesOn() {
+        stats.onLoanCreated(loan("978-1"));
+        clock.advance(Duration.ofMinutes(90));
+        stats.onLoanReturned(loan("978-1"));
+
+        assertEquals(new CirculationCounts(0, 1), stats.getForIsbn("978-1", Resolution.MINUTE, 60));
+        assertEquals(new CirculationCounts(1, 1), stats.getForIsbn("978-1", Resolution.HOUR, 2));
+
+        clock.advance(Duration.ofDays(10));
+        assertEquals(new CirculationCounts(0, 0), stats.getOverall(Resolution.MINUTE, 24 * 60));
+        assertEquals(new CirculationCounts(0, 0), stats.getOverall(Resolution.DAY, 10));
+        assertEquals(new CirculationCounts(1, 1), stats.getOverall(Resolution.DAY, 11));
+    }
+
+    @Test
+    void titlesAreCountedSeparately() {
+        stats.onLoanCreated(loan("978-1"));
+        stats.onLoanCreated(loan("978-2"));
+        stats.onLoanCreated(loan("978-2"));
+
+        assertEquals(new CirculationCounts(1, 0), stats.getForIsbn("978-1", Resolution.DAY, 1));
+        assertEquals(new CirculationCounts(2, 0), stats.getForIsbn("978-2", Resolution.DAY, 1));
+        assertEquals(new CirculationCounts(0, 0), stats.getForIsbn("978-3", Resolution.DAY, 1));
+        assertEquals(List.of(new CirculationCounts(0, 0), new CirculationCounts(0, 0)),
+                stats.getSeriesForIsbn("978-3", Resolution.HOUR, 2));
+        assertEquals(new CirculationCounts(3, 0), stats.getOverall(Resolution.DAY, 1));
+    }
+
+    @Test
+    void idleTitlesAreDropped() {
+        stats.onLoanCreated(loan("978-1"));
+        clock.advance(Duration.ofDays(80));
+        stats.onLoanCreated(loan("978-2"));
+        clock.advance(Duration.ofDays(11));
+
+        stats.pruneIdleTitles();
+
+        assertEquals(1, stats.getTrackedTitleCount());
+        assertEquals(new CirculationCounts(1, 0), stats.getForIsbn("978-2", Resolution.DAY, 90));
+        assertEquals(new CirculationCounts(2, 0), stats.getOverall(Resolution.DAY, 92));
+    }
+
+    @Test
+    void daysFollowTheClockTimeZone() {
+        MutableClock local = new MutableClock(ZoneId.of("America/Fortaleza"));
+        local.now = Instant.parse("2024-03-02T02:30:00Z");
+        CirculationStats localStats = new CirculationStats(local);
+
+        localStats.onLoanCreated(loan("978-1"));
+        local.advance(Duration.ofHours(1));
+        localStats.onLoanCreated(loan("978-1"));
+
+        assertEquals(List.of(new CirculationCounts(1, 0), new CirculationCounts(1, 0)),
+                localStats.getOverallSeries(Resolution.DAY, 2));
+    }
+
+    @Test
+    void windowLongerThanTheHistoryKeptIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> stats.getOverall(Resolution.MINUTE, 24 * 60 + 1));
+        assertThrows(IllegalArgumentException.class, () -> stats.getForIsbn("978-1", Resolution.MINUTE, 61));
+        assertThrows(IllegalArgumentException.class, () -> stats.getOverallSeries(Resolution.DAY, 0));
+    }
+
+    private static Loan loan(String isbn) {
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        return new Loan("l-" + isbn, new User("u-1", "Ana"), new PhysicalBook("Title", "Author", isbn, 1),
+                day, day.plusDays(14));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final ZoneId zone;
+        private volatile Instant now = Instant.parse("2024-03-01T10:00:00Z");
+
+        private MutableClock(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return Clock.fixed(now, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
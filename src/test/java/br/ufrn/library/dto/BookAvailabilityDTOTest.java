@@ -0,0 +1,47 @@
+package br.ufrn.library.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.branch.Branch;
+import br.ufrn.library.branch.BranchStock;
+import br.ufrn.library.model.PhysicalBook;
+
+class BookAvailabilityDTOTest {
+
+    private final Branch central = new Branch("central", "Central", -5.8402, -35.1996);
+    private final Branch norte = new Branch("norte", "Zona Norte", -5.7467, -35.2507);
+
+    @Test
+    void totalIncludesCopiesNotAllocatedToAnyBranch() {
+        PhysicalBook book = new PhysicalBook("Title", "Author", "978-1", 10);
+        book.registerLoan();
+
+        BookAvailabilityDTO dto = new BookAvailabilityDTO(book,
+                List.of(new BranchStock(central, 2, 3), new BranchStock(norte, 2, 2)), 1);
+
+        assertEquals("9 / 10", dto.getAvailability());
+        assertEquals("Central 2/3, Zona Norte 2/2 (1 em trânsito) (4 sem filial)", dto.getBranchAvailability());
+    }
+
+    @Test
+    void fullyAllocatedTitleShowsOnlyTheBranches() {
+        PhysicalBook book = new PhysicalBook("Title", "Author", "978-1", 2);
+
+        BookAvailabilityDTO dto = new BookAvailabilityDTO(book, List.of(new BranchStock(central, 2, 2)), 0);
+
+        assertEquals("2 / 2", dto.getAvailability());
+        assertEquals("Central 2/2", dto.getBranchAvailability());
+    }
+
+    @Test
+    void titleWithoutBranchStockHasNoBreakdown() {
+        BookAvailabilityDTO dto = new BookAvailabilityDTO(new PhysicalBook("Title", "Author", "978-1", 3));
+
+        assertEquals("3 / 3", dto.getAvailability());
+        assertEquals("", dto.getBranchAvailability());
+    }
+}
@@ -0,0 +1,64 @@
+package br.ufrn.library.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RecordWriterTest {
+
+    private static final List<String> COLUMNS = List.of("id", "title", "loans", "due");
+
+    @Test
+    void csvQuotesOnlyFieldsThatNeedIt() throws Exception {
+        StringWriter out = new StringWriter();
+        RecordWriter records = RecordWriter.create(ExportFormat.CSV, out, COLUMNS);
+
+        records.begin();
+        records.write("978-1", "Dom Casmurro", 3, LocalDate.of(2024, 3, 15));
+        records.write("978-2", "Contos, \"Vol. 1\"\nEdição", 0, null);
+        records.end();
+
+        assertEquals("id,title,loans,due\n"
+                + "978-1,Dom Casmurro,3,2024-03-15\n"
+                + "978-2,\"Contos, \"\"Vol. 1\"\"\nEdição\",0,\n", out.toString());
+    }
+
+    @Test
+    void jsonWritesOneObjectPerRow() throws Exception {
+        StringWriter out = new StringWriter();
+        RecordWriter records = RecordWriter.create(ExportFormat.JSON, out, COLUMNS);
+
+        records.begin();
+        records.write("978-1", "Dom \"Casmurro\"\t\\", 3, LocalDate.of(2024, 3, 15));
+        records.write("978-2", "Linha\u0001", 0, null);
+        records.end();
+
+        assertEquals("[\n"
+                + "{\"id\":\"978-1\",\"title\":\"Dom \\\"Casmurro\\\"\\t\\\\\",\"loans\":3,\"due\":\"2024-03-15\"},\n"
+                + "{\"id\":\"978-2\",\"title\":\"Linha\\u0001\",\"loans\":0,\"due\":null}\n"
+                + "]\n", out.toString());
+    }
+
+    @Test
+    void emptyJsonExportIsAnEmptyArray() throws Exception {
+        StringWriter out = new StringWriter();
+        RecordWriter records = RecordWriter.create(ExportFormat.JSON, out, COLUMNS);
+
+        records.begin();
+        records.end();
+
+        assertEquals("[]\n", out.toString());
+    }
+
+    @Test
+    void rowWithTheWrongNumberOfValuesIsRejected() {
+        RecordWriter records = RecordWriter.create(ExportFormat.CSV, new StringWriter(), COLUMNS);
+
+        assertThrows(IllegalArgumentException.class, () -> records.write("978-1", "Title"));
+    }
+}
@@ -0,0 +1,127 @@
+package br.ufrn.library.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.ufrn.library.exception.DataAccessException;
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.impl.JdbcBookRepository;
+import br.ufrn.library.repository.impl.JdbcConnectionPool;
+import br.ufrn.library.repository.impl.JdbcLoanRepository;
+import br.ufrn.library.repository.impl.JdbcSchema;
+import br.ufrn.library.repository.impl.JdbcUserRepository;
+
+class ReportExporterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path directory;
+
+    private JdbcConnectionPool pool;
+    private ReportExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        pool = new JdbcConnectionPool("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", 4);
+        JdbcSchema.create(pool);
+        JdbcUserRepository users = new JdbcUserRepository(pool);
+        JdbcBookRepository books = new JdbcBookRepository(pool);
+        JdbcLoanRepository loans = new JdbcLoanRepository(pool, users, books);
+        exporter = new ReportExporter(loans, books, users);
+
+        User ana = users.save(new User("u-1", "Ana"));
+        User bruno = users.save(new User("u-2", "Bruno, o Leitor"));
+        Book casmurro = books.save(new PhysicalBook("Dom Casmurro", "Machado de Assis", "978-1", 2));
+        Book iracema = books.save(new DigitalBook("Iracema", "José de Alencar", "978-2"));
+        Loan returned = new Loan("l-1", ana, casmurro, DAY, DAY.plusDays(14));
+        returned.assignCopy("978-1-C1");
+        returned.markAsReturned(DAY.plusDays(3));
+        loans.save(returned);
+        loans.save(new Loan("l-2", bruno, iracema, DAY.plusDays(1), DAY.plusDays(15)));
+        loans.save(new Loan("l-3", ana, iracema, DAY.plusDays(2), DAY.plusDays(16)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void activeLoansAreExportedAsCsv() throws IOException {
+        ExportResult result = exporter.exportTo(ReportType.ACTIVE_LOANS, directory, ExportFormat.CSV, false);
+
+        assertEquals(directory.resolve("active.csv"), result.getFile());
+        assertEquals(2, result.getRows());
+        assertEquals(Files.size(result.getFile()), result.getBytes());
+        List<String> lines = Files.readAllLines(result.getFile());
+        assertEquals("id,userId,userName,isbn,title,copyBarcode,loanDate,dueDate,returnDate,returned", lines.get(0));
+        assertTrue(lines.contains("l-2,u-2,\"Bruno, o Leitor\",978-2,Iracema,,2024-03-02,2024-03-16,,false"));
+        assertTrue(lines.contains("l-3,u-1,Ana,978-2,Iracema,,2024-03-03,2024-03-17,,false"));
+        assertEquals(3, lines.size());
+    }
+
+    @Test
+    void summaryListsTheMostBorrowedTitleFirst() throws IOException {
+        ExportResult result = exporter.exportTo(ReportType.LOAN_SUMMARY, directory, ExportFormat.JSON, false);
+
+        assertEquals("[\n"
+                + "{\"isbn\":\"978-2\",\"title\":\"Iracema\",\"loans\":2},\n"
+                + "{\"isbn\":\"978-1\",\"title\":\"Dom Casmurro\",\"loans\":1}\n"
+                + "]\n", Files.readString(result.getFile()));
+    }
+
+    @Test
+    void gzipExportDecompressesToTheSameRows() throws IOException {
+        ExportResult plain = exporter.exportTo(ReportType.USERS, directory, ExportFormat.JSON, false);
+        ExportResult compressed = exporter.exportTo(ReportType.USERS, directory, ExportFormat.JSON, true);
+
+        assertEquals(directory.resolve("users.json.gz"), compressed.getFile());
+        assertTrue(compressed.isCompressed());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed.getFile()))) {
+            assertEquals(Files.readString(plain.getFile()), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertTrue(Files.readString(plain.getFile()).contains("{\"id\":\"u-1\",\"name\":\"Ana\",\"loans\":2}"));
+    }
+
+    @Test
+    void failedExportLeavesNoFileBehind() {
+        Path missing = directory.resolve("missing").resolve("history.csv");
+
+        assertThrows(DataAccessException.class,
+                () -> exporter.export(ReportType.LOAN_HISTORY, missing, ExportFormat.CSV, false));
+
+        assertFalse(Files.exists(missing));
+        assertFalse(Files.exists(missing.resolveSibling("history.csv.tmp")));
+    }
+
+    @Test
+    void reportsAndFormatsAreLookedUpByName() {
+        assertEquals(ReportType.LOAN_HISTORY, ReportType.fromKey("history"));
+        assertEquals(ExportFormat.JSON, ExportFormat.fromExtension("JSON"));
+        assertEquals("availability.csv.gz", ReportType.AVAILABILITY.fileName(ExportFormat.CSV, true));
+        assertThrows(IllegalArgumentException.class, () -> ReportType.fromKey("fines"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromExtension("xml"));
+    }
+}
@@ -0,0 +1,105 @@
+package br.ufrn.library.feed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.exception.FeedOverflowException;
+
+class ChangeFeedTest {
+
+    private final ChangeFeed feed = new ChangeFeed(8, Runnable::run, Clock.systemUTC());
+
+    @Test
+    void deliversOnlyWhatWasRequested() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        feed.subscribe(subscriber);
+        for (int i = 0; i < 3; i++) {
+            feed.publish(EntityType.USER, ChangeType.SAVED, "u-" + i, null);
+        }
+        assertEquals(List.of(), subscriber.keys);
+
+        subscriber.subscription.request(2);
+        assertEquals(List.of("u-0", "u-1"), subscriber.keys);
+
+        subscriber.subscription.request(5);
+        feed.publish(EntityType.USER, ChangeType.DELETED, "u-3", null);
+        assertEquals(List.of("u-0", "u-1", "u-2", "u-3"), subscriber.keys);
+    }
+
+    @Test
+    void subscriberThatFallsBehindIsToldWhereToResume() {
+        RecordingSubscriber slow = new RecordingSubscriber();
+        feed.subscribe(slow, 0, 4);
+        for (int i = 0; i < 5; i++) {
+            feed.publish(EntityType.BOOK, ChangeType.SAVED, "b-" + i, null);
+        }
+
+        FeedOverflowException overflow = assertInstanceOf(FeedOverflowException.class, slow.error);
+        assertEquals(0, overflow.getResumeOffset());
+        assertEquals(0, feed.getSubscriberCount());
+
+        RecordingSubscriber resumed = new RecordingSubscriber();
+        feed.subscribe(resumed, overflow.getResumeOffset());
+        resumed.subscription.request(Long.MAX_VALUE);
+        assertEquals(List.of("b-0", "b-1", "b-2", "b-3", "b-4"), resumed.keys);
+        assertNull(resumed.error);
+    }
+
+    @Test
+    void offsetsOlderThanTheRetainedLogCannotBeResumed() {
+        for (int i = 0; i < 10; i++) {
+            feed.publish(EntityType.BOOK, ChangeType.SAVED, "b-" + i, null);
+        }
+        RecordingSubscriber late = new RecordingSubscriber();
+
+        feed.subscribe(late, 0);
+
+        assertEquals(2, feed.getOldestRetainedOffset());
+        assertEquals(2, assertInstanceOf(FeedOverflowException.class, late.error).getResumeOffset());
+    }
+
+    @Test
+    void invalidRequestFailsTheSubscription() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        feed.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertEquals(0, feed.getSubscriberCount());
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<ChangeEvent<?>> {
+
+        private final List<String> keys = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ChangeEvent<?> event) {
+            keys.add(event.getKey());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package br.ufrn.library.fine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+
+class FineEngineTest {
+
+    private static final LocalDate LOANED = LocalDate.of(2024, 3, 1);
+    private static final LocalDate DUE = LOANED.plusDays(14);
+
+    private final User user = new User("u-1", "Ana");
+    private final FineEngine engine = new FineEngine(new FinePolicy(100, 1_000, 1), new FinePolicy(50, 500, 0));
+
+    @Test
+    void nightlyAccrualChargesOnlyTheNewDays() {
+        Loan loan = physicalLoan("l-1");
+        engine.onOverdue(loan, DUE.plusDays(3));
+
+        assertEquals(200, engine.getAccruedFineInCents("l-1"));
+        assertEquals(100, engine.accrueAll(DUE.plusDays(4)));
+        assertEquals(0, engine.accrueAll(DUE.plusDays(4)));
+        assertEquals(300, engine.getOutstandingBalanceInCents("u-1"));
+    }
+
+    @Test
+    void fineStopsAtTheCap() {
+        engine.onOverdue(physicalLoan("l-1"), DUE.plusDays(2));
+
+        engine.accrueAll(DUE.plusDays(60));
+
+        assertEquals(1_000, engine.getOutstandingBalanceInCents("u-1"));
+    }
+
+    @Test
+    void digitalLoansUseTheirOwnPolicy() {
+        Loan loan = new Loan("l-1", user, new DigitalBook("Title", "Author", "978-2"), LOANED, DUE);
+
+        engine.onOverdue(loan, DUE.plusDays(3));
+
+        assertEquals(150, engine.getOutstandingBalanceInCents("u-1"));
+    }
+
+    @Test
+    void returnSettlesUpToTheReturnDateAndClosesTheAccount() {
+        Loan loan = physicalLoan("l-1");
+        engine.onOverdue(loan, DUE.plusDays(2));
+
+        engine.onLoanReturned(returned("l-1", DUE.plusDays(5)));
+        engine.accrueAll(DUE.plusDays(10));
+
+        assertEquals(400, engine.getOutstandingBalanceInCents("u-1"));
+        assertEquals(0, engine.getAccruingCount());
+    }
+
+    @Test
+    void lateOverdueEventDoesNotReopenAReturnedLoan() {
+        Loan stale = physicalLoan("l-1");
+
+        engine.onLoanReturned(returned("l-1", DUE.plusDays(3)));
+        engine.onOverdue(stale, DUE.plusDays(3));
+        engine.accrueAll(DUE.plusDays(6));
+
+        assertEquals(200, engine.getOutstandingBalanceInCents("u-1"));
+        assertEquals(0, engine.getAccruingCount());
+    }
+
+    @Test
+    void closedAccountsAreForgottenAfterAWeek() {
+        engine.onLoanReturned(returned("l-1", DUE.plusDays(3)));
+        assertEquals(200, engine.getAccruedFineInCents("l-1"));
+
+        engine.accrueAll(DUE.plusDays(11));
+
+        assertEquals(0, engine.getAccruedFineInCents("l-1"));
+        assertEquals(200, engine.getOutstandingBalanceInCents("u-1"));
+    }
+
+    @Test
+    void paymentsReduceTheBalance() {
+        engine.onOverdue(physicalLoan("l-1"), DUE.plusDays(3));
+
+        engine.payFine("u-1", 150);
+
+        assertEquals(50, engine.getOutstandingBalanceInCents("u-1"));
+    }
+
+    private Loan physicalLoan(String id) {
+        return new Loan(id, user, new PhysicalBook("Title", "Author", "978-1", 1), LOANED, DUE);
+    }
+
+    private Loan returned(String id, LocalDate returnDate) {
+        Loan loan = physicalLoan(id);
+        loan.markAsReturned(returnDate);
+        return loan;
+    }
+}
@@ -0,0 +1,78 @@
+package br.ufrn.library.license;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.dto.BookAvailabilityDTO;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+import br.ufrn.library.service.LoanStatus;
+
+class LicensePoolManagerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private final LicensePoolManager manager =
+            new LicensePoolManager(Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    private final DigitalBook licensed = new DigitalBook("Licensed", "Author", "978-2-01");
+    private final User user = new User("u-1", "Ana");
+
+    @Test
+    void lendHoldsASeatUntilItIsReturned() {
+        manager.registerLicense(licensed.getIsbn(), LicenseTerms.concurrent(1));
+        Loan loan = lend("l-1");
+
+        assertEquals(LoanStatus.NO_LICENSE_AVAILABLE, manager.beforeLoanCreated(user, licensed));
+        manager.onLoanReturned(loan);
+
+        assertEquals(1, manager.getAvailableSeats(licensed.getIsbn()));
+        assertEquals(0, manager.getActiveLeaseCount());
+    }
+
+    @Test
+    void seatIsReleasedWhenTheLendExpires() {
+        manager.registerLicense(licensed.getIsbn(), LicenseTerms.concurrent(1));
+        List<String> expired = new ArrayList<>();
+        manager.addListener((loan, expiredOn) -> expired.add(loan.getId() + "@" + expiredOn));
+        lend("l-1");
+
+        assertEquals(0, manager.advanceTo(TODAY.plusDays(13)));
+        assertEquals(1, manager.advanceTo(TODAY.plusDays(14)));
+
+        assertEquals(List.of("l-1@" + TODAY.plusDays(14)), expired);
+        assertEquals(1, manager.getAvailableSeats(licensed.getIsbn()));
+    }
+
+    @Test
+    void unlicensedDigitalTitleIsUnlimited() {
+        DigitalBook free = new DigitalBook("Free", "Author", "978-2-99");
+
+        assertEquals(LoanStatus.SUCCESS, manager.beforeLoanCreated(user, free));
+        assertEquals(Integer.MAX_VALUE, manager.getAvailableSeats(free.getIsbn()));
+        assertEquals("Sempre disponível", new BookAvailabilityDTO(free, List.of(), 0, manager).getAvailability());
+    }
+
+    @Test
+    void availabilityReportShowsTheRemainingSeats() {
+        manager.registerLicense(licensed.getIsbn(), LicenseTerms.concurrent(2));
+        lend("l-1");
+        lend("l-2");
+
+        assertEquals("0 / 2 licenças", new BookAvailabilityDTO(licensed, List.of(), 0, manager).getAvailability());
+    }
+
+    private Loan lend(String loanId) {
+        assertEquals(LoanStatus.SUCCESS, manager.beforeLoanCreated(user, licensed));
+        Loan loan = new Loan(loanId, user, licensed, TODAY, TODAY.plusDays(14));
+        manager.onLoanCreated(loan);
+        return loan;
+    }
+}
@@ -0,0 +1,74 @@
+package br.ufrn.library.license;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.license.LicensePool.Decision;
+
+class LicensePoolTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    @Test
+    void seatsAreLimitedToTheConcurrentTerms() {
+        LicensePool pool = new LicensePool(LicenseTerms.concurrent(2));
+
+        assertEquals(Decision.GRANTED, pool.tryAcquire(TODAY));
+        assertEquals(Decision.GRANTED, pool.tryAcquire(TODAY));
+        assertEquals(Decision.NO_SEAT_AVAILABLE, pool.tryAcquire(TODAY));
+        assertEquals(0, pool.getAvailableSeats(TODAY));
+
+        pool.release();
+        assertEquals(1, pool.getAvailableSeats(TODAY));
+        assertEquals(Decision.GRANTED, pool.tryAcquire(TODAY));
+    }
+
+    @Test
+    void meteredLicenseRunsOutOfCheckouts() {
+        LicensePool pool = new LicensePool(new LicenseTerms(5, 2, null));
+        pool.tryAcquire(TODAY);
+        pool.release();
+        pool.tryAcquire(TODAY);
+        pool.release();
+
+        assertEquals(Decision.CHECKOUTS_EXHAUSTED, pool.tryAcquire(TODAY));
+        assertEquals(0, pool.getAvailableSeats(TODAY));
+    }
+
+    @Test
+    void expiredLicenseGrantsNothing() {
+        LicensePool pool = new LicensePool(new LicenseTerms(3, 0, TODAY.minusDays(1)));
+
+        assertEquals(Decision.EXPIRED, pool.tryAcquire(TODAY));
+        assertEquals(0, pool.getAvailableSeats(TODAY));
+    }
+
+    @Test
+    void releasingMoreSeatsThanInUseIsRejected() {
+        LicensePool pool = new LicensePool(LicenseTerms.concurrent(2));
+        pool.tryAcquire(TODAY);
+        pool.release();
+
+        assertThrows(IllegalStateException.class, pool::release);
+        assertThrows(IllegalStateException.class, pool::cancelAcquire);
+        assertEquals(0, pool.getSeatsInUse());
+        assertEquals(1, pool.getCheckoutsUsed());
+    }
+
+    @Test
+    void cancellingAfterARenewalKeepsTheNewCheckoutCount() {
+        LicensePool pool = new LicensePool(new LicenseTerms(2, 10, null));
+        pool.tryAcquire(TODAY);
+
+        pool.setTerms(new LicenseTerms(2, 10, null));
+        pool.cancelAcquire();
+
+        assertEquals(0, pool.getSeatsInUse());
+        assertEquals(0, pool.getCheckoutsUsed());
+        assertEquals(10, pool.getRemainingCheckouts());
+    }
+}
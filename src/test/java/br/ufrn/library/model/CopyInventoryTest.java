@@ -0,0 +1,124 @@
+package br.ufrn.library.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CopyInventoryTest {
+
+    @Test
+    void checkOutTakesTheFirstFreeCopy() {
+        CopyInventory copies = new CopyInventory("978-0", 3);
+
+        assertEquals(0, copies.checkOut("loan-1"));
+        assertEquals(1, copies.checkOut("loan-2"));
+        copies.checkIn(0);
+
+        assertEquals(0, copies.checkOut("loan-3"));
+        assertEquals("loan-3", copies.loanIdAt(0));
+        assertEquals(2, copies.loanedCount());
+        assertEquals("978-0-C2", copies.barcodeAt(1));
+    }
+
+    @Test
+    void checkOutFailsWhenEveryCopyIsOnLoan() {
+        CopyInventory copies = new CopyInventory("978-0", 1);
+        copies.checkOut("loan-1");
+
+        assertThrows(IllegalStateException.class, () -> copies.checkOut("loan-2"));
+        assertThrows(IllegalStateException.class, () -> copies.checkOutSlot(0, "loan-2"));
+    }
+
+    @Test
+    void shrinkKeepsTheBarcodeOfACopyOnLoan() {
+        CopyInventory copies = new CopyInventory("978-0", 4);
+        copies.checkOutSlot(3, "loan-4");
+
+        copies.resize(2);
+
+        int slot = copies.slotOf("978-0-C4");
+        assertTrue(slot >= 0 && slot < 2);
+        assertEquals("loan-4", copies.loanIdAt(slot));
+        assertEquals(-1, copies.slotOf("978-0-C3"));
+        assertFalse(copies.hasSequentialSerials());
+        assertThrows(IllegalStateException.class, () -> copies.resize(0));
+    }
+
+    @Test
+    void growingAddsCopiesWithNewSerials() {
+        CopyInventory copies = new CopyInventory("978-0", 2);
+        copies.resize(1);
+        copies.resize(3);
+
+        assertEquals("978-0-C3", copies.barcodeAt(1));
+        assertEquals(1, copies.slotOf("978-0-C3"));
+        assertEquals(-1, copies.slotOf("978-0-C2"));
+        assertEquals(-1, copies.slotOf("other-C1"));
+    }
+
+    @Test
+    void copiesDoNotSeeEachOthersCheckouts() {
+        CopyInventory original = new CopyInventory("978-0", 130);
+        original.checkOutSlot(70, "loan-1");
+        CopyInventory copy = new CopyInventory(original);
+
+        copy.checkIn(70);
+        copy.checkOutSlot(129, "loan-2");
+        original.checkOutSlot(0, "loan-3");
+
+        assertEquals("loan-1", original.loanIdAt(70));
+        assertFalse(original.isOnLoan(129));
+        assertEquals(2, original.loanedCount());
+        assertFalse(copy.isOnLoan(70));
+        assertFalse(copy.isOnLoan(0));
+        assertEquals("loan-2", copy.loanIdAt(129));
+        assertEquals(1, copy.loanedCount());
+    }
+
+    @Test
+    void shrinkingACopyLeavesTheSourceIntact() {
+        CopyInventory original = new CopyInventory("978-0", 100);
+        original.checkOutSlot(90, "loan-1");
+        CopyInventory copy = new CopyInventory(original);
+
+        copy.resize(10);
+
+        assertEquals(100, original.size());
+        assertEquals(90, original.slotOf("978-0-C91"));
+        assertEquals("loan-1", copy.loanIdAt(copy.slotOf("978-0-C91")));
+        assertEquals(-1, copy.slotOf("978-0-C50"));
+    }
+
+    @Test
+    void everyBookVersionSeesOnlyItsOwnCopies() {
+        PhysicalBook stored = new PhysicalBook("Title", "Author", "978-1", 2);
+        PhysicalBook first = stored.copy();
+        PhysicalBook second = stored.copy();
+
+        String barcode = first.checkOutCopy("loan-1");
+
+        assertEquals("978-1-C1", barcode);
+        assertEquals(CopyStatus.AVAILABLE, stored.findCopy(barcode).orElseThrow().getStatus());
+        assertEquals("loan-1", first.findCopy(barcode).orElseThrow().getCurrentLoanId());
+        assertEquals("978-1-C1", second.checkOutCopy("loan-2"));
+        assertEquals(2, stored.getAvailableCopies());
+        assertEquals(1, first.getAvailableCopies());
+    }
+
+    @Test
+    void returnWithoutBarcodeDoesNotFreeABarcodedCopy() {
+        PhysicalBook book = new PhysicalBook("Title", "Author", "978-3", 2);
+        book.checkOutCopy("loan-1");
+
+        book.registerReturn();
+        assertEquals(1, book.getAvailableCopies());
+
+        book.registerLoan();
+        book.registerReturn();
+        assertEquals(1, book.getAvailableCopies());
+        assertEquals(0, book.getAnonymousLoans());
+    }
+}
@@ -0,0 +1,68 @@
+package br.ufrn.library.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.service.LoanStatus;
+
+class BorrowingLimitEnforcerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private final BorrowingLimitEnforcer enforcer = new BorrowingLimitEnforcer(new BorrowingPolicy(3, 2, 2, true));
+    private final User user = new User("u-1", "Ana");
+    private final PhysicalBook physical = new PhysicalBook("Title", "Author", "978-1", 10);
+    private final DigitalBook digital = new DigitalBook("Title", "Author", "978-2");
+
+    @Test
+    void perTypeAndTotalLimitsAreEnforced() {
+        assertEquals(LoanStatus.SUCCESS, enforcer.beforeLoanCreated(user, physical));
+        assertEquals(LoanStatus.SUCCESS, enforcer.beforeLoanCreated(user, physical));
+        assertEquals(LoanStatus.PHYSICAL_LIMIT_REACHED, enforcer.beforeLoanCreated(user, physical));
+        assertEquals(LoanStatus.SUCCESS, enforcer.beforeLoanCreated(user, digital));
+        assertEquals(LoanStatus.ACTIVE_LIMIT_REACHED, enforcer.beforeLoanCreated(user, digital));
+
+        enforcer.onLoanCreationFailed(user, digital);
+        assertEquals(2, enforcer.getActiveLoanCount("u-1"));
+    }
+
+    @Test
+    void overdueLoanBlocksNewLoansUntilItIsReturned() {
+        enforcer.beforeLoanCreated(user, physical);
+        Loan loan = loan("l-1", physical, TODAY.plusDays(14));
+
+        enforcer.onOverdue(loan, TODAY.plusDays(15));
+        assertEquals(LoanStatus.BLOCKED_BY_OVERDUE, enforcer.beforeLoanCreated(user, digital));
+
+        enforcer.onLoanReturned(loan);
+        assertEquals(0, enforcer.getOverdueLoanCount("u-1"));
+        assertEquals(LoanStatus.SUCCESS, enforcer.beforeLoanCreated(user, digital));
+    }
+
+    @Test
+    void rebuildRestoresCountersFromTheActiveLoans() {
+        enforcer.beforeLoanCreated(new User("u-2", "Bia"), physical);
+
+        enforcer.rebuild(List.of(
+                loan("l-1", physical, TODAY.minusDays(1)),
+                loan("l-2", digital, TODAY.plusDays(7))), TODAY);
+
+        assertEquals(2, enforcer.getActiveLoanCount("u-1"));
+        assertEquals(1, enforcer.getOverdueLoanCount("u-1"));
+        assertEquals(0, enforcer.getActiveLoanCount("u-2"));
+        assertEquals(LoanStatus.BLOCKED_BY_OVERDUE, enforcer.beforeLoanCreated(user, digital));
+    }
+
+    private Loan loan(String id, Book book, LocalDate dueDate) {
+        return new Loan(id, user, book, dueDate.minusDays(14), dueDate);
+    }
+}
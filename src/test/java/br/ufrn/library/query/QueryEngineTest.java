@@ -0,0 +1,176 @@
+package br.ufrn.library.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.impl.IndexedLoanRepository;
+import br.ufrn.library.repository.impl.JdbcBookRepository;
+import br.ufrn.library.repository.impl.JdbcConnectionPool;
+import br.ufrn.library.repository.impl.JdbcLoanRepository;
+import br.ufrn.library.repository.impl.JdbcSchema;
+import br.ufrn.library.repository.impl.JdbcUserRepository;
+
+class QueryEngineTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+    private static final int LOANS = 200;
+
+    private JdbcConnectionPool pool;
+    private JdbcBookRepository books;
+    private JdbcLoanRepository storedLoans;
+    private IndexedLoanRepository loans;
+    private QueryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        pool = new JdbcConnectionPool("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", 4);
+        JdbcSchema.create(pool);
+        JdbcUserRepository users = new JdbcUserRepository(pool);
+        books = new JdbcBookRepository(pool);
+        storedLoans = new JdbcLoanRepository(pool, users, books);
+        loans = new IndexedLoanRepository(storedLoans);
+        engine = new QueryEngine(loans, books);
+
+        User[] readers = new User[10];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = users.save(new User("u-" + i, "Leitor " + i));
+        }
+        Book[] titles = new Book[5];
+        for (int i = 0; i < 4; i++) {
+            titles[i] = books.save(new PhysicalBook("Title " + i, "Author", "978-" + i, 1));
+        }
+        titles[4] = books.save(new DigitalBook("Title 4", "Author", "978-4"));
+        for (int i = 0; i < LOANS; i++) {
+            LocalDate loanDate = DAY.plusDays(i % 20);
+            Loan loan = new Loan("l-" + i, readers[i % 10], titles[i % 5], loanDate, loanDate.plusDays(14));
+            if (i % 4 == 0) {
+                loan.markAsReturned(loanDate.plusDays(3));
+            }
+            loans.save(loan);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void smallestIndexDrivesAndTheOthersFilterById() {
+        LoanQuery query = LoanQuery.all().isbn("978-1").user("u-1").loanedBetween(DAY, DAY.plusDays(10));
+
+        QueryPlan plan = engine.explain(query);
+
+        assertEquals(AccessPath.USER_INDEX, plan.getAccessPath());
+        assertEquals(20, plan.getEstimatedRows());
+        assertEquals(LOANS, plan.getTotalRows());
+        assertEquals(List.of("isbn = 978-1"), plan.getIndexFilters());
+        assertEquals(List.of("loanDate in [" + DAY + ", " + DAY.plusDays(10) + "]"), plan.getFilters());
+        assertEquals("USER_INDEX (userId = u-1) rows=20/200" + System.lineSeparator()
+                + "  index filter: isbn = 978-1" + System.lineSeparator()
+                + "  filter: loanDate in [" + DAY + ", " + DAY.plusDays(10) + "]", plan.explain());
+        assertMatchesEveryLoan(query);
+    }
+
+    @Test
+    void narrowDateRangeDrivesInsteadOfABroadIndex() {
+        LoanQuery query = LoanQuery.all().active().dueBetween(DAY.plusDays(15), DAY.plusDays(15));
+
+        QueryPlan plan = engine.explain(query);
+
+        assertEquals(AccessPath.DUE_DATE_INDEX, plan.getAccessPath());
+        assertEquals(10, plan.getEstimatedRows());
+        assertEquals(List.of("returned = false"), plan.getIndexFilters());
+        assertEquals(10, engine.find(query).size());
+        assertMatchesEveryLoan(query);
+    }
+
+    @Test
+    void queryMatchingMostLoansFallsBackToAScan() {
+        LoanQuery active = LoanQuery.all().active();
+        LoanQuery digital = LoanQuery.all().bookType(DigitalBook.class).returned(true);
+
+        assertEquals(AccessPath.PARALLEL_SCAN, engine.explain(active).getAccessPath());
+        assertEquals(AccessPath.BOOK_TYPE_INDEX, engine.explain(digital).getAccessPath());
+        assertEquals(150, engine.find(active).size());
+        assertMatchesEveryLoan(active);
+        assertMatchesEveryLoan(digital);
+    }
+
+    @Test
+    void loanChangedBehindTheIndexesIsCheckedAgainstItsRecord() {
+        Loan loan = storedLoans.findById("l-1").orElseThrow();
+        loan.markAsReturned(DAY.plusDays(5));
+        storedLoans.save(loan);
+
+        List<Loan> active = engine.find(LoanQuery.all().user("u-1").active());
+
+        assertEquals(AccessPath.USER_INDEX, engine.explain(LoanQuery.all().user("u-1").active()).getAccessPath());
+        assertTrue(active.stream().noneMatch(found -> found.getId().equals("l-1")));
+        assertEquals(19, active.size());
+    }
+
+    @Test
+    void withoutIndexesTheRepositoryFindersAreUsed() {
+        QueryEngine plain = new QueryEngine(storedLoans, books);
+        LoanQuery query = LoanQuery.all().user("u-3").active().isbn("978-3");
+
+        QueryPlan plan = plain.explain(query);
+
+        assertEquals(AccessPath.REPOSITORY_LOOKUP, plan.getAccessPath());
+        assertEquals("findActiveByUserId(u-3)", plan.getAccessKey());
+        assertEquals(List.of("isbn = 978-3"), plan.getFilters());
+        assertEquals(ids(engine.find(query)), ids(plain.find(query)));
+        assertEquals(AccessPath.PARALLEL_SCAN, plain.explain(LoanQuery.all().returned(true)).getAccessPath());
+    }
+
+    @Test
+    void bookQueriesUseTheIsbnWhenGiven() {
+        BookQuery byIsbn = BookQuery.all().isbn("978-2").availableForLoan(true);
+        BookQuery digital = BookQuery.all().bookType(DigitalBook.class);
+
+        assertEquals(AccessPath.PRIMARY_KEY, engine.explain(byIsbn).getAccessPath());
+        assertEquals(List.of("availableForLoan = true"), engine.explain(byIsbn).getFilters());
+        assertEquals(List.of("978-2"), engine.find(byIsbn).stream().map(Book::getIsbn).toList());
+        assertEquals(AccessPath.PARALLEL_SCAN, engine.explain(digital).getAccessPath());
+        assertEquals(List.of("978-4"), engine.find(digital).stream().map(Book::getIsbn).toList());
+    }
+
+    @Test
+    void invalidQueriesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> LoanQuery.all().dueBetween(null, null));
+        assertThrows(IllegalArgumentException.class, () -> LoanQuery.all().loanedBetween(DAY.plusDays(1), DAY));
+        assertThrows(IllegalArgumentException.class, () -> LoanQuery.all().user(" "));
+        assertThrows(IllegalArgumentException.class, () -> engine.find((LoanQuery) null));
+        assertEquals("LoanQuery{userId = u-1 and dueDate in [-inf, " + DAY + "]}",
+                LoanQuery.all().dueBetween(null, DAY).user("u-1").toString());
+    }
+
+    private void assertMatchesEveryLoan(LoanQuery query) {
+        Set<String> expected = storedLoans.findAll().stream()
+                .filter(query::matches)
+                .map(Loan::getId)
+                .collect(Collectors.toSet());
+        assertEquals(expected, ids(engine.find(query)));
+    }
+
+    private static Set<String> ids(List<Loan> found) {
+        return found.stream().map(Loan::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,66 @@
+package br.ufrn.library.recommendation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+
+class RecommendationEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    @Test
+    void recommendsTitlesBorrowedByTheSamePatrons() {
+        RecommendationEngine engine = new RecommendationEngine(2);
+        engine.record("u-1", "a");
+        engine.record("u-1", "b");
+        engine.record("u-2", "a");
+        engine.record("u-2", "b");
+        engine.record("u-3", "a");
+        engine.record("u-3", "d");
+        engine.record("u-3", "d");
+
+        assertEquals(List.of("b", "d"), engine.recommend("a"));
+        assertEquals(List.of("a"), engine.recommend("d"));
+        assertEquals(2, engine.coBorrowCount("a", "b"));
+        assertEquals(1, engine.coBorrowCount("a", "d"));
+        assertTrue(engine.recommend("unknown").isEmpty());
+    }
+
+    @Test
+    void rebuildMatchesTheIncrementalModel() {
+        List<Loan> history = new ArrayList<>();
+        RecommendationEngine incremental = new RecommendationEngine();
+        String[][] baskets = {{"a", "b", "c"}, {"a", "b"}, {"b", "c", "d"}, {"a", "d"}, {"a", "b"}};
+        for (int u = 0; u < baskets.length; u++) {
+            User user = new User("u-" + u, "User " + u);
+            for (String isbn : baskets[u]) {
+                Loan loan = new Loan("l-" + u + isbn, user, new DigitalBook(isbn, "Author", isbn), TODAY, TODAY.plusDays(14));
+                history.add(loan);
+                incremental.onLoanCreated(loan);
+            }
+        }
+
+        RecommendationEngine rebuilt = new RecommendationEngine();
+        rebuilt.record("stale", "z");
+        rebuilt.rebuild(history);
+
+        for (String isbn : List.of("a", "b", "c", "d")) {
+            // Ties may be ordered differently; every neighbour fits in the top-K here.
+            assertEquals(new HashSet<>(incremental.recommend(isbn)), new HashSet<>(rebuilt.recommend(isbn)));
+            for (String other : List.of("a", "b", "c", "d")) {
+                assertEquals(incremental.coBorrowCount(isbn, other), rebuilt.coBorrowCount(isbn, other));
+            }
+        }
+        assertTrue(rebuilt.recommend("z").isEmpty());
+    }
+}
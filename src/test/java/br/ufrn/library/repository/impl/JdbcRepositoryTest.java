@@ -0,0 +1,132 @@
+package br.ufrn.library.repository.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.exception.OptimisticLockException;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+
+class JdbcRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private JdbcConnectionPool pool;
+    private JdbcUserRepository users;
+    private JdbcBookRepository books;
+    private JdbcLoanRepository loans;
+
+    @BeforeEach
+    void setUp() {
+        pool = new JdbcConnectionPool("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", 4);
+        JdbcSchema.create(pool);
+        users = new JdbcUserRepository(pool);
+        books = new JdbcBookRepository(pool);
+        loans = new JdbcLoanRepository(pool, users, books);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void userIsStoredAndUpdatedByVersion() {
+        User user = users.save(new User("u-1", "Ana"));
+        User stale = users.findById("u-1").orElseThrow();
+
+        User renamed = user.copy();
+        renamed.setName("Ana Lima");
+        users.save(renamed);
+
+        assertEquals("Ana Lima", users.findById("u-1").orElseThrow().getName());
+        assertEquals(2, users.findById("u-1").orElseThrow().getVersion());
+        stale.setName("Ana Souza");
+        assertThrows(OptimisticLockException.class, () -> users.save(stale));
+        assertThrows(OptimisticLockException.class, () -> users.save(new User("u-1", "Duplicate")));
+    }
+
+    @Test
+    void bookKeepsItsKindAndCopies() {
+        books.save(new PhysicalBook("Dom Casmurro", "Machado de Assis", "978-1", 3));
+        books.save(new DigitalBook("Iracema", "José de Alencar", "978-2"));
+
+        PhysicalBook physical = assertInstanceOf(PhysicalBook.class, books.findByIsbn("978-1").orElseThrow());
+        assertEquals(3, physical.getTotalCopies());
+        assertInstanceOf(DigitalBook.class, books.findByIsbn("978-2").orElseThrow());
+        assertTrue(books.deleteByIsbn("978-2"));
+        assertFalse(books.existsByIsbn("978-2"));
+        assertEquals(1, books.findAll().size());
+    }
+
+    @Test
+    void loansAreQueriedByUserBookAndState() {
+        User ana = users.save(new User("u-1", "Ana"));
+        User bia = users.save(new User("u-2", "Bia"));
+        DigitalBook book = (DigitalBook) books.save(new DigitalBook("Iracema", "José de Alencar", "978-2"));
+        loans.save(new Loan("l-1", ana, book, TODAY, TODAY.plusDays(14)));
+        Loan returned = loans.save(new Loan("l-2", bia, book, TODAY, TODAY.plusDays(14))).copy();
+        returned.markAsReturned(TODAY.plusDays(3));
+        loans.save(returned);
+
+        assertEquals(2, loans.findByBookIsbn("978-2").size());
+        assertEquals(List.of("l-1"), ids(loans.findAllActive()));
+        assertTrue(loans.findActiveByUserId("u-2").isEmpty());
+        assertEquals(TODAY.plusDays(3), loans.findById("l-2").orElseThrow().getReturnDate());
+        assertEquals(List.of("l-2"), users.findById("u-2").orElseThrow().getLoanHistory());
+    }
+
+    @Test
+    void streamingReadsEveryPage() {
+        User ana = users.save(new User("u-1", "Ana"));
+        DigitalBook book = (DigitalBook) books.save(new DigitalBook("Iracema", "José de Alencar", "978-2"));
+        List<Loan> batch = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            batch.add(new Loan(String.format("l-%05d", i), ana, book, TODAY, TODAY.plusDays(14)));
+        }
+        loans.saveAll(batch);
+
+        try (Stream<Loan> all = loans.streamAll()) {
+            assertEquals(2_500, all.count());
+        }
+        try (Stream<Loan> active = loans.streamAllActive()) {
+            assertEquals("l-02499", active.reduce((first, second) -> second).orElseThrow().getId());
+        }
+    }
+
+    @Test
+    void poolTimesOutWhenEveryConnectionIsInUse() {
+        try (JdbcConnectionPool small = new JdbcConnectionPool(
+                "jdbc:h2:mem:" + UUID.randomUUID(), "", "", 1, Duration.ofMillis(50))) {
+            try (PooledConnection held = small.acquire()) {
+                assertThrows(IllegalStateException.class, small::acquire);
+            }
+            small.acquire().close();
+            assertEquals(1, small.getIdleCount());
+        }
+    }
+
+    private static List<String> ids(List<Loan> loans) {
+        List<String> ids = new ArrayList<>();
+        for (Loan loan : loans) {
+            ids.add(loan.getId());
+        }
+        return ids;
+    }
+}
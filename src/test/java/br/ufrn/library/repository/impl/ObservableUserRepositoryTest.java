@@ -0,0 +1,134 @@
+package br.ufrn.library.repository.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.feed.ChangeEvent;
+import br.ufrn.library.feed.ChangeFeed;
+import br.ufrn.library.feed.ChangeType;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.UserRepository;
+
+class ObservableUserRepositoryTest {
+
+    private final RecordingUserRepository delegate = new RecordingUserRepository();
+    private final ChangeFeed feed = new ChangeFeed(1 << 14, Runnable::run, Clock.systemUTC());
+    private final List<ChangeEvent<?>> events = new ArrayList<>();
+    private final ObservableUserRepository repository = new ObservableUserRepository(delegate, feed);
+
+    @Test
+    void concurrentSavesOfOneUserArePublishedInCommitOrder() throws Exception {
+        subscribe();
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String writer = "w" + t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    repository.save(new User("u-1", writer + "-" + i));
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        List<String> published = new ArrayList<>();
+        for (ChangeEvent<?> event : events) {
+            published.add(((User) event.getEntity()).getName());
+        }
+        assertEquals(delegate.commits(), published);
+        assertSame(delegate.findById("u-1").orElseThrow(), events.get(events.size() - 1).getEntity());
+    }
+
+    @Test
+    void deletePublishesTheRemovedUser() {
+        User user = repository.save(new User("u-2", "Ana"));
+        subscribe();
+
+        assertFalse(repository.deleteById("missing"));
+        repository.deleteById("u-2");
+
+        assertEquals(1, events.size());
+        assertEquals(ChangeType.DELETED, events.get(0).getChangeType());
+        assertEquals("u-2", events.get(0).getKey());
+        assertSame(user, events.get(0).getEntity());
+    }
+
+    private void subscribe() {
+        feed.subscribe(new Flow.Subscriber<ChangeEvent<?>>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ChangeEvent<?> event) {
+                events.add(event);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    /** Last-writer-wins store that records the order its saves took effect. */
+    private static final class RecordingUserRepository implements UserRepository {
+
+        private final Map<String, User> users = new HashMap<>();
+        private final List<String> commits = new ArrayList<>();
+
+        @Override
+        public User save(User user) {
+            Thread.yield();
+            synchronized (this) {
+                users.put(user.getId(), user);
+                commits.add(user.getName());
+            }
+            // Widens the gap between the commit and the caller's publish.
+            LockSupport.parkNanos(50_000);
+            return user;
+        }
+
+        @Override
+        public synchronized Optional<User> findById(String id) {
+            return Optional.ofNullable(users.get(id));
+        }
+
+        @Override
+        public synchronized List<User> findAll() {
+            return new ArrayList<>(users.values());
+        }
+
+        @Override
+        public synchronized boolean deleteById(String id) {
+            return users.remove(id) != null;
+        }
+
+        @Override
+        public synchronized boolean existsById(String id) {
+            return users.containsKey(id);
+        }
+
+        private synchronized List<String> commits() {
+            return new ArrayList<>(commits);
+        }
+    }
+}
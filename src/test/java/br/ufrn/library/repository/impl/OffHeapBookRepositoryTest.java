@@ -0,0 +1,81 @@
+package br.ufrn.library.repository.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.PhysicalBook;
+
+class OffHeapBookRepositoryTest {
+
+    @Test
+    void storesAndFindsBothKindsOfBook() {
+        OffHeapBookRepository repository = new OffHeapBookRepository(4);
+        repository.save(new PhysicalBook("Dom Casmurro", "Machado de Assis", "978-1", 3));
+        repository.save(new DigitalBook("Iracema", "José de Alencar", "978-2"));
+
+        PhysicalBook physical = assertInstanceOf(PhysicalBook.class, repository.findByIsbn("978-1").orElseThrow());
+        assertEquals("Machado de Assis", physical.getAuthor());
+        assertEquals(3, physical.getTotalCopies());
+        assertEquals("Iracema", repository.findByIsbn("978-2").orElseThrow().getTitle());
+        assertTrue(repository.findByIsbn("978-3").isEmpty());
+    }
+
+    @Test
+    void growsPastTheExpectedSize() {
+        OffHeapBookRepository repository = new OffHeapBookRepository(2);
+        for (int i = 0; i < 500; i++) {
+            repository.save(new DigitalBook("Title " + i, "Author", "isbn-" + i));
+        }
+
+        assertEquals(500, repository.size());
+        assertEquals(500, repository.findAll().size());
+        for (int i = 0; i < 500; i += 37) {
+            assertTrue(repository.existsByIsbn("isbn-" + i));
+        }
+    }
+
+    @Test
+    void deletedRecordIsReused() {
+        OffHeapBookRepository repository = new OffHeapBookRepository(2, 2);
+        repository.save(new DigitalBook("A", "Author", "978-1"));
+        repository.save(new DigitalBook("B", "Author", "978-2"));
+
+        assertTrue(repository.deleteByIsbn("978-1"));
+        assertFalse(repository.deleteByIsbn("978-1"));
+        repository.save(new DigitalBook("C", "Author", "978-3"));
+
+        assertEquals(2, repository.size());
+        assertEquals("C", repository.findByIsbn("978-3").orElseThrow().getTitle());
+    }
+
+    @Test
+    void fullStoreRejectsNewBooksAndKeepsTheOthers() {
+        OffHeapBookRepository repository = new OffHeapBookRepository(1, 3);
+        for (int i = 0; i < 3; i++) {
+            repository.save(new DigitalBook("Title " + i, "Author", "isbn-" + i));
+        }
+
+        assertThrows(IllegalStateException.class,
+                () -> repository.save(new DigitalBook("Extra", "Author", "isbn-extra")));
+
+        assertEquals(3, repository.size());
+        assertFalse(repository.existsByIsbn("isbn-extra"));
+        Book stored = repository.findByIsbn("isbn-2").orElseThrow();
+        repository.save(stored.copy());
+        assertEquals("Title 2", repository.findByIsbn("isbn-2").orElseThrow().getTitle());
+    }
+
+    @Test
+    void capacityBeyondWhatABufferCanAddressIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OffHeapBookRepository(OffHeapBookRepository.MAX_BOOKS + 1));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapBookRepository(0));
+    }
+}
@@ -0,0 +1,111 @@
+package br.ufrn.library.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+
+class OverdueSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private final List<String> fired = new ArrayList<>();
+    private OverdueScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new OverdueScheduler(Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        scheduler.addListener((loan, detectedOn) -> fired.add(loan.getId() + "@" + detectedOn));
+    }
+
+    @Test
+    void firesTheDayAfterTheDueDate() {
+        scheduler.schedule(loan("l-1", TODAY.plusDays(3)));
+
+        assertEquals(0, scheduler.advanceTo(TODAY.plusDays(3)));
+        assertEquals(1, scheduler.advanceTo(TODAY.plusDays(4)));
+        assertEquals(List.of("l-1@" + TODAY.plusDays(4)), fired);
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    void returnedLoanIsCancelled() {
+        Loan loan = loan("l-1", TODAY.plusDays(3));
+        scheduler.onLoanCreated(loan);
+
+        scheduler.onLoanReturned(loan);
+        scheduler.advanceTo(TODAY.plusDays(10));
+
+        assertTrue(fired.isEmpty());
+        assertFalse(scheduler.cancel("l-1"));
+    }
+
+    @Test
+    void reschedulingReplacesThePreviousDeadline() {
+        scheduler.schedule(loan("l-1", TODAY.plusDays(3)));
+        scheduler.schedule(loan("l-1", TODAY.plusDays(10)));
+
+        scheduler.advanceTo(TODAY.plusDays(5));
+        assertTrue(fired.isEmpty());
+        scheduler.advanceTo(TODAY.plusDays(11));
+
+        assertEquals(List.of("l-1@" + TODAY.plusDays(11)), fired);
+    }
+
+    @Test
+    void alreadyOverdueLoanFiresOnTheNextTurn() {
+        scheduler.schedule(loan("l-1", TODAY.minusDays(2)));
+        assertTrue(fired.isEmpty());
+
+        assertEquals(1, scheduler.tick());
+        assertEquals(List.of("l-1@" + TODAY), fired);
+    }
+
+    @Test
+    void firedLoanCannotBeCancelledAndLeavesNothingPending() throws Exception {
+        int loans = 2_000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (int i = 0; i < loans; i++) {
+                scheduler.schedule(loan("l-" + i, TODAY.plusDays(1 + i % 3)));
+            }
+        });
+        producer.start();
+        start.countDown();
+        for (int day = 1; day <= 5; day++) {
+            scheduler.advanceTo(TODAY.plusDays(day));
+        }
+        producer.join();
+        scheduler.advanceTo(TODAY.plusDays(10));
+
+        assertEquals(loans, fired.size());
+        assertEquals(0, scheduler.getPendingCount());
+        for (int i = 0; i < loans; i++) {
+            assertFalse(scheduler.cancel("l-" + i));
+        }
+    }
+
+    private static Loan loan(String id, LocalDate dueDate) {
+        return new Loan(id, new User("u-1", "Ana"), new PhysicalBook("Title", "Author", "978-1", 1),
+                dueDate.minusDays(14), dueDate);
+    }
+}
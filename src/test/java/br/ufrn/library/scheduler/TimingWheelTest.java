@@ -0,0 +1,69 @@
+package br.ufrn.library.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.scheduler.TimingWheel.Timeout;
+
+class TimingWheelTest {
+
+    @Test
+    void expiresPayloadsInDeadlineOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(100);
+        wheel.schedule(103, "c");
+        wheel.schedule(101, "a");
+        wheel.schedule(102, "b");
+
+        assertEquals(List.of("a"), wheel.advanceTo(101));
+        assertEquals(List.of("b", "c"), wheel.advanceTo(110));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesDeadlinesFromHigherLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(0);
+        long[] deadlines = {63, 64, 65, 4_095, 4_096, 300_000};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> expired = new ArrayList<>();
+        for (long tick = 1; tick <= 300_000; tick += 997) {
+            for (long deadline : wheel.advanceTo(tick)) {
+                assertTrue(deadline <= tick);
+                expired.add(deadline);
+            }
+        }
+        expired.addAll(wheel.advanceTo(300_000));
+
+        assertEquals(List.of(63L, 64L, 65L, 4_095L, 4_096L, 300_000L), expired);
+    }
+
+    @Test
+    void cancelledTimeoutNeverExpires() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        Timeout<String> timeout = wheel.schedule(5, "a");
+
+        assertTrue(wheel.cancel(timeout));
+        assertFalse(wheel.cancel(timeout));
+        assertTrue(wheel.advanceTo(10).isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesAreNotScheduled() {
+        TimingWheel<String> wheel = new TimingWheel<>(10);
+
+        assertNull(wheel.schedule(10, "now"));
+        assertNull(wheel.schedule(3, "past"));
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(10 + (1L << 24), "too far"));
+    }
+}
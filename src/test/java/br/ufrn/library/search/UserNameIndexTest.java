@@ -0,0 +1,115 @@
+package br.ufrn.library.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.User;
+
+class UserNameIndexTest {
+
+    private UserNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserNameIndex();
+        index.put(new User("u-001", "Alice Smith"));
+        index.put(new User("u-006", "Joadson Ferreira"));
+        index.put(new User("u-008", "Nathan Medeiros"));
+        index.put(new User("u-010", "João Medeiros"));
+    }
+
+    @Test
+    void everyQueryWordMustPrefixAWordOfTheName() {
+        assertEquals(List.of("u-010"), ids(index.search("jo med", 10)));
+        assertEquals(List.of("u-008", "u-010"), sorted(ids(index.search("medeiros", 10))));
+        assertEquals(List.of("u-010"), ids(index.search("MEDEIROS JOÃO", 10)));
+    }
+
+    @Test
+    void accentsAndCaseAreIgnored() {
+        NameMatch best = index.search("joao", 10).get(0);
+
+        assertEquals("u-010", best.getUserId());
+        assertEquals(0, best.getDistance());
+        assertArrayEquals(new String[] {"joao", "medeiros"}, UserNameIndex.words("João  JOAO Medeiros"));
+    }
+
+    @Test
+    void typosAreMatchedAfterPrefixes() {
+        List<NameMatch> matches = index.search("fereira", 10);
+
+        assertEquals(List.of("u-006"), ids(matches));
+        assertEquals(1, matches.get(0).getDistance());
+        assertTrue(index.search("smiht", 10).stream().anyMatch(match -> match.getUserId().equals("u-001")));
+        assertTrue(index.search("xlice", 10).isEmpty());
+    }
+
+    @Test
+    void prefixMatchesComeBeforeTypoMatches() {
+        index.put(new User("u-020", "Ana Medeira"));
+
+        List<NameMatch> matches = index.search("medeiros", 10);
+
+        assertEquals(3, matches.size());
+        assertEquals(0, matches.get(0).getDistance());
+        assertEquals(0, matches.get(1).getDistance());
+        assertEquals("u-020", matches.get(2).getUserId());
+    }
+
+    @Test
+    void searchStopsAtTheLimit() {
+        assertEquals(1, index.search("medeiros", 1).size());
+    }
+
+    @Test
+    void renamingReplacesTheIndexedName() {
+        User renamed = new User("u-001", "Alice Nogueira");
+        renamed.setVersion(1);
+
+        index.put(renamed);
+
+        assertTrue(index.search("smith", 10).isEmpty());
+        assertEquals(List.of("u-001"), ids(index.search("nogueira", 10)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void olderVersionDoesNotOverwriteANewerName() {
+        User renamed = new User("u-001", "Alice Nogueira");
+        renamed.setVersion(2);
+        index.put(renamed);
+        User stale = new User("u-001", "Alice Smith");
+        stale.setVersion(1);
+
+        index.put(stale);
+
+        assertEquals(List.of("u-001"), ids(index.search("nogueira", 10)));
+    }
+
+    @Test
+    void removedUserIsNoLongerFoundAndItsSlotIsReused() {
+        index.remove("u-010");
+
+        assertEquals(List.of("u-008"), ids(index.search("medeiros", 10)));
+        assertEquals(3, index.size());
+
+        index.put(new User("u-011", "Joana Medeiros"));
+        assertEquals(List.of("u-011"), ids(index.search("joana", 10)));
+        assertEquals(4, index.size());
+    }
+
+    private static List<String> ids(List<NameMatch> matches) {
+        return matches.stream().map(NameMatch::getUserId).collect(Collectors.toList());
+    }
+
+    private static List<String> sorted(List<String> ids) {
+        return ids.stream().sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,205 @@
+package br.ufrn.library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryLoanRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+
+class CheckoutCombinerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private final User user = new User("u-1", "Ana");
+    private final PhysicalBook book = new PhysicalBook("Title", "Author", "978-1", 1);
+
+    @Test
+    void concurrentRequestsAreAppliedOneBatchAtATime() throws Exception {
+        AtomicInteger applying = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CheckoutCombiner combiner = new CheckoutCombiner("978-1", batch -> {
+            if (applying.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            LockSupport.parkNanos(200_000);
+            for (CheckoutCombiner.Request request : batch) {
+                request.complete(LoanResult.success(loanFor(request)));
+            }
+            applying.decrementAndGet();
+        }, new HotTitleDetector((isbn, batch) -> { }));
+
+        int threads = 8;
+        int perThread = 50;
+        Set<String> completed = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    String loanId = "l-" + worker + "-" + i;
+                    LoanResult result = combiner.submit(request(loanId));
+                    if (result.getLoan().getId().equals(loanId)) {
+                        completed.add(loanId);
+                    }
+                }
+            });
+            workers.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : workers) {
+            thread.join();
+        }
+
+        assertEquals(threads * perThread, completed.size());
+        assertEquals(threads * perThread, combiner.getRequestCount());
+        assertTrue(combiner.getBatchCount() < combiner.getRequestCount());
+        assertEquals(0, overlaps.get());
+    }
+
+    @Test
+    void failingBatchFailsEveryRequestInIt() {
+        IllegalStateException failure = new IllegalStateException("Book store unavailable.");
+        CheckoutCombiner combiner = new CheckoutCombiner("978-1", batch -> {
+            throw failure;
+        }, new HotTitleDetector((isbn, batch) -> { }));
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> combiner.submit(request("l-1")));
+
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void requestLeftIncompleteIsReportedAsAFailure() {
+        CheckoutCombiner combiner = new CheckoutCombiner("978-1", batch -> { },
+                new HotTitleDetector((isbn, batch) -> { }));
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> combiner.submit(request("l-1")));
+
+        assertTrue(thrown.getMessage().contains("l-1"));
+    }
+
+    @Test
+    void titleIsPromotedAfterRepeatedConflicts() {
+        HotTitleDetector detector = new HotTitleDetector((isbn, batch) -> { });
+
+        for (int i = 1; i < HotTitleDetector.PROMOTE_CONFLICTS; i++) {
+            detector.recordConflict("978-1");
+        }
+        assertNull(detector.combinerFor("978-1"));
+
+        detector.recordConflict("978-1");
+        CheckoutCombiner combiner = detector.combinerFor("978-1");
+        assertNotNull(combiner);
+        assertEquals(Set.of("978-1"), detector.getHotTitles());
+        assertNull(detector.combinerFor("978-2"));
+
+        detector.demote(combiner);
+        assertNull(detector.combinerFor("978-1"));
+        assertTrue(detector.getHotTitles().isEmpty());
+    }
+
+    @Test
+    void combinerDemotesItselfWhenRequestsStopOverlapping() {
+        HotTitleDetector detector = new HotTitleDetector((isbn, batch) -> {
+            for (CheckoutCombiner.Request request : batch) {
+                request.complete(LoanResult.failure(LoanStatus.NO_COPIES_AVAILABLE));
+            }
+        });
+        for (int i = 0; i < HotTitleDetector.PROMOTE_CONFLICTS; i++) {
+            detector.recordConflict("978-1");
+        }
+        CheckoutCombiner combiner = detector.combinerFor("978-1");
+
+        for (int i = 1; i < HotTitleDetector.COOL_DOWN_BATCHES; i++) {
+            combiner.submit(request("l-" + i));
+        }
+        assertSame(combiner, detector.combinerFor("978-1"));
+
+        LoanResult last = combiner.submit(request("l-last"));
+        assertEquals(LoanStatus.NO_COPIES_AVAILABLE, last.getStatus());
+        assertNull(detector.combinerFor("978-1"));
+    }
+
+    @Test
+    void hotTitleNeverLendsMoreCopiesThanItHas() throws Exception {
+        InMemoryBookRepository books = new InMemoryBookRepository();
+        InMemoryUserRepository users = new InMemoryUserRepository();
+        LoanService service = new LoanService(new InMemoryLoanRepository(), books, users);
+        int copies = 40;
+        int borrowers = 64;
+        books.save(new PhysicalBook("Title", "Author", "combiner-hot", copies));
+        for (int i = 0; i < borrowers; i++) {
+            users.save(new User("combiner-hot-user-" + i, "Leitor " + i));
+        }
+
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < borrowers; i++) {
+            int borrower = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                LoanResult result = service.tryCreateLoan("combiner-hot-" + borrower,
+                        "combiner-hot-user-" + borrower, "combiner-hot", DAY, 14);
+                if (result.getStatus().isSuccess()) {
+                    granted.incrementAndGet();
+                } else if (result.getStatus() == LoanStatus.NO_COPIES_AVAILABLE) {
+                    refused.incrementAndGet();
+                }
+            });
+            workers.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : workers) {
+            thread.join();
+        }
+
+        assertEquals(copies, granted.get());
+        assertEquals(borrowers - copies, refused.get());
+        assertEquals(0, ((PhysicalBook) books.findByIsbn("combiner-hot").orElseThrow()).getAvailableCopies());
+    }
+
+    private CheckoutCombiner.Request request(String loanId) {
+        return new CheckoutCombiner.Request(loanId, user, DAY, DAY.plusDays(14));
+    }
+
+    private Loan loanFor(CheckoutCombiner.Request request) {
+        return new Loan(request.loanId, request.user, book, request.loanDate, request.dueDate);
+    }
+}
@@ -0,0 +1,155 @@
+package br.ufrn.library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.User;
+
+class IdempotencyStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), clock);
+    private final AtomicInteger runs = new AtomicInteger();
+    private final AtomicInteger ids = new AtomicInteger();
+
+    @Test
+    void duplicateGetsTheStoredResultWithoutRunningAgain() {
+        LoanResult first = store.execute("k", "checkout:u-1", this::nextId, this::succeed);
+        LoanResult second = store.execute("k", "checkout:u-1", this::nextId, this::succeed);
+
+        assertSame(first, second);
+        assertEquals(1, runs.get());
+        assertEquals("id-1", first.getLoan().getId());
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() {
+        store.execute("k", "checkout:u-1", this::nextId, this::succeed);
+
+        LoanResult other = store.execute("k", "checkout:u-2", this::nextId, this::succeed);
+
+        assertEquals(LoanStatus.IDEMPOTENCY_KEY_REUSED, other.getStatus());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void failureStatusForgetsTheKey() {
+        store.execute("k", "checkout:u-1", () -> {
+            runs.incrementAndGet();
+            return LoanResult.failure(LoanStatus.NO_COPIES_AVAILABLE);
+        });
+
+        LoanResult retry = store.execute("k", "checkout:u-1", this::nextId, this::succeed);
+
+        assertEquals(LoanStatus.SUCCESS, retry.getStatus());
+        assertEquals(2, runs.get());
+        assertEquals("id-1", retry.getLoan().getId());
+    }
+
+    @Test
+    void retryAfterAnExceptionRunsAgainWithTheSameRequestId() {
+        assertThrows(IllegalStateException.class, () -> store.execute("k", "checkout:u-1", this::nextId, requestId -> {
+            throw new IllegalStateException("connection lost");
+        }));
+
+        LoanResult retry = store.execute("k", "checkout:u-1", this::nextId, this::succeed);
+
+        assertEquals("id-1", retry.getLoan().getId());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void keysExpireAfterTheRetention() {
+        store.execute("k", "checkout:u-1", this::nextId, this::succeed);
+
+        clock.advance(Duration.ofMinutes(10));
+        store.execute("other", "checkout:u-2", this::nextId, this::succeed);
+        LoanResult again = store.execute("k", "checkout:u-1", this::nextId, this::succeed);
+
+        assertEquals(3, runs.get());
+        assertEquals("id-3", again.getLoan().getId());
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<LoanResult> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                LoanResult result = store.execute("k", "checkout:u-1", this::nextId, this::succeed);
+                synchronized (results) {
+                    results.add(result);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, runs.get());
+        assertEquals(8, results.size());
+        for (LoanResult result : results) {
+            assertSame(results.get(0), result);
+        }
+    }
+
+    private String nextId() {
+        return "id-" + ids.incrementAndGet();
+    }
+
+    private LoanResult succeed(String requestId) {
+        runs.incrementAndGet();
+        LocalDate today = LocalDate.of(2024, 3, 1);
+        return LoanResult.success(new Loan(requestId, new User("u-1", "Ana"),
+                new DigitalBook("Title", "Author", "978-2"), today, today.plusDays(14)));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now = Instant.parse("2024-03-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return Clock.fixed(now, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package br.ufrn.library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryLoanRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+
+class LoanServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private final FailingBookRepository books = new FailingBookRepository(new InMemoryBookRepository());
+    private final FailingUserRepository users = new FailingUserRepository(new InMemoryUserRepository());
+    private final InMemoryLoanRepository loans = new InMemoryLoanRepository();
+    private LoanService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LoanService(loans, books, users);
+        service.setHotTitleCombining(false);
+    }
+
+    @Test
+    void checkoutIsUndoneWhenTheHistoryCannotBeSaved() {
+        books.save(new PhysicalBook("Title", "Author", "loan-svc-history", 1));
+        users.save(new User("loan-svc-history-user", "Ana"));
+        users.failing = true;
+
+        assertThrows(IllegalStateException.class,
+                () -> service.createLoan("loan-svc-history-1", "loan-svc-history-user", "loan-svc-history", DAY));
+
+        assertFalse(loans.existsById("loan-svc-history-1"));
+        PhysicalBook book = (PhysicalBook) books.findByIsbn("loan-svc-history").orElseThrow();
+        assertEquals(1, book.getAvailableCopies());
+        assertTrue(book.findCopy("loan-svc-history-C1").orElseThrow().getCurrentLoanId() == null);
+
+        users.failing = false;
+        Loan retried = service.createLoan("loan-svc-history-1", "loan-svc-history-user", "loan-svc-history", DAY);
+        assertEquals("loan-svc-history-C1", retried.getCopyBarcode());
+    }
+
+    @Test
+    void returnIsUndoneWhenTheCopyCannotBeReleased() {
+        books.save(new PhysicalBook("Title", "Author", "loan-svc-return", 1));
+        users.save(new User("loan-svc-return-user", "Bruno"));
+        service.createLoan("loan-svc-return-1", "loan-svc-return-user", "loan-svc-return", DAY);
+        books.failing = true;
+
+        assertThrows(IllegalStateException.class, () -> service.returnLoan("loan-svc-return-1", DAY.plusDays(3)));
+
+        assertFalse(loans.findById("loan-svc-return-1").orElseThrow().isReturned());
+        books.failing = false;
+        Loan returned = service.returnLoan("loan-svc-return-1", DAY.plusDays(4));
+        assertEquals(DAY.plusDays(4), returned.getReturnDate());
+        assertEquals(1, ((PhysicalBook) books.findByIsbn("loan-svc-return").orElseThrow()).getAvailableCopies());
+    }
+
+    @Test
+    void returnedLoanIsAddedToTheUserHistoryOnce() {
+        books.save(new PhysicalBook("Title", "Author", "loan-svc-once", 2));
+        users.save(new User("loan-svc-once-user", "Carla"));
+
+        service.createLoan("loan-svc-once-1", "loan-svc-once-user", "loan-svc-once", DAY);
+        service.returnLoan("loan-svc-once-1", DAY.plusDays(1));
+
+        assertEquals(List.of("loan-svc-once-1"), users.findById("loan-svc-once-user").orElseThrow().getLoanHistory());
+    }
+
+    private static final class FailingBookRepository implements BookRepository {
+
+        private final BookRepository delegate;
+        private volatile boolean failing;
+
+        private FailingBookRepository(BookRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Book save(Book book) {
+            if (failing) {
+                throw new IllegalStateException("Book store unavailable.");
+            }
+            return delegate.save(book);
+        }
+
+        @Override
+        public Optional<Book> findByIsbn(String isbn) {
+            return delegate.findByIsbn(isbn);
+        }
+
+        @Override
+        public List<Book> findAll() {
+            return delegate.findAll();
+        }
+
+        @Override
+        public boolean deleteByIsbn(String isbn) {
+            return delegate.deleteByIsbn(isbn);
+        }
+
+        @Override
+        public boolean existsByIsbn(String isbn) {
+            return delegate.existsByIsbn(isbn);
+        }
+    }
+
+    private static final class FailingUserRepository implements UserRepository {
+
+        private final UserRepository delegate;
+        private volatile boolean failing;
+
+        private FailingUserRepository(UserRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public User save(User user) {
+            if (failing) {
+                throw new IllegalStateException("User store unavailable.");
+            }
+            return delegate.save(user);
+        }
+
+        @Override
+        public Optional<User> findById(String id) {
+            return delegate.findById(id);
+        }
+
+        @Override
+        public List<User> findAll() {
+            return delegate.findAll();
+        }
+
+        @Override
+        public boolean deleteById(String id) {
+            return delegate.deleteById(id);
+        }
+
+        @Override
+        public boolean existsById(String id) {
+            return delegate.existsById(id);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package br.ufrn.library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.exception.OptimisticLockException;
+import br.ufrn.library.model.Loan;
+import br.ufrn.library.model.PhysicalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryLoanRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+
+class OptimisticRetryTest {
+
+    @Test
+    void retriesUntilTheSaveWins() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = OptimisticRetry.run(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockException("Book", "isbn", 1);
+            }
+            return "saved";
+        });
+
+        assertEquals("saved", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OptimisticLockException.class, () -> OptimisticRetry.run(4, () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockException("Book", "isbn", 1);
+        }));
+        assertEquals(4, attempts.get());
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> OptimisticRetry.run(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("No copies available.");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void staleSaveIsRejected() {
+        BookRepository books = new InMemoryBookRepository();
+        books.save(new PhysicalBook("Title", "Author", "retry-stale", 2));
+        PhysicalBook first = (PhysicalBook) books.findByIsbn("retry-stale").orElseThrow().copy();
+        PhysicalBook second = first.copy();
+
+        first.checkOutCopy("retry-stale-loan-1");
+        books.save(first);
+        second.checkOutCopy("retry-stale-loan-2");
+
+        assertThrows(OptimisticLockException.class, () -> books.save(second));
+        assertEquals(2, books.findByIsbn("retry-stale").orElseThrow().getVersion());
+    }
+
+    @Test
+    void concurrentCheckoutsOfOneTitleTakeDistinctCopies() throws Exception {
+        int borrowers = 8;
+        String isbn = "retry-hot";
+        BookRepository books = new InMemoryBookRepository();
+        UserRepository users = new InMemoryUserRepository();
+        books.save(new PhysicalBook("Title", "Author", isbn, borrowers));
+        for (int i = 0; i < borrowers; i++) {
+            users.save(new User("retry-user-" + i, "Borrower " + i));
+        }
+        LoanService loans = new LoanService(new InMemoryLoanRepository(), books, users);
+
+        ExecutorService executor = Executors.newFixedThreadPool(borrowers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Loan>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < borrowers; i++) {
+                String userId = "retry-user-" + i;
+                String loanId = "retry-loan-" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return loans.createLoan(loanId, userId, isbn);
+                }));
+            }
+            start.countDown();
+            Set<String> barcodes = new HashSet<>();
+            for (Future<Loan> future : futures) {
+                barcodes.add(future.get().getCopyBarcode());
+            }
+            assertEquals(borrowers, barcodes.size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        PhysicalBook stored = (PhysicalBook) books.findByIsbn(isbn).orElseThrow();
+        assertEquals(0, stored.getAvailableCopies());
+        assertEquals(borrowers, stored.getCopies().stream().filter(copy -> copy.getCurrentLoanId() != null).count());
+    }
+}
@@ -0,0 +1,70 @@
+package br.ufrn.library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.feed.ChangeFeed;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+import br.ufrn.library.repository.impl.ObservableUserRepository;
+
+class UserServiceTest {
+
+    private final ChangeFeed feed = new ChangeFeed(1 << 10, Runnable::run, Clock.systemUTC());
+    private final UserRepository repository = new ObservableUserRepository(new InMemoryUserRepository(), feed);
+    private final UserService service = new UserService(repository);
+
+    @Test
+    void searchFindsTheLastNameOfConcurrentUpdates() throws Exception {
+        service.registerUser("usvc-1", "Quirino Almeida");
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String surname = "Xavante" + (char) ('a' + t);
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    service.updateUser("usvc-1", "Quirino " + surname);
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        String stored = service.findUserById("usvc-1").getName();
+        assertEquals(List.of("usvc-1"), ids(service.searchUsersByName(stored, 10)));
+        assertTrue(service.searchUsersByName("Quirino Almeida", 10).isEmpty());
+    }
+
+    @Test
+    void usersWrittenDirectlyToTheRepositoryAreFollowed() {
+        service.followChanges(feed);
+
+        User user = repository.save(new User("usvc-2", "Teodora Brandao"));
+        assertEquals(List.of("usvc-2"), ids(service.searchUsersByName("teodora", 10)));
+
+        User renamed = user.copy();
+        renamed.setName("Teodora Pimentel");
+        repository.save(renamed);
+        assertEquals(List.of("usvc-2"), ids(service.searchUsersByName("pimentel", 10)));
+        assertTrue(service.searchUsersByName("brandao", 10).isEmpty());
+
+        repository.deleteById("usvc-2");
+        assertTrue(service.searchUsersByName("teodora", 10).isEmpty());
+    }
+
+    private static List<String> ids(List<User> users) {
+        List<String> ids = new ArrayList<>();
+        for (User user : users) {
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+}
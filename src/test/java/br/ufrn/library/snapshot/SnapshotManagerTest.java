@@ -0,0 +1,126 @@
+package br.ufrn.library.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.library.model.Book;
+import br.ufrn.library.model.DigitalBook;
+import br.ufrn.library.model.User;
+import br.ufrn.library.repository.BookRepository;
+import br.ufrn.library.repository.UserRepository;
+import br.ufrn.library.repository.impl.InMemoryBookRepository;
+import br.ufrn.library.repository.impl.InMemoryUserRepository;
+
+class SnapshotManagerTest {
+
+    private SnapshotManager manager;
+    private BookRepository books;
+    private UserRepository users;
+
+    @BeforeEach
+    void setUp() {
+        manager = new SnapshotManager();
+        books = manager.wrap(new InMemoryBookRepository());
+        users = manager.wrap(new InMemoryUserRepository());
+    }
+
+    @Test
+    void pinnedSnapshotKeepsTheStateItWasTakenAt() {
+        books.save(new DigitalBook("Before", "Author", "snap-pin"));
+
+        try (Snapshot snapshot = manager.pin()) {
+            Book updated = books.findByIsbn("snap-pin").orElseThrow().copy();
+            updated.updateDetails("After", "Author");
+            books.save(updated);
+            books.save(new DigitalBook("New", "Author", "snap-pin-new"));
+
+            assertEquals("Before", snapshot.books().findByIsbn("snap-pin").orElseThrow().getTitle());
+            assertFalse(snapshot.books().existsByIsbn("snap-pin-new"));
+        }
+
+        try (Snapshot snapshot = manager.pin()) {
+            assertEquals("After", snapshot.books().findByIsbn("snap-pin").orElseThrow().getTitle());
+            assertTrue(snapshot.books().existsByIsbn("snap-pin-new"));
+        }
+    }
+
+    @Test
+    void deletedEntityStaysVisibleToOlderSnapshots() {
+        users.save(new User("snap-deleted", "Ana"));
+
+        try (Snapshot snapshot = manager.pin()) {
+            users.deleteById("snap-deleted");
+
+            assertTrue(snapshot.users().existsById("snap-deleted"));
+        }
+        try (Snapshot snapshot = manager.pin()) {
+            assertFalse(snapshot.users().existsById("snap-deleted"));
+        }
+    }
+
+    @Test
+    void transactionWritesBecomeVisibleTogether() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch checked = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                manager.inTransaction(() -> {
+                    users.save(new User("snap-tx-user", "Bruno"));
+                    books.save(new DigitalBook("Title", "Author", "snap-tx-book"));
+                    written.countDown();
+                    await(checked);
+                    return null;
+                });
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        written.await();
+
+        try (Snapshot snapshot = manager.pin()) {
+            assertFalse(snapshot.users().existsById("snap-tx-user"));
+            assertFalse(snapshot.books().existsByIsbn("snap-tx-book"));
+        } finally {
+            checked.countDown();
+            writer.join();
+        }
+        assertEquals(null, failure.get());
+
+        try (Snapshot snapshot = manager.pin()) {
+            assertTrue(snapshot.users().existsById("snap-tx-user"));
+            assertTrue(snapshot.books().existsByIsbn("snap-tx-book"));
+        }
+    }
+
+    @Test
+    void snapshotIsReadOnlyAndReleasedOnClose() {
+        Snapshot snapshot = manager.pin();
+        assertEquals(1, manager.getPinnedCount());
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.books().save(new DigitalBook("Title", "Author", "snap-read-only")));
+
+        snapshot.close();
+        snapshot.close();
+        assertEquals(0, manager.getPinnedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package br.ufrn.library.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T10:00:00Z");
+
+    @Test
+    void idsWithinOneMillisecondKeepIncreasing() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        long previous = generator.next();
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.next();
+            assertTrue(id > previous);
+            assertEquals(7, TimeOrderedIdGenerator.nodeOf(id));
+            previous = id;
+        }
+        // 4096 IDs fit in a millisecond, so the 10,002nd runs two milliseconds ahead of the clock.
+        assertEquals(NOW.plusMillis(2), TimeOrderedIdGenerator.timestampOf(generator.next()));
+    }
+
+    @Test
+    void idsOfDifferentNodesNeverCollide() {
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        TimeOrderedIdGenerator first = new TimeOrderedIdGenerator(1, clock);
+        TimeOrderedIdGenerator second = new TimeOrderedIdGenerator(2, clock);
+        Set<Long> ids = new HashSet<>();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(ids.add(first.next()));
+            assertTrue(ids.add(second.next()));
+        }
+    }
+
+    @Test
+    void clockStepsBackDoNotReorderIds() {
+        TimeOrderedIdGenerator later = new TimeOrderedIdGenerator(0, Clock.fixed(NOW, ZoneOffset.UTC));
+        long before = later.next();
+
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(0, new Clock() {
+            private boolean first = true;
+
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                Instant instant = first ? NOW : NOW.minusSeconds(5);
+                first = false;
+                return instant;
+            }
+        });
+
+        long a = generator.next();
+        long b = generator.next();
+        assertEquals(before, a);
+        assertTrue(b > a);
+    }
+
+    @Test
+    void encodedIdsSortLikeTheNumbers() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(3, Clock.fixed(NOW, ZoneOffset.UTC));
+        long a = generator.next();
+        long b = generator.next();
+
+        assertEquals(13, TimeOrderedIdGenerator.encode(a).length());
+        assertTrue(TimeOrderedIdGenerator.encode(a).compareTo(TimeOrderedIdGenerator.encode(b)) < 0);
+        assertTrue(TimeOrderedIdGenerator.encode(31).compareTo(TimeOrderedIdGenerator.encode(32)) < 0);
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE + 1));
+    }
+}